@@ -35,14 +35,23 @@ def main():
         # Main class path
         main_class = "io.github.journeycodesayush.javabhailang.BhaiLang"
 
+        # Buffers live in direct memory, which the JVM caps at the heap size by default
+        jvm_options = ["-XX:MaxDirectMemorySize=1t"]
+
+        # Options such as --lazy are passed through to the interpreter
+        options = [arg for arg in sys.argv[1:] if arg.startswith("--")]
+        scripts = [arg for arg in sys.argv[1:] if not arg.startswith("--")]
+
         # Run the program
-        if len(sys.argv) > 1:
-            script = sys.argv[1]
+        if scripts:
+            script = scripts[0]
             print(f"Running BhaiLang script: {script}")
-            subprocess.run(["java", "-cp", str(out_folder), main_class, script])
+            subprocess.run(
+                ["java"] + jvm_options + ["-cp", str(out_folder), main_class] + options + [script]
+            )
         else:
             subprocess.run(
-                ["java", "-cp", str(out_folder), main_class],
+                ["java"] + jvm_options + ["-cp", str(out_folder), main_class] + options,
                 stdin=sys.stdin,
                 stdout=sys.stdout,
                 stderr=sys.stderr,
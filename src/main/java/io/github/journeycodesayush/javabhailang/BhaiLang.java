@@ -1,7 +1,9 @@
 package io.github.journeycodesayush.javabhailang;
 
 import io.github.journeycodesayush.javabhailang.interpreter.*;
+import io.github.journeycodesayush.javabhailang.ir.*;
 import io.github.journeycodesayush.javabhailang.lexer.*;
+import io.github.journeycodesayush.javabhailang.optimizer.*;
 import io.github.journeycodesayush.javabhailang.output.*;
 import io.github.journeycodesayush.javabhailang.parser.*;
 import io.github.journeycodesayush.javabhailang.resolver.*;
@@ -39,6 +41,25 @@ public class BhaiLang {
   /** Indicates if a .bhai file is running or REPL */
   public static boolean isRepl = false;
 
+  /** Indicates if nested blocks are parsed lazily, the first time they run */
+  public static boolean lazyBlocks = false;
+
+  /** Indicates if resolved programs are simplified by the optimizer before they run */
+  public static boolean optimize = true;
+
+  /** The ways a resolved program can be executed. */
+  public enum Engine {
+    /** Walks the syntax tree directly. */
+    AST,
+    /** Lowers the program to an SSA graph and runs it on registers. */
+    IR,
+    /** Like {@link #IR}, with every value encoded in a {@code long}. */
+    NANBOX
+  }
+
+  /** Indicates which engine runs programs */
+  public static Engine engine = Engine.AST;
+
   /** ANSI color code for cyan text in the console. */
   private static final String CYAN = "\u001B[36m";
 
@@ -54,23 +75,74 @@ public class BhaiLang {
   /**
    * The main entry point for the JavaBhaiLang interpreter.
    *
-   * @param args command-line arguments; if provided, args[0] is treated as the path to a BhaiLang
-   *     script (array of String)
+   * @param args command-line arguments; leading arguments starting with "--" are options, and the
+   *     remaining argument, if provided, is treated as the path to a BhaiLang script (array of
+   *     String)
    * @throws IOException if reading a script file fails
    */
   public static void main(String[] args) throws IOException {
-    if (args.length > 1) {
-      System.out.println("Usage: javabhailang [script]");
-      System.exit(64);
-    } else if (args.length == 1) {
+    int first = 0;
+    while (first < args.length && args[first].startsWith("--")) {
+      if (!parseOption(args[first])) {
+        usage();
+      }
+      first++;
+    }
+
+    if (args.length - first > 1) {
+      usage();
+    } else if (args.length - first == 1) {
       isRepl = false;
-      runFile(args[0]);
+      runFile(args[first]);
     } else {
       isRepl = true;
       runPrompt();
     }
   }
 
+  /**
+   * Applies a single command-line option.
+   *
+   * @param option the option as given on the command line (String)
+   * @return true if the option is known, false otherwise
+   */
+  private static boolean parseOption(String option) {
+    switch (option) {
+      case "--lazy" -> lazyBlocks = true;
+      case "--no-optimize" -> optimize = false;
+      case "--engine=ast" -> engine = Engine.AST;
+      case "--engine=ir" -> engine = Engine.IR;
+      case "--engine=nanbox" -> engine = Engine.NANBOX;
+      default -> {
+        return option.startsWith("--memo-size=") && setMemoSize(option.substring(12));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sets the capacity of the interpreter's cache of memoized results.
+   *
+   * @param size the capacity as given on the command line (String)
+   * @return true if the capacity is a number that is not negative, false otherwise
+   */
+  private static boolean setMemoSize(String size) {
+    try {
+      interpreter.memoCache().setCapacity(Integer.parseInt(size));
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /** Prints the command-line usage and exits. */
+  private static void usage() {
+    System.out.println(
+        "Usage: javabhailang [--lazy] [--no-optimize] [--engine=ast|ir|nanbox] [--memo-size=N]"
+            + " [script]");
+    System.exit(64);
+  }
+
   /**
    * Runs a BhaiLang script from a file.
    *
@@ -83,6 +155,7 @@ public class BhaiLang {
     if (hadRuntimeError) System.exit(70);
 
     run(new String(bytes, Charset.defaultCharset()));
+    interpreter.close();
   }
 
   /**
@@ -115,6 +188,7 @@ public class BhaiLang {
       String line = reader.readLine();
       if (line == null || line.equals("exit;") || line.equals("exit")) {
         System.out.println(GREEN + "Bye bye bhai..." + RESET);
+        interpreter.close();
         break;
       }
       run(line);
@@ -128,9 +202,36 @@ public class BhaiLang {
    * @param source the BhaiLang source code to execute (String)
    */
   private static void run(String source) {
+    run(source, interpreter);
+  }
+
+  /**
+   * Executes a string of BhaiLang source code.
+   *
+   * @param source the BhaiLang source code to execute (String)
+   */
+  private static void run(String source, Output output) {
+    Interpreter interpreterWithCustomOutput = new Interpreter(output);
+    run(source, interpreterWithCustomOutput);
+    interpreterWithCustomOutput.close();
+  }
+
+  /**
+   * Executes a string of BhaiLang source code on a given interpreter.
+   *
+   * <p>Hosts embedding BhaiLang use this to run scripts on an interpreter they set up, for example
+   * with Java functions bound through {@link Interpreter#bind}. Globals the script defines stay in
+   * the interpreter for the next script. Errors are reported like those of any other script, and a
+   * syntax error in one script does not stop the next from running.
+   *
+   * @param source the BhaiLang source code to execute (String)
+   * @param interpreter the interpreter to run it on (Interpreter)
+   */
+  public static void run(String source, Interpreter interpreter) {
+    hadError = false;
     Scanner scanner = new Scanner(source);
     List<Token> tokens = scanner.scanTokens();
-    Parser parser = new Parser(tokens);
+    Parser parser = new Parser(tokens, lazyBlocks);
     List<Stmt> statements = parser.parse();
 
     if (hadError) {
@@ -143,41 +244,57 @@ public class BhaiLang {
       return;
     }
 
-    interpreter.interpret(statements);
-    // AstPrinter printer = new AstPrinter();
-    // for (Stmt statement : statements) {
-    // System.out.println(printer.print(statement));
-    // }
-
+    execute(statements, resolver, interpreter);
   }
 
   /**
-   * Executes a string of BhaiLang source code.
+   * Runs resolved statements on the selected engine.
    *
-   * @param source the BhaiLang source code to execute (String)
+   * <p>The IR and nanbox engines lower the program to an SSA graph and optimize that instead of the
+   * syntax tree. Programs they cannot lower, such as those with lazy blocks, functions, calls,
+   * records, lists or maps, run on the AST engine.
+   *
+   * @param statements the resolved statements (List of Stmt)
+   * @param resolver the resolver that resolved the statements (Resolver)
+   * @param interpreter the interpreter that will run the statements (Interpreter)
    */
-  private static void run(String source, Output output) {
-    Scanner scanner = new Scanner(source);
-    List<Token> tokens = scanner.scanTokens();
-    Parser parser = new Parser(tokens);
-    List<Stmt> statements = parser.parse();
-    Interpreter interpreterWithCustomOutput = new Interpreter(output);
-    if (hadError) {
-      return;
+  private static void execute(List<Stmt> statements, Resolver resolver, Interpreter interpreter) {
+    if (engine != Engine.AST) {
+      Graph graph = IrBuilder.build(statements, resolver.getSymbols());
+      if (graph != null) {
+        if (optimize) {
+          new IrOptimizer().optimize(graph);
+        }
+        interpreter.interpret(graph);
+        return;
+      }
     }
-    Resolver resolver = new Resolver(interpreterWithCustomOutput);
-    resolver.resolve(statements);
+    interpreter.interpret(optimize(statements, resolver, interpreter));
+  }
 
-    if (hadError) {
-      return;
+  /**
+   * Runs the optimizer over resolved statements, if enabled, and resolves the result again.
+   *
+   * <p>Afterwards, type inference tells the interpreter which local variables it can store unboxed.
+   *
+   * @param statements the resolved statements (List of Stmt)
+   * @param resolver the resolver that resolved the statements (Resolver)
+   * @param interpreter the interpreter that will run the statements (Interpreter)
+   * @return the statements to run (List of Stmt)
+   */
+  private static List<Stmt> optimize(
+      List<Stmt> statements, Resolver resolver, Interpreter interpreter) {
+    if (!optimize) {
+      return statements;
     }
 
-    interpreterWithCustomOutput.interpret(statements);
-    // AstPrinter printer = new AstPrinter();
-    // for (Stmt statement : statements) {
-    // System.out.println(printer.print(statement));
-    // }
-
+    List<Stmt> optimized = new Optimizer().optimize(statements, resolver.getSymbols());
+    if (optimized != statements) {
+      resolver = new Resolver(interpreter);
+      resolver.resolve(optimized);
+    }
+    new TypeInference(resolver.getSymbols(), interpreter).infer(optimized);
+    return optimized;
   }
 
   /**
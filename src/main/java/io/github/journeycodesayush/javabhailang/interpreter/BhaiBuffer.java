@@ -0,0 +1,334 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * A BhaiLang buffer: a fixed number of doubles or 64-bit integers stored outside the Java heap.
+ *
+ * <p>The elements live in direct {@link ByteBuffer}s in native byte order, so a buffer of any size
+ * adds one small object to the heap instead of a boxed number per element, and the garbage
+ * collector never scans or moves the data. A direct buffer holds at most 2 GiB, so larger buffers
+ * are split into chunks of {@code 2^27} elements; an element is found by shifting and masking its
+ * index. Direct memory is capped by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum
+ * heap size, so the launcher raises it for buffers larger than the heap.
+ *
+ * <p>Buffers are freed deterministically: the interpreter frees every buffer it allocated when the
+ * script ends, and a script can free one earlier. Freeing releases the native memory at once
+ * through the JDK's buffer cleaner when it is reachable, and otherwise leaves it to the garbage
+ * collector. A freed buffer keeps its size but has no elements.
+ *
+ * <p>Buffers are mutable and compared by identity.
+ */
+public final class BhaiBuffer {
+
+  /** The number of bits of an index that select an element within a chunk. */
+  private static final int CHUNK_BITS = 27;
+
+  /** The number of elements in a full chunk. */
+  private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+
+  /** Masks the position of an element within its chunk. */
+  private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+  /** The largest number of elements a buffer's chunks can be counted in an {@code int}. */
+  private static final long MAX_SIZE = (long) Integer.MAX_VALUE << CHUNK_BITS;
+
+  /** Frees a direct buffer's memory right away, or null if the JDK does not allow it. */
+  private static final MethodHandle CLEANER = cleaner();
+
+  /** Whether the elements are 64-bit integers rather than doubles. */
+  private final boolean integral;
+
+  /** Number of elements. */
+  private final long size;
+
+  /** The memory of each chunk, or null once the buffer is freed. */
+  private ByteBuffer[] memory;
+
+  /** Views of the chunks as doubles, if the elements are doubles. */
+  private DoubleBuffer[] doubles;
+
+  /** Views of the chunks as integers, if the elements are integers. */
+  private LongBuffer[] longs;
+
+  /**
+   * Allocates a buffer with every element zero.
+   *
+   * @param size the number of elements
+   * @param integral whether the elements are 64-bit integers rather than doubles
+   * @throws OutOfMemoryError if the native memory cannot be allocated; chunks allocated before the
+   *     failure are freed
+   */
+  BhaiBuffer(long size, boolean integral) {
+    if (size > MAX_SIZE) throw new OutOfMemoryError("Buffer too large: " + size);
+    this.size = size;
+    this.integral = integral;
+    int chunks = (int) ((size + CHUNK_MASK) >>> CHUNK_BITS);
+    memory = new ByteBuffer[chunks];
+    doubles = integral ? null : new DoubleBuffer[chunks];
+    longs = integral ? new LongBuffer[chunks] : null;
+    try {
+      for (int i = 0; i < chunks; i++) {
+        long elements = Math.min(size - ((long) i << CHUNK_BITS), CHUNK_SIZE);
+        memory[i] = ByteBuffer.allocateDirect((int) (elements * Double.BYTES));
+        memory[i].order(ByteOrder.nativeOrder());
+        if (integral) {
+          longs[i] = memory[i].asLongBuffer();
+        } else {
+          doubles[i] = memory[i].asDoubleBuffer();
+        }
+      }
+    } catch (OutOfMemoryError error) {
+      free();
+      throw error;
+    }
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the size of the buffer
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Returns whether the elements are 64-bit integers.
+   *
+   * @return true for an integer buffer, false for a double buffer
+   */
+  public boolean isIntegral() {
+    return integral;
+  }
+
+  /**
+   * Returns whether the buffer has been freed.
+   *
+   * @return true once {@link #free()} has run
+   */
+  public boolean isFreed() {
+    return memory == null;
+  }
+
+  /**
+   * Returns an element, boxed as a {@link Long} or {@link Double}.
+   *
+   * @param index the index, already checked to be below the size
+   * @return the element
+   */
+  Object get(long index) {
+    return integral ? (Object) getLong(index) : (Object) getDouble(index);
+  }
+
+  /**
+   * Returns an element of a double buffer.
+   *
+   * @param index the index, already checked to be below the size
+   * @return the element
+   */
+  double getDouble(long index) {
+    return doubles[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+  }
+
+  /**
+   * Returns an element of an integer buffer.
+   *
+   * @param index the index, already checked to be below the size
+   * @return the element
+   */
+  long getLong(long index) {
+    return longs[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+  }
+
+  /**
+   * Replaces an element of a double buffer.
+   *
+   * @param index the index, already checked to be below the size
+   * @param value the new element
+   */
+  void setDouble(long index, double value) {
+    doubles[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), value);
+  }
+
+  /**
+   * Replaces an element of an integer buffer.
+   *
+   * @param index the index, already checked to be below the size
+   * @param value the new element
+   */
+  void setLong(long index, long value) {
+    longs[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), value);
+  }
+
+  /**
+   * Converts a value for storing in a double buffer.
+   *
+   * @param token the token to report errors at
+   * @param value the value
+   * @return the value as a double
+   * @throws RuntimeError if the value is not a number
+   * @throws NallaPointerException if the value is {@code nalla}
+   */
+  static double toDouble(Token token, Object value) {
+    if (value instanceof Double number) return number;
+    if (value instanceof Long integer) return integer;
+    if (value == null) throw new NallaPointerException(token, "Bhai! Nalla value caught!!!");
+    throw new RuntimeError(token, "Buffers only hold numbers.");
+  }
+
+  /**
+   * Converts a value for storing in an integer buffer.
+   *
+   * @param token the token to report errors at
+   * @param value the value
+   * @return the value as a {@code long}
+   * @throws RuntimeError if the value is not a whole number in the range of a {@code long}
+   * @throws NallaPointerException if the value is {@code nalla}
+   */
+  static long toLong(Token token, Object value) {
+    if (value instanceof Long integer) return integer;
+    if (value instanceof Double number) return toLong(token, (double) number);
+    if (value == null) throw new NallaPointerException(token, "Bhai! Nalla value caught!!!");
+    throw new RuntimeError(token, "Buffers only hold numbers.");
+  }
+
+  /**
+   * Converts a number for storing in an integer buffer.
+   *
+   * @param token the token to report errors at
+   * @param value the number
+   * @return the number as a {@code long}
+   * @throws RuntimeError if the number is not whole or out of the range of a {@code long}
+   */
+  static long toLong(Token token, double value) {
+    if (value != Math.rint(value) || value < -0x1p63 || value >= 0x1p63) {
+      throw new RuntimeError(token, "Long buffers only hold whole numbers.");
+    }
+    return (long) value;
+  }
+
+  /**
+   * Sets every element of a double buffer.
+   *
+   * @param value the new value of the elements
+   */
+  void fill(double value) {
+    double[] block = new double[(int) Math.min(size, 4096)];
+    Arrays.fill(block, value);
+    for (DoubleBuffer chunk : doubles) {
+      for (int at = 0; at < chunk.capacity(); at += block.length) {
+        chunk.put(at, block, 0, Math.min(block.length, chunk.capacity() - at));
+      }
+    }
+  }
+
+  /**
+   * Sets every element of an integer buffer.
+   *
+   * @param value the new value of the elements
+   */
+  void fill(long value) {
+    long[] block = new long[(int) Math.min(size, 4096)];
+    Arrays.fill(block, value);
+    for (LongBuffer chunk : longs) {
+      for (int at = 0; at < chunk.capacity(); at += block.length) {
+        chunk.put(at, block, 0, Math.min(block.length, chunk.capacity() - at));
+      }
+    }
+  }
+
+  /**
+   * Copies a range of elements between two buffers of the same kind, like {@link System#arraycopy}:
+   * the ranges may overlap within one buffer.
+   *
+   * @param source the buffer to copy from
+   * @param from the index of the first element to copy
+   * @param target the buffer to copy to, holding the same kind of element
+   * @param to the index the first element is copied to
+   * @param count the number of elements, already checked to fit in both buffers
+   */
+  static void copy(BhaiBuffer source, long from, BhaiBuffer target, long to, long count) {
+    // Copy in runs that stay within one chunk of each buffer, last run first if a forward copy
+    // would overwrite elements before reading them.
+    boolean backwards = source == target && from < to && to < from + count;
+    long done = 0;
+    while (done < count) {
+      long left = count - done;
+      long run;
+      long sourceAt;
+      long targetAt;
+      if (backwards) {
+        long sourceEnd = from + left;
+        long targetEnd = to + left;
+        run =
+            Math.min(
+                left, Math.min((sourceEnd - 1) & CHUNK_MASK, (targetEnd - 1) & CHUNK_MASK) + 1);
+        sourceAt = sourceEnd - run;
+        targetAt = targetEnd - run;
+      } else {
+        sourceAt = from + done;
+        targetAt = to + done;
+        run = Math.min(left, CHUNK_SIZE - Math.max(sourceAt & CHUNK_MASK, targetAt & CHUNK_MASK));
+      }
+      target.memory[(int) (targetAt >>> CHUNK_BITS)].put(
+          (int) (targetAt & CHUNK_MASK) * Double.BYTES,
+          source.memory[(int) (sourceAt >>> CHUNK_BITS)],
+          (int) (sourceAt & CHUNK_MASK) * Double.BYTES,
+          (int) run * Double.BYTES);
+      done += run;
+    }
+  }
+
+  /** Releases the native memory. Freeing a buffer again does nothing. */
+  void free() {
+    if (memory == null) return;
+    ByteBuffer[] chunks = memory;
+    memory = null;
+    doubles = null;
+    longs = null;
+    if (CLEANER == null) return;
+    for (ByteBuffer chunk : chunks) {
+      if (chunk == null) continue;
+      try {
+        CLEANER.invokeExact(chunk);
+      } catch (Throwable e) {
+        // The garbage collector frees the chunk instead.
+      }
+    }
+  }
+
+  /**
+   * Looks up {@code sun.misc.Unsafe.invokeCleaner}, which frees a direct buffer immediately.
+   *
+   * @return the handle bound to the {@code Unsafe} instance, or null if it is unavailable
+   */
+  private static MethodHandle cleaner() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      return MethodHandles.lookup()
+          .findVirtual(
+              unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+          .bindTo(field.get(null));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    if (memory == null) return "<freed buffer>";
+    return "<" + (integral ? "long" : "double") + " buffer of size " + size + ">";
+  }
+}
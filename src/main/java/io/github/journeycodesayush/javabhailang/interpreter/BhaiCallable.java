@@ -0,0 +1,29 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+
+/**
+ * A BhaiLang value that can be called with {@code f(a, b)}.
+ *
+ * <p>The interpreter evaluates the arguments from left to right and checks their number against
+ * {@link #arity()} before calling.
+ */
+public interface BhaiCallable {
+
+  /**
+   * Returns the number of arguments the callable takes.
+   *
+   * @return the arity
+   */
+  int arity();
+
+  /**
+   * Calls the callable.
+   *
+   * @param interpreter the interpreter running the call
+   * @param paren the closing parenthesis of the call, for error reporting
+   * @param arguments the evaluated arguments, exactly {@link #arity()} of them
+   * @return the result, or null for {@code nalla}
+   */
+  Object call(Interpreter interpreter, Token paren, Object[] arguments);
+}
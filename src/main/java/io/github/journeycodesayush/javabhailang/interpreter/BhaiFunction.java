@@ -0,0 +1,67 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+
+/**
+ * A function declared in a script with {@code kaam bhai}.
+ *
+ * <p>A function keeps the environment it was declared in, so its body can use the variables around
+ * the declaration for as long as the function lives. Every call runs the body in a new frame that
+ * holds the parameters and the body's own variables by slot, sized when the function was declared.
+ */
+public final class BhaiFunction implements BhaiCallable {
+
+  /** The declaration. */
+  final Stmt.Function declaration;
+
+  /** The environment the function was declared in. */
+  final Environment closure;
+
+  /** The number of slots of a call's frame. */
+  private final int slots;
+
+  /** The number of numeric variable slots of a call's frame. */
+  private final int numbers;
+
+  /**
+   * Constructs a function.
+   *
+   * @param declaration the declaration
+   * @param closure the environment the function was declared in
+   * @param slots the number of slots of a call's frame, at least one per parameter
+   * @param numbers the number of numeric variable slots of a call's frame
+   */
+  BhaiFunction(Stmt.Function declaration, Environment closure, int slots, int numbers) {
+    this.declaration = declaration;
+    this.closure = closure;
+    this.slots = slots;
+    this.numbers = numbers;
+  }
+
+  /**
+   * Creates the frame for a call, with the arguments still to be stored in its first slots.
+   *
+   * @return a new frame enclosed in the closure
+   */
+  Environment frame() {
+    return new Environment(closure, numbers, slots);
+  }
+
+  @Override
+  public int arity() {
+    return declaration.params.size();
+  }
+
+  @Override
+  public Object call(Interpreter interpreter, Token paren, Object[] arguments) {
+    Environment frame = frame();
+    System.arraycopy(arguments, 0, frame.slots, 0, arguments.length);
+    return interpreter.invoke(this, frame, paren);
+  }
+
+  @Override
+  public String toString() {
+    return "<kaam " + declaration.name.getLexeme() + ">";
+  }
+}
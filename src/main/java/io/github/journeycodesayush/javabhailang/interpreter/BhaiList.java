@@ -0,0 +1,195 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import java.util.Arrays;
+
+/**
+ * A BhaiLang list: a growable sequence of values indexed from 0.
+ *
+ * <p>A list that only ever held integers keeps them in a {@code long[]}, and one that only ever
+ * held doubles keeps them in a {@code double[]}, so building, reading and updating numeric lists
+ * stores nothing boxed. Elements are read back as the {@link Long} or {@link Double} they were
+ * stored as, so arithmetic on them stays exact. Storing anything else, or mixing integers and
+ * doubles, moves the elements to an {@code Object[]} for good; an empty list takes whichever
+ * numeric storage its first element needs.
+ *
+ * <p>Lists are mutable and compared by identity: a list only equals itself.
+ */
+public final class BhaiList {
+
+  /** The elements while the list only holds doubles, otherwise null. */
+  private double[] numbers;
+
+  /** The elements while the list only holds integers, otherwise null. */
+  private long[] integers;
+
+  /** The elements once the list holds something other than one kind of number, otherwise null. */
+  private Object[] values;
+
+  /** Number of elements. */
+  private int size;
+
+  /** Whether the list is being printed, so a list containing itself prints once. */
+  private boolean printing;
+
+  /**
+   * Constructs an empty numeric list.
+   *
+   * @param capacity the number of elements to make room for
+   */
+  BhaiList(int capacity) {
+    numbers = new double[Math.max(capacity, 4)];
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the size of the list
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns whether the elements are stored unboxed in a {@code double[]}.
+   *
+   * @return true while the list has only ever held doubles
+   */
+  public boolean isNumeric() {
+    return numbers != null;
+  }
+
+  /**
+   * Returns whether the elements are stored unboxed in a {@code long[]}.
+   *
+   * @return true while the list has only ever held integers
+   */
+  public boolean isIntegral() {
+    return integers != null;
+  }
+
+  /**
+   * Returns an element.
+   *
+   * @param index the index, already checked to be below the size
+   * @return the element
+   */
+  Object get(int index) {
+    if (numbers != null) return numbers[index];
+    if (integers != null) return integers[index];
+    return values[index];
+  }
+
+  /**
+   * Returns an element of a numeric list without boxing it.
+   *
+   * @param index the index, already checked to be below the size
+   * @return the element
+   */
+  double getNumber(int index) {
+    return numbers[index];
+  }
+
+  /**
+   * Replaces an element, or appends one when the index is the size.
+   *
+   * @param index the index, already checked to be at most the size
+   * @param value the new element
+   */
+  void set(int index, Object value) {
+    if (value instanceof Double number && (numbers != null || size == 0 && values == null)) {
+      setNumber(index, number);
+      return;
+    }
+    if (value instanceof Long integer && (integers != null || size == 0 && values == null)) {
+      if (integers == null) {
+        integers = new long[numbers.length];
+        numbers = null;
+      }
+      if (index == size) {
+        if (size == integers.length) integers = Arrays.copyOf(integers, 2 * size);
+        size++;
+      }
+      integers[index] = integer;
+      return;
+    }
+    if (values == null) upgrade();
+    if (index == size) {
+      if (size == values.length) values = Arrays.copyOf(values, 2 * size);
+      size++;
+    }
+    values[index] = value;
+  }
+
+  /**
+   * Replaces an element with a double, or appends one when the index is the size.
+   *
+   * @param index the index, already checked to be at most the size
+   * @param value the new element
+   */
+  void setNumber(int index, double value) {
+    if (numbers == null) {
+      if (size > 0 || values != null) {
+        set(index, value);
+        return;
+      }
+      numbers = new double[integers.length];
+      integers = null;
+    }
+    if (index == size) {
+      if (size == numbers.length) numbers = Arrays.copyOf(numbers, 2 * size);
+      size++;
+    }
+    numbers[index] = value;
+  }
+
+  /**
+   * Appends an element.
+   *
+   * @param value the element
+   */
+  void add(Object value) {
+    set(size, value);
+  }
+
+  /** Moves the elements to an {@code Object[]}, boxing the numbers once. */
+  private void upgrade() {
+    values = new Object[numbers != null ? numbers.length : integers.length];
+    for (int i = 0; i < size; i++) {
+      values[i] = get(i);
+    }
+    numbers = null;
+    integers = null;
+  }
+
+  /**
+   * Appends the printed form of the list, such as {@code [1, sahi, nalla]}, to a builder.
+   *
+   * @param builder the builder
+   * @return the builder
+   */
+  StringBuilder appendTo(StringBuilder builder) {
+    if (printing) return builder.append("[...]");
+    printing = true;
+    try {
+      builder.append('[');
+      for (int i = 0; i < size; i++) {
+        if (i > 0) builder.append(", ");
+        if (numbers != null) {
+          Values.appendNumber(builder, numbers[i]);
+        } else if (integers != null) {
+          Values.appendInteger(builder, integers[i]);
+        } else {
+          Values.appendTo(builder, values[i]);
+        }
+      }
+      return builder.append(']');
+    } finally {
+      printing = false;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return appendTo(new StringBuilder()).toString();
+  }
+}
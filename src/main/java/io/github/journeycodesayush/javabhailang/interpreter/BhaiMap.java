@@ -0,0 +1,248 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import java.util.Arrays;
+
+/**
+ * A BhaiLang map: a table from keys to values that remembers insertion order.
+ *
+ * <p>Entries live in parallel arrays of keys, values and key hashes, in the order they were added.
+ * A separate open-addressing table, probed linearly and kept at most half full, holds the position
+ * of each entry, so a lookup touches a few {@code int}s and one key instead of walking boxed entry
+ * objects. Strings and integral numbers, the usual keys, are looked up on paths of their own that
+ * compare without converting the key: a string against the stored {@link String}, a number against
+ * the stored {@link Long}.
+ *
+ * <p>Keys are stored as {@link Values#key} returns them, so two keys are the same exactly when
+ * {@link Values#isEqual} holds for them; {@code 1} and {@code 1.0} are one key. Maps are mutable
+ * and compared by identity.
+ */
+public final class BhaiMap {
+
+  /** The position of each entry plus one, by hash; 0 marks an empty slot. */
+  private int[] table;
+
+  /** The hash of each entry's key. */
+  private int[] hashes;
+
+  /** The keys, in insertion order. */
+  private Object[] keys;
+
+  /** The values, parallel to the keys. */
+  private Object[] values;
+
+  /** Number of entries. */
+  private int size;
+
+  /** Whether the map is being printed, so a map containing itself prints once. */
+  private boolean printing;
+
+  /**
+   * Constructs an empty map.
+   *
+   * @param expected the number of entries to make room for
+   */
+  BhaiMap(int expected) {
+    int capacity = Math.max(expected, 4);
+    hashes = new int[capacity];
+    keys = new Object[capacity];
+    values = new Object[capacity];
+    table = new int[Integer.highestOneBit(2 * capacity - 1) << 1];
+  }
+
+  /**
+   * Returns the number of entries.
+   *
+   * @return the size of the map
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Finds the entry of a key.
+   *
+   * @param key the key, not {@code nalla}
+   * @return the entry's position, or -1 if the key is missing
+   */
+  int find(Object key) {
+    if (key instanceof String string) return findString(string);
+    if (key instanceof Long integer) return findInteger(integer);
+    if (key instanceof Double number) return find(number.doubleValue());
+    if (key instanceof CharSequence text) return findString(text.toString());
+    return findOther(key);
+  }
+
+  /**
+   * Finds the entry of a number key without boxing it.
+   *
+   * @param key the key
+   * @return the entry's position, or -1 if the key is missing
+   */
+  int find(double key) {
+    long integer = (long) key;
+    if (Values.isIntegral(key, integer)) return findInteger(integer);
+    return findOther(key);
+  }
+
+  /**
+   * Returns the value of an entry.
+   *
+   * @param entry the entry's position
+   * @return the value
+   */
+  Object valueAt(int entry) {
+    return values[entry];
+  }
+
+  /**
+   * Replaces the value of an entry.
+   *
+   * @param entry the entry's position
+   * @param value the new value
+   */
+  void setValueAt(int entry, Object value) {
+    values[entry] = value;
+  }
+
+  /**
+   * Sets the value of a key, adding the key after the existing ones if it is missing.
+   *
+   * @param key the key, not {@code nalla}
+   * @param value the value
+   */
+  void put(Object key, Object value) {
+    int entry = find(key);
+    if (entry >= 0) {
+      values[entry] = value;
+      return;
+    }
+    Object stored = Values.key(key);
+    int hash = spread(stored.hashCode());
+
+    if (size == keys.length) grow();
+    hashes[size] = hash;
+    keys[size] = stored;
+    values[size] = value;
+    place(size++);
+  }
+
+  /**
+   * Looks up a string key.
+   *
+   * @param key the key
+   * @return the entry's position, or -1 if the key is missing
+   */
+  private int findString(String key) {
+    int hash = spread(key.hashCode());
+    int mask = table.length - 1;
+    for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = table[slot] - 1;
+      if (hashes[entry] == hash
+          && (keys[entry] == key || keys[entry] instanceof String other && other.equals(key))) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Looks up an integral number key.
+   *
+   * @param key the key
+   * @return the entry's position, or -1 if the key is missing
+   */
+  private int findInteger(long key) {
+    int hash = spread(Long.hashCode(key));
+    int mask = table.length - 1;
+    for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = table[slot] - 1;
+      if (hashes[entry] == hash && keys[entry] instanceof Long other && other == key) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Looks up any other key: a fractional number, a boolean, a list or a map.
+   *
+   * @param key the key
+   * @return the entry's position, or -1 if the key is missing
+   */
+  private int findOther(Object key) {
+    int hash = spread(key.hashCode());
+    int mask = table.length - 1;
+    for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = table[slot] - 1;
+      if (hashes[entry] == hash && key.equals(keys[entry])) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Records an entry's position in the first free slot for its hash.
+   *
+   * @param entry the entry's position
+   */
+  private void place(int entry) {
+    int mask = table.length - 1;
+    int slot = hashes[entry] & mask;
+    while (table[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    table[slot] = entry + 1;
+  }
+
+  /** Doubles the room for entries, and rebuilds the table to stay at most half full. */
+  private void grow() {
+    int capacity = 2 * keys.length;
+    hashes = Arrays.copyOf(hashes, capacity);
+    keys = Arrays.copyOf(keys, capacity);
+    values = Arrays.copyOf(values, capacity);
+    table = new int[2 * table.length];
+    for (int entry = 0; entry < size; entry++) {
+      place(entry);
+    }
+  }
+
+  /**
+   * Mixes the bits of a hash code so keys with similar hash codes, such as consecutive integers,
+   * spread over the table.
+   *
+   * @param hash the hash code
+   * @return the mixed hash
+   */
+  private static int spread(int hash) {
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Appends the printed form of the map, such as {@code {a: 1, 2: sahi}}, to a builder.
+   *
+   * @param builder the builder
+   * @return the builder
+   */
+  StringBuilder appendTo(StringBuilder builder) {
+    if (printing) return builder.append("{...}");
+    printing = true;
+    try {
+      builder.append('{');
+      for (int i = 0; i < size; i++) {
+        if (i > 0) builder.append(", ");
+        Values.appendTo(builder, keys[i]).append(": ");
+        Values.appendTo(builder, values[i]);
+      }
+      return builder.append('}');
+    } finally {
+      printing = false;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return appendTo(new StringBuilder()).toString();
+  }
+}
@@ -0,0 +1,81 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+/**
+ * A BhaiLang record: a fixed set of named fields, such as {@code (x: 1, y: 2)}.
+ *
+ * <p>A record holds its field values in an array laid out by its {@link Shape}, which it shares
+ * with every record created with the same fields in the same order. Fields can be read and assigned
+ * but not added or removed, so a record keeps its shape for life.
+ *
+ * <p>Records are mutable and compared by identity.
+ */
+public final class BhaiRecord {
+
+  /** The layout of the fields. */
+  final Shape shape;
+
+  /** The field values, by slot. */
+  final Object[] values;
+
+  /** Whether the record is being printed, so a record containing itself prints once. */
+  private boolean printing;
+
+  /**
+   * Constructs a record.
+   *
+   * @param shape the layout of the fields
+   * @param values the field values, by slot
+   */
+  BhaiRecord(Shape shape, Object[] values) {
+    this.shape = shape;
+    this.values = values;
+  }
+
+  /**
+   * Returns the value of a field, looking its name up.
+   *
+   * @param name the field name
+   * @return the value, or null if the record has no such field
+   */
+  public Object get(String name) {
+    int slot = shape.slot(name);
+    return slot < 0 ? null : values[slot];
+  }
+
+  /**
+   * Returns whether another record has the same hidden shape.
+   *
+   * @param other the other record
+   * @return true if both records lay out their fields the same way
+   */
+  public boolean hasSameShape(BhaiRecord other) {
+    return shape == other.shape;
+  }
+
+  /**
+   * Appends the printed form of the record, such as {@code (x: 1, y: sahi)}, to a builder.
+   *
+   * @param builder the builder
+   * @return the builder
+   */
+  StringBuilder appendTo(StringBuilder builder) {
+    if (printing) return builder.append("(...)");
+    printing = true;
+    try {
+      builder.append('(');
+      for (int slot = 0; slot < values.length; slot++) {
+        if (slot > 0) builder.append(", ");
+        builder.append(shape.name(slot)).append(": ");
+        Values.appendTo(builder, values[slot]);
+      }
+      return builder.append(')');
+    } finally {
+      printing = false;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return appendTo(new StringBuilder()).toString();
+  }
+}
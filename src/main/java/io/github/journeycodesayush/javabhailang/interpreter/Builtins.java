@@ -0,0 +1,232 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+
+/**
+ * The builtin functions every interpreter starts with, defined as globals.
+ *
+ * <p>The math, string and clock functions of the {@link Library} are defined along with them.
+ *
+ * <p>Builtins check their own arguments and report bad ones as runtime errors at the call's closing
+ * parenthesis. A script may define a global with the same name, which replaces the builtin.
+ */
+final class Builtins {
+
+  private Builtins() {}
+
+  /** The shape of the records {@code memoStats()} returns. */
+  private static final Shape MEMO_STATS =
+      Shape.EMPTY.with("hits").with("misses").with("size").with("capacity");
+
+  /**
+   * Defines the builtins in a global environment.
+   *
+   * @param globals the environment
+   */
+  static void define(GlobalEnvironment globals) {
+    define(globals, "len", 1, Builtins::len);
+    define(
+        globals,
+        "doubleBuffer",
+        1,
+        (interpreter, paren, arguments) -> allocate(interpreter, paren, arguments[0], false));
+    define(
+        globals,
+        "longBuffer",
+        1,
+        (interpreter, paren, arguments) -> allocate(interpreter, paren, arguments[0], true));
+    define(globals, "fill", 2, Builtins::fill);
+    define(globals, "copy", 5, Builtins::copy);
+    define(globals, "free", 1, Builtins::free);
+    define(globals, "memo", 1, Builtins::memo);
+    define(globals, "memoStats", 0, Builtins::memoStats);
+    Library.define(globals);
+  }
+
+  /**
+   * Defines one builtin.
+   *
+   * @param globals the environment to define it in
+   * @param name the name of the builtin
+   * @param arity the number of arguments it takes
+   * @param body its implementation
+   */
+  private static void define(
+      GlobalEnvironment globals, String name, int arity, NativeFunction.Body body) {
+    globals.define(name, new NativeFunction(name, arity, body));
+  }
+
+  /**
+   * {@code len(x)}: the number of characters of a string, or of elements of a list, map or buffer.
+   *
+   * @param interpreter the interpreter running the call
+   * @param paren the closing parenthesis of the call
+   * @param arguments the value to measure
+   * @return the length, an integer
+   */
+  private static Object len(Interpreter interpreter, Token paren, Object[] arguments) {
+    Object value = arguments[0];
+    if (value instanceof CharSequence text) return (long) text.length();
+    if (value instanceof BhaiList list) return (long) list.size();
+    if (value instanceof BhaiMap map) return (long) map.size();
+    if (value instanceof BhaiBuffer buffer) return buffer.size();
+    if (value == null) throw new NallaPointerException(paren, "Bhai! Nalla value caught!!!");
+    throw new RuntimeError(paren, "Only strings, lists, maps and buffers have a length.");
+  }
+
+  /**
+   * {@code doubleBuffer(n)} and {@code longBuffer(n)}: a new buffer of {@code n} zeros.
+   *
+   * @param interpreter the interpreter running the call, which frees the buffer when the script
+   *     ends
+   * @param paren the closing parenthesis of the call
+   * @param size the requested number of elements
+   * @param integral whether the elements are integers
+   * @return the buffer
+   */
+  private static Object allocate(
+      Interpreter interpreter, Token paren, Object size, boolean integral) {
+    long elements = count(paren, size, "Buffer size");
+    try {
+      return interpreter.track(new BhaiBuffer(elements, integral));
+    } catch (OutOfMemoryError error) {
+      throw new RuntimeError(
+          paren,
+          "Not enough memory for a buffer of "
+              + elements
+              + " elements. Buffers are limited by the JVM's -XX:MaxDirectMemorySize.");
+    }
+  }
+
+  /**
+   * {@code fill(buffer, value)}: sets every element of a buffer.
+   *
+   * @param interpreter the interpreter running the call
+   * @param paren the closing parenthesis of the call
+   * @param arguments the buffer and the value
+   * @return {@code nalla}
+   */
+  private static Object fill(Interpreter interpreter, Token paren, Object[] arguments) {
+    BhaiBuffer buffer = buffer(paren, arguments[0]);
+    if (buffer.isIntegral()) {
+      buffer.fill(BhaiBuffer.toLong(paren, arguments[1]));
+    } else {
+      buffer.fill(BhaiBuffer.toDouble(paren, arguments[1]));
+    }
+    return null;
+  }
+
+  /**
+   * {@code copy(source, from, target, to, count)}: copies {@code count} elements of one buffer,
+   * starting at index {@code from}, to another starting at index {@code to}. Both buffers must hold
+   * the same kind of element, and the ranges may overlap.
+   *
+   * @param interpreter the interpreter running the call
+   * @param paren the closing parenthesis of the call
+   * @param arguments the source, source index, target, target index and number of elements
+   * @return {@code nalla}
+   */
+  private static Object copy(Interpreter interpreter, Token paren, Object[] arguments) {
+    BhaiBuffer source = buffer(paren, arguments[0]);
+    long from = count(paren, arguments[1], "Copy index");
+    BhaiBuffer target = buffer(paren, arguments[2]);
+    long to = count(paren, arguments[3], "Copy index");
+    long count = count(paren, arguments[4], "Copy count");
+    if (source.isIntegral() != target.isIntegral()) {
+      throw new RuntimeError(paren, "Can only copy between buffers of the same kind.");
+    }
+    if (count > source.size() - from || count > target.size() - to) {
+      throw new RuntimeError(paren, "Copy range does not fit in the buffers.");
+    }
+    BhaiBuffer.copy(source, from, target, to, count);
+    return null;
+  }
+
+  /**
+   * {@code free(buffer)}: releases a buffer's memory before the script ends. Freeing a buffer twice
+   * does nothing.
+   *
+   * @param interpreter the interpreter running the call
+   * @param paren the closing parenthesis of the call
+   * @param arguments the buffer
+   * @return {@code nalla}
+   */
+  private static Object free(Interpreter interpreter, Token paren, Object[] arguments) {
+    if (!(arguments[0] instanceof BhaiBuffer buffer)) {
+      throw new RuntimeError(paren, "Expected a buffer.");
+    }
+    interpreter.free(buffer);
+    return null;
+  }
+
+  /**
+   * {@code memo(f)}: a function that returns what {@code f} returns, calling {@code f} only for
+   * arguments it has not been called with, or whose result has been evicted since.
+   *
+   * @param interpreter the interpreter running the call, whose cache keeps the results
+   * @param paren the closing parenthesis of the call
+   * @param arguments the function to memoize
+   * @return the memoized function
+   */
+  private static Object memo(Interpreter interpreter, Token paren, Object[] arguments) {
+    if (arguments[0] instanceof BhaiCallable function) {
+      return new MemoFunction(function, interpreter.memoCache());
+    }
+    if (arguments[0] == null) {
+      throw new NallaPointerException(paren, "Bhai! Nalla value caught!!!");
+    }
+    throw new RuntimeError(paren, "Only functions can be memoized.");
+  }
+
+  /**
+   * {@code memoStats()}: how well the memoized functions' cache works, as a record such as {@code
+   * (hits: 28, misses: 31, size: 31, capacity: 10000)}.
+   *
+   * @param interpreter the interpreter running the call
+   * @param paren the closing parenthesis of the call
+   * @param arguments no arguments
+   * @return a new record of the counts
+   */
+  private static Object memoStats(Interpreter interpreter, Token paren, Object[] arguments) {
+    MemoCache cache = interpreter.memoCache();
+    return new BhaiRecord(
+        MEMO_STATS,
+        new Object[] {cache.hits(), cache.misses(), (long) cache.size(), (long) cache.capacity()});
+  }
+
+  /**
+   * Checks that an argument is a buffer that has not been freed.
+   *
+   * @param paren the closing parenthesis of the call, for error reporting
+   * @param value the argument
+   * @return the buffer
+   */
+  private static BhaiBuffer buffer(Token paren, Object value) {
+    if (value instanceof BhaiBuffer buffer) {
+      if (buffer.isFreed()) throw new RuntimeError(paren, "This buffer has been freed.");
+      return buffer;
+    }
+    if (value == null) throw new NallaPointerException(paren, "Bhai! Nalla value caught!!!");
+    throw new RuntimeError(paren, "Expected a buffer.");
+  }
+
+  /**
+   * Checks that an argument is a whole number that is not negative.
+   *
+   * @param paren the closing parenthesis of the call, for error reporting
+   * @param value the argument
+   * @param what what the argument is, to start the error message with
+   * @return the number
+   */
+  private static long count(Token paren, Object value, String what) {
+    if (value instanceof Long integer && integer >= 0) return integer;
+    if (value instanceof Double number
+        && number >= 0
+        && number < 0x1p63
+        && number == Math.rint(number)) {
+      return (long) (double) number;
+    }
+    if (value == null) throw new NallaPointerException(paren, "Bhai! Nalla value caught!!!");
+    throw new RuntimeError(paren, what + " must be a whole number that is not negative.");
+  }
+}
@@ -1,6 +1,7 @@
 package io.github.journeycodesayush.javabhailang.interpreter;
 
 import io.github.journeycodesayush.javabhailang.lexer.Token;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -9,6 +10,14 @@ import java.util.Map;
  *
  * <p>Each environment stores a mapping of variable names to their values. It may optionally
  * reference an enclosing environment to support nested scopes.
+ *
+ * <p>The frame of a function call stores its variables by slot instead, in an array sized by the
+ * resolver, and has no name mapping at all.
+ *
+ * <p>Variables proven to only hold numbers live unboxed in a number frame of {@code long}s: a
+ * double variable keeps the bits of its {@code double}, an integer variable its value. An integer
+ * variable whose arithmetic overflows into a double spills it into a boxed slot, which its next
+ * integer assignment clears.
  */
 public class Environment {
 
@@ -16,11 +25,26 @@ public class Environment {
   final Environment enclosing;
 
   /** The mapping of variable names to their values in this environment. */
-  private final Map<String, Object> values = new HashMap<>();
+  private final Map<String, Object> values;
+
+  /** Values of the variables of a function's frame, by slot. */
+  final Object[] slots;
+
+  /** Unboxed values of the variables proven to only hold numbers, by slot. */
+  private final long[] numbers;
+
+  /** Doubles integer variables overflowed into, by slot, or null if none ever did. */
+  private Double[] spilled;
+
+  /** Shared number frame for environments without numeric variables. */
+  private static final long[] NO_NUMBERS = new long[0];
+
+  /** Shared slot array for environments that store their variables by name. */
+  private static final Object[] NO_SLOTS = new Object[0];
 
   /** Creates a new global environment with no enclosing environment. */
   Environment() {
-    enclosing = null;
+    this(null, 0);
   }
 
   /**
@@ -29,7 +53,43 @@ public class Environment {
    * @param enclosing the outer environment to which this environment is nested
    */
   Environment(Environment enclosing) {
+    this(enclosing, 0);
+  }
+
+  /**
+   * Creates a new environment with room for unboxed numeric variables.
+   *
+   * @param enclosing the outer environment to which this environment is nested
+   * @param numbers the number of numeric variable slots
+   */
+  Environment(Environment enclosing, int numbers) {
     this.enclosing = enclosing;
+    this.values = new HashMap<>();
+    this.slots = NO_SLOTS;
+    this.numbers = numbers == 0 ? NO_NUMBERS : new long[numbers];
+  }
+
+  /**
+   * Creates the frame of a function call.
+   *
+   * @param closure the environment the function was declared in
+   * @param numbers the number of numeric variable slots
+   * @param slots the number of slots for the parameters and the variables declared in the body
+   */
+  Environment(Environment closure, int numbers, int slots) {
+    this.enclosing = closure;
+    this.values = Collections.emptyMap();
+    this.slots = new Object[slots];
+    this.numbers = numbers == 0 ? NO_NUMBERS : new long[numbers];
+  }
+
+  /**
+   * Returns whether this environment is the frame of a function call.
+   *
+   * @return true if the variables are stored by slot
+   */
+  boolean isFrame() {
+    return slots != NO_SLOTS;
   }
 
   /**
@@ -89,6 +149,16 @@ public class Environment {
     values.put(name, value);
   }
 
+  /**
+   * Removes every variable defined in this environment, so it can be reused for a new run of the
+   * same block.
+   *
+   * <p>Unboxed numeric variables are left as they are, since each is assigned by its declaration.
+   */
+  void reset() {
+    values.clear();
+  }
+
   /**
    * Retrieves the value of a variable from an ancestor environment at a specific distance.
    *
@@ -118,4 +188,104 @@ public class Environment {
     }
     throw new RuntimeError(name, "Undefined variable '" + name.getLexeme() + "'.");
   }
+
+  /**
+   * Retrieves a variable from the frame of a function call.
+   *
+   * @param distance the number of environments to go up to the frame
+   * @param slot the variable's slot in the frame
+   * @return the value of the variable
+   */
+  Object getSlotAt(int distance, int slot) {
+    return ancestor(distance).slots[slot];
+  }
+
+  /**
+   * Assigns a variable in the frame of a function call.
+   *
+   * <p>Also used to define the variable, with a distance of 0.
+   *
+   * @param distance the number of environments to go up to the frame
+   * @param slot the variable's slot in the frame
+   * @param value the value to assign
+   */
+  void assignSlotAt(int distance, int slot, Object value) {
+    ancestor(distance).slots[slot] = value;
+  }
+
+  /**
+   * Retrieves an unboxed numeric variable from an ancestor environment.
+   *
+   * @param distance the number of environments to go up
+   * @param slot the variable's slot in that environment's number frame
+   * @return the value of the variable
+   */
+  double getNumberAt(int distance, int slot) {
+    return Double.longBitsToDouble(ancestor(distance).numbers[slot]);
+  }
+
+  /**
+   * Assigns an unboxed numeric variable in an ancestor environment.
+   *
+   * <p>Also used to define the variable, with a distance of 0.
+   *
+   * @param distance the number of environments to go up
+   * @param slot the variable's slot in that environment's number frame
+   * @param value the value to assign
+   */
+  void assignNumberAt(int distance, int slot, double value) {
+    ancestor(distance).numbers[slot] = Double.doubleToRawLongBits(value);
+  }
+
+  /**
+   * Retrieves an unboxed integer variable from an ancestor environment.
+   *
+   * @param distance the number of environments to go up
+   * @param slot the variable's slot in that environment's number frame
+   * @return the value of the variable, which is only meaningful if it has not spilled
+   */
+  long getIntegerAt(int distance, int slot) {
+    return ancestor(distance).numbers[slot];
+  }
+
+  /**
+   * Retrieves the double an unboxed integer variable overflowed into.
+   *
+   * @param distance the number of environments to go up
+   * @param slot the variable's slot in that environment's number frame
+   * @return the double, or null if the variable holds an integer
+   */
+  Double getSpilledAt(int distance, int slot) {
+    Double[] spills = ancestor(distance).spilled;
+    return spills == null ? null : spills[slot];
+  }
+
+  /**
+   * Assigns an integer to an unboxed integer variable in an ancestor environment.
+   *
+   * <p>Also used to define the variable, with a distance of 0.
+   *
+   * @param distance the number of environments to go up
+   * @param slot the variable's slot in that environment's number frame
+   * @param value the value to assign
+   */
+  void assignIntegerAt(int distance, int slot, long value) {
+    Environment home = ancestor(distance);
+    home.numbers[slot] = value;
+    if (home.spilled != null) home.spilled[slot] = null;
+  }
+
+  /**
+   * Assigns a double to an unboxed integer variable in an ancestor environment, which happens when
+   * its integer arithmetic overflows.
+   *
+   * @param distance the number of environments to go up
+   * @param slot the variable's slot in that environment's number frame
+   * @param value the double to assign
+   */
+  void spillAt(int distance, int slot, Double value) {
+    Environment home = ancestor(distance);
+    if (home.spilled == null) home.spilled = new Double[home.numbers.length];
+    home.spilled[slot] = value;
+  }
 }
@@ -0,0 +1,92 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The environment holding global variables.
+ *
+ * <p>Each global lives in a {@link Cell}, created when the global is first defined and kept for the
+ * lifetime of the environment; defining the global again, as the REPL allows, reuses it. Nodes that
+ * read or assign a global can therefore cache its cell and skip the name lookup on later runs.
+ * Every environment stamps its cells with its own version, so a cache filled while running a tree
+ * with one interpreter is never used by another. Versions come from an atomic counter, so
+ * interpreters created on different threads never share one.
+ */
+final class GlobalEnvironment extends Environment {
+
+  /** The last version handed out to a global environment. */
+  private static final AtomicInteger versions = new AtomicInteger();
+
+  /** The version stamped on this environment's cells. */
+  final int version = versions.incrementAndGet();
+
+  /** The cell of every defined global, by name. */
+  private final Map<String, Cell> cells = new HashMap<>();
+
+  /** Holds the value of one global. */
+  static final class Cell {
+
+    /** The version of the environment the cell belongs to. */
+    final int version;
+
+    /** The value of the global. */
+    Object value;
+
+    /**
+     * Constructs a cell.
+     *
+     * @param version the version of the environment the cell belongs to
+     */
+    private Cell(int version) {
+      this.version = version;
+    }
+  }
+
+  /**
+   * Returns the cell of a defined global.
+   *
+   * @param name the {@link Token} representing the variable name
+   * @return the cell
+   * @throws RuntimeError if the variable is undefined
+   */
+  Cell cell(Token name) {
+    Cell cell = cells.get(name.getLexeme());
+    if (cell == null) {
+      throw new RuntimeError(name, "Undefined variable '" + name.getLexeme() + "'.");
+    }
+    return cell;
+  }
+
+  /**
+   * Returns the cell of a global, if it is defined.
+   *
+   * @param name the variable name
+   * @return the cell, or null if the variable is undefined
+   */
+  Cell lookup(String name) {
+    return cells.get(name);
+  }
+
+  @Override
+  Object get(Token name) {
+    return cell(name).value;
+  }
+
+  @Override
+  void assign(Token name, Object value) {
+    cell(name).value = value;
+  }
+
+  @Override
+  void define(String name, Object value) {
+    Cell cell = cells.get(name);
+    if (cell == null) {
+      cell = new Cell(version);
+      cells.put(name, cell);
+    }
+    cell.value = value;
+  }
+}
@@ -0,0 +1,454 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * A function of the program embedding BhaiLang, bound to a global with {@link
+ * Interpreter#bind(String, MethodHandle)}.
+ *
+ * <p>The bound handle is adapted once, when it is bound, into an invoker taking and returning
+ * {@code Object}s: each parameter gets a converter from BhaiLang values to its Java type, and the
+ * result is boxed back into a BhaiLang value. A call site that keeps calling the same host function
+ * passes the evaluated arguments to the invoker directly, so a call with up to {@value
+ * #SPECIALIZED} arguments needs neither reflection nor an argument array.
+ *
+ * <p>Parameters may be {@code double}, {@code long}, {@code int}, {@code boolean}, their boxed
+ * types, {@code String}, {@code CharSequence}, which receives ropes and slices without copying them
+ * into a string, {@code Number}, which receives a number as the {@code Long} or {@code Double} the
+ * interpreter holds it in, or {@code Object}, which receives any value as it is. Integer results
+ * become BhaiLang integers, {@code float} results doubles, other character sequences strings and
+ * {@code void} results {@code nalla}; other results are returned as they are.
+ */
+public final class HostFunction implements BhaiCallable {
+
+  /** The largest number of arguments a call site passes without an array. */
+  static final int SPECIALIZED = 4;
+
+  /** The converter of arguments for {@code double} parameters. */
+  private static final MethodHandle TO_DOUBLE;
+
+  /** The converter of arguments for {@code long} parameters. */
+  private static final MethodHandle TO_LONG;
+
+  /** The converter of arguments for {@code int} parameters. */
+  private static final MethodHandle TO_INT;
+
+  /** The converter of arguments for {@code boolean} parameters. */
+  private static final MethodHandle TO_BOOLEAN;
+
+  /** The converter of arguments for {@code String} parameters. */
+  private static final MethodHandle TO_STRING;
+
+  /** The converter of arguments for {@code CharSequence} parameters. */
+  private static final MethodHandle TO_CHARS;
+
+  /** The converter of arguments for {@code Number} parameters. */
+  private static final MethodHandle TO_NUMBER;
+
+  /** The converter of results that are neither numbers nor strings nor booleans. */
+  private static final MethodHandle FROM_OBJECT;
+
+  static {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      TO_DOUBLE =
+          lookup.findStatic(
+              HostFunction.class, "toDouble", methodType(double.class, Object.class, int.class));
+      TO_LONG =
+          lookup.findStatic(
+              HostFunction.class, "toLong", methodType(long.class, Object.class, int.class));
+      TO_INT =
+          lookup.findStatic(
+              HostFunction.class, "toInt", methodType(int.class, Object.class, int.class));
+      TO_BOOLEAN =
+          lookup.findStatic(
+              HostFunction.class, "toBoolean", methodType(boolean.class, Object.class, int.class));
+      TO_STRING =
+          lookup.findStatic(
+              HostFunction.class, "toText", methodType(String.class, Object.class, int.class));
+      TO_CHARS =
+          lookup.findStatic(
+              HostFunction.class,
+              "toChars",
+              methodType(CharSequence.class, Object.class, int.class));
+      TO_NUMBER =
+          lookup.findStatic(
+              HostFunction.class, "toNumber", methodType(Number.class, Object.class, int.class));
+      FROM_OBJECT =
+          lookup.findStatic(
+              HostFunction.class, "fromObject", methodType(Object.class, Object.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /** The global name the function is bound to, used in errors and when it is printed. */
+  private final String name;
+
+  /** The number of arguments the function takes. */
+  private final int arity;
+
+  /** The adapted handle, taking {@link #arity} {@code Object}s and returning an {@code Object}. */
+  private final MethodHandle invoker;
+
+  /** The adapted handle taking its arguments in an {@code Object[]}. */
+  private final MethodHandle spreader;
+
+  /**
+   * Constructs a host function.
+   *
+   * @param name the global name the function is bound to
+   * @param handle the Java function; a variable arity handle takes its array as one argument
+   * @throws IllegalArgumentException if a parameter has a type BhaiLang values cannot convert to
+   */
+  HostFunction(String name, MethodHandle handle) {
+    this.name = name;
+    MethodHandle adapted = handle.asFixedArity();
+    MethodType type = adapted.type();
+    this.arity = type.parameterCount();
+    for (int i = 0; i < arity; i++) {
+      adapted = MethodHandles.filterArguments(adapted, i, argument(type.parameterType(i), i));
+    }
+    this.invoker = result(adapted, type.returnType()).asType(MethodType.genericMethodType(arity));
+    this.spreader = invoker.asSpreader(Object[].class, arity);
+  }
+
+  /**
+   * Returns the converter of one argument.
+   *
+   * @param type the parameter type
+   * @param index the parameter's index, for error reporting
+   * @return a handle from {@code Object} to the parameter type
+   * @throws IllegalArgumentException if BhaiLang values cannot be converted to the type
+   */
+  private static MethodHandle argument(Class<?> type, int index) {
+    MethodHandle converter;
+    if (type == double.class || type == Double.class) {
+      converter = TO_DOUBLE;
+    } else if (type == long.class || type == Long.class) {
+      converter = TO_LONG;
+    } else if (type == int.class || type == Integer.class) {
+      converter = TO_INT;
+    } else if (type == boolean.class || type == Boolean.class) {
+      converter = TO_BOOLEAN;
+    } else if (type == String.class) {
+      converter = TO_STRING;
+    } else if (type == CharSequence.class) {
+      converter = TO_CHARS;
+    } else if (type == Number.class) {
+      converter = TO_NUMBER;
+    } else if (type == Object.class) {
+      return MethodHandles.identity(Object.class);
+    } else {
+      throw new IllegalArgumentException("Cannot pass BhaiLang values as " + type.getName() + ".");
+    }
+    return MethodHandles.insertArguments(converter, 1, index)
+        .asType(methodType(type, Object.class));
+  }
+
+  /**
+   * Adapts the result of a handle to a BhaiLang value.
+   *
+   * @param handle the handle
+   * @param type its return type
+   * @return a handle returning a value the interpreter can hold
+   */
+  private static MethodHandle result(MethodHandle handle, Class<?> type) {
+    if (type == float.class) {
+      return handle.asType(handle.type().changeReturnType(double.class));
+    }
+    if (type == int.class || type == short.class || type == byte.class) {
+      return handle.asType(handle.type().changeReturnType(long.class));
+    }
+    if (type.isPrimitive()
+        || type == Double.class
+        || type == Long.class
+        || type == Boolean.class
+        || type == String.class) {
+      return handle;
+    }
+    return MethodHandles.filterReturnValue(
+        handle.asType(handle.type().changeReturnType(Object.class)), FROM_OBJECT);
+  }
+
+  /**
+   * Returns the global name the function was bound to.
+   *
+   * @return the name
+   */
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public int arity() {
+    return arity;
+  }
+
+  @Override
+  public Object call(Interpreter interpreter, Token paren, Object[] arguments) {
+    try {
+      return (Object) spreader.invokeExact(arguments);
+    } catch (Throwable e) {
+      throw failure(paren, e);
+    }
+  }
+
+  /**
+   * Calls the function without arguments.
+   *
+   * @param paren the closing parenthesis of the call, for error reporting
+   * @return the result
+   */
+  Object invoke(Token paren) {
+    try {
+      return (Object) invoker.invokeExact();
+    } catch (Throwable e) {
+      throw failure(paren, e);
+    }
+  }
+
+  /**
+   * Calls the function with one argument.
+   *
+   * @param paren the closing parenthesis of the call, for error reporting
+   * @param a the argument
+   * @return the result
+   */
+  Object invoke(Token paren, Object a) {
+    try {
+      return (Object) invoker.invokeExact(a);
+    } catch (Throwable e) {
+      throw failure(paren, e);
+    }
+  }
+
+  /**
+   * Calls the function with two arguments.
+   *
+   * @param paren the closing parenthesis of the call, for error reporting
+   * @param a the first argument
+   * @param b the second argument
+   * @return the result
+   */
+  Object invoke(Token paren, Object a, Object b) {
+    try {
+      return (Object) invoker.invokeExact(a, b);
+    } catch (Throwable e) {
+      throw failure(paren, e);
+    }
+  }
+
+  /**
+   * Calls the function with three arguments.
+   *
+   * @param paren the closing parenthesis of the call, for error reporting
+   * @param a the first argument
+   * @param b the second argument
+   * @param c the third argument
+   * @return the result
+   */
+  Object invoke(Token paren, Object a, Object b, Object c) {
+    try {
+      return (Object) invoker.invokeExact(a, b, c);
+    } catch (Throwable e) {
+      throw failure(paren, e);
+    }
+  }
+
+  /**
+   * Calls the function with four arguments.
+   *
+   * @param paren the closing parenthesis of the call, for error reporting
+   * @param a the first argument
+   * @param b the second argument
+   * @param c the third argument
+   * @param d the fourth argument
+   * @return the result
+   */
+  Object invoke(Token paren, Object a, Object b, Object c, Object d) {
+    try {
+      return (Object) invoker.invokeExact(a, b, c, d);
+    } catch (Throwable e) {
+      throw failure(paren, e);
+    }
+  }
+
+  /**
+   * Turns what a call threw into the error the script sees.
+   *
+   * <p>Bad arguments and exceptions of the host function become runtime errors at the call; the
+   * message of an {@link IllegalArgumentException} becomes the error message as it is, so a
+   * function can reject its arguments the way the builtins do. BhaiLang errors the host function
+   * threw itself, and Java errors such as running out of memory, pass through.
+   *
+   * @param paren the closing parenthesis of the call
+   * @param thrown what the call threw
+   * @return the exception to throw
+   */
+  private RuntimeException failure(Token paren, Throwable thrown) {
+    if (thrown instanceof Error error) throw error;
+    if (thrown instanceof Mismatch mismatch) {
+      if (mismatch.nalla) return new NallaPointerException(paren, "Bhai! Nalla value caught!!!");
+      return new RuntimeError(
+          paren,
+          "Argument " + (mismatch.index + 1) + " of '" + name + "' must be " + mismatch.expected);
+    }
+    if (thrown instanceof RuntimeError || thrown instanceof NallaPointerException) {
+      return (RuntimeException) thrown;
+    }
+    if (thrown instanceof IllegalArgumentException rejected && rejected.getMessage() != null) {
+      return new RuntimeError(paren, rejected.getMessage());
+    }
+    return new RuntimeError(paren, "Host function '" + name + "' failed: " + thrown + ".");
+  }
+
+  @Override
+  public String toString() {
+    return "<kaam " + name + ">";
+  }
+
+  /** Thrown by an argument converter for a value of the wrong type, without a stack trace. */
+  private static final class Mismatch extends RuntimeException {
+
+    /** The index of the parameter. */
+    final int index;
+
+    /** What the parameter takes, ending the error message. */
+    final String expected;
+
+    /** Whether the value was {@code nalla}. */
+    final boolean nalla;
+
+    /**
+     * Constructs a mismatch.
+     *
+     * @param value the value passed
+     * @param index the index of the parameter
+     * @param expected what the parameter takes, ending the error message
+     */
+    Mismatch(Object value, int index, String expected) {
+      super(null, null, false, false);
+      this.index = index;
+      this.expected = expected;
+      this.nalla = value == null;
+    }
+  }
+
+  /**
+   * Converts an argument for a {@code double} parameter.
+   *
+   * @param value the argument
+   * @param index the parameter's index
+   * @return the number
+   */
+  private static double toDouble(Object value, int index) {
+    if (value instanceof Double number) return number;
+    if (value instanceof Long integer) return integer;
+    throw new Mismatch(value, index, "a number.");
+  }
+
+  /**
+   * Converts an argument for a {@code long} parameter.
+   *
+   * @param value the argument
+   * @param index the parameter's index
+   * @return the integer
+   */
+  private static long toLong(Object value, int index) {
+    if (value instanceof Long integer) return integer;
+    if (value instanceof Double number
+        && number >= -0x1p63
+        && number < 0x1p63
+        && number == Math.rint(number)) {
+      return (long) (double) number;
+    }
+    throw new Mismatch(value, index, "a whole number.");
+  }
+
+  /**
+   * Converts an argument for an {@code int} parameter.
+   *
+   * @param value the argument
+   * @param index the parameter's index
+   * @return the integer
+   */
+  private static int toInt(Object value, int index) {
+    long integer = toLong(value, index);
+    if (integer != (int) integer) throw new Mismatch(value, index, "a smaller whole number.");
+    return (int) integer;
+  }
+
+  /**
+   * Converts an argument for a {@code boolean} parameter.
+   *
+   * @param value the argument
+   * @param index the parameter's index
+   * @return the boolean
+   */
+  private static boolean toBoolean(Object value, int index) {
+    if (value instanceof Boolean bool) return bool;
+    throw new Mismatch(value, index, "sahi or galat.");
+  }
+
+  /**
+   * Converts an argument for a {@code String} parameter, flattening ropes and slices.
+   *
+   * @param value the argument
+   * @param index the parameter's index
+   * @return the string
+   */
+  private static String toText(Object value, int index) {
+    if (value instanceof String text) return text;
+    if (value instanceof CharSequence text) return text.toString();
+    throw new Mismatch(value, index, "a string.");
+  }
+
+  /**
+   * Converts an argument for a {@code CharSequence} parameter, passing ropes and slices as they
+   * are.
+   *
+   * @param value the argument
+   * @param index the parameter's index
+   * @return the characters
+   */
+  private static CharSequence toChars(Object value, int index) {
+    if (value instanceof CharSequence text) return text;
+    throw new Mismatch(value, index, "a string.");
+  }
+
+  /**
+   * Converts an argument for a {@code Number} parameter.
+   *
+   * @param value the argument
+   * @param index the parameter's index
+   * @return the number, a {@code Long} or a {@code Double}
+   */
+  private static Number toNumber(Object value, int index) {
+    if (value instanceof Long || value instanceof Double) return (Number) value;
+    throw new Mismatch(value, index, "a number.");
+  }
+
+  /**
+   * Converts a result that is not known to be a BhaiLang value.
+   *
+   * @param value the result
+   * @return the value, with smaller integers widened to {@code long} and floats to {@code double}
+   */
+  private static Object fromObject(Object value) {
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof Float number) return number.doubleValue();
+    if (value instanceof CharSequence text
+        && !(value instanceof String || value instanceof Rope || value instanceof Slice)) {
+      return text.toString();
+    }
+    return value;
+  }
+}
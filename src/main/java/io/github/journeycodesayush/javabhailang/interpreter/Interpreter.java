@@ -3,12 +3,21 @@ package io.github.journeycodesayush.javabhailang.interpreter;
 import static io.github.journeycodesayush.javabhailang.lexer.TokenType.*;
 
 import io.github.journeycodesayush.javabhailang.BhaiLang;
+import io.github.journeycodesayush.javabhailang.ir.Graph;
 import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import io.github.journeycodesayush.javabhailang.optimizer.Optimizer;
 import io.github.journeycodesayush.javabhailang.output.*;
 import io.github.journeycodesayush.javabhailang.parser.*;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import io.github.journeycodesayush.javabhailang.resolver.Symbol;
+import io.github.journeycodesayush.javabhailang.resolver.TypeInference;
+import java.lang.invoke.MethodHandle;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * The core interpreter for BhaiLang programs.
@@ -17,10 +26,10 @@ import java.util.Map;
  * executing statements and evaluating expressions in a given {@link Environment}, handling runtime
  * errors, and supporting control flow.
  */
-public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
+public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void>, AutoCloseable {
 
   /** The global environment for the interpreter. */
-  final Environment globals = new Environment();
+  final GlobalEnvironment globals = new GlobalEnvironment();
 
   /** The current environment for variable storage and scope resolution. */
   private Environment environment = globals;
@@ -28,6 +37,96 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
   /** A mapping from expressions to their resolved environment distance. */
   private final Map<Expr, Integer> locals = new HashMap<>();
 
+  /** Scopes captured by the resolver for lazy blocks that have not run yet. */
+  private final Map<Stmt.LazyBlock, List<Map<String, Symbol>>> deferred = new HashMap<>();
+
+  /** Lazy blocks that have already run, mapped to their parsed and resolved form. */
+  private final Map<Stmt.LazyBlock, Stmt.Block> materialized = new HashMap<>();
+
+  /** Switch statements that have already run, mapped to their case value to branch tables. */
+  private final Map<Stmt.Switch, Map<Object, Stmt>> jumpTables = new HashMap<>();
+
+  /** Reads and assignments of numeric variables, mapped to the variable's number slot. */
+  private final Map<Expr, Integer> numberSlots = new HashMap<>();
+
+  /** Declarations of numeric variables, mapped to the variable's number slot. */
+  private final Map<Stmt.Var, Integer> declaredSlots = new HashMap<>();
+
+  /** Blocks declaring numeric variables, mapped to the size of their number frame. */
+  private final Map<Stmt.Block, Integer> frameSizes = new HashMap<>();
+
+  /** Binary operations whose operands are always numbers. */
+  private final Set<Expr.Binary> unboxedOperations = new HashSet<>();
+
+  /** Reads and assignments of integer variables, mapped to the variable's number slot. */
+  private final Map<Expr, Integer> integerSlots = new HashMap<>();
+
+  /** Declarations of integer variables, mapped to the variable's number slot. */
+  private final Map<Stmt.Var, Integer> declaredIntegers = new HashMap<>();
+
+  /** Comparisons whose operands are always integers, unless one overflowed. */
+  private final Set<Expr.Binary> integerComparisons = new HashSet<>();
+
+  /** Signals that an integer expression overflowed, or read a variable that did. */
+  private static final class Overflow extends RuntimeException {
+    Overflow() {
+      super(null, null, false, false);
+    }
+  }
+
+  /** The only {@link Overflow}, which carries nothing. */
+  private static final Overflow OVERFLOW = new Overflow();
+
+  /** Loops that count an unboxed variable towards a fixed bound, mapped to how they count. */
+  private final Map<Stmt.While, CountedLoop> countedLoops = new HashMap<>();
+
+  /**
+   * How a {@code jab tak bhai} loop counts.
+   *
+   * @param counter the counter read by the condition, an unboxed double or integer variable
+   * @param comparison the comparison of the condition
+   * @param bound the other operand of the condition, which the body never changes
+   * @param rest the statements of the body before the final increment
+   * @param step the number the increment adds to the counter, a {@link Long} for an integer counter
+   */
+  private record CountedLoop(
+      Expr.Variable counter, TokenType comparison, Expr bound, List<Stmt> rest, Number step) {}
+
+  /**
+   * What a read or assignment of a variable in a function's frame caches on its node, where its
+   * value is stored.
+   *
+   * @param distance the number of environments to go up to the frame
+   * @param slot the variable's slot in the frame
+   */
+  private record FrameSlot(int distance, int slot) {}
+
+  /** Function declarations, mapped to the number of slots of their frame. */
+  private final Map<Stmt.Function, Integer> frameSlots = new HashMap<>();
+
+  /** Declarations of variables and functions directly in a function's body, mapped to slots. */
+  private final Map<Stmt, Integer> declarationSlots = new HashMap<>();
+
+  /** Loop bodies functions may be declared in, which get a new environment every iteration. */
+  private final Set<Stmt.Block> capturedBlocks = new HashSet<>();
+
+  /** The signal every {@code wapas kar bhai} throws. */
+  private final ReturnException returning = new ReturnException();
+
+  /** Number of function calls running. */
+  private int callDepth = 0;
+
+  /**
+   * What a field access caches on its node: the slot of the field in the last shape it saw.
+   *
+   * @param shape the shape of the last record accessed
+   * @param slot the slot of the field in that shape
+   */
+  private record FieldSlot(Shape shape, int slot) {}
+
+  /** Blocks that declare nothing and therefore run in the enclosing environment. */
+  private final Set<Stmt.Block> elidedBlocks = new HashSet<>();
+
   /**
    * The output handler for the interpreter.
    *
@@ -37,8 +136,17 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
    */
   private final Output output;
 
+  /** The buffer print statements format their line into. */
+  private final StringBuilder line = new StringBuilder();
+
   private int loopDepth = 0;
 
+  /** Buffers allocated by scripts and not freed yet. */
+  private final Set<BhaiBuffer> buffers = new HashSet<>();
+
+  /** The results of the functions scripts memoized. */
+  private final MemoCache memos = new MemoCache(MemoCache.DEFAULT_CAPACITY);
+
   /**
    * Creates a new interpreter with the specified output handler.
    *
@@ -46,6 +154,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
    */
   public Interpreter(Output output) {
     this.output = output;
+    Builtins.define(globals);
   }
 
   /**
@@ -55,7 +164,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
    * constructor provides a simple CLI-friendly interpreter instance.
    */
   public Interpreter() {
-    this.output = new ConsoleOutput();
+    this(new ConsoleOutput());
   }
 
   /**
@@ -77,6 +186,93 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
     }
   }
 
+  /**
+   * Interprets a program lowered to SSA form.
+   *
+   * <p>Runs the graph on the register-based engine, sharing this interpreter's globals and output,
+   * and handles any runtime or null-pointer exceptions like {@link #interpret(List)}. With the
+   * {@code nanbox} engine selected, registers and globals hold values encoded in {@code long}s.
+   *
+   * @param graph the {@link Graph} to run
+   */
+  public void interpret(Graph graph) {
+    try {
+      if (BhaiLang.engine == BhaiLang.Engine.NANBOX) {
+        new NanBoxInterpreter(this, graph).run();
+      } else {
+        new IrInterpreter(this, graph).run();
+      }
+    } catch (RuntimeError error) {
+      BhaiLang.runtimeError(error);
+    } catch (NallaPointerException error) {
+      BhaiLang.nallaPointerError(error);
+    }
+  }
+
+  /**
+   * Binds a Java function to a global, so scripts run by this interpreter can call it.
+   *
+   * <p>The handle is adapted once, here; see {@link HostFunction} for the parameter and result
+   * types it may have. Binding a name again, or defining it in a script, replaces the function.
+   * Exceptions the function throws become runtime errors at the call, with the message of an {@link
+   * IllegalArgumentException} as the error message.
+   *
+   * @param name the global name to bind the function to
+   * @param handle the function
+   * @return the bound function
+   * @throws IllegalArgumentException if a parameter has a type BhaiLang values cannot convert to
+   */
+  public HostFunction bind(String name, MethodHandle handle) {
+    HostFunction function = new HostFunction(name, handle);
+    globals.define(name, function);
+    return function;
+  }
+
+  /**
+   * Returns the cache the functions memoized by scripts run on this interpreter keep their results
+   * in, where hosts can set its capacity and read its hit and miss counts.
+   *
+   * @return the cache
+   */
+  public MemoCache memoCache() {
+    return memos;
+  }
+
+  /**
+   * Frees every buffer the scripts run by this interpreter allocated and have not freed.
+   *
+   * <p>Buffers keep their native memory until they are freed, so hosts call this when a script
+   * ends. Using a freed buffer is a runtime error.
+   */
+  @Override
+  public void close() {
+    for (BhaiBuffer buffer : buffers) {
+      buffer.free();
+    }
+    buffers.clear();
+  }
+
+  /**
+   * Records a buffer allocated by a script, so {@link #close()} frees it.
+   *
+   * @param buffer the new buffer
+   * @return the buffer
+   */
+  BhaiBuffer track(BhaiBuffer buffer) {
+    buffers.add(buffer);
+    return buffer;
+  }
+
+  /**
+   * Frees a buffer before the script ends.
+   *
+   * @param buffer the buffer
+   */
+  public void free(BhaiBuffer buffer) {
+    buffer.free();
+    buffers.remove(buffer);
+  }
+
   /**
    * Executes a single statement by accepting the statement visitor.
    *
@@ -87,7 +283,183 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
   }
 
   public void resolve(Expr expr, int depth) {
+    resolve(expr, depth, -1);
+  }
+
+  /**
+   * Records where a local variable read or assignment finds its variable.
+   *
+   * <p>A variable in a function's frame is found by slot, which the node caches, since the layout
+   * of a frame only depends on the tree.
+   *
+   * @param expr the node reading or assigning the variable
+   * @param depth the number of environments to go up to the variable
+   * @param slot the variable's slot in a function's frame, or -1 if it is stored by name
+   */
+  public void resolve(Expr expr, int depth, int slot) {
     locals.put(expr, depth);
+    if (slot >= 0) {
+      expr.cache = new FrameSlot(depth, slot);
+    } else if (expr.cache instanceof FrameSlot) {
+      expr.cache = null;
+    }
+  }
+
+  /**
+   * Records the slot of a declaration directly in a function's body, or of a parameter.
+   *
+   * @param declaration the {@link Stmt.Var} or {@link Stmt.Function} declaring the variable
+   * @param slot the variable's slot in the function's frame
+   */
+  public void slot(Stmt declaration, int slot) {
+    declarationSlots.put(declaration, slot);
+  }
+
+  /**
+   * Records how many slots the frame of a function's calls needs.
+   *
+   * @param function the function declaration
+   * @param slots the number of parameters and variables declared directly in the body
+   */
+  public void frame(Stmt.Function function, int slots) {
+    frameSlots.put(function, slots);
+  }
+
+  /**
+   * Records that functions may be declared in a loop body, and keep its environment.
+   *
+   * <p>Such a body gets a new environment every iteration instead of reusing one.
+   *
+   * @param body the loop body
+   */
+  public void capture(Stmt.Block body) {
+    capturedBlocks.add(body);
+  }
+
+  /**
+   * Records that a declaration stores its variable unboxed, in a slot of its block's number frame.
+   *
+   * @param stmt the declaration of a variable that only ever holds numbers
+   * @param slot the variable's slot
+   */
+  public void unbox(Stmt.Var stmt, int slot) {
+    declaredSlots.put(stmt, slot);
+  }
+
+  /**
+   * Records that a variable read or assignment refers to an unboxed variable.
+   *
+   * @param expr the {@link Expr.Variable} or {@link Expr.Assign} node
+   * @param slot the variable's slot in its block's number frame
+   */
+  public void unbox(Expr expr, int slot) {
+    numberSlots.put(expr, slot);
+    if (expr.cache instanceof FrameSlot) {
+      // The variable lives in its frame's number slots instead.
+      expr.cache = null;
+    }
+  }
+
+  /**
+   * Records how many unboxed variables a block declares.
+   *
+   * @param block the block
+   * @param numbers the size of the block's number frame
+   */
+  public void reserve(Stmt.Block block, int numbers) {
+    frameSizes.put(block, numbers);
+  }
+
+  /**
+   * Records that both operands of a binary operation always evaluate to numbers.
+   *
+   * <p>Such operations cannot fail and are computed on unboxed values.
+   *
+   * @param expr the binary operation
+   */
+  public void unboxOperands(Expr.Binary expr) {
+    unboxedOperations.add(expr);
+  }
+
+  /**
+   * Records that a declaration stores its variable unboxed as an integer, in a slot of its block's
+   * number frame.
+   *
+   * @param stmt the declaration of a variable that only ever holds integers, or doubles its integer
+   *     arithmetic overflowed into
+   * @param slot the variable's slot
+   */
+  public void unboxInteger(Stmt.Var stmt, int slot) {
+    declaredIntegers.put(stmt, slot);
+  }
+
+  /**
+   * Records that a variable read or assignment refers to an unboxed integer variable.
+   *
+   * @param expr the {@link Expr.Variable} or {@link Expr.Assign} node
+   * @param slot the variable's slot in its block's number frame
+   */
+  public void unboxInteger(Expr expr, int slot) {
+    integerSlots.put(expr, slot);
+    if (expr.cache instanceof FrameSlot) {
+      // The variable lives in its frame's number slots instead.
+      expr.cache = null;
+    }
+  }
+
+  /**
+   * Records that both operands of a comparison are integer expressions, which are compared as
+   * {@code long}s unless one of them overflowed.
+   *
+   * @param expr the comparison
+   */
+  public void compareIntegers(Expr.Binary expr) {
+    integerComparisons.add(expr);
+  }
+
+  /**
+   * Records that a loop counts an unboxed variable by a fixed step towards a bound.
+   *
+   * <p>The loop's condition must compare the counter with an expression the body never changes, and
+   * the last statement of its body must add the step to the counter, which the body assigns nowhere
+   * else. An integer counter has an integer step.
+   *
+   * @param loop the loop
+   * @param step the number the last statement of the body adds to the counter
+   */
+  public void count(Stmt.While loop, Number step) {
+    Expr.Binary condition = (Expr.Binary) loop.condition;
+    List<Stmt> rest = List.of();
+    if (loop.body instanceof Stmt.Block body) {
+      rest = body.statements.subList(0, body.statements.size() - 1);
+    }
+    countedLoops.put(
+        loop,
+        new CountedLoop(
+            (Expr.Variable) condition.left,
+            condition.operator.getType(),
+            condition.right,
+            rest,
+            step));
+  }
+
+  /**
+   * Records that a block declares no variables, so it runs in the enclosing environment.
+   *
+   * @param block the block
+   */
+  public void elide(Stmt.Block block) {
+    elidedBlocks.add(block);
+  }
+
+  /**
+   * Records the resolver scopes visible at a lazy block so it can be resolved when it first runs.
+   *
+   * @param block the {@link Stmt.LazyBlock} that was skipped by the parser
+   * @param scopes the enclosing resolver scopes, outermost first
+   */
+  public void defer(Stmt.LazyBlock block, List<Map<String, Symbol>> scopes) {
+    deferred.put(block, scopes);
   }
 
   @Override
@@ -99,9 +471,9 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
   public Object visitLogicalExpr(Expr.Logical expr) {
     Object left = evaluate(expr.left);
     if (expr.operator.getType() == LOGICAL_OR) {
-      if (isTruthy(left)) return left;
+      if (Values.isTruthy(left)) return left;
     } else {
-      if (!isTruthy(left)) return left;
+      if (!Values.isTruthy(left)) return left;
     }
     return evaluate(expr.right);
   }
@@ -114,195 +486,1174 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
   @Override
   public Object visitUnaryExpr(Expr.Unary expr) {
     Object right = evaluate(expr.right);
-
-    switch (expr.operator.getType()) {
-      case BANG -> {
-        return !isTruthy(right);
-      }
-      case MINUS -> {
-        checkNumberOperand(expr.operator, right);
-        return -(double) right;
-      }
-      default -> {
-        return null;
-      }
-    }
+    return Values.unary(expr.operator, right);
   }
 
   @Override
   public Object visitBinaryExpr(Expr.Binary expr) {
+    if (unboxedOperations.contains(expr)) {
+      return unboxedBinary(expr);
+    }
+    if (integerComparisons.contains(expr)) {
+      return integerComparison(expr);
+    }
     Object left = evaluate(expr.left);
     Object right = evaluate(expr.right);
+    return Values.binary(expr.operator, left, right);
+  }
+
+  @Override
+  public Object visitVariableExpr(Expr.Variable expr) {
+    if (expr.cache instanceof GlobalEnvironment.Cell cell && cell.version == globals.version) {
+      return cell.value;
+    }
+    if (expr.cache instanceof FrameSlot frame) {
+      return environment.getSlotAt(frame.distance(), frame.slot());
+    }
+    Integer slot = numberSlots.get(expr);
+    if (slot != null) {
+      return environment.getNumberAt(locals.get(expr), slot);
+    }
+    slot = integerSlots.get(expr);
+    if (slot != null) {
+      return readInteger(environment.ancestor(locals.get(expr)), slot);
+    }
+    // return environment.get(expr.name);
+    return lookUpVariable(expr.name, expr);
+  }
 
+  /**
+   * Evaluates a binary operation whose operands are always numbers, without boxing them.
+   *
+   * <p>Equality compares like {@link Double#equals}, as {@link Values#isEqual} does, so {@code 0}
+   * and {@code -0} stay unequal.
+   *
+   * @param expr the binary operation
+   * @return the result of the operation
+   */
+  private Object unboxedBinary(Expr.Binary expr) {
     switch (expr.operator.getType()) {
       case GREATER -> {
-        checkNumberOperands(expr.operator, left, right);
-        return (double) left > (double) right;
+        return number(expr.left) > number(expr.right);
       }
       case GREATER_EQUAL -> {
-        checkNumberOperands(expr.operator, left, right);
-        return (double) left >= (double) right;
+        return number(expr.left) >= number(expr.right);
       }
       case LESS -> {
-        checkNumberOperands(expr.operator, left, right);
-        return (double) left < (double) right;
+        return number(expr.left) < number(expr.right);
       }
       case LESS_EQUAL -> {
-        checkNumberOperands(expr.operator, left, right);
-        return (double) left <= (double) right;
-      }
-      case MINUS -> {
-        checkNumberOperands(expr.operator, left, right);
-        return (double) left - (double) right;
-      }
-      case SLASH -> {
-        checkNumberOperands(expr.operator, left, right);
-        return (double) left / (double) right;
-      }
-      case STAR -> {
-        checkNumberOperands(expr.operator, left, right);
-        return (double) left * (double) right;
-      }
-      case PLUS -> {
-        if (left == null || right == null) {
-          throw new NallaPointerException(expr.operator, "Bhai! Nalla value caught!!!");
-        }
-        if ((left instanceof String) && (right instanceof String)) {
-          return (String) left + (String) right;
-        }
-        if ((left instanceof Double) && (right instanceof Double)) {
-          return (double) left + (double) right;
-        }
-        if ((left instanceof String) || (right instanceof String)) {
-          return stringify(left) + stringify(right);
-        }
-        throw new RuntimeException("Operands must be two numbers or strings.");
+        return number(expr.left) <= number(expr.right);
       }
       case EQUAL_EQUAL -> {
-        return isEqual(left, right);
+        return Double.doubleToLongBits(number(expr.left))
+            == Double.doubleToLongBits(number(expr.right));
       }
       case BANG_EQUAL -> {
-        return !isEqual(left, right);
+        return Double.doubleToLongBits(number(expr.left))
+            != Double.doubleToLongBits(number(expr.right));
       }
-
       default -> {
-        return null;
+        return number(expr);
       }
     }
-    // return null;
-  }
-
-  @Override
-  public Object visitVariableExpr(Expr.Variable expr) {
-    // return environment.get(expr.name);
-    return lookUpVariable(expr.name, expr);
   }
 
   /**
-   * Looks up a variable value using its distance in the environment chain.
+   * Evaluates an expression that always yields a number, without boxing intermediate results.
    *
-   * <p>Falls back to the global environment if the variable is not found locally.
+   * <p>Unboxed numbers are doubles. The type inference only proves expressions numeric when their
+   * values are doubles, or integer literals a {@code double} holds exactly, so {@code double}
+   * arithmetic gives exactly what {@link Values} would; integer variables stay boxed.
    *
-   * @param name the {@link Token} representing the variable name
-   * @param expr the expression representing the variable
-   * @return the value of the variable
+   * @param expr an expression the type inference proved numeric
+   * @return the value of the expression
    */
-  private Object lookUpVariable(Token name, Expr expr) {
-    Integer distance = locals.get(expr);
-    if (distance != null) {
-      return environment.getAt(distance, name.getLexeme());
+  private double number(Expr expr) {
+    if (expr instanceof Expr.Variable) {
+      return environment.getNumberAt(locals.get(expr), numberSlots.get(expr));
     }
-    return globals.get(name);
-  }
-
-  @Override
-  public Object visitAssignExpr(Expr.Assign expr) {
-    Object value = evaluate(expr.value);
-    // environment.assign(expr.name, value);
-
-    Integer distance = locals.get(expr);
-    if (distance != null) {
-      environment.assignAt(distance, expr.name, value);
-    } else {
-      globals.assign(expr.name, value);
+    if (expr instanceof Expr.Binary binary) {
+      return arithmetic(binary.operator.getType(), number(binary.left), number(binary.right));
     }
-
-    return value;
+    if (expr instanceof Expr.Literal literal) return ((Number) literal.value).doubleValue();
+    if (expr instanceof Expr.Grouping grouping) return number(grouping.expression);
+    if (expr instanceof Expr.Unary unary) return -number(unary.right);
+    if (expr instanceof Expr.Assign assign) return assignNumber(assign, numberSlots.get(expr));
+    return ((Number) evaluate(expr)).doubleValue();
   }
 
-  @Override
-  public Void visitExpressionStmt(Stmt.Expression stmt) {
-    evaluate(stmt.expression);
-    return null;
+  /**
+   * Applies an arithmetic operator to two unboxed numbers.
+   *
+   * @param operator {@code +}, {@code -}, {@code *} or {@code /}
+   * @param left the left operand
+   * @param right the right operand
+   * @return the result
+   */
+  private static double arithmetic(TokenType operator, double left, double right) {
+    switch (operator) {
+      case PLUS -> {
+        return left + right;
+      }
+      case MINUS -> {
+        return left - right;
+      }
+      case STAR -> {
+        return left * right;
+      }
+      default -> {
+        return left / right;
+      }
+    }
   }
 
-  @Override
-  public Void visitIfStmt(Stmt.If stmt) {
-    if (isTruthy(evaluate(stmt.condition))) {
-      execute(stmt.thenBranch);
-      return null;
+  /**
+   * Returns whether {@link #number(Expr)} can evaluate an expression without boxing it.
+   *
+   * @param expr the expression
+   * @return true for number literals a {@code double} holds exactly, unboxed variables and
+   *     assignments, and arithmetic on unboxed operands
+   */
+  private boolean isUnboxed(Expr expr) {
+    if (expr instanceof Expr.Literal literal) {
+      return literal.value instanceof Double
+          || literal.value instanceof Long integer && (long) (double) integer == integer;
     }
-
-    for (int i = 0; i < stmt.elseIfConditions.size(); i++) {
-      if (isTruthy(evaluate(stmt.elseIfConditions.get(i)))) {
-        execute(stmt.elseIfBranches.get(i));
-        return null;
+    if (expr instanceof Expr.Grouping grouping) return isUnboxed(grouping.expression);
+    if (expr instanceof Expr.Binary binary) {
+      if (!unboxedOperations.contains(binary)) return false;
+      switch (binary.operator.getType()) {
+        case PLUS, MINUS, STAR, SLASH -> {
+          return true;
+        }
+        default -> {
+          return false;
+        }
       }
     }
+    return numberSlots.containsKey(expr);
+  }
 
-    if (stmt.elseBranch != null) {
-      execute(stmt.elseBranch);
-    }
+  /**
+   * Returns whether {@link #number(Expr)} can evaluate an expression without boxing it, and its
+   * value is a double rather than an integer literal.
+   *
+   * @param expr the expression
+   * @return true if the expression is unboxed and not an integer literal
+   */
+  private boolean isUnboxedDouble(Expr expr) {
+    if (expr instanceof Expr.Literal literal) return literal.value instanceof Double;
+    if (expr instanceof Expr.Grouping grouping) return isUnboxedDouble(grouping.expression);
+    return isUnboxed(expr);
+  }
+
+  /**
+   * Assigns a number to an unboxed variable.
+   *
+   * @param expr the assignment
+   * @param slot the variable's slot in its block's number frame
+   * @return the assigned value
+   */
+  private double assignNumber(Expr.Assign expr, int slot) {
+    double value = number(expr.value);
+    environment.assignNumberAt(locals.get(expr), slot, value);
+    return value;
+  }
+
+  /**
+   * Evaluates an integer expression without boxing it: an integer literal, an unboxed integer
+   * variable, or {@code + - *} over integer expressions.
+   *
+   * <p>Integer expressions have no side effects and cannot fail, so a caller that catches the
+   * overflow evaluates the expression again through {@link Values} to get the double.
+   *
+   * @param expr an expression the type inference proved integer
+   * @return the value of the expression
+   * @throws Overflow if the arithmetic overflows or gives {@code -0}, or a variable holds a double
+   */
+  private long integer(Expr expr) {
+    if (expr instanceof Expr.Variable) {
+      Environment home = environment.ancestor(locals.get(expr));
+      int slot = integerSlots.get(expr);
+      if (home.getSpilledAt(0, slot) != null) throw OVERFLOW;
+      return home.getIntegerAt(0, slot);
+    }
+    if (expr instanceof Expr.Literal literal) return (Long) literal.value;
+    if (expr instanceof Expr.Grouping grouping) return integer(grouping.expression);
+    Expr.Binary binary = (Expr.Binary) expr;
+    long a = integer(binary.left);
+    long b = integer(binary.right);
+    switch (binary.operator.getType()) {
+      case PLUS -> {
+        long sum = a + b;
+        if (((a ^ sum) & (b ^ sum)) < 0) throw OVERFLOW;
+        return sum;
+      }
+      case MINUS -> {
+        long difference = a - b;
+        if (((a ^ b) & (a ^ difference)) < 0) throw OVERFLOW;
+        return difference;
+      }
+      default -> {
+        long product = a * b;
+        if (Math.multiplyHigh(a, b) != product >> 63) throw OVERFLOW;
+        // A zero product with a negative factor is -0, which only a double can hold.
+        if (product == 0 && (a < 0 || b < 0)) throw OVERFLOW;
+        return product;
+      }
+    }
+  }
+
+  /**
+   * Compares two integer expressions as {@code long}s, or through {@link Values} if one of them
+   * overflowed.
+   *
+   * @param expr the comparison
+   * @return the result of the comparison
+   */
+  private Object integerComparison(Expr.Binary expr) {
+    long left;
+    long right;
+    try {
+      left = integer(expr.left);
+      right = integer(expr.right);
+    } catch (Overflow overflow) {
+      return Values.binary(expr.operator, evaluate(expr.left), evaluate(expr.right));
+    }
+    switch (expr.operator.getType()) {
+      case GREATER -> {
+        return left > right;
+      }
+      case GREATER_EQUAL -> {
+        return left >= right;
+      }
+      case LESS -> {
+        return left < right;
+      }
+      case LESS_EQUAL -> {
+        return left <= right;
+      }
+      case EQUAL_EQUAL -> {
+        return left == right;
+      }
+      default -> {
+        return left != right;
+      }
+    }
+  }
+
+  /**
+   * Reads an unboxed integer variable, boxing it.
+   *
+   * @param home the environment the variable lives in
+   * @param slot the variable's slot in its number frame
+   * @return the integer, or the double it overflowed into
+   */
+  private static Object readInteger(Environment home, int slot) {
+    Double spilled = home.getSpilledAt(0, slot);
+    return spilled != null ? spilled : (Object) home.getIntegerAt(0, slot);
+  }
+
+  /**
+   * Evaluates an integer expression into an unboxed integer variable, boxing it only if it
+   * overflows.
+   *
+   * @param home the environment the variable lives in
+   * @param slot the variable's slot in its number frame
+   * @param value an expression the type inference proved integer
+   */
+  private void storeInteger(Environment home, int slot, Expr value) {
+    try {
+      home.assignIntegerAt(0, slot, integer(value));
+    } catch (Overflow overflow) {
+      storeInteger(home, slot, evaluate(value));
+    }
+  }
+
+  /**
+   * Stores a number in an unboxed integer variable.
+   *
+   * @param home the environment the variable lives in
+   * @param slot the variable's slot in its number frame
+   * @param value an integer, or a double integer arithmetic gave
+   */
+  private static void storeInteger(Environment home, int slot, Object value) {
+    if (value instanceof Long integer) {
+      home.assignIntegerAt(0, slot, integer);
+    } else {
+      home.spillAt(0, slot, (Double) value);
+    }
+  }
+
+  /**
+   * Looks up a variable value using its distance in the environment chain.
+   *
+   * <p>Falls back to the global environment if the variable is not found locally.
+   *
+   * @param name the {@link Token} representing the variable name
+   * @param expr the expression representing the variable
+   * @return the value of the variable
+   */
+  private Object lookUpVariable(Token name, Expr expr) {
+    if (expr.cache instanceof FrameSlot frame) {
+      return environment.getSlotAt(frame.distance(), frame.slot());
+    }
+    Integer distance = locals.get(expr);
+    if (distance != null) {
+      return environment.getAt(distance, name.getLexeme());
+    }
+    return globalCell(expr, name).value;
+  }
+
+  /**
+   * Returns the cell of the global a node refers to, caching it on the node.
+   *
+   * <p>The cache is only trusted when its version matches this interpreter's globals, since a tree
+   * may be run by more than one interpreter.
+   *
+   * @param expr the node reading or assigning the global
+   * @param name the name of the global
+   * @return the global's cell
+   * @throws RuntimeError if the global is undefined
+   */
+  private GlobalEnvironment.Cell globalCell(Expr expr, Token name) {
+    if (expr.cache instanceof GlobalEnvironment.Cell cell && cell.version == globals.version) {
+      return cell;
+    }
+    GlobalEnvironment.Cell cell = globals.cell(name);
+    expr.cache = cell;
+    return cell;
+  }
+
+  /**
+   * Evaluates a cached expression.
+   *
+   * <p>The expression is evaluated the first time it is reached and its value is stored in the
+   * hidden variable named by the node. Later evaluations read that variable instead, so the
+   * expression runs at the same point, and raises the same errors, as it would without the cache.
+   *
+   * @param expr the cached expression
+   * @return the value of the expression
+   */
+  @Override
+  public Object visitCachedExpr(Expr.Cached expr) {
+    Object value = lookUpVariable(expr.name, expr);
+    if (value != null) {
+      return value;
+    }
+
+    value = evaluate(expr.expression);
+    assign(expr, expr.name, value);
+    return value;
+  }
+
+  @Override
+  public Object visitAssignExpr(Expr.Assign expr) {
+    if (expr.cache instanceof GlobalEnvironment.Cell cell && cell.version == globals.version) {
+      Object value = evaluate(expr.value);
+      cell.value = value;
+      return value;
+    }
+    Integer slot = numberSlots.get(expr);
+    if (slot != null) {
+      return assignNumber(expr, slot);
+    }
+    slot = integerSlots.get(expr);
+    if (slot != null) {
+      Environment home = environment.ancestor(locals.get(expr));
+      storeInteger(home, slot, expr.value);
+      return readInteger(home, slot);
+    }
+
+    Object value = evaluate(expr.value);
+    // environment.assign(expr.name, value);
+    assign(expr, expr.name, value);
+    return value;
+  }
+
+  /**
+   * Assigns a boxed variable wherever it is stored: in a function's frame, by name in a local
+   * environment, or in a global's cell.
+   *
+   * @param expr the node assigning the variable
+   * @param name the name of the variable
+   * @param value the value to assign
+   */
+  private void assign(Expr expr, Token name, Object value) {
+    if (expr.cache instanceof FrameSlot frame) {
+      environment.assignSlotAt(frame.distance(), frame.slot(), value);
+      return;
+    }
+    Integer distance = locals.get(expr);
+    if (distance != null) {
+      environment.assignAt(distance, name, value);
+    } else {
+      globalCell(expr, name).value = value;
+    }
+  }
+
+  @Override
+  public Object visitCallExpr(Expr.Call expr) {
+    return call(expr, evaluate(expr.callee), false);
+  }
+
+  /**
+   * Calls an evaluated callee with the arguments of a call.
+   *
+   * <p>The call's node caches the last callee it checked. While a site keeps calling that callee,
+   * its type and arity are not checked again, and the arguments of a function declared in the
+   * script are evaluated straight into the slots of the new frame.
+   *
+   * @param expr the call
+   * @param callee the evaluated callee
+   * @param tail whether the call is the value of a {@code wapas kar bhai}, which then unwinds the
+   *     running call before a function declared in the script runs
+   * @return the result of the call
+   * @throws RuntimeError if the callee is not a function or the number of arguments is wrong
+   * @throws ReturnException for a tail call to a function declared in the script
+   */
+  private Object call(Expr.Call expr, Object callee, boolean tail) {
+    BhaiFunction function;
+    Environment frame;
+    if (callee != null && callee == expr.cache) {
+      if (callee instanceof HostFunction host) return callHost(host, expr);
+      if (!(callee instanceof BhaiFunction cached)) {
+        return ((BhaiCallable) callee).call(this, expr.paren, arguments(expr));
+      }
+      function = cached;
+      frame = function.frame();
+      for (int i = 0; i < expr.arguments.size(); i++) {
+        frame.slots[i] = evaluate(expr.arguments.get(i));
+      }
+    } else {
+      Object[] arguments = arguments(expr);
+      BhaiCallable checked = callable(expr, callee, arguments.length);
+      if (!(checked instanceof BhaiFunction declared)) {
+        return checked.call(this, expr.paren, arguments);
+      }
+      function = declared;
+      frame = function.frame();
+      System.arraycopy(arguments, 0, frame.slots, 0, arguments.length);
+    }
+
+    if (tail) {
+      returning.function = function;
+      returning.frame = frame;
+      throw returning;
+    }
+    return invoke(function, frame, expr.paren);
+  }
+
+  /**
+   * Calls a host function from a call site that cached it, passing the arguments without an array
+   * when there are few enough.
+   *
+   * @param host the host function
+   * @param expr the call
+   * @return the result of the call
+   */
+  private Object callHost(HostFunction host, Expr.Call expr) {
+    List<Expr> arguments = expr.arguments;
+    Token paren = expr.paren;
+    return switch (arguments.size()) {
+      case 0 -> host.invoke(paren);
+      case 1 -> host.invoke(paren, evaluate(arguments.get(0)));
+      case 2 -> host.invoke(paren, evaluate(arguments.get(0)), evaluate(arguments.get(1)));
+      case 3 ->
+          host.invoke(
+              paren,
+              evaluate(arguments.get(0)),
+              evaluate(arguments.get(1)),
+              evaluate(arguments.get(2)));
+      case 4 ->
+          host.invoke(
+              paren,
+              evaluate(arguments.get(0)),
+              evaluate(arguments.get(1)),
+              evaluate(arguments.get(2)),
+              evaluate(arguments.get(3)));
+      default -> host.call(this, paren, arguments(expr));
+    };
+  }
+
+  /**
+   * Evaluates the arguments of a call, from left to right.
+   *
+   * @param expr the call
+   * @return the argument values
+   */
+  private Object[] arguments(Expr.Call expr) {
+    Object[] arguments = new Object[expr.arguments.size()];
+    for (int i = 0; i < arguments.length; i++) {
+      arguments[i] = evaluate(expr.arguments.get(i));
+    }
+    return arguments;
+  }
+
+  /**
+   * Checks that a callee can be called with a number of arguments, and caches it on the call.
+   *
+   * @param expr the call
+   * @param callee the evaluated callee
+   * @param arguments the number of arguments
+   * @return the callee
+   * @throws RuntimeError if the callee is not a function or takes another number of arguments
+   * @throws NallaPointerException if the callee is {@code nalla}
+   */
+  private static BhaiCallable callable(Expr.Call expr, Object callee, int arguments) {
+    if (!(callee instanceof BhaiCallable function)) {
+      if (callee == null)
+        throw new NallaPointerException(expr.paren, "Bhai! Nalla value caught!!!");
+      throw new RuntimeError(expr.paren, "Only functions can be called.");
+    }
+    if (arguments != function.arity()) {
+      throw new RuntimeError(
+          expr.paren, "Expected " + function.arity() + " arguments but got " + arguments + ".");
+    }
+    expr.cache = function;
+    return function;
+  }
+
+  /**
+   * Runs a function declared in the script in a frame holding its arguments.
+   *
+   * <p>A tail call returned by the body replaces the function and frame, and runs in the same loop,
+   * so tail recursion does not grow the Java stack. Loops around the call cannot be left with
+   * {@code bas kar bhai} from inside it. Recursion too deep for the Java stack is a runtime error.
+   *
+   * @param function the function
+   * @param frame the frame, with the arguments in its first slots
+   * @param paren the closing parenthesis of the call, for error reporting
+   * @return the returned value, or null if the body ends without {@code wapas kar bhai}
+   */
+  Object invoke(BhaiFunction function, Environment frame, Token paren) {
+    int loops = loopDepth;
+    loopDepth = 0;
+    callDepth++;
+    try {
+      while (true) {
+        try {
+          executeBlock(function.declaration.body.statements, frame);
+          return null;
+        } catch (ReturnException signal) {
+          if (signal.function == null) {
+            Object value = signal.value;
+            signal.value = null;
+            return value;
+          }
+          function = signal.function;
+          frame = signal.frame;
+          signal.function = null;
+          signal.frame = null;
+        }
+      }
+    } catch (StackOverflowError error) {
+      throw new RuntimeError(paren, "Stack overflow.");
+    } finally {
+      loopDepth = loops;
+      callDepth--;
+    }
+  }
+
+  @Override
+  public Object visitRecordLiteralExpr(Expr.RecordLiteral expr) {
+    Shape shape;
+    if (expr.cache instanceof Shape cached) {
+      shape = cached;
+    } else {
+      shape = Shape.EMPTY;
+      for (Token name : expr.names) {
+        shape = shape.with(name.getLexeme());
+      }
+      expr.cache = shape;
+    }
+    Object[] values = new Object[shape.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = evaluate(expr.values.get(i));
+    }
+    return new BhaiRecord(shape, values);
+  }
+
+  @Override
+  public Object visitGetExpr(Expr.Get expr) {
+    BhaiRecord record = record(expr.name, evaluate(expr.object));
+    return record.values[slot(expr, expr.name, record.shape)];
+  }
+
+  @Override
+  public Object visitSetExpr(Expr.Set expr) {
+    BhaiRecord record = record(expr.name, evaluate(expr.object));
+    int slot = slot(expr, expr.name, record.shape);
+    Object value = evaluate(expr.value);
+    if (expr.operator != null) {
+      value = Values.binary(expr.operator, record.values[slot], value);
+    }
+    record.values[slot] = value;
+    return value;
+  }
+
+  /**
+   * Checks that a value whose field is accessed is a record.
+   *
+   * @param name the field name, for error reporting
+   * @param target the value
+   * @return the record
+   * @throws RuntimeError if the value is not a record
+   * @throws NallaPointerException if the value is {@code nalla}
+   */
+  private static BhaiRecord record(Token name, Object target) {
+    if (target instanceof BhaiRecord record) return record;
+    if (target == null) throw new NallaPointerException(name, "Bhai! Nalla value caught!!!");
+    throw new RuntimeError(name, "Only records have fields.");
+  }
+
+  /**
+   * Finds the slot of a field in a record's shape, through the cache on the accessing node.
+   *
+   * <p>While records reaching the node keep the shape it cached, this is one comparison. On a
+   * different shape the field is looked up by name and the cache replaced.
+   *
+   * @param expr the field access
+   * @param name the field name
+   * @param shape the shape of the record accessed
+   * @return the slot
+   * @throws RuntimeError if the shape has no such field
+   */
+  private static int slot(Expr expr, Token name, Shape shape) {
+    if (expr.cache instanceof FieldSlot cached && cached.shape() == shape) {
+      return cached.slot();
+    }
+    int slot = shape.slot(name.getLexeme());
+    if (slot < 0) {
+      throw new RuntimeError(name, "Record has no field '" + name.getLexeme() + "'.");
+    }
+    expr.cache = new FieldSlot(shape, slot);
+    return slot;
+  }
+
+  @Override
+  public Object visitListLiteralExpr(Expr.ListLiteral expr) {
+    BhaiList list = new BhaiList(expr.elements.size());
+    for (Expr element : expr.elements) {
+      if (isUnboxedDouble(element)) {
+        list.setNumber(list.size(), number(element));
+      } else {
+        list.add(evaluate(element));
+      }
+    }
+    return list;
+  }
+
+  @Override
+  public Object visitMapLiteralExpr(Expr.MapLiteral expr) {
+    BhaiMap map = new BhaiMap(expr.keys.size());
+    for (int i = 0; i < expr.keys.size(); i++) {
+      Object key = key(expr.brace, evaluate(expr.keys.get(i)));
+      map.put(key, evaluate(expr.values.get(i)));
+    }
+    return map;
+  }
+
+  @Override
+  public Object visitIndexExpr(Expr.Index expr) {
+    Object target = evaluate(expr.object);
+    if (target instanceof BhaiMap map) {
+      int entry;
+      if (isUnboxed(expr.index)) {
+        entry = map.find(number(expr.index));
+      } else {
+        entry = map.find(key(expr.bracket, evaluate(expr.index)));
+      }
+      return entry < 0 ? null : map.valueAt(entry);
+    }
+    double index = index(expr.bracket, expr.index);
+    if (target instanceof BhaiBuffer buffer) {
+      return buffer.get(element(expr.bracket, buffer, index));
+    }
+    BhaiList list = list(expr.bracket, target);
+    return list.get(position(expr.bracket, index, list.size()));
+  }
+
+  @Override
+  public Object visitIndexAssignExpr(Expr.IndexAssign expr) {
+    return assignIndex(expr, true);
+  }
+
+  /**
+   * Stores into a list element or map entry.
+   *
+   * <p>The list or map, index and value are evaluated in that order. A double stored into a list of
+   * doubles is computed and stored without boxing when the value is unboxed, and a compound
+   * assignment such as {@code xs[i] += k} on a list of doubles does its arithmetic on the unboxed
+   * element. Storing at the index equal to the size appends.
+   *
+   * <p>Assigning to a missing map key adds it; a compound assignment to one fails like arithmetic
+   * on {@code nalla}.
+   *
+   * @param expr the assignment
+   * @param used whether the caller needs the assigned value
+   * @return the assigned value, or null if it is a number and not used
+   */
+  private Object assignIndex(Expr.IndexAssign expr, boolean used) {
+    Object target = evaluate(expr.object);
+    if (target instanceof BhaiMap map) {
+      Object key = key(expr.bracket, evaluate(expr.index));
+      if (expr.operator == null) {
+        Object value = evaluate(expr.value);
+        map.put(key, value);
+        return value;
+      }
+      int entry = map.find(key);
+      Object current = entry < 0 ? null : map.valueAt(entry);
+      Object value = Values.binary(expr.operator, current, evaluate(expr.value));
+      if (entry < 0) {
+        map.put(key, value);
+      } else {
+        map.setValueAt(entry, value);
+      }
+      return value;
+    }
+    double index = index(expr.bracket, expr.index);
+    if (target instanceof BhaiBuffer buffer) {
+      return assignElement(expr, buffer, element(expr.bracket, buffer, index), used);
+    }
+
+    if (expr.operator == null) {
+      if (target instanceof BhaiList list && list.isNumeric() && isUnboxedDouble(expr.value)) {
+        double value = number(expr.value);
+        list.setNumber(position(expr.bracket, index, list.size() + 1), value);
+        return used ? value : null;
+      }
+      Object value = evaluate(expr.value);
+      BhaiList list = list(expr.bracket, target);
+      list.set(position(expr.bracket, index, list.size() + 1), value);
+      return value;
+    }
+
+    BhaiList list = list(expr.bracket, target);
+    int position = position(expr.bracket, index, list.size());
+    if (list.isNumeric() && isUnboxed(expr.value)) {
+      double current = list.getNumber(position);
+      double value = arithmetic(expr.operator.getType(), current, number(expr.value));
+      list.setNumber(position, value);
+      return used ? value : null;
+    }
+    Object current = list.get(position);
+    Object value = Values.binary(expr.operator, current, evaluate(expr.value));
+    list.set(position, value);
+    return value;
+  }
+
+  /**
+   * Stores into a buffer element.
+   *
+   * <p>Double buffers compute and store an unboxed value without boxing it, including the
+   * arithmetic of a compound assignment. Integer buffers store whole numbers only, doing compound
+   * arithmetic like integer variables do so large values stay exact.
+   *
+   * @param expr the assignment
+   * @param buffer the buffer
+   * @param at the element's index, already checked
+   * @param used whether the caller needs the assigned value
+   * @return the assigned value, or null if it is not used
+   */
+  private Object assignElement(Expr.IndexAssign expr, BhaiBuffer buffer, long at, boolean used) {
+    Token token = expr.operator == null ? expr.bracket : expr.operator;
+    if (!buffer.isIntegral()) {
+      double value;
+      if (isUnboxed(expr.value)) {
+        value = number(expr.value);
+        if (expr.operator != null) {
+          value = arithmetic(expr.operator.getType(), buffer.getDouble(at), value);
+        }
+      } else {
+        Object operand = evaluate(expr.value);
+        if (expr.operator != null) {
+          operand = Values.binary(expr.operator, buffer.getDouble(at), operand);
+        }
+        value = BhaiBuffer.toDouble(token, operand);
+      }
+      buffer.setDouble(at, value);
+      return used ? value : null;
+    }
+
+    long value;
+    if (expr.operator == null && isUnboxed(expr.value)) {
+      value = BhaiBuffer.toLong(token, number(expr.value));
+    } else {
+      Object operand = evaluate(expr.value);
+      if (expr.operator != null) {
+        operand = Values.binary(expr.operator, buffer.getLong(at), operand);
+      }
+      value = BhaiBuffer.toLong(token, operand);
+    }
+    buffer.setLong(at, value);
+    return used ? value : null;
+  }
+
+  /**
+   * Checks that an index is in range for a buffer that has not been freed.
+   *
+   * @param bracket the opening bracket of the index, for error reporting
+   * @param buffer the buffer
+   * @param index the index, a whole number
+   * @return the index as a {@code long}
+   * @throws RuntimeError if the buffer is freed or the index is out of range
+   */
+  private static long element(Token bracket, BhaiBuffer buffer, double index) {
+    if (buffer.isFreed()) throw new RuntimeError(bracket, "This buffer has been freed.");
+    if (index < 0 || index >= buffer.size()) {
+      throw new RuntimeError(
+          bracket, "Index " + Values.stringify(index) + " is out of range for this buffer.");
+    }
+    return (long) index;
+  }
+
+  /**
+   * Checks that an indexed value, other than a map or buffer, is a list.
+   *
+   * @param bracket the opening bracket of the index, for error reporting
+   * @param target the indexed value
+   * @return the list
+   * @throws RuntimeError if the value is not a list
+   * @throws NallaPointerException if the value is {@code nalla}
+   */
+  private static BhaiList list(Token bracket, Object target) {
+    if (target instanceof BhaiList list) return list;
+    if (target == null) throw new NallaPointerException(bracket, "Bhai! Nalla value caught!!!");
+    throw new RuntimeError(bracket, "Only lists, maps and buffers can be indexed.");
+  }
+
+  /**
+   * Checks that a map key is not {@code nalla}.
+   *
+   * @param token the token to report errors at
+   * @param key the evaluated key
+   * @return the key
+   * @throws NallaPointerException if the key is {@code nalla}
+   */
+  private static Object key(Token token, Object key) {
+    if (key == null) throw new NallaPointerException(token, "Bhai! Nalla value caught!!!");
+    return key;
+  }
+
+  /**
+   * Evaluates a list index, without boxing it if it is unboxed.
+   *
+   * @param bracket the opening bracket of the index, for error reporting
+   * @param expr the index expression
+   * @return the index
+   * @throws RuntimeError if the index is not a whole number
+   * @throws NallaPointerException if the index is {@code nalla}
+   */
+  private double index(Token bracket, Expr expr) {
+    double index;
+    if (isUnboxed(expr)) {
+      index = number(expr);
+    } else {
+      Object value = evaluate(expr);
+      if (value == null) throw new NallaPointerException(bracket, "Bhai! Nalla value caught!!!");
+      if (!Values.isNumber(value)) {
+        throw new RuntimeError(bracket, "List index must be a whole number.");
+      }
+      index = ((Number) value).doubleValue();
+    }
+    if (index != Math.rint(index)) {
+      throw new RuntimeError(bracket, "List index must be a whole number.");
+    }
+    return index;
+  }
+
+  /**
+   * Checks that an index is in range.
+   *
+   * @param bracket the opening bracket of the index, for error reporting
+   * @param index the index, a whole number
+   * @param limit the smallest index that is out of range
+   * @return the index as an {@code int}
+   * @throws RuntimeError if the index is negative or not below the limit
+   */
+  private static int position(Token bracket, double index, int limit) {
+    if (index < 0 || index >= limit) {
+      throw new RuntimeError(
+          bracket, "Index " + Values.stringify(index) + " is out of range for this list.");
+    }
+    return (int) index;
+  }
+
+  @Override
+  public Void visitExpressionStmt(Stmt.Expression stmt) {
+    if (stmt.expression instanceof Expr.Assign assign) {
+      // Skip boxing the value of an unboxed assignment, since it is discarded anyway.
+      Integer slot = numberSlots.get(assign);
+      if (slot != null) {
+        assignNumber(assign, slot);
+        return null;
+      }
+      slot = integerSlots.get(assign);
+      if (slot != null) {
+        storeInteger(environment.ancestor(locals.get(assign)), slot, assign.value);
+        return null;
+      }
+    }
+    if (stmt.expression instanceof Expr.IndexAssign assign) {
+      assignIndex(assign, false);
+      return null;
+    }
+    evaluate(stmt.expression);
+    return null;
+  }
+
+  @Override
+  public Void visitIfStmt(Stmt.If stmt) {
+    if (Values.isTruthy(evaluate(stmt.condition))) {
+      execute(stmt.thenBranch);
+      return null;
+    }
+
+    for (int i = 0; i < stmt.elseIfConditions.size(); i++) {
+      if (Values.isTruthy(evaluate(stmt.elseIfConditions.get(i)))) {
+        execute(stmt.elseIfBranches.get(i));
+        return null;
+      }
+    }
+
+    if (stmt.elseBranch != null) {
+      execute(stmt.elseBranch);
+    }
+    return null;
+  }
+
+  /**
+   * Executes a switch statement built from an if-else-if chain.
+   *
+   * <p>Looks the subject up in a hash table from case value to branch, built the first time the
+   * statement runs. Values are looked up by their {@link Values#key}, which are equal exactly when
+   * {@link Values#isEqual} holds, so the branch taken is the one the original chain would have
+   * taken.
+   *
+   * @param stmt the switch statement
+   * @return null
+   */
+  @Override
+  public Void visitSwitchStmt(Stmt.Switch stmt) {
+    Map<Object, Stmt> table = jumpTables.get(stmt);
+    if (table == null) {
+      table = new HashMap<>();
+      for (int i = 0; i < stmt.keys.size(); i++) {
+        // The first of several equal cases wins, as in the chain.
+        table.putIfAbsent(Values.key(stmt.keys.get(i)), stmt.branches.get(i));
+      }
+      jumpTables.put(stmt, table);
+    }
+
+    Stmt branch = table.get(Values.key(evaluate(stmt.subject)));
+    if (branch == null) {
+      branch = stmt.elseBranch;
+    }
+    if (branch != null) {
+      execute(branch);
+    }
     return null;
   }
 
   @Override
   public Void visitPrintStmt(Stmt.Print stmt) {
-    if (stmt.expressions.size() == 1) {
-      Object value = evaluate(stmt.expressions.getFirst());
-      output.print(stringify(value));
+    Object[] values = new Object[stmt.expressions.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = evaluate(stmt.expressions.get(i));
+    }
+    print(values);
+    return null;
+  }
+
+  /**
+   * Prints evaluated values on one line, separated by spaces.
+   *
+   * <p>The line is formatted into a buffer reused by every print, and a line of several values is
+   * trimmed like {@link String#trim()} by skipping characters instead of copying.
+   *
+   * @param values the values of a print statement, in order
+   */
+  void print(Object[] values) {
+    line.setLength(0);
+    if (values.length == 1) {
+      Values.appendTo(line, values[0]);
+      output.print(line, 0, line.length());
     } else {
-      StringBuilder outputs = new StringBuilder();
-      for (Expr expr : stmt.expressions) {
-        Object value = evaluate(expr);
-        // output.print(stringify(value) + " ");
-        outputs.append(stringify(value)).append(" ");
+      for (Object value : values) {
+        Values.appendTo(line, value).append(' ');
       }
-      // output.print("\b");
-      output.print(outputs.toString().trim());
+      int start = 0;
+      int end = line.length();
+      while (start < end && line.charAt(start) <= ' ') start++;
+      while (end > start && line.charAt(end - 1) <= ' ') end--;
+      output.print(line, start, end);
     }
     output.println();
-    return null;
   }
 
   @Override
   public Void visitBlockStmt(Stmt.Block stmt) {
-    executeBlock(stmt.statements, new Environment(environment));
+    if (elidedBlocks.contains(stmt)) {
+      for (Stmt statement : stmt.statements) {
+        execute(statement);
+      }
+      return null;
+    }
+    executeBlock(stmt.statements, newFrame(stmt));
+    return null;
+  }
+
+  /**
+   * Declares a function, closing over the current environment.
+   *
+   * @param stmt the declaration
+   * @return null
+   */
+  @Override
+  public Void visitFunctionStmt(Stmt.Function stmt) {
+    BhaiFunction function =
+        new BhaiFunction(
+            stmt,
+            environment,
+            frameSlots.getOrDefault(stmt, stmt.params.size()),
+            frameSizes.getOrDefault(stmt.body, 0));
+    if (environment.isFrame()) {
+      environment.slots[declarationSlots.get(stmt)] = function;
+    } else {
+      environment.define(stmt.name.getLexeme(), function);
+    }
     return null;
   }
 
+  /**
+   * Returns from the running call.
+   *
+   * <p>When the value is a call to a function declared in the script, that call is a tail call: its
+   * callee and arguments are evaluated here, and the running call's frame is dropped before it
+   * runs.
+   *
+   * @param stmt the return statement
+   * @return never returns normally
+   * @throws ReturnException always, unless outside a function
+   */
+  @Override
+  public Void visitReturnStmt(Stmt.Return stmt) {
+    if (callDepth == 0) {
+      throw new RuntimeError(stmt.keyword, "Cannot use 'wapas kar bhai' outside function");
+    }
+    Object value = null;
+    if (stmt.value instanceof Expr.Call call) {
+      value = call(call, evaluate(call.callee), true);
+    } else if (stmt.value != null) {
+      value = evaluate(stmt.value);
+    }
+    returning.value = value;
+    throw returning;
+  }
+
+  /**
+   * Creates the environment a block runs in.
+   *
+   * @param block a block that was not elided
+   * @return a new environment enclosed in the current one
+   */
+  private Environment newFrame(Stmt.Block block) {
+    return new Environment(environment, frameSizes.getOrDefault(block, 0));
+  }
+
+  @Override
+  public Void visitLazyBlockStmt(Stmt.LazyBlock stmt) {
+    Stmt.Block block = materialized.get(stmt);
+    if (block == null) {
+      block = materialize(stmt);
+    }
+    return visitBlockStmt(block);
+  }
+
+  /**
+   * Parses and resolves a lazy block the first time it runs.
+   *
+   * @param stmt the {@link Stmt.LazyBlock} to materialize
+   * @return the parsed and resolved {@link Stmt.Block}
+   * @throws RuntimeError if the block body has syntax or resolution errors
+   */
+  private Stmt.Block materialize(Stmt.LazyBlock stmt) {
+    Parser parser = new Parser(stmt);
+    Stmt.Block block = new Stmt.Block(parser.parseBlockBody());
+    if (parser.hadError()) {
+      throw new RuntimeError(stmt.brace, "Block could not be parsed.");
+    }
+
+    List<Map<String, Symbol>> scopes = deferred.remove(stmt);
+    if (scopes == null) {
+      scopes = List.of();
+    }
+    Resolver resolver = new Resolver(this, scopes);
+    resolver.resolve(List.of(block));
+    if (resolver.hadError()) {
+      throw new RuntimeError(stmt.brace, "Block could not be resolved.");
+    }
+
+    if (BhaiLang.optimize) {
+      List<Stmt> optimized = new Optimizer(scopes).optimize(List.of(block), resolver.getSymbols());
+      if (optimized.size() == 1 && optimized.get(0) instanceof Stmt.Block optimizedBlock) {
+        block = optimizedBlock;
+      } else {
+        block = new Stmt.Block(optimized);
+      }
+      resolver = new Resolver(this, scopes);
+      resolver.resolve(List.of(block));
+      new TypeInference(resolver.getSymbols(), this).infer(List.of(block));
+    }
+
+    materialized.put(stmt, block);
+    return block;
+  }
+
   @Override
   public Void visitVarStmt(Stmt.Var stmt) {
+    Integer slot = declaredSlots.get(stmt);
+    if (slot != null) {
+      environment.assignNumberAt(0, slot, number(stmt.initializer));
+      return null;
+    }
+    slot = declaredIntegers.get(stmt);
+    if (slot != null) {
+      storeInteger(environment, slot, stmt.initializer);
+      return null;
+    }
+
     Object value = null;
     if (stmt.initializer != null) value = evaluate(stmt.initializer);
 
-    environment.define(stmt.name.getLexeme(), value);
+    if (environment.isFrame()) {
+      // Only declarations directly in a function's body run in its frame.
+      environment.slots[declarationSlots.get(stmt)] = value;
+    } else {
+      environment.define(stmt.name.getLexeme(), value);
+    }
     return null;
   }
 
   @Override
   public Void visitWhileStmt(Stmt.While stmt) {
+    // No environment can outlive an iteration, so a block body reuses one frame, reset each time.
+    Environment frame = loopFrame(stmt.body);
+
     loopDepth++;
     try {
+      CountedLoop counted = countedLoops.get(stmt);
+      // A body functions may capture runs through the general loop, which gives it a new frame
+      // every iteration.
+      if (counted != null && !capturedBlocks.contains(stmt.body) && count(counted, frame)) {
+        return null;
+      }
 
-      while (isTruthy(evaluate(stmt.condition))) {
-        try {
-          execute(stmt.body);
-        } catch (ContinueException e) {
-          continue;
-        } catch (BreakException e) {
-          break;
-        }
+      while (Values.isTruthy(evaluate(stmt.condition))) {
+        if (!iterate(stmt.body, frame)) break;
       }
     } finally {
       loopDepth--;
@@ -310,128 +1661,379 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
     return null;
   }
 
-  @Override
-  public Void visitBreakStmt(Stmt.Break stmt) {
-    if (loopDepth == 0) {
-      throw new RuntimeError(stmt.keyword, "Cannot use 'bas kar bhai' outside loop");
+  /**
+   * Runs a {@code jab tak bhai} loop that counts, with its counter in a Java local.
+   *
+   * <p>The bound is evaluated once, where the condition would first evaluate it. The counter is
+   * compared and incremented as a {@code double}, exactly like the unboxed condition and increment
+   * would, and written to its slot after every increment so the body and the code after the loop
+   * see it. An iteration left through {@code agla dekh bhai} skips the increment, as it would.
+   *
+   * @param loop how the loop counts
+   * @param frame the reused body frame, or null
+   * @return false, before running any iteration, if the bound is not a number or is an integer that
+   *     a {@code double} cannot hold exactly
+   */
+  private boolean count(CountedLoop loop, Environment frame) {
+    if (integerSlots.containsKey(loop.counter)) return countIntegers(loop, frame);
+    Object bound = evaluate(loop.bound);
+    if (!Values.isNumber(bound)) return false;
+    double last = ((Number) bound).doubleValue();
+    if (bound instanceof Long integer && (long) last != integer) return false;
+
+    Environment home = environment.ancestor(locals.get(loop.counter));
+    int slot = numberSlots.get(loop.counter);
+    double i = home.getNumberAt(0, slot);
+    while (compare(loop.comparison, i, last)) {
+      try {
+        if (frame != null) {
+          frame.reset();
+          executeBlock(loop.rest, frame);
+        } else {
+          for (Stmt statement : loop.rest) {
+            execute(statement);
+          }
+        }
+      } catch (ContinueException e) {
+        continue;
+      } catch (BreakException e) {
+        break;
+      }
+      i += loop.step.doubleValue();
+      home.assignNumberAt(0, slot, i);
     }
-    throw new BreakException();
+    return true;
   }
 
-  @Override
-  public Void visitContinueStmt(Stmt.Continue stmt) {
-    if (loopDepth == 0) {
-      throw new RuntimeError(stmt.keyword, "Cannot use 'agla dekh bhai' outside loop");
+  /**
+   * Runs a {@code jab tak bhai} loop that counts an integer variable, with its counter in a Java
+   * {@code long}.
+   *
+   * <p>The counter is compared and incremented exactly like the boxed condition and increment would
+   * compare and add two integers, and written to its slot after every increment. An increment that
+   * overflows stores the double {@code +} gives instead and leaves the rest of the loop to the
+   * general path, which sees the same condition and counter.
+   *
+   * @param loop how the loop counts
+   * @param frame the reused body frame, or null
+   * @return false if the bound is not an integer or the counter holds a double, before running any
+   *     iteration, or if the counter overflowed
+   */
+  private boolean countIntegers(CountedLoop loop, Environment frame) {
+    if (!(evaluate(loop.bound) instanceof Long last)) return false;
+    Environment home = environment.ancestor(locals.get(loop.counter));
+    int slot = integerSlots.get(loop.counter);
+    if (home.getSpilledAt(0, slot) != null) return false;
+
+    long step = (Long) loop.step;
+    long i = home.getIntegerAt(0, slot);
+    while (compare(loop.comparison, i, last)) {
+      try {
+        if (frame != null) {
+          frame.reset();
+          executeBlock(loop.rest, frame);
+        } else {
+          for (Stmt statement : loop.rest) {
+            execute(statement);
+          }
+        }
+      } catch (ContinueException e) {
+        continue;
+      } catch (BreakException e) {
+        break;
+      }
+      long next = i + step;
+      if (((i ^ next) & (step ^ next)) < 0) {
+        home.spillAt(0, slot, (double) i + (double) step);
+        return false;
+      }
+      i = next;
+      home.assignIntegerAt(0, slot, i);
     }
-    throw new ContinueException();
+    return true;
   }
 
   /**
-   * Executes a block of statements in a new environment.
+   * Compares two numbers.
    *
-   * @param statements the list of statements to execute
-   * @param environment the environment in which the block executes
+   * @param comparison {@code <}, {@code <=}, {@code >} or {@code >=}
+   * @param left the left operand
+   * @param right the right operand
+   * @return the result of the comparison
    */
-  private void executeBlock(List<Stmt> statements, Environment environment) {
-    Environment previous = this.environment;
-    try {
-      this.environment = environment;
+  private static boolean compare(TokenType comparison, double left, double right) {
+    switch (comparison) {
+      case LESS -> {
+        return left < right;
+      }
+      case LESS_EQUAL -> {
+        return left <= right;
+      }
+      case GREATER -> {
+        return left > right;
+      }
+      default -> {
+        return left >= right;
+      }
+    }
+  }
 
-      for (Stmt statement : statements) {
-        execute(statement);
+  /**
+   * Compares two integers.
+   *
+   * @param comparison {@code <}, {@code <=}, {@code >} or {@code >=}
+   * @param left the left operand
+   * @param right the right operand
+   * @return the result of the comparison
+   */
+  private static boolean compare(TokenType comparison, long left, long right) {
+    switch (comparison) {
+      case LESS -> {
+        return left < right;
+      }
+      case LESS_EQUAL -> {
+        return left <= right;
+      }
+      case GREATER -> {
+        return left > right;
+      }
+      default -> {
+        return left >= right;
       }
+    }
+  }
+
+  /**
+   * Runs a counted loop.
+   *
+   * <p>The start and end are evaluated once. The counter lives in a Java local, as a {@code long}
+   * when the start, end and step are integers and as a {@code double} when the start is a double,
+   * and is copied into the loop variable before each iteration, an unboxed slot when type inference
+   * proved the variable integer or double; assigning the variable in the body does not change which
+   * iterations run. Other mixes of integers and doubles, and operands that are not numbers, step
+   * through {@link Values} with the same {@code <} or {@code >} comparison and {@code +} the loop
+   * stands for, so results and errors match the IR engines.
+   *
+   * @param stmt the loop
+   * @return null
+   */
+  @Override
+  public Void visitRangeStmt(Stmt.Range stmt) {
+    Object start = evaluate(stmt.counter.initializer);
+    Object end = evaluate(stmt.end);
 
+    Integer slot = declaredSlots.get(stmt.counter);
+    Integer integer = declaredIntegers.get(stmt.counter);
+    Environment previous = environment;
+    environment = new Environment(environment, slot == null && integer == null ? 0 : 1);
+    loopDepth++;
+    try {
+      Environment frame = loopFrame(stmt.body);
+      if (start instanceof Long first
+          && end instanceof Long last
+          && stmt.step instanceof Long step) {
+        countIntegers(stmt, slot, integer, frame, first, last, step);
+      } else if (start instanceof Double first && Values.isNumber(end)) {
+        countDecimals(stmt, slot, integer, frame, first, ((Number) end).doubleValue());
+      } else {
+        count(stmt, slot, integer, frame, start, end);
+      }
     } finally {
-      this.environment = previous;
+      loopDepth--;
+      environment = previous;
     }
+    return null;
   }
 
   /**
-   * Determines the truthiness of a value for conditional expressions.
+   * Runs a counted loop on a {@code long} counter.
+   *
+   * <p>A counter that would overflow ends the loop, since {@code +} would turn it into a double
+   * beyond every {@code long} end.
    *
-   * @param object the value to test
-   * @return true if the value is considered truthy, false otherwise
+   * @param stmt the loop
+   * @param slot the counter's number slot if it is a double, or null
+   * @param integer the counter's number slot if it is an integer, or null
+   * @param frame the reused body frame, or null
+   * @param first the first value of the counter
+   * @param last the end, exclusive
+   * @param step the step
    */
-  private boolean isTruthy(Object object) {
-    if (object == null) {
-      return false;
-    }
-    if (object instanceof Number) {
-      return ((Number) object).doubleValue() != 0;
+  private void countIntegers(
+      Stmt.Range stmt,
+      Integer slot,
+      Integer integer,
+      Environment frame,
+      long first,
+      long last,
+      long step) {
+    String name = stmt.counter.name.getLexeme();
+    boolean captured = capturedBlocks.contains(stmt.body);
+    for (long i = first; step > 0 ? i < last : i > last; i += step) {
+      if (captured) renewCounter(slot, integer);
+      if (integer != null) {
+        environment.assignIntegerAt(0, integer, i);
+      } else if (slot != null) {
+        environment.assignNumberAt(0, slot, i);
+      } else {
+        environment.define(name, i);
+      }
+      if (!iterate(stmt.body, frame)) break;
+      if (step > 0 ? i > Long.MAX_VALUE - step : i < Long.MIN_VALUE - step) break;
     }
-    if (object instanceof Boolean) {
-      return (Boolean) object;
+  }
+
+  /**
+   * Runs a counted loop on a {@code double} counter.
+   *
+   * @param stmt the loop
+   * @param slot the counter's number slot if it is a double, or null
+   * @param integer the counter's number slot if it is an integer, or null
+   * @param frame the reused body frame, or null
+   * @param first the first value of the counter
+   * @param last the end, exclusive
+   */
+  private void countDecimals(
+      Stmt.Range stmt,
+      Integer slot,
+      Integer integer,
+      Environment frame,
+      double first,
+      double last) {
+    String name = stmt.counter.name.getLexeme();
+    double step = ((Number) stmt.step).doubleValue();
+    boolean captured = capturedBlocks.contains(stmt.body);
+    for (double i = first; step > 0 ? i < last : i > last; i += step) {
+      if (captured) renewCounter(slot, integer);
+      if (slot != null) {
+        environment.assignNumberAt(0, slot, i);
+      } else if (integer != null) {
+        // An integer counter starts at a double only if its start overflowed.
+        environment.spillAt(0, integer, i);
+      } else {
+        environment.define(name, i);
+      }
+      if (!iterate(stmt.body, frame)) break;
     }
-    return true;
   }
 
   /**
-   * Checks equality between two values.
+   * Runs a counted loop through {@link Values}, for any start and end.
    *
-   * @param a first value
-   * @param b second value
-   * @return true if both are equal, false otherwise
+   * @param stmt the loop
+   * @param slot the counter's number slot if it is a double, or null
+   * @param integer the counter's number slot if it is an integer, or null
+   * @param frame the reused body frame, or null
+   * @param start the first value of the counter
+   * @param end the end, exclusive
    */
-  private boolean isEqual(Object a, Object b) {
-    if (a == null && b == null) return true;
-    if (a == null) return false;
+  private void count(
+      Stmt.Range stmt, Integer slot, Integer integer, Environment frame, Object start, Object end) {
+    int line = stmt.keyword.getLine();
+    boolean up = ((Number) stmt.step).doubleValue() > 0;
+    Token comparison = up ? new Token(LESS, "<", null, line) : new Token(GREATER, ">", null, line);
+    Token plus = new Token(PLUS, "+", null, line);
 
-    return a.equals(b);
+    Object counter = start;
+    boolean captured = capturedBlocks.contains(stmt.body);
+    while (Values.isTruthy(Values.binary(comparison, counter, end))) {
+      if (captured) renewCounter(slot, integer);
+      if (slot != null) {
+        environment.assignNumberAt(0, slot, ((Number) counter).doubleValue());
+      } else if (integer != null) {
+        storeInteger(environment, integer, counter);
+      } else {
+        environment.define(stmt.counter.name.getLexeme(), counter);
+      }
+      if (!iterate(stmt.body, frame)) break;
+      counter = Values.binary(plus, counter, stmt.step);
+    }
   }
 
   /**
-   * Ensures that an operand is a number.
+   * Replaces the environment holding a counted loop's counter, so that functions declared in one
+   * iteration keep the value the counter had in it.
    *
-   * @param operator the operator token
-   * @param operand the operand to check
-   * @throws RuntimeError if the operand is not a number
+   * @param slot the counter's number slot if it is a double, or null
+   * @param integer the counter's number slot if it is an integer, or null
    */
-  private void checkNumberOperand(Token operator, Object operand) {
-    if (operand instanceof Double) {
-      return;
-    }
+  private void renewCounter(Integer slot, Integer integer) {
+    environment = new Environment(environment.enclosing, slot == null && integer == null ? 0 : 1);
+  }
 
-    throw new RuntimeError(operator, "Operand must be a number.");
+  /**
+   * Returns the frame a loop body reuses across iterations.
+   *
+   * @param body the loop body
+   * @return a new environment for a block body that declares variables and no functions could
+   *     capture, otherwise null
+   */
+  private Environment loopFrame(Stmt body) {
+    if (body instanceof Stmt.Block block
+        && !elidedBlocks.contains(block)
+        && !capturedBlocks.contains(block)) {
+      return newFrame(block);
+    }
+    return null;
   }
 
   /**
-   * Ensures that both operands are numbers.
+   * Runs one iteration of a loop body.
    *
-   * @param operator the operator token
-   * @param left the left operand
-   * @param right the right operand
-   * @throws RuntimeError if any operand is not a number
-   * @throws NallaPointerException if any operand is null
+   * @param body the loop body
+   * @param frame the frame from {@link #loopFrame(Stmt)}
+   * @return false if the body broke out of the loop
    */
-  private void checkNumberOperands(Token operator, Object left, Object right) {
-    if (left instanceof Double && right instanceof Double) {
-      return;
+  private boolean iterate(Stmt body, Environment frame) {
+    try {
+      if (frame != null) {
+        frame.reset();
+        executeBlock(((Stmt.Block) body).statements, frame);
+      } else {
+        execute(body);
+      }
+    } catch (ContinueException e) {
+      return true;
+    } catch (BreakException e) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public Void visitBreakStmt(Stmt.Break stmt) {
+    if (loopDepth == 0) {
+      throw new RuntimeError(stmt.keyword, "Cannot use 'bas kar bhai' outside loop");
     }
-    if (left == null || right == null) {
-      throw new NallaPointerException(operator, "Bhai! Nalla value caught!!!");
+    throw new BreakException();
+  }
+
+  @Override
+  public Void visitContinueStmt(Stmt.Continue stmt) {
+    if (loopDepth == 0) {
+      throw new RuntimeError(stmt.keyword, "Cannot use 'agla dekh bhai' outside loop");
     }
-    throw new RuntimeError(operator, "Operands must be numbers.");
+    throw new ContinueException();
   }
 
   /**
-   * Converts a value to a string for printing.
+   * Executes a block of statements in a new environment.
    *
-   * @param object the value to convert
-   * @return string representation of the value
+   * @param statements the list of statements to execute
+   * @param environment the environment in which the block executes
    */
-  private String stringify(Object object) {
-    if (object == null) return "nalla";
-    if (object instanceof Boolean) {
-      if ((Boolean) object) return "sahi";
-      else return "galat";
-    }
-    if (object instanceof Double) {
-      String text = object.toString();
-      if (text.endsWith(".0")) text = text.substring(0, text.length() - 2);
+  private void executeBlock(List<Stmt> statements, Environment environment) {
+    Environment previous = this.environment;
+    try {
+      this.environment = environment;
+
+      for (Stmt statement : statements) {
+        execute(statement);
+      }
 
-      return text;
+    } finally {
+      this.environment = previous;
     }
-    return object.toString();
   }
 
   /**
@@ -0,0 +1,200 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.ir.BasicBlock;
+import io.github.journeycodesayush.javabhailang.ir.Graph;
+import io.github.journeycodesayush.javabhailang.ir.Instruction;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a program lowered to a {@link Graph}.
+ *
+ * <p>Every instruction id is a slot in a register file, so SSA values are read and written by index
+ * instead of being looked up by name in environments. Phis are resolved on the edge a block is
+ * entered by, all at once, as SSA requires. Globals and printed output are shared with the owning
+ * {@link Interpreter}, so a REPL can mix both engines.
+ */
+class IrInterpreter {
+
+  /** The interpreter whose globals and output the program uses. */
+  private final Interpreter interpreter;
+
+  /** The program to run. */
+  private final Graph graph;
+
+  /** The value of every instruction that has run, by instruction id. */
+  private final Object[] registers;
+
+  /** The cell of every global load or store that has run, by instruction id. */
+  private final GlobalEnvironment.Cell[] cells;
+
+  /** Switch blocks that have already run, mapped to their case value to successor tables. */
+  private final Map<BasicBlock, Map<Object, BasicBlock>> jumpTables = new HashMap<>();
+
+  /**
+   * Constructs an engine for one graph.
+   *
+   * @param interpreter the interpreter whose globals and output to use
+   * @param graph the graph to run
+   */
+  IrInterpreter(Interpreter interpreter, Graph graph) {
+    this.interpreter = interpreter;
+    this.graph = graph;
+    this.registers = new Object[graph.getValueCount()];
+    this.cells = new GlobalEnvironment.Cell[graph.getValueCount()];
+  }
+
+  /**
+   * Runs the graph from its entry block until a block ends the program.
+   *
+   * @throws RuntimeError if the program raises a runtime error
+   * @throws NallaPointerException if the program operates on {@code nalla}
+   */
+  void run() {
+    BasicBlock previous = null;
+    BasicBlock block = graph.getEntry();
+    while (block != null) {
+      if (previous != null && !block.getPhis().isEmpty()) {
+        enter(block, previous);
+      }
+      for (Instruction instruction : block.getInstructions()) {
+        registers[instruction.getId()] = execute(instruction);
+      }
+      previous = block;
+      block = next(block);
+    }
+  }
+
+  /**
+   * Assigns the phis of a block the values flowing in along one edge.
+   *
+   * <p>All incoming values are read before any phi is written, since a phi may feed another phi of
+   * the same block around a loop.
+   *
+   * @param block the block being entered
+   * @param predecessor the block control comes from
+   */
+  private void enter(BasicBlock block, BasicBlock predecessor) {
+    int edge = block.getPredecessors().indexOf(predecessor);
+    List<Instruction> phis = block.getPhis();
+    Object[] incoming = new Object[phis.size()];
+    for (int i = 0; i < incoming.length; i++) {
+      incoming[i] = registers[phis.get(i).getOperands().get(edge).getId()];
+    }
+    for (int i = 0; i < incoming.length; i++) {
+      registers[phis.get(i).getId()] = incoming[i];
+    }
+  }
+
+  /**
+   * Runs one instruction.
+   *
+   * @param instruction the instruction
+   * @return the value it defines
+   */
+  private Object execute(Instruction instruction) {
+    List<Instruction> operands = instruction.getOperands();
+    switch (instruction.getOp()) {
+      case CONST -> {
+        return instruction.getConstant();
+      }
+      case COPY -> {
+        return value(operands.get(0));
+      }
+      case UNARY -> {
+        return Values.unary(instruction.getToken(), value(operands.get(0)));
+      }
+      case BINARY -> {
+        return Values.binary(
+            instruction.getToken(), value(operands.get(0)), value(operands.get(1)));
+      }
+      case LOAD_GLOBAL -> {
+        return cell(instruction).value;
+      }
+      case STORE_GLOBAL -> {
+        GlobalEnvironment.Cell cell = cell(instruction);
+        Object value = value(operands.get(0));
+        cell.value = value;
+        return value;
+      }
+      case DEFINE_GLOBAL -> {
+        Object value = value(operands.get(0));
+        interpreter.globals.define(instruction.getToken().getLexeme(), value);
+        return value;
+      }
+      case PRINT -> {
+        Object[] values = new Object[operands.size()];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = value(operands.get(i));
+        }
+        interpreter.print(values);
+        return null;
+      }
+      case FAIL ->
+          throw new RuntimeError(instruction.getToken(), (String) instruction.getConstant());
+      default -> throw new IllegalStateException("Phi outside the start of a block.");
+    }
+  }
+
+  /**
+   * Returns the block control continues with after a block.
+   *
+   * @param block the block that just ran
+   * @return the next block, or null if the program ends
+   */
+  private BasicBlock next(BasicBlock block) {
+    List<BasicBlock> successors = block.getSuccessors();
+    switch (block.getExit()) {
+      case JUMP -> {
+        return successors.get(0);
+      }
+      case BRANCH -> {
+        return successors.get(Values.isTruthy(value(block.getCondition())) ? 0 : 1);
+      }
+      case SWITCH -> {
+        Map<Object, BasicBlock> table = jumpTables.get(block);
+        if (table == null) {
+          table = new HashMap<>();
+          for (int i = 0; i < block.getKeys().size(); i++) {
+            // The first of several equal cases wins, as in the chain.
+            table.putIfAbsent(Values.key(block.getKeys().get(i)), successors.get(i));
+          }
+          jumpTables.put(block, table);
+        }
+        return table.getOrDefault(Values.key(value(block.getCondition())), successors.getLast());
+      }
+      default -> {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Returns the cell of the global a load or store instruction refers to.
+   *
+   * <p>Cells are never replaced, so each instruction looks its cell up by name only once.
+   *
+   * @param instruction the instruction
+   * @return the global's cell
+   * @throws RuntimeError if the global is undefined
+   */
+  private GlobalEnvironment.Cell cell(Instruction instruction) {
+    GlobalEnvironment.Cell cell = cells[instruction.getId()];
+    if (cell == null) {
+      cell = interpreter.globals.cell(instruction.getToken());
+      cells[instruction.getId()] = cell;
+    }
+    return cell;
+  }
+
+  /**
+   * Reads the value of an instruction that has already run.
+   *
+   * @param instruction the instruction
+   * @return its value
+   */
+  private Object value(Instruction instruction) {
+    return registers[instruction.getId()];
+  }
+}
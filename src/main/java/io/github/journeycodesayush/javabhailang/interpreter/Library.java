@@ -0,0 +1,439 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The math, string and clock functions every interpreter starts with, defined as globals next to
+ * the {@link Builtins}.
+ *
+ * <p>Each function is a static Java method, or a method of {@link Math}, bound as a {@link
+ * HostFunction} once and shared by all interpreters. Calls therefore go through the adapted method
+ * handle without an argument array, and most return a value without allocating anything but its
+ * box. Functions on numbers keep integers exact where they can: {@code floor(2.5)} is the integer
+ * 2, and {@code mod} and {@code pow} of integers are integers unless they overflow.
+ *
+ * <p>Functions taking strings accept any string, including those held in ropes and slices, and
+ * report bad arguments as runtime errors at the call's closing parenthesis. {@code substring} and
+ * {@code split} return {@link Slice}s of their argument rather than copies, so taking text apart
+ * piece by piece does not copy it at every step.
+ */
+final class Library {
+
+  private Library() {}
+
+  /** The numbers {@link #num(String)} accepts, the same as number literals with a sign. */
+  private static final Pattern NUMBER = Pattern.compile("-?[0-9]+(\\.[0-9]+)?");
+
+  /** The functions, bound once. */
+  private static final List<HostFunction> FUNCTIONS = new ArrayList<>();
+
+  static {
+    // Math
+    math("sqrt", double.class);
+    math("exp", double.class);
+    math("log", double.class);
+    math("sin", double.class);
+    math("cos", double.class);
+    math("tan", double.class);
+    math("random");
+    own("abs", Object.class, Number.class);
+    own("floor", Object.class, double.class);
+    own("ceil", Object.class, double.class);
+    own("round", Object.class, double.class);
+    own("mod", Object.class, Number.class, Number.class);
+    own("pow", Object.class, Number.class, Number.class);
+    own("min", Object.class, Number.class, Number.class);
+    own("max", Object.class, Number.class, Number.class);
+
+    // Strings
+    own("upper", String.class, String.class);
+    own("lower", String.class, String.class);
+    own("trim", String.class, String.class);
+    own("contains", boolean.class, String.class, String.class);
+    own("indexOf", int.class, String.class, String.class);
+    own("replace", String.class, String.class, String.class, String.class);
+    own("repeat", String.class, String.class, int.class);
+    own("substring", CharSequence.class, CharSequence.class, int.class, int.class);
+    own("split", BhaiList.class, CharSequence.class, String.class);
+    own("join", String.class, Object.class, String.class);
+    own("str", String.class, Object.class);
+    own("num", Object.class, String.class);
+
+    // Clock
+    own("clock", double.class);
+    own("millis", long.class);
+  }
+
+  /**
+   * Binds a method of {@link Math} returning a {@code double}.
+   *
+   * @param name the name of the method, and of the global
+   * @param parameters its parameter types
+   */
+  private static void math(String name, Class<?>... parameters) {
+    bind(Math.class, name, methodType(double.class, parameters));
+  }
+
+  /**
+   * Binds a method of this class.
+   *
+   * @param name the name of the method, and of the global
+   * @param result its return type
+   * @param parameters its parameter types
+   */
+  private static void own(String name, Class<?> result, Class<?>... parameters) {
+    bind(Library.class, name, methodType(result, parameters));
+  }
+
+  /**
+   * Binds a static method.
+   *
+   * @param owner the class declaring the method
+   * @param name the name of the method, and of the global
+   * @param type its type
+   */
+  private static void bind(Class<?> owner, String name, MethodType type) {
+    try {
+      FUNCTIONS.add(new HostFunction(name, MethodHandles.lookup().findStatic(owner, name, type)));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * Defines the functions in a global environment.
+   *
+   * @param globals the environment
+   */
+  static void define(GlobalEnvironment globals) {
+    for (HostFunction function : FUNCTIONS) {
+      globals.define(function.name(), function);
+    }
+  }
+
+  /**
+   * Returns a whole number as an integer, if it fits in one.
+   *
+   * @param number a number without a fraction, or an infinity or NaN
+   * @return the number as a {@code Long} if it fits, otherwise as a {@code Double}
+   */
+  private static Object whole(double number) {
+    if (number >= -0x1p63 && number < 0x1p63 && number != 0) return (long) number;
+    // -0 stays a double, like the -0 integer arithmetic produces.
+    if (number == 0 && 1 / number > 0) return 0L;
+    return number;
+  }
+
+  /**
+   * {@code abs(x)}: the absolute value of a number.
+   *
+   * @param x the number
+   * @return its absolute value, an integer if {@code x} is one and the result fits
+   */
+  private static Object abs(Number x) {
+    if (x instanceof Long integer && integer != Long.MIN_VALUE) {
+      return integer < 0 ? -integer : integer;
+    }
+    return Math.abs(x.doubleValue());
+  }
+
+  /**
+   * {@code floor(x)}: the largest whole number not above a number.
+   *
+   * @param x the number
+   * @return the whole number, an integer if it fits in one
+   */
+  private static Object floor(double x) {
+    return whole(Math.floor(x));
+  }
+
+  /**
+   * {@code ceil(x)}: the smallest whole number not below a number.
+   *
+   * @param x the number
+   * @return the whole number, an integer if it fits in one
+   */
+  private static Object ceil(double x) {
+    return whole(Math.ceil(x));
+  }
+
+  /**
+   * {@code round(x)}: the whole number closest to a number, rounding halves up.
+   *
+   * @param x the number
+   * @return the whole number, an integer if it fits in one
+   */
+  private static Object round(double x) {
+    // Comparing the fraction avoids the rounding error of x + 0.5 just below a half and above 2^52.
+    double floor = Math.floor(x);
+    return whole(x - floor >= 0.5 ? floor + 1 : floor);
+  }
+
+  /**
+   * {@code mod(a, b)}: the remainder of dividing {@code a} by {@code b}, with the sign of {@code
+   * b}, so {@code mod(-1, 3)} is 2. The remainder of dividing by zero is NaN.
+   *
+   * @param a the dividend
+   * @param b the divisor
+   * @return the remainder, an integer if both numbers are integers
+   */
+  private static Object mod(Number a, Number b) {
+    if (a instanceof Long x && b instanceof Long y && y != 0) return Math.floorMod(x, y);
+    double x = a.doubleValue();
+    double y = b.doubleValue();
+    double remainder = x % y;
+    if (remainder != 0 && (remainder < 0) != (y < 0)) remainder += y;
+    return remainder;
+  }
+
+  /**
+   * {@code pow(a, b)}: {@code a} raised to the power {@code b}.
+   *
+   * @param a the base
+   * @param b the exponent
+   * @return the power, an integer if the base is an integer, the exponent an integer that is not
+   *     negative, and the result fits
+   */
+  private static Object pow(Number a, Number b) {
+    if (a instanceof Long base && b instanceof Long exponent && exponent >= 0) {
+      long result = 1;
+      long factor = base;
+      long remaining = exponent;
+      try {
+        while (remaining > 0) {
+          if ((remaining & 1) != 0) result = Math.multiplyExact(result, factor);
+          remaining >>= 1;
+          if (remaining > 0) factor = Math.multiplyExact(factor, factor);
+        }
+        return result;
+      } catch (ArithmeticException overflow) {
+        // Fall through to the double result.
+      }
+    }
+    return Math.pow(a.doubleValue(), b.doubleValue());
+  }
+
+  /**
+   * {@code min(a, b)}: the smaller of two numbers.
+   *
+   * @param a the first number
+   * @param b the second number
+   * @return the smaller number, as it was passed, or NaN if either is NaN
+   */
+  private static Object min(Number a, Number b) {
+    if (a instanceof Long x && b instanceof Long y) return x <= y ? a : b;
+    double x = a.doubleValue();
+    double y = b.doubleValue();
+    if (x != x || y != y) return Double.NaN;
+    return x <= y ? a : b;
+  }
+
+  /**
+   * {@code max(a, b)}: the larger of two numbers.
+   *
+   * @param a the first number
+   * @param b the second number
+   * @return the larger number, as it was passed, or NaN if either is NaN
+   */
+  private static Object max(Number a, Number b) {
+    if (a instanceof Long x && b instanceof Long y) return x >= y ? a : b;
+    double x = a.doubleValue();
+    double y = b.doubleValue();
+    if (x != x || y != y) return Double.NaN;
+    return x >= y ? a : b;
+  }
+
+  /**
+   * {@code upper(s)}: a string in upper case.
+   *
+   * @param s the string
+   * @return the string with every letter in upper case
+   */
+  private static String upper(String s) {
+    return s.toUpperCase(Locale.ROOT);
+  }
+
+  /**
+   * {@code lower(s)}: a string in lower case.
+   *
+   * @param s the string
+   * @return the string with every letter in lower case
+   */
+  private static String lower(String s) {
+    return s.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * {@code trim(s)}: a string without the white space at its ends.
+   *
+   * @param s the string
+   * @return the trimmed string
+   */
+  private static String trim(String s) {
+    return s.strip();
+  }
+
+  /**
+   * {@code contains(s, part)}: whether a string contains another.
+   *
+   * @param s the string to search
+   * @param part the string to look for
+   * @return true if {@code part} occurs in {@code s}
+   */
+  private static boolean contains(String s, String part) {
+    return s.contains(part);
+  }
+
+  /**
+   * {@code indexOf(s, part)}: where a string first contains another.
+   *
+   * @param s the string to search
+   * @param part the string to look for
+   * @return the index of the first occurrence, or -1 if there is none
+   */
+  private static int indexOf(String s, String part) {
+    return s.indexOf(part);
+  }
+
+  /**
+   * {@code replace(s, old, new)}: a string with every occurrence of one string replaced by another.
+   *
+   * @param s the string
+   * @param target the string to replace
+   * @param replacement the string to replace it with
+   * @return the new string
+   */
+  private static String replace(String s, String target, String replacement) {
+    return s.replace(target, replacement);
+  }
+
+  /**
+   * {@code repeat(s, n)}: a string repeated a number of times.
+   *
+   * @param s the string
+   * @param count the number of times, not negative
+   * @return the repeated string
+   */
+  private static String repeat(String s, int count) {
+    if (count < 0) throw new IllegalArgumentException("Repeat count must not be negative.");
+    if ((long) s.length() * count > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Repeated string is too long.");
+    }
+    return s.repeat(count);
+  }
+
+  /**
+   * {@code substring(s, start, end)}: the characters of a string from one index up to another.
+   *
+   * @param s the string
+   * @param start the index of the first character
+   * @param end the index after the last character
+   * @return a slice of the string, or the string itself if the range covers all of it
+   */
+  private static CharSequence substring(CharSequence s, int start, int end) {
+    if (start < 0 || end > s.length() || start > end) {
+      throw new IllegalArgumentException(
+          "Substring from "
+              + start
+              + " to "
+              + end
+              + " is out of range for length "
+              + s.length()
+              + ".");
+    }
+    return Slice.of(s, start, end);
+  }
+
+  /**
+   * {@code split(s, separator)}: the parts of a string between occurrences of a separator. An empty
+   * separator splits the string into its characters.
+   *
+   * @param s the string
+   * @param separator the separator
+   * @return a new list of the parts, slices of the string, with empty parts kept
+   */
+  private static BhaiList split(CharSequence s, String separator) {
+    List<CharSequence> found = Slice.split(s, separator);
+    BhaiList parts = new BhaiList(found.size());
+    for (CharSequence part : found) {
+      parts.add(part);
+    }
+    return parts;
+  }
+
+  /**
+   * {@code join(list, separator)}: the elements of a list printed one after another, with a
+   * separator between them.
+   *
+   * @param list the list
+   * @param separator the separator
+   * @return the joined string
+   */
+  private static String join(Object list, String separator) {
+    if (!(list instanceof BhaiList elements)) {
+      throw new IllegalArgumentException("Argument 1 of 'join' must be a list.");
+    }
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < elements.size(); i++) {
+      if (i > 0) builder.append(separator);
+      Values.appendTo(builder, elements.get(i));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * {@code str(x)}: a value printed to a string, the way {@code bol bhai} prints it.
+   *
+   * @param x the value
+   * @return the string
+   */
+  private static String str(Object x) {
+    return Values.stringify(x);
+  }
+
+  /**
+   * {@code num(s)}: the number a string spells, such as {@code "42"} or {@code "-1.5"}.
+   *
+   * @param s the string
+   * @return the number, an integer if it has no fraction and fits in one, or {@code nalla} if the
+   *     string is not a number
+   */
+  private static Object num(String s) {
+    String text = s.strip();
+    if (!NUMBER.matcher(text).matches()) return null;
+    if (text.indexOf('.') < 0) {
+      try {
+        return Long.parseLong(text);
+      } catch (NumberFormatException tooLong) {
+        // Beyond the integers, like an integer literal.
+      }
+    }
+    return Double.parseDouble(text);
+  }
+
+  /**
+   * {@code clock()}: the current time.
+   *
+   * @return the number of seconds since the start of 1970 UTC, with a fraction
+   */
+  private static double clock() {
+    return System.currentTimeMillis() / 1000.0;
+  }
+
+  /**
+   * {@code millis()}: a clock for measuring how long something takes, which unlike {@code clock()}
+   * never goes back when the system time is changed.
+   *
+   * @return a number of milliseconds since a fixed but arbitrary time
+   */
+  private static long millis() {
+    return System.nanoTime() / 1_000_000;
+  }
+}
@@ -0,0 +1,188 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The results of memoized calls, shared by every function a script memoizes with {@code memo(f)}.
+ *
+ * <p>Each interpreter has one cache, holding at most {@link #capacity()} results. Results are kept
+ * by the function and the {@linkplain Values#key(Object) keys} of the arguments, so arguments that
+ * are equal in BhaiLang, such as {@code 2} and {@code 2.0}, find the same result, while lists, maps
+ * and records are told apart by identity. When the cache is full, the result used least recently is
+ * evicted. The cache counts its hits and misses so hosts and scripts can tell whether it is large
+ * enough.
+ */
+public final class MemoCache {
+
+  /** The capacity of a new cache. */
+  public static final int DEFAULT_CAPACITY = 10_000;
+
+  /** What {@link #lookup(Key)} returns for a key without a result. */
+  static final Object MISSING = new Object();
+
+  /** What the cache stores for a {@code nalla} result. */
+  private static final Object NALLA = new Object();
+
+  /** The results, from the least to the most recently used. */
+  private final LinkedHashMap<Key, Object> results =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+          return size() > capacity;
+        }
+      };
+
+  /** The largest number of results kept. */
+  private int capacity;
+
+  /** The number of lookups that found a result. */
+  private long hits;
+
+  /** The number of lookups that did not. */
+  private long misses;
+
+  /**
+   * Constructs an empty cache.
+   *
+   * @param capacity the largest number of results kept
+   * @throws IllegalArgumentException if the capacity is negative
+   */
+  MemoCache(int capacity) {
+    setCapacity(capacity);
+  }
+
+  /**
+   * A memoized function and the arguments of a call.
+   *
+   * <p>Keys are compared by the function's identity and the arguments' {@linkplain Values#key
+   * keys}.
+   */
+  static final class Key {
+
+    /** The function called. */
+    private final BhaiCallable function;
+
+    /** The keys of the arguments. */
+    private final Object[] arguments;
+
+    /** The hash code, computed once. */
+    private final int hash;
+
+    /**
+     * Constructs a key.
+     *
+     * @param function the function called
+     * @param arguments the evaluated arguments, which are not modified
+     */
+    Key(BhaiCallable function, Object[] arguments) {
+      this.function = function;
+      this.arguments = new Object[arguments.length];
+      for (int i = 0; i < arguments.length; i++) {
+        this.arguments[i] = Values.key(arguments[i]);
+      }
+      this.hash = 31 * System.identityHashCode(function) + Arrays.hashCode(this.arguments);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Key key
+          && key.function == function
+          && key.hash == hash
+          && Arrays.equals(key.arguments, arguments);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * Looks up the result of a call, counting a hit or a miss.
+   *
+   * @param key the call
+   * @return the result, or {@link #MISSING} if the cache has none
+   */
+  Object lookup(Key key) {
+    Object result = results.get(key);
+    if (result == null) {
+      misses++;
+      return MISSING;
+    }
+    hits++;
+    return result == NALLA ? null : result;
+  }
+
+  /**
+   * Stores the result of a call, evicting the least recently used result if the cache is full.
+   *
+   * @param key the call
+   * @param result the result
+   */
+  void store(Key key, Object result) {
+    if (capacity > 0) results.put(key, result == null ? NALLA : result);
+  }
+
+  /**
+   * Returns the largest number of results kept.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Sets the largest number of results kept, evicting the least recently used results that no
+   * longer fit. A capacity of zero turns memoization off.
+   *
+   * @param capacity the new capacity
+   * @throws IllegalArgumentException if the capacity is negative
+   */
+  public void setCapacity(int capacity) {
+    if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative.");
+    this.capacity = capacity;
+    Iterator<Map.Entry<Key, Object>> eldest = results.entrySet().iterator();
+    while (results.size() > capacity) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Returns the number of results kept.
+   *
+   * @return the size
+   */
+  public int size() {
+    return results.size();
+  }
+
+  /**
+   * Returns the number of memoized calls that found their result in the cache.
+   *
+   * @return the hits
+   */
+  public long hits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of memoized calls that had to run their function.
+   *
+   * @return the misses
+   */
+  public long misses() {
+    return misses;
+  }
+
+  /** Removes every result and resets the counters. */
+  public void clear() {
+    results.clear();
+    hits = 0;
+    misses = 0;
+  }
+}
@@ -0,0 +1,52 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+
+/**
+ * A function wrapped by {@code memo(f)}, which remembers its results in the interpreter's {@link
+ * MemoCache} and calls the function only for arguments it has no result for.
+ *
+ * <p>Memoizing only pays off for functions whose result depends on nothing but their arguments: a
+ * memoized call that finds its result does not run the function at all, so nothing it would have
+ * printed or assigned happens.
+ */
+final class MemoFunction implements BhaiCallable {
+
+  /** The memoized function. */
+  private final BhaiCallable function;
+
+  /** The cache of the interpreter that memoized the function. */
+  private final MemoCache cache;
+
+  /**
+   * Constructs a memoized function.
+   *
+   * @param function the function to memoize
+   * @param cache the cache to keep its results in
+   */
+  MemoFunction(BhaiCallable function, MemoCache cache) {
+    this.function = function;
+    this.cache = cache;
+  }
+
+  @Override
+  public int arity() {
+    return function.arity();
+  }
+
+  @Override
+  public Object call(Interpreter interpreter, Token paren, Object[] arguments) {
+    MemoCache.Key key = new MemoCache.Key(function, arguments);
+    Object result = cache.lookup(key);
+    if (result == MemoCache.MISSING) {
+      result = function.call(interpreter, paren, arguments);
+      cache.store(key, result);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "<memo " + function + ">";
+  }
+}
@@ -0,0 +1,290 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import java.util.Arrays;
+
+/**
+ * Encodes BhaiLang values in a {@code long}, with an object table for values that are not numbers.
+ *
+ * <p>A number is stored as the bits of its {@code double}. Every NaN is stored as one canonical
+ * NaN, which leaves the negative quiet NaNs with bit 50 set free for everything else: {@code
+ * nalla}, {@code sahi}, {@code galat}, a marker for undefined globals, and references to objects
+ * (strings) as an index into the table. Integers between -2<sup>47</sup> and 2<sup>47</sup> are
+ * stored in the low 48 bits of another tag; larger ones go into the table like objects. Arithmetic
+ * on numbers therefore almost never allocates.
+ *
+ * <p>The table only grows when an operation creates a new object. When it is full, entries no
+ * longer referenced from the roots (the engine's registers and globals) are dropped and the rest
+ * are compacted, rewriting the references in the roots. Objects pinned when the engine starts, such
+ * as string constants, are never moved.
+ */
+final class NanBox {
+
+  /** The bits every encoded non-number starts with. */
+  private static final long TAG = 0xFFFC_0000_0000_0000L;
+
+  /** The bits of the one NaN numbers are allowed to hold. */
+  private static final long CANONICAL_NAN = 0x7FF8_0000_0000_0000L;
+
+  /** The bits a reference starts with; the low 48 bits are its index in the table. */
+  private static final long REFERENCE = TAG | (1L << 48);
+
+  /** The bits an integer starts with; the low 48 bits are its two's complement value. */
+  private static final long INTEGER = TAG | (2L << 48);
+
+  /** The mask selecting the bits that mark a reference or an integer. */
+  private static final long REFERENCE_MASK = 0xFFFF_0000_0000_0000L;
+
+  /** {@code nalla}. */
+  static final long NALLA = TAG | 1;
+
+  /** {@code galat}. */
+  static final long FALSE = TAG | 2;
+
+  /** {@code sahi}. */
+  static final long TRUE = TAG | 3;
+
+  /** Marks a global that has not been defined. Never the value of an expression. */
+  static final long UNDEFINED = TAG | 4;
+
+  /** The objects referenced by encoded values. */
+  private Object[] objects = new Object[64];
+
+  /** Number of entries in use. */
+  private int size = 0;
+
+  /** Number of leading entries that are never collected. */
+  private int pinned = 0;
+
+  /** The arrays holding every live encoded value. */
+  private final long[][] roots;
+
+  /**
+   * Constructs an empty object table.
+   *
+   * @param roots the arrays holding every live encoded value
+   */
+  NanBox(long[]... roots) {
+    this.roots = roots;
+  }
+
+  /**
+   * Returns whether an encoded value is a number.
+   *
+   * @param value the encoded value
+   * @return true if the value is a number
+   */
+  static boolean isNumber(long value) {
+    return (value & TAG) != TAG;
+  }
+
+  /**
+   * Returns whether an encoded value is an integer stored without the table.
+   *
+   * @param value the encoded value
+   * @return true if the value is an integer
+   */
+  static boolean isInteger(long value) {
+    return (value & REFERENCE_MASK) == INTEGER;
+  }
+
+  /**
+   * Returns whether an integer fits in an encoded value without the table.
+   *
+   * @param integer the integer
+   * @return true if it fits in 48 bits
+   */
+  static boolean fits(long integer) {
+    return integer << 16 >> 16 == integer;
+  }
+
+  /**
+   * Decodes an integer.
+   *
+   * @param value an encoded value for which {@link #isInteger(long)} holds
+   * @return the integer
+   */
+  static long asInteger(long value) {
+    return value << 16 >> 16;
+  }
+
+  /**
+   * Decodes an integer or a number as a double.
+   *
+   * @param value an encoded value for which {@link #isInteger(long)} or {@link #isNumber(long)}
+   *     holds
+   * @return its value as a double
+   */
+  static double toDouble(long value) {
+    return isInteger(value) ? asInteger(value) : asNumber(value);
+  }
+
+  /**
+   * Encodes an integer, adding it to the table if it does not {@linkplain #fits(long) fit}.
+   *
+   * @param integer the integer
+   * @return the encoded value
+   */
+  long integer(long integer) {
+    if (fits(integer)) return INTEGER | (integer & ~REFERENCE_MASK);
+    return box(integer);
+  }
+
+  /**
+   * Encodes a number.
+   *
+   * @param number the number
+   * @return the encoded value
+   */
+  static long number(double number) {
+    return number != number ? CANONICAL_NAN : Double.doubleToRawLongBits(number);
+  }
+
+  /**
+   * Decodes a number.
+   *
+   * @param value an encoded value for which {@link #isNumber(long)} holds
+   * @return the number
+   */
+  static double asNumber(long value) {
+    return Double.longBitsToDouble(value);
+  }
+
+  /**
+   * Encodes a boolean.
+   *
+   * @param bool the boolean
+   * @return the encoded value
+   */
+  static long bool(boolean bool) {
+    return bool ? TRUE : FALSE;
+  }
+
+  /**
+   * Determines the truthiness of an encoded value, like {@link Values#isTruthy(Object)}.
+   *
+   * @param value the encoded value
+   * @return true if the value is considered truthy
+   */
+  static boolean isTruthy(long value) {
+    if (isNumber(value)) return asNumber(value) != 0;
+    if (isInteger(value)) return asInteger(value) != 0;
+    return value != NALLA && value != FALSE;
+  }
+
+  /**
+   * Checks equality between two encoded values, like {@link Values#isEqual(Object, Object)}.
+   *
+   * <p>Numbers are equal when their bits are, which is what {@link Double#equals(Object)} compares
+   * once NaNs are canonical, and so are two integers that fit in the value.
+   *
+   * @param a first encoded value
+   * @param b second encoded value
+   * @return true if both are equal
+   */
+  boolean isEqual(long a, long b) {
+    if (a == b) return true;
+    if (isInteger(a) && isNumber(b)) return Values.isIntegral(asNumber(b), asInteger(a));
+    if (isNumber(a) && isInteger(b)) return Values.isIntegral(asNumber(a), asInteger(b));
+    if (!isReference(a) && !isReference(b)) return false;
+    return Values.isEqual(unbox(a), unbox(b));
+  }
+
+  /**
+   * Encodes a value, adding it to the table if it is an object.
+   *
+   * @param value the value
+   * @return the encoded value
+   */
+  long box(Object value) {
+    if (value == null) return NALLA;
+    if (value instanceof Double number) return number(number);
+    if (value instanceof Long integer && fits(integer)) return integer(integer);
+    if (value instanceof Boolean bool) return bool(bool);
+
+    if (size == objects.length) {
+      collect();
+      if (size > objects.length / 2) {
+        objects = Arrays.copyOf(objects, objects.length * 2);
+      }
+    }
+    objects[size] = value;
+    return REFERENCE | size++;
+  }
+
+  /**
+   * Encodes a value whose table entry must survive every collection.
+   *
+   * <p>Only valid before any value has been boxed with {@link #box(Object)}.
+   *
+   * @param value the value
+   * @return the encoded value
+   */
+  long pin(Object value) {
+    long encoded = box(value);
+    pinned = size;
+    return encoded;
+  }
+
+  /**
+   * Decodes a value, allocating a {@link Double} or {@link Long} if it is a number.
+   *
+   * @param value the encoded value
+   * @return the value
+   */
+  Object unbox(long value) {
+    if (isNumber(value)) return asNumber(value);
+    if (isInteger(value)) return asInteger(value);
+    if (value == NALLA) return null;
+    if (value == TRUE) return true;
+    if (value == FALSE) return false;
+    return objects[index(value)];
+  }
+
+  /** Drops the entries no root references and compacts the rest. */
+  private void collect() {
+    int[] moved = new int[size];
+    for (long[] root : roots) {
+      for (long value : root) {
+        if (isReference(value)) moved[index(value)] = 1;
+      }
+    }
+
+    int live = pinned;
+    for (int i = pinned; i < size; i++) {
+      if (moved[i] != 0) {
+        objects[live] = objects[i];
+        moved[i] = live++;
+      }
+    }
+    Arrays.fill(objects, live, size, null);
+    size = live;
+
+    for (long[] root : roots) {
+      for (int i = 0; i < root.length; i++) {
+        if (isReference(root[i]) && index(root[i]) >= pinned) {
+          root[i] = REFERENCE | moved[index(root[i])];
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns whether an encoded value is a reference to an object.
+   *
+   * @param value the encoded value
+   * @return true if the value is a reference
+   */
+  private static boolean isReference(long value) {
+    return (value & REFERENCE_MASK) == REFERENCE;
+  }
+
+  /**
+   * Returns the table index of a reference.
+   *
+   * @param value an encoded reference
+   * @return its index
+   */
+  private static int index(long value) {
+    return (int) (value & ~REFERENCE_MASK);
+  }
+}
@@ -0,0 +1,386 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.ir.BasicBlock;
+import io.github.journeycodesayush.javabhailang.ir.Graph;
+import io.github.journeycodesayush.javabhailang.ir.Instruction;
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a program lowered to a {@link Graph} on values encoded in {@code long}s.
+ *
+ * <p>Works like {@link IrInterpreter}, but registers and globals are {@code long[]} holding {@link
+ * NanBox} encodings, so arithmetic and comparisons on numbers and small integers run without
+ * allocating. Operations on other values decode their operands and go through {@link Values}, which
+ * keeps results and errors identical to the other engines.
+ *
+ * <p>Globals the graph uses are copied out of the owning {@link Interpreter}'s environment when the
+ * program starts and written back when it ends, even by an error, so a REPL can mix engines.
+ */
+class NanBoxInterpreter {
+
+  /** The interpreter whose globals and output the program uses. */
+  private final Interpreter interpreter;
+
+  /** The program to run. */
+  private final Graph graph;
+
+  /** The encoded value of every instruction that has run, by instruction id. */
+  private final long[] registers;
+
+  /** The encoded value of every global the graph uses, by global slot. */
+  private final long[] globals;
+
+  /** The names of the globals, by global slot. */
+  private final List<String> names = new ArrayList<>();
+
+  /** The global slot of every global access instruction, by instruction id. */
+  private final int[] slots;
+
+  /** The encoded value of every constant instruction, by instruction id. */
+  private final long[] constants;
+
+  /** The objects the encoded values refer to. */
+  private final NanBox values;
+
+  /** Switch blocks that have already run, mapped to their case value to successor tables. */
+  private final Map<BasicBlock, Map<Object, BasicBlock>> jumpTables = new HashMap<>();
+
+  /**
+   * Constructs an engine for one graph.
+   *
+   * @param interpreter the interpreter whose globals and output to use
+   * @param graph the graph to run
+   */
+  NanBoxInterpreter(Interpreter interpreter, Graph graph) {
+    this.interpreter = interpreter;
+    this.graph = graph;
+    this.registers = new long[graph.getValueCount()];
+    this.slots = new int[graph.getValueCount()];
+    this.constants = new long[graph.getValueCount()];
+
+    Map<String, Integer> slotOf = new HashMap<>();
+    for (BasicBlock block : graph.getBlocks()) {
+      for (Instruction instruction : block.getInstructions()) {
+        switch (instruction.getOp()) {
+          case LOAD_GLOBAL, STORE_GLOBAL, DEFINE_GLOBAL -> {
+            String name = instruction.getToken().getLexeme();
+            Integer slot = slotOf.get(name);
+            if (slot == null) {
+              slot = names.size();
+              slotOf.put(name, slot);
+              names.add(name);
+            }
+            slots[instruction.getId()] = slot;
+          }
+          default -> {}
+        }
+      }
+    }
+    this.globals = new long[names.size()];
+    this.values = new NanBox(registers, globals);
+
+    for (BasicBlock block : graph.getBlocks()) {
+      for (Instruction instruction : block.getInstructions()) {
+        if (instruction.getOp() == Instruction.Op.CONST) {
+          constants[instruction.getId()] = values.pin(instruction.getConstant());
+        }
+      }
+    }
+  }
+
+  /**
+   * Runs the graph from its entry block until a block ends the program.
+   *
+   * @throws RuntimeError if the program raises a runtime error
+   * @throws NallaPointerException if the program operates on {@code nalla}
+   */
+  void run() {
+    Arrays.fill(globals, NanBox.UNDEFINED);
+    for (int slot = 0; slot < globals.length; slot++) {
+      GlobalEnvironment.Cell cell = interpreter.globals.lookup(names.get(slot));
+      if (cell != null) {
+        globals[slot] = values.box(cell.value);
+      }
+    }
+
+    try {
+      BasicBlock previous = null;
+      BasicBlock block = graph.getEntry();
+      while (block != null) {
+        if (previous != null && !block.getPhis().isEmpty()) {
+          enter(block, previous);
+        }
+        for (Instruction instruction : block.getInstructions()) {
+          registers[instruction.getId()] = execute(instruction);
+        }
+        previous = block;
+        block = next(block);
+      }
+    } finally {
+      for (int slot = 0; slot < globals.length; slot++) {
+        if (globals[slot] != NanBox.UNDEFINED) {
+          interpreter.globals.define(names.get(slot), values.unbox(globals[slot]));
+        }
+      }
+    }
+  }
+
+  /**
+   * Assigns the phis of a block the values flowing in along one edge.
+   *
+   * <p>All incoming values are read before any phi is written, since a phi may feed another phi of
+   * the same block around a loop.
+   *
+   * @param block the block being entered
+   * @param predecessor the block control comes from
+   */
+  private void enter(BasicBlock block, BasicBlock predecessor) {
+    int edge = block.getPredecessors().indexOf(predecessor);
+    List<Instruction> phis = block.getPhis();
+    if (phis.size() == 1) {
+      Instruction phi = phis.get(0);
+      registers[phi.getId()] = registers[phi.getOperands().get(edge).getId()];
+      return;
+    }
+    long[] incoming = new long[phis.size()];
+    for (int i = 0; i < incoming.length; i++) {
+      incoming[i] = registers[phis.get(i).getOperands().get(edge).getId()];
+    }
+    for (int i = 0; i < incoming.length; i++) {
+      registers[phis.get(i).getId()] = incoming[i];
+    }
+  }
+
+  /**
+   * Runs one instruction.
+   *
+   * @param instruction the instruction
+   * @return the encoded value it defines
+   */
+  private long execute(Instruction instruction) {
+    List<Instruction> operands = instruction.getOperands();
+    switch (instruction.getOp()) {
+      case CONST -> {
+        return constants[instruction.getId()];
+      }
+      case COPY -> {
+        return value(operands.get(0));
+      }
+      case UNARY -> {
+        return unary(instruction.getToken(), value(operands.get(0)));
+      }
+      case BINARY -> {
+        return binary(instruction.getToken(), value(operands.get(0)), value(operands.get(1)));
+      }
+      case LOAD_GLOBAL -> {
+        return global(instruction);
+      }
+      case STORE_GLOBAL -> {
+        global(instruction);
+        long value = value(operands.get(0));
+        globals[slots[instruction.getId()]] = value;
+        return value;
+      }
+      case DEFINE_GLOBAL -> {
+        long value = value(operands.get(0));
+        globals[slots[instruction.getId()]] = value;
+        return value;
+      }
+      case PRINT -> {
+        Object[] printed = new Object[operands.size()];
+        for (int i = 0; i < printed.length; i++) {
+          printed[i] = values.unbox(value(operands.get(i)));
+        }
+        interpreter.print(printed);
+        return NanBox.NALLA;
+      }
+      case FAIL ->
+          throw new RuntimeError(instruction.getToken(), (String) instruction.getConstant());
+      default -> throw new IllegalStateException("Phi outside the start of a block.");
+    }
+  }
+
+  /**
+   * Applies a unary operator to an encoded operand.
+   *
+   * @param operator the operator token
+   * @param right the encoded operand
+   * @return the encoded result
+   */
+  private long unary(Token operator, long right) {
+    switch (operator.getType()) {
+      case BANG -> {
+        return NanBox.bool(!NanBox.isTruthy(right));
+      }
+      case MINUS -> {
+        if (NanBox.isNumber(right)) return NanBox.number(-NanBox.asNumber(right));
+        // Integer 0 negates to the double -0, which Values produces.
+        if (NanBox.isInteger(right) && NanBox.asInteger(right) != 0) {
+          return values.integer(-NanBox.asInteger(right));
+        }
+      }
+      default -> {}
+    }
+    return values.box(Values.unary(operator, values.unbox(right)));
+  }
+
+  /**
+   * Applies a binary operator to two encoded operands.
+   *
+   * @param operator the operator token
+   * @param left the encoded left operand
+   * @param right the encoded right operand
+   * @return the encoded result
+   */
+  private long binary(Token operator, long left, long right) {
+    switch (operator.getType()) {
+      case EQUAL_EQUAL -> {
+        return NanBox.bool(values.isEqual(left, right));
+      }
+      case BANG_EQUAL -> {
+        return NanBox.bool(!values.isEqual(left, right));
+      }
+      default -> {}
+    }
+
+    if (NanBox.isInteger(left) && NanBox.isInteger(right)) {
+      // Both fit in 48 bits, so sums and differences cannot overflow a long.
+      long a = NanBox.asInteger(left);
+      long b = NanBox.asInteger(right);
+      switch (operator.getType()) {
+        case PLUS -> {
+          return values.integer(a + b);
+        }
+        case MINUS -> {
+          return values.integer(a - b);
+        }
+        case STAR -> {
+          // Small factors multiply exactly; zero products may have to be -0.
+          if (a == (int) a && b == (int) b && a * b != 0) return values.integer(a * b);
+        }
+        case SLASH -> {
+          return NanBox.number((double) a / b);
+        }
+        case GREATER -> {
+          return NanBox.bool(a > b);
+        }
+        case GREATER_EQUAL -> {
+          return NanBox.bool(a >= b);
+        }
+        case LESS -> {
+          return NanBox.bool(a < b);
+        }
+        case LESS_EQUAL -> {
+          return NanBox.bool(a <= b);
+        }
+        default -> {}
+      }
+    } else if (isNumeric(left) && isNumeric(right)) {
+      double a = NanBox.toDouble(left);
+      double b = NanBox.toDouble(right);
+      switch (operator.getType()) {
+        case PLUS -> {
+          return NanBox.number(a + b);
+        }
+        case MINUS -> {
+          return NanBox.number(a - b);
+        }
+        case STAR -> {
+          return NanBox.number(a * b);
+        }
+        case SLASH -> {
+          return NanBox.number(a / b);
+        }
+        case GREATER -> {
+          return NanBox.bool(a > b);
+        }
+        case GREATER_EQUAL -> {
+          return NanBox.bool(a >= b);
+        }
+        case LESS -> {
+          return NanBox.bool(a < b);
+        }
+        case LESS_EQUAL -> {
+          return NanBox.bool(a <= b);
+        }
+        default -> {}
+      }
+    }
+    return values.box(Values.binary(operator, values.unbox(left), values.unbox(right)));
+  }
+
+  /**
+   * Returns whether an encoded value is a double or an integer stored without the table.
+   *
+   * @param value the encoded value
+   * @return true if the value is numeric
+   */
+  private static boolean isNumeric(long value) {
+    return NanBox.isNumber(value) || NanBox.isInteger(value);
+  }
+
+  /**
+   * Reads the global a load or store instruction refers to.
+   *
+   * @param instruction the instruction
+   * @return the encoded value of the global
+   * @throws RuntimeError if the global is undefined
+   */
+  private long global(Instruction instruction) {
+    long value = globals[slots[instruction.getId()]];
+    if (value == NanBox.UNDEFINED) {
+      Token name = instruction.getToken();
+      throw new RuntimeError(name, "Undefined variable '" + name.getLexeme() + "'.");
+    }
+    return value;
+  }
+
+  /**
+   * Returns the block control continues with after a block.
+   *
+   * @param block the block that just ran
+   * @return the next block, or null if the program ends
+   */
+  private BasicBlock next(BasicBlock block) {
+    List<BasicBlock> successors = block.getSuccessors();
+    switch (block.getExit()) {
+      case JUMP -> {
+        return successors.get(0);
+      }
+      case BRANCH -> {
+        return successors.get(NanBox.isTruthy(value(block.getCondition())) ? 0 : 1);
+      }
+      case SWITCH -> {
+        Map<Object, BasicBlock> table = jumpTables.get(block);
+        if (table == null) {
+          table = new HashMap<>();
+          for (int i = 0; i < block.getKeys().size(); i++) {
+            // The first of several equal cases wins, as in the chain.
+            table.putIfAbsent(Values.key(block.getKeys().get(i)), successors.get(i));
+          }
+          jumpTables.put(block, table);
+        }
+        Object subject = Values.key(values.unbox(value(block.getCondition())));
+        return table.getOrDefault(subject, successors.getLast());
+      }
+      default -> {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Reads the encoded value of an instruction that has already run.
+   *
+   * @param instruction the instruction
+   * @return its encoded value
+   */
+  private long value(Instruction instruction) {
+    return registers[instruction.getId()];
+  }
+}
@@ -0,0 +1,38 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+
+/**
+ * A builtin function implemented in Java.
+ *
+ * @param name the global name the function is defined under, used when it is printed
+ * @param arity the number of arguments the function takes
+ * @param body the implementation
+ */
+record NativeFunction(String name, int arity, Body body) implements BhaiCallable {
+
+  /** The implementation of a builtin function. */
+  @FunctionalInterface
+  interface Body {
+
+    /**
+     * Runs the function.
+     *
+     * @param interpreter the interpreter running the call
+     * @param paren the closing parenthesis of the call, for error reporting
+     * @param arguments the evaluated arguments, already counted
+     * @return the result, or null for {@code nalla}
+     */
+    Object call(Interpreter interpreter, Token paren, Object[] arguments);
+  }
+
+  @Override
+  public Object call(Interpreter interpreter, Token paren, Object[] arguments) {
+    return body.call(interpreter, paren, arguments);
+  }
+
+  @Override
+  public String toString() {
+    return "<kaam " + name + ">";
+  }
+}
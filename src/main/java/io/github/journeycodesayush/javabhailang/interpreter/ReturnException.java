@@ -0,0 +1,25 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+/**
+ * Unwinds a function body to the call running it, for {@code wapas kar bhai}.
+ *
+ * <p>Each interpreter throws one instance over and over, so it records no stack trace. A return is
+ * caught by the innermost call before anything else runs, so the fields are read before the next
+ * return overwrites them.
+ */
+final class ReturnException extends RuntimeException {
+
+  /** The returned value. */
+  Object value;
+
+  /** The function a tail call continues with, or null for a plain return. */
+  BhaiFunction function;
+
+  /** The frame a tail call continues in, with the arguments stored. */
+  Environment frame;
+
+  /** Constructs the return signal of an interpreter. */
+  ReturnException() {
+    super(null, null, false, false);
+  }
+}
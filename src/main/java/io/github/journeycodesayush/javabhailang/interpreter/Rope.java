@@ -0,0 +1,130 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+/**
+ * A string built by repeated concatenation.
+ *
+ * <p>Concatenating two BhaiLang strings copies both, so building a string in a loop with {@code s =
+ * s + x} takes quadratic time. Once a concatenation grows past {@link #THRESHOLD} characters its
+ * result is a rope instead: a view of the first {@code length} characters of a {@link
+ * StringBuilder}. Appending to the rope that ends where the builder ends writes to the builder in
+ * place and returns a longer view of it, so a chain of appends takes amortized constant time per
+ * character. Views never change, since the builder only grows past their end; appending to any
+ * other view copies its characters into a new builder first.
+ *
+ * <p>A rope is flattened to a {@link String} the first time it is printed, compared or converted,
+ * and equals any string, rope or {@link Slice} with the same characters, so it behaves exactly like
+ * the string it stands for.
+ */
+public final class Rope implements CharSequence {
+
+  /** The length from which concatenations produce ropes. */
+  static final int THRESHOLD = 64;
+
+  /** The characters of this rope and possibly of longer ropes sharing the builder. */
+  private final StringBuilder buffer;
+
+  /** Number of characters of the builder that belong to this rope. */
+  private final int length;
+
+  /** The flattened string, once computed. */
+  private String flat;
+
+  /**
+   * Constructs a view of the start of a builder.
+   *
+   * @param buffer the builder
+   * @param length number of characters of the builder that belong to the rope
+   */
+  private Rope(StringBuilder buffer, int length) {
+    this.buffer = buffer;
+    this.length = length;
+  }
+
+  /**
+   * Concatenates two values for the {@code +} operator, when at least one is a string.
+   *
+   * @param left the left operand
+   * @param right the right operand
+   * @return the concatenation, as a rope if it is long enough
+   */
+  static Object concat(Object left, Object right) {
+    if (left instanceof Rope rope) {
+      return rope.append(right);
+    }
+    // Size the builder up front, so prepending to a long rope copies it once instead of regrowing.
+    StringBuilder buffer =
+        left instanceof CharSequence first && right instanceof CharSequence second
+            ? new StringBuilder(first.length() + second.length())
+            : new StringBuilder();
+    Values.appendTo(Values.appendTo(buffer, left), right);
+    if (buffer.length() < THRESHOLD) {
+      return buffer.toString();
+    }
+    return new Rope(buffer, buffer.length());
+  }
+
+  /**
+   * Returns the rope followed by the printed form of a value.
+   *
+   * @param value the value to append
+   * @return a new rope
+   */
+  private Rope append(Object value) {
+    StringBuilder target = buffer;
+    if (buffer.length() != length) {
+      // A longer rope already extends this one in the builder, so start a new one.
+      target = new StringBuilder(2 * length).append(buffer, 0, length);
+    }
+    Values.appendTo(target, value);
+    return new Rope(target, target.length());
+  }
+
+  /**
+   * Appends the rope to a builder without copying it into a string first.
+   *
+   * @param builder the builder
+   * @return the builder
+   */
+  StringBuilder appendTo(StringBuilder builder) {
+    if (flat != null) return builder.append(flat);
+    // Appending a whole builder copies its array; a prefix would be copied one char at a time.
+    if (buffer.length() == length) return builder.append(buffer);
+    return builder.append(buffer, 0, length);
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return buffer.charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return Slice.of(this, start, end);
+  }
+
+  @Override
+  public String toString() {
+    if (flat == null) {
+      flat = buffer.substring(0, length);
+    }
+    return flat;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof CharSequence text && Values.isEqual(this, text);
+  }
+
+  @Override
+  public int hashCode() {
+    return toString().hashCode();
+  }
+}
@@ -0,0 +1,91 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The hidden layout of a record: which field is stored in which slot of its value array.
+ *
+ * <p>Shapes form a tree rooted at {@link #EMPTY}. Adding a field to a shape follows, or creates
+ * once, the transition to the shape with that field in the next slot, so every record built with
+ * the same fields in the same order shares one shape. Records only store their values; a field
+ * access caches the shape it last saw and the slot the field has in it, and while the record's
+ * shape is that shape it reads the slot without looking the name up.
+ *
+ * <p>Shapes are immutable apart from their transitions, and shared by all interpreters.
+ */
+final class Shape {
+
+  /** The shape of a record without fields, the root of every other shape. */
+  static final Shape EMPTY = new Shape(new String[0], new HashMap<>());
+
+  /** The field names, by slot. */
+  private final String[] names;
+
+  /** The slot of each field, by name. */
+  private final Map<String, Integer> slots;
+
+  /** The shapes with one more field, by the name of that field. */
+  private final Map<String, Shape> transitions = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a shape.
+   *
+   * @param names the field names, by slot
+   * @param slots the slot of each field, by name
+   */
+  private Shape(String[] names, Map<String, Integer> slots) {
+    this.names = names;
+    this.slots = slots;
+  }
+
+  /**
+   * Returns the shape with a field added after this shape's fields.
+   *
+   * @param name the name of the new field, not already in this shape
+   * @return the shared shape
+   */
+  Shape with(String name) {
+    return transitions.computeIfAbsent(
+        name,
+        key -> {
+          String[] grown = new String[names.length + 1];
+          System.arraycopy(names, 0, grown, 0, names.length);
+          grown[names.length] = key;
+          Map<String, Integer> grownSlots = new HashMap<>(slots);
+          grownSlots.put(key, names.length);
+          return new Shape(grown, grownSlots);
+        });
+  }
+
+  /**
+   * Returns the number of fields.
+   *
+   * @return the number of slots a record of this shape has
+   */
+  int size() {
+    return names.length;
+  }
+
+  /**
+   * Returns the slot of a field.
+   *
+   * @param name the field name
+   * @return the slot, or -1 if the shape has no such field
+   */
+  int slot(String name) {
+    Integer slot = slots.get(name);
+    return slot == null ? -1 : slot;
+  }
+
+  /**
+   * Returns the name of the field in a slot.
+   *
+   * @param slot the slot
+   * @return the field name
+   */
+  String name(int slot) {
+    return names[slot];
+  }
+}
@@ -0,0 +1,164 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A string that is a part of another string, without a copy of its characters.
+ *
+ * <p>String builtins such as substring and split return slices: the backing string, an offset and a
+ * length. Slicing a slice shares the same backing string, so text processing can take a string
+ * apart step by step without copying at each step. A slice is only copied into a {@link String} the
+ * first time it is printed or converted; equality and hashing read the backing characters directly,
+ * so a slice equals, and hashes like, the string with the same characters.
+ *
+ * <p>A slice keeps its whole backing string reachable, which is the usual price of sharing.
+ */
+public final class Slice implements CharSequence {
+
+  /** The string the slice is part of. */
+  private final String source;
+
+  /** Index in the source of the first character of the slice. */
+  private final int offset;
+
+  /** Number of characters in the slice. */
+  private final int length;
+
+  /** The copied string, once computed. */
+  private String flat;
+
+  /** The hash code, once computed, or 0. */
+  private int hash;
+
+  /**
+   * Constructs a slice.
+   *
+   * @param source the string the slice is part of
+   * @param offset index in the source of the first character
+   * @param length number of characters
+   */
+  private Slice(String source, int offset, int length) {
+    this.source = source;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Returns the characters of a string between two indexes.
+   *
+   * @param text a BhaiLang string: a {@link String}, {@link Rope} or slice
+   * @param start index of the first character, inclusive
+   * @param end index after the last character, exclusive
+   * @return the part of the string, as a slice unless it is the whole string
+   * @throws IndexOutOfBoundsException if the indexes are out of range
+   */
+  public static CharSequence of(CharSequence text, int start, int end) {
+    if (start < 0 || end > text.length() || start > end) {
+      throw new IndexOutOfBoundsException(
+          "Range [" + start + ", " + end + ") out of bounds for length " + text.length());
+    }
+    if (start == 0 && end == text.length()) {
+      return text;
+    }
+    if (text instanceof Slice slice) {
+      return new Slice(slice.source, slice.offset + start, end - start);
+    }
+    return new Slice(text.toString(), start, end - start);
+  }
+
+  /**
+   * Splits a string around every occurrence of a separator.
+   *
+   * <p>An empty separator splits the string into its characters. Every part is a slice of the same
+   * backing string.
+   *
+   * @param text a BhaiLang string: a {@link String}, {@link Rope} or slice
+   * @param separator the separator
+   * @return the parts, in order, including empty ones
+   */
+  public static List<CharSequence> split(CharSequence text, String separator) {
+    List<CharSequence> parts = new ArrayList<>();
+    String source;
+    int offset;
+    if (text instanceof Slice slice) {
+      source = slice.source;
+      offset = slice.offset;
+    } else {
+      source = text.toString();
+      offset = 0;
+    }
+    int end = offset + text.length();
+
+    if (separator.isEmpty()) {
+      for (int i = offset; i < end; i++) {
+        parts.add(new Slice(source, i, 1));
+      }
+      return parts;
+    }
+
+    int start = offset;
+    int found = source.indexOf(separator, start);
+    while (found >= 0 && found + separator.length() <= end) {
+      parts.add(new Slice(source, start, found - start));
+      start = found + separator.length();
+      found = source.indexOf(separator, start);
+    }
+    parts.add(new Slice(source, start, end - start));
+    return parts;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return source.charAt(offset + index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return of(this, start, end);
+  }
+
+  /**
+   * Appends the slice to a builder without copying it into a string first.
+   *
+   * @param builder the builder
+   * @return the builder
+   */
+  StringBuilder appendTo(StringBuilder builder) {
+    return builder.append(source, offset, offset + length);
+  }
+
+  @Override
+  public String toString() {
+    if (flat == null) {
+      flat = source.substring(offset, offset + length);
+    }
+    return flat;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof CharSequence text && Values.isEqual(this, text);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      // The same formula as String.hashCode, so slices and strings can share hash tables.
+      for (int i = offset; i < offset + length; i++) {
+        h = 31 * h + source.charAt(i);
+      }
+      hash = h;
+    }
+    return h;
+  }
+}
@@ -0,0 +1,371 @@
+package io.github.journeycodesayush.javabhailang.interpreter;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+
+/**
+ * Runtime value semantics for BhaiLang.
+ *
+ * <p>Holds the truthiness, equality, printing and operator rules for BhaiLang values. The {@link
+ * Interpreter} evaluates every operator through this class, and the optimizer uses it to fold
+ * constant expressions, so both always agree on results and on which operations raise errors.
+ *
+ * <p>Numbers are held as a {@link Long} when they are integers and as a {@link Double} otherwise.
+ * {@code +}, {@code -} and {@code *} on two integers stay exact integers unless the result
+ * overflows; any other arithmetic, including every division, is done in doubles.
+ */
+public final class Values {
+
+  private Values() {}
+
+  /**
+   * Applies a unary operator to an evaluated operand.
+   *
+   * @param operator the operator token
+   * @param right the operand
+   * @return the result of the operation
+   * @throws RuntimeError if the operand has the wrong type
+   */
+  public static Object unary(Token operator, Object right) {
+    switch (operator.getType()) {
+      case BANG -> {
+        return !isTruthy(right);
+      }
+      case MINUS -> {
+        checkNumberOperand(operator, right);
+        // Negating integer 0 gives -0, which only a double can hold.
+        if (right instanceof Long integer && integer != 0 && integer != Long.MIN_VALUE) {
+          return -integer;
+        }
+        return -toDouble(right);
+      }
+      default -> {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Applies a binary operator to two evaluated operands.
+   *
+   * @param operator the operator token
+   * @param left the left operand
+   * @param right the right operand
+   * @return the result of the operation
+   * @throws RuntimeError if the operands have the wrong types
+   * @throws NallaPointerException if an arithmetic operand is null
+   */
+  public static Object binary(Token operator, Object left, Object right) {
+    switch (operator.getType()) {
+      case GREATER -> {
+        checkNumberOperands(operator, left, right);
+        if (left instanceof Long a && right instanceof Long b) return a > b;
+        return toDouble(left) > toDouble(right);
+      }
+      case GREATER_EQUAL -> {
+        checkNumberOperands(operator, left, right);
+        if (left instanceof Long a && right instanceof Long b) return a >= b;
+        return toDouble(left) >= toDouble(right);
+      }
+      case LESS -> {
+        checkNumberOperands(operator, left, right);
+        if (left instanceof Long a && right instanceof Long b) return a < b;
+        return toDouble(left) < toDouble(right);
+      }
+      case LESS_EQUAL -> {
+        checkNumberOperands(operator, left, right);
+        if (left instanceof Long a && right instanceof Long b) return a <= b;
+        return toDouble(left) <= toDouble(right);
+      }
+      case MINUS -> {
+        checkNumberOperands(operator, left, right);
+        if (left instanceof Long a && right instanceof Long b) {
+          long difference = a - b;
+          if (((a ^ b) & (a ^ difference)) >= 0) return difference;
+        }
+        return toDouble(left) - toDouble(right);
+      }
+      case SLASH -> {
+        checkNumberOperands(operator, left, right);
+        return toDouble(left) / toDouble(right);
+      }
+      case STAR -> {
+        checkNumberOperands(operator, left, right);
+        if (left instanceof Long a && right instanceof Long b) {
+          long product = a * b;
+          if (Math.multiplyHigh(a, b) == product >> 63) {
+            // A zero product with a negative factor is -0, which only a double can hold.
+            if (product == 0 && (a < 0 || b < 0)) return -0.0;
+            return product;
+          }
+        }
+        return toDouble(left) * toDouble(right);
+      }
+      case PLUS -> {
+        if (left == null || right == null) {
+          throw new NallaPointerException(operator, "Bhai! Nalla value caught!!!");
+        }
+        if (left instanceof Long a && right instanceof Long b) {
+          long sum = a + b;
+          if (((a ^ sum) & (b ^ sum)) >= 0) return sum;
+        }
+        if (isNumber(left) && isNumber(right)) {
+          return toDouble(left) + toDouble(right);
+        }
+        if (isString(left) || isString(right)) {
+          return Rope.concat(left, right);
+        }
+        throw new RuntimeError(operator, "Operands must be two numbers or strings.");
+      }
+      case EQUAL_EQUAL -> {
+        return isEqual(left, right);
+      }
+      case BANG_EQUAL -> {
+        return !isEqual(left, right);
+      }
+
+      default -> {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Determines the truthiness of a value for conditional expressions.
+   *
+   * @param object the value to test
+   * @return true if the value is considered truthy, false otherwise
+   */
+  public static boolean isTruthy(Object object) {
+    if (object == null) {
+      return false;
+    }
+    if (object instanceof Number) {
+      return ((Number) object).doubleValue() != 0;
+    }
+    if (object instanceof Boolean) {
+      return (Boolean) object;
+    }
+    return true;
+  }
+
+  /**
+   * Checks equality between two values.
+   *
+   * <p>An integer equals a double with exactly its value. Doubles compare like {@link
+   * Double#equals}, so {@code 0} and {@code -0} are unequal and NaN equals itself.
+   *
+   * @param a first value
+   * @param b second value
+   * @return true if both are equal, false otherwise
+   */
+  public static boolean isEqual(Object a, Object b) {
+    if (a == null && b == null) return true;
+    if (a == null) return false;
+
+    // Strings may be held as a String, a Rope or a Slice; they are equal when their characters are.
+    if (a instanceof CharSequence x && b instanceof CharSequence y) {
+      if (x.length() != y.length()) return false;
+      if (x instanceof String && y instanceof String) return x.equals(y);
+      for (int i = 0; i < x.length(); i++) {
+        if (x.charAt(i) != y.charAt(i)) return false;
+      }
+      return true;
+    }
+    if (a instanceof Long x && b instanceof Double y) return isIntegral(y, x);
+    if (a instanceof Double x && b instanceof Long y) return isIntegral(x, y);
+    return a.equals(b);
+  }
+
+  /**
+   * Checks whether a double has exactly the value of an integer.
+   *
+   * @param number the double
+   * @param integer the integer
+   * @return true if the double is integral, not {@code -0}, and equal to the integer
+   */
+  static boolean isIntegral(double number, long integer) {
+    return number < 0x1p63
+        && (long) number == integer
+        && (double) integer == number
+        && !(number == 0 && 1 / number < 0);
+  }
+
+  /**
+   * Returns a value with any {@link Rope} or {@link Slice} copied into the {@link String} it stands
+   * for.
+   *
+   * <p>Used for values that end up in the program as constants, or as keys of hash tables that
+   * strings are looked up in.
+   *
+   * @param value the value
+   * @return the value, or its string if it is a rope or slice
+   */
+  public static Object flatten(Object value) {
+    return isString(value) ? value.toString() : value;
+  }
+
+  /**
+   * Returns the key a value is looked up under in a hash table of case values.
+   *
+   * <p>Two values have equal keys exactly when {@link #isEqual(Object, Object)} holds for them:
+   * strings are {@linkplain #flatten(Object) flattened}, and a double with an integral value is
+   * replaced by the integer it equals.
+   *
+   * @param value the value
+   * @return the key
+   */
+  public static Object key(Object value) {
+    if (value instanceof Double number) {
+      long integer = (long) (double) number;
+      return isIntegral(number, integer) ? (Object) integer : number;
+    }
+    return flatten(value);
+  }
+
+  /**
+   * Converts a value to a string for printing.
+   *
+   * @param object the value to convert
+   * @return string representation of the value
+   */
+  public static String stringify(Object object) {
+    if (object == null) return "nalla";
+    if (object instanceof Boolean) {
+      if ((Boolean) object) return "sahi";
+      else return "galat";
+    }
+    if (object instanceof Double number) {
+      return appendNumber(new StringBuilder(), number).toString();
+    }
+    if (object instanceof Long integer) {
+      return appendInteger(new StringBuilder(), integer).toString();
+    }
+    return object.toString();
+  }
+
+  /**
+   * Appends the printed form of a value to a builder, as {@link #stringify(Object)} returns it.
+   *
+   * <p>Numbers, booleans, {@code nalla}, {@link Slice}s, {@link BhaiList}s, {@link BhaiMap}s and
+   * {@link BhaiRecord}s are written without an intermediate string; a {@link Rope} is flattened
+   * once.
+   *
+   * @param builder the builder
+   * @param object the value to append
+   * @return the builder
+   */
+  static StringBuilder appendTo(StringBuilder builder, Object object) {
+    if (object == null) return builder.append("nalla");
+    if (object instanceof Boolean bool) return builder.append(bool ? "sahi" : "galat");
+    if (object instanceof Double number) return appendNumber(builder, number);
+    if (object instanceof Long integer) return appendInteger(builder, integer);
+    if (object instanceof String string) return builder.append(string);
+    if (object instanceof Slice slice) return slice.appendTo(builder);
+    if (object instanceof Rope rope) return rope.appendTo(builder);
+    if (object instanceof BhaiList list) return list.appendTo(builder);
+    if (object instanceof BhaiMap map) return map.appendTo(builder);
+    if (object instanceof BhaiRecord record) return record.appendTo(builder);
+    return builder.append(object.toString());
+  }
+
+  /**
+   * Appends a number to a builder the way it is printed.
+   *
+   * <p>This is {@link Double#toString(double)} without a trailing {@code ".0"}. Below
+   * 10<sup>7</sup> integral numbers are written as a {@code long}; everything else, including
+   * numbers that {@link Double#toString(double)} writes in scientific notation (which never end in
+   * {@code ".0"}), goes through {@link StringBuilder#append(double)}, which writes the same
+   * shortest digits straight into the builder.
+   *
+   * @param builder the builder
+   * @param number the number
+   * @return the builder
+   */
+  static StringBuilder appendNumber(StringBuilder builder, double number) {
+    if (number == (long) number && Math.abs(number) < 1e7) {
+      if (number == 0 && 1 / number < 0) return builder.append("-0");
+      return builder.append((long) number);
+    }
+    return builder.append(number);
+  }
+
+  /**
+   * Appends an integer to a builder the way it is printed.
+   *
+   * <p>Integers print exactly like the double with the same value, so scripts print the same
+   * whether a number is held as an integer or as a double: digits below 10<sup>7</sup>, scientific
+   * notation from there on.
+   *
+   * @param builder the builder
+   * @param integer the integer
+   * @return the builder
+   */
+  static StringBuilder appendInteger(StringBuilder builder, long integer) {
+    if (integer > -10_000_000 && integer < 10_000_000) return builder.append(integer);
+    return builder.append((double) integer);
+  }
+
+  /**
+   * Returns whether a value is a number, held either as a {@link Long} or as a {@link Double}.
+   *
+   * @param value the value
+   * @return true if the value is a number
+   */
+  static boolean isNumber(Object value) {
+    return value instanceof Long || value instanceof Double;
+  }
+
+  /**
+   * Converts a number to a double.
+   *
+   * @param number a value for which {@link #isNumber(Object)} holds
+   * @return its value as a double
+   */
+  private static double toDouble(Object number) {
+    return ((Number) number).doubleValue();
+  }
+
+  /**
+   * Returns whether a value is a string, possibly held in a {@link Rope} or {@link Slice}.
+   *
+   * @param value the value
+   * @return true if the value is a string
+   */
+  static boolean isString(Object value) {
+    return value instanceof CharSequence;
+  }
+
+  /**
+   * Ensures that an operand is a number.
+   *
+   * @param operator the operator token
+   * @param operand the operand to check
+   * @throws RuntimeError if the operand is not a number
+   */
+  private static void checkNumberOperand(Token operator, Object operand) {
+    if (isNumber(operand)) {
+      return;
+    }
+
+    throw new RuntimeError(operator, "Operand must be a number.");
+  }
+
+  /**
+   * Ensures that both operands are numbers.
+   *
+   * @param operator the operator token
+   * @param left the left operand
+   * @param right the right operand
+   * @throws RuntimeError if any operand is not a number
+   * @throws NallaPointerException if any operand is null
+   */
+  private static void checkNumberOperands(Token operator, Object left, Object right) {
+    if (isNumber(left) && isNumber(right)) {
+      return;
+    }
+    if (left == null || right == null) {
+      throw new NallaPointerException(operator, "Bhai! Nalla value caught!!!");
+    }
+    throw new RuntimeError(operator, "Operands must be numbers.");
+  }
+}
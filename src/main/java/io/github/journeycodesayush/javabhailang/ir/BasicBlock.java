@@ -0,0 +1,194 @@
+package io.github.journeycodesayush.javabhailang.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A straight-line sequence of instructions in a {@link Graph}.
+ *
+ * <p>A block starts with its phis, runs its instructions in order and then leaves through its exit:
+ * a jump to its only successor, a branch on a condition, a switch on a subject, or the end of the
+ * program. The operands of each phi line up with the block's predecessors.
+ */
+public final class BasicBlock {
+
+  /** The ways control can leave a block. */
+  public enum Exit {
+    /** Continues with the only successor. */
+    JUMP,
+    /** Continues with the first successor if the condition is truthy, else the second. */
+    BRANCH,
+    /** Continues with the successor of the first key equal to the subject, else the last one. */
+    SWITCH,
+    /** Ends the program. */
+    RETURN
+  }
+
+  /** A number identifying the block within its graph. */
+  final int id;
+
+  /** The phis at the start of the block. */
+  final List<Instruction> phis = new ArrayList<>();
+
+  /** The instructions of the block, in order. */
+  final List<Instruction> instructions = new ArrayList<>();
+
+  /** The blocks control can come from, matching the operands of every phi. */
+  final List<BasicBlock> predecessors = new ArrayList<>();
+
+  /** The blocks control can go to, in the order described by {@link Exit}. */
+  final List<BasicBlock> successors = new ArrayList<>();
+
+  /** How control leaves the block. */
+  Exit exit = Exit.RETURN;
+
+  /** The condition of a branch or the subject of a switch. */
+  Instruction condition;
+
+  /** The case values of a switch, matching the successors before the default one. */
+  List<Object> keys = List.of();
+
+  /**
+   * Constructs an empty block.
+   *
+   * @param id the number identifying the block within its graph
+   */
+  BasicBlock(int id) {
+    this.id = id;
+  }
+
+  /**
+   * Returns the number identifying the block within its graph.
+   *
+   * @return the block id
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Returns the phis at the start of the block.
+   *
+   * @return the phis
+   */
+  public List<Instruction> getPhis() {
+    return phis;
+  }
+
+  /**
+   * Returns the instructions of the block.
+   *
+   * @return the instructions, in order
+   */
+  public List<Instruction> getInstructions() {
+    return instructions;
+  }
+
+  /**
+   * Returns the blocks control can come from.
+   *
+   * @return the predecessors, matching the operands of every phi
+   */
+  public List<BasicBlock> getPredecessors() {
+    return predecessors;
+  }
+
+  /**
+   * Returns the blocks control can go to.
+   *
+   * @return the successors
+   */
+  public List<BasicBlock> getSuccessors() {
+    return successors;
+  }
+
+  /**
+   * Returns how control leaves the block.
+   *
+   * @return the exit kind
+   */
+  public Exit getExit() {
+    return exit;
+  }
+
+  /**
+   * Returns the condition of a branch or the subject of a switch.
+   *
+   * @return the condition, or null for other exits
+   */
+  public Instruction getCondition() {
+    return condition;
+  }
+
+  /**
+   * Returns the case values of a switch.
+   *
+   * @return the keys, matching the successors before the default one
+   */
+  public List<Object> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Adds an instruction at the end of the block.
+   *
+   * @param instruction the instruction
+   * @return the instruction
+   */
+  Instruction append(Instruction instruction) {
+    instruction.block = this;
+    instructions.add(instruction);
+    return instruction;
+  }
+
+  /**
+   * Removes one edge from a predecessor, along with the matching phi operands.
+   *
+   * @param predecessor the predecessor
+   */
+  void removePredecessor(BasicBlock predecessor) {
+    int index = predecessors.indexOf(predecessor);
+    if (index < 0) return;
+    predecessors.remove(index);
+    for (Instruction phi : phis) {
+      phi.operands.remove(index);
+    }
+  }
+
+  /**
+   * Replaces the exit with an unconditional jump to one of the current successors.
+   *
+   * @param target the successor to keep
+   */
+  void jumpTo(BasicBlock target) {
+    List<BasicBlock> dropped = new ArrayList<>(successors);
+    dropped.remove(target);
+    for (BasicBlock successor : dropped) {
+      successor.removePredecessor(this);
+    }
+    successors.clear();
+    successors.add(target);
+    exit = Exit.JUMP;
+    condition = null;
+    keys = List.of();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder("b").append(id).append(":\n");
+    for (Instruction phi : phis) {
+      text.append("  ").append(phi).append('\n');
+    }
+    for (Instruction instruction : instructions) {
+      text.append("  ").append(instruction).append('\n');
+    }
+    text.append("  ").append(exit.name().toLowerCase());
+    if (condition != null) {
+      text.append(" v").append(condition.id);
+    }
+    for (BasicBlock successor : successors) {
+      text.append(" b").append(successor.id);
+    }
+    return text.append('\n').toString();
+  }
+}
@@ -0,0 +1,134 @@
+package io.github.journeycodesayush.javabhailang.ir;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Values;
+import io.github.journeycodesayush.javabhailang.ir.Instruction.Op;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Evaluates instructions whose operands are constants and removes branches that are never taken.
+ *
+ * <p>Operators are evaluated through {@link Values}, the same code the interpreter runs. An
+ * operation that would raise a runtime error is left in place, so the error still happens at run
+ * time on the same token. A branch or switch on a constant becomes a jump, and phis whose incoming
+ * values all agree on one constant become that constant, which lets constants flow around loops.
+ */
+class ConstantPropagation {
+
+  /**
+   * Runs the pass until nothing more can be folded.
+   *
+   * @param graph the graph to simplify
+   * @return true if the graph changed
+   */
+  static boolean run(Graph graph) {
+    boolean changed = false;
+    boolean folded = true;
+    while (folded) {
+      folded = false;
+      for (BasicBlock block : graph.blocks) {
+        folded |= foldPhis(block);
+        for (Instruction instruction : block.instructions) {
+          folded |= fold(instruction);
+        }
+        folded |= foldExit(block);
+      }
+      folded |= graph.removeUnreachable();
+      changed |= folded;
+    }
+    return changed;
+  }
+
+  /**
+   * Turns phis whose incoming values are all the same constant into that constant.
+   *
+   * @param block the block whose phis to fold
+   * @return true if a phi was folded
+   */
+  private static boolean foldPhis(BasicBlock block) {
+    boolean folded = false;
+    for (int i = 0; i < block.phis.size(); i++) {
+      Instruction phi = block.phis.get(i);
+      Instruction constant = null;
+      boolean agree = true;
+      for (Instruction operand : phi.operands) {
+        if (operand == phi) continue;
+        if (operand.op != Op.CONST
+            || constant != null && !Objects.equals(constant.constant, operand.constant)) {
+          agree = false;
+          break;
+        }
+        constant = operand;
+      }
+      if (!agree || constant == null) continue;
+
+      block.phis.remove(i--);
+      phi.becomeConstant(constant.constant);
+      block.instructions.addFirst(phi);
+      folded = true;
+    }
+    return folded;
+  }
+
+  /**
+   * Evaluates an instruction if all its operands are constants.
+   *
+   * @param instruction the instruction
+   * @return true if it became a constant
+   */
+  private static boolean fold(Instruction instruction) {
+    List<Instruction> operands = instruction.operands;
+    try {
+      switch (instruction.op) {
+        case COPY -> {
+          if (operands.get(0).op != Op.CONST) return false;
+          instruction.becomeConstant(operands.get(0).constant);
+        }
+        case UNARY -> {
+          if (operands.get(0).op != Op.CONST) return false;
+          instruction.becomeConstant(Values.unary(instruction.token, operands.get(0).constant));
+        }
+        case BINARY -> {
+          if (operands.get(0).op != Op.CONST || operands.get(1).op != Op.CONST) return false;
+          instruction.becomeConstant(
+              Values.flatten(
+                  Values.binary(
+                      instruction.token, operands.get(0).constant, operands.get(1).constant)));
+        }
+        default -> {
+          return false;
+        }
+      }
+    } catch (RuntimeException error) {
+      // Leave the operation for the interpreter so the error is raised at run time.
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Replaces a branch or switch on a constant with a jump to the successor it always takes.
+   *
+   * @param block the block whose exit to fold
+   * @return true if the exit was folded
+   */
+  private static boolean foldExit(BasicBlock block) {
+    if (block.condition == null || block.condition.op != Op.CONST) return false;
+    Object value = block.condition.constant;
+
+    if (block.exit == BasicBlock.Exit.BRANCH) {
+      block.jumpTo(block.successors.get(Values.isTruthy(value) ? 0 : 1));
+      return true;
+    }
+
+    int taken = block.keys.size();
+    for (int i = 0; i < block.keys.size(); i++) {
+      if (Values.isEqual(block.keys.get(i), value)) {
+        taken = i;
+        break;
+      }
+    }
+    block.jumpTo(block.successors.get(taken));
+    return true;
+  }
+}
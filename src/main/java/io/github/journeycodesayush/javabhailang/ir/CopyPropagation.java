@@ -0,0 +1,62 @@
+package io.github.journeycodesayush.javabhailang.ir;
+
+import io.github.journeycodesayush.javabhailang.ir.Instruction.Op;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Removes copies and phis that do not merge different values.
+ *
+ * <p>Uses of a copy use the copied value directly. A phi whose operands are all the same value, or
+ * the phi itself around a loop, is that value; removing one can make others trivial, so the pass
+ * repeats until none are left.
+ */
+class CopyPropagation {
+
+  /**
+   * Runs the pass until no copies or trivial phis are left.
+   *
+   * @param graph the graph to simplify
+   * @return true if the graph changed
+   */
+  static boolean run(Graph graph) {
+    boolean changed = false;
+    while (true) {
+      Map<Instruction, Instruction> replacements = new HashMap<>();
+      for (BasicBlock block : graph.blocks) {
+        for (Instruction phi : block.phis) {
+          Instruction same = trivial(phi);
+          // Two phis that only refer to each other must not replace each other.
+          if (same != null && Graph.resolve(replacements, same) != phi) {
+            replacements.put(phi, same);
+          }
+        }
+        for (Instruction instruction : block.instructions) {
+          if (instruction.op == Op.COPY) {
+            replacements.put(instruction, instruction.operands.get(0));
+          }
+        }
+      }
+      if (replacements.isEmpty()) return changed;
+
+      graph.replace(replacements);
+      changed = true;
+    }
+  }
+
+  /**
+   * Returns the only value a phi can have, if it does not merge different values.
+   *
+   * @param phi the phi
+   * @return the value, or null if the phi merges different values or has no operands
+   */
+  private static Instruction trivial(Instruction phi) {
+    Instruction same = null;
+    for (Instruction operand : phi.operands) {
+      if (operand == phi || operand == same) continue;
+      if (same != null) return null;
+      same = operand;
+    }
+    return same;
+  }
+}
@@ -0,0 +1,49 @@
+package io.github.journeycodesayush.javabhailang.ir;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Removes unreachable blocks and instructions whose values are never used.
+ *
+ * <p>Instructions with effects (printing, globals, errors, and operators that may fail on their
+ * operands) are live, as are branch conditions and switch subjects; so is every value a live
+ * instruction uses. Everything else is removed, including phis that only feed each other around a
+ * loop. Blocks that control can only enter from the block before them are merged into it.
+ */
+class DeadCodeElimination {
+
+  /**
+   * Runs the pass once.
+   *
+   * @param graph the graph to simplify
+   * @return true if the graph changed
+   */
+  static boolean run(Graph graph) {
+    boolean changed = graph.removeUnreachable();
+    changed |= graph.mergeStraightLines();
+
+    Set<Instruction> live = new HashSet<>();
+    Deque<Instruction> pending = new ArrayDeque<>();
+    for (BasicBlock block : graph.blocks) {
+      for (Instruction instruction : block.instructions) {
+        if (!instruction.isPure()) pending.push(instruction);
+      }
+      if (block.condition != null) pending.push(block.condition);
+    }
+    while (!pending.isEmpty()) {
+      Instruction instruction = pending.pop();
+      if (live.add(instruction)) {
+        instruction.operands.forEach(pending::push);
+      }
+    }
+
+    for (BasicBlock block : graph.blocks) {
+      changed |= block.phis.retainAll(live);
+      changed |= block.instructions.retainAll(live);
+    }
+    return changed;
+  }
+}
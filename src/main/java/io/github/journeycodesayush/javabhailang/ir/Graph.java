@@ -0,0 +1,239 @@
+package io.github.journeycodesayush.javabhailang.ir;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A BhaiLang program as a control-flow graph in SSA form.
+ *
+ * <p>Built from resolved statements by {@link IrBuilder}, simplified by {@link IrOptimizer} and
+ * then run by an execution engine. The first block is the entry; the program ends when a block with
+ * a {@link BasicBlock.Exit#RETURN} exit finishes.
+ */
+public final class Graph {
+
+  /** The blocks of the graph, entry first. */
+  final List<BasicBlock> blocks = new ArrayList<>();
+
+  /** Number of instructions created so far, used as the next instruction id. */
+  private int values = 0;
+
+  /** The block control starts in. */
+  final BasicBlock entry = newBlock();
+
+  /**
+   * Returns the block control starts in.
+   *
+   * @return the entry block
+   */
+  public BasicBlock getEntry() {
+    return entry;
+  }
+
+  /**
+   * Returns the blocks of the graph.
+   *
+   * @return the blocks, entry first
+   */
+  public List<BasicBlock> getBlocks() {
+    return Collections.unmodifiableList(blocks);
+  }
+
+  /**
+   * Returns one more than the largest instruction id in the graph.
+   *
+   * @return the number of registers an engine needs to hold every value
+   */
+  public int getValueCount() {
+    return values;
+  }
+
+  /**
+   * Creates a block and adds it to the graph.
+   *
+   * @return the new block
+   */
+  BasicBlock newBlock() {
+    BasicBlock block = new BasicBlock(blocks.isEmpty() ? 0 : blocks.getLast().id + 1);
+    blocks.add(block);
+    return block;
+  }
+
+  /**
+   * Creates an instruction that does not belong to a block yet.
+   *
+   * @param op the kind of instruction
+   * @param token the operator, global name or error location, or null
+   * @param operands the values the instruction uses
+   * @return the new instruction
+   */
+  Instruction newInstruction(Instruction.Op op, Token token, Instruction... operands) {
+    Instruction instruction = new Instruction(values++, op, token);
+    Collections.addAll(instruction.operands, operands);
+    return instruction;
+  }
+
+  /**
+   * Removes the blocks control can no longer reach from the entry.
+   *
+   * @return true if any block was removed
+   */
+  boolean removeUnreachable() {
+    Set<BasicBlock> reachable = new HashSet<>();
+    Deque<BasicBlock> pending = new ArrayDeque<>();
+    pending.push(entry);
+    while (!pending.isEmpty()) {
+      BasicBlock block = pending.pop();
+      if (reachable.add(block)) {
+        block.successors.forEach(pending::push);
+      }
+    }
+    if (reachable.size() == blocks.size()) return false;
+
+    for (BasicBlock block : blocks) {
+      if (reachable.contains(block)) continue;
+      for (BasicBlock successor : block.successors) {
+        if (reachable.contains(successor)) {
+          successor.removePredecessor(block);
+        }
+      }
+    }
+    blocks.removeIf(block -> !reachable.contains(block));
+    return true;
+  }
+
+  /**
+   * Merges blocks into their predecessor where control can only flow straight from one to the
+   * other.
+   *
+   * <p>A block is merged when its only predecessor jumps to it unconditionally and it has no phis.
+   *
+   * @return true if any block was merged
+   */
+  boolean mergeStraightLines() {
+    boolean merged = false;
+    for (BasicBlock block : blocks) {
+      while (block.exit == BasicBlock.Exit.JUMP) {
+        BasicBlock next = block.successors.getFirst();
+        if (next == entry
+            || next == block
+            || next.predecessors.size() != 1
+            || !next.phis.isEmpty()) {
+          break;
+        }
+
+        for (Instruction instruction : next.instructions) {
+          block.append(instruction);
+        }
+        next.instructions.clear();
+        block.exit = next.exit;
+        block.condition = next.condition;
+        block.keys = next.keys;
+        block.successors.clear();
+        block.successors.addAll(next.successors);
+        for (BasicBlock successor : next.successors) {
+          successor.predecessors.replaceAll(
+              predecessor -> predecessor == next ? block : predecessor);
+        }
+        next.successors.clear();
+        next.predecessors.clear();
+        next.exit = BasicBlock.Exit.RETURN;
+        merged = true;
+      }
+    }
+    if (merged) removeUnreachable();
+    return merged;
+  }
+
+  /**
+   * Makes every use of a replaced instruction use its replacement instead.
+   *
+   * <p>The replaced instructions are removed from their blocks. Replacements may themselves be
+   * replaced; chains are followed to the end.
+   *
+   * @param replacements the replacement for each replaced instruction
+   */
+  void replace(Map<Instruction, Instruction> replacements) {
+    if (replacements.isEmpty()) return;
+
+    for (BasicBlock block : blocks) {
+      block.phis.removeIf(replacements::containsKey);
+      block.instructions.removeIf(replacements::containsKey);
+      for (Instruction phi : block.phis) {
+        phi.operands.replaceAll(operand -> resolve(replacements, operand));
+      }
+      for (Instruction instruction : block.instructions) {
+        instruction.operands.replaceAll(operand -> resolve(replacements, operand));
+      }
+      if (block.condition != null) {
+        block.condition = resolve(replacements, block.condition);
+      }
+    }
+  }
+
+  /**
+   * Follows a chain of replacements.
+   *
+   * @param replacements the replacement for each replaced instruction
+   * @param instruction the instruction to look up
+   * @return the last replacement in the chain, or the instruction itself
+   */
+  static Instruction resolve(Map<Instruction, Instruction> replacements, Instruction instruction) {
+    Instruction replacement = replacements.get(instruction);
+    while (replacement != null) {
+      instruction = replacement;
+      replacement = replacements.get(instruction);
+    }
+    return instruction;
+  }
+
+  /**
+   * Returns the blocks reachable from the entry in reverse postorder.
+   *
+   * <p>Every block comes before its successors, except along loop back edges.
+   *
+   * @return the blocks in reverse postorder
+   */
+  List<BasicBlock> reversePostorder() {
+    List<BasicBlock> order = new ArrayList<>();
+    Set<BasicBlock> visited = new HashSet<>();
+    Deque<BasicBlock> path = new ArrayDeque<>();
+    Deque<Integer> next = new ArrayDeque<>();
+
+    visited.add(entry);
+    path.push(entry);
+    next.push(0);
+    while (!path.isEmpty()) {
+      BasicBlock block = path.peek();
+      int index = next.pop();
+      if (index < block.successors.size()) {
+        next.push(index + 1);
+        BasicBlock successor = block.successors.get(index);
+        if (visited.add(successor)) {
+          path.push(successor);
+          next.push(0);
+        }
+      } else {
+        order.add(path.pop());
+      }
+    }
+    Collections.reverse(order);
+    return order;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder();
+    for (BasicBlock block : blocks) {
+      text.append(block);
+    }
+    return text.toString();
+  }
+}
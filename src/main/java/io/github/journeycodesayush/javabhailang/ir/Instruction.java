@@ -0,0 +1,220 @@
+package io.github.journeycodesayush.javabhailang.ir;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single SSA value in a {@link Graph}.
+ *
+ * <p>Every instruction defines exactly one value, which its users refer to directly instead of by
+ * variable name. Local variables only exist while the graph is built; globals live in the
+ * interpreter's environment and are accessed through load, store and define instructions. Passes
+ * may turn an instruction into a constant in place, so users never need to be rewritten for that.
+ */
+public final class Instruction {
+
+  /** The kinds of instruction. */
+  public enum Op {
+    /** A constant value, held in {@link #getConstant()}. */
+    CONST,
+    /** The value of its single operand. */
+    COPY,
+    /** One operand per predecessor of its block, chosen by the edge the block was entered by. */
+    PHI,
+    /** A unary operator applied to its operand. */
+    UNARY,
+    /** A binary operator applied to its two operands. */
+    BINARY,
+    /** Reads the global named by its token. */
+    LOAD_GLOBAL,
+    /** Assigns its operand to the existing global named by its token. */
+    STORE_GLOBAL,
+    /** Defines the global named by its token with its operand as value. */
+    DEFINE_GLOBAL,
+    /** Prints its operands on one line. */
+    PRINT,
+    /** Raises a runtime error on its token, with {@link #getConstant()} as message. */
+    FAIL
+  }
+
+  /** A number identifying the instruction within its graph. */
+  final int id;
+
+  /** The kind of instruction. */
+  Op op;
+
+  /** The values the instruction uses. */
+  final List<Instruction> operands = new ArrayList<>();
+
+  /** The constant value, or the error message of a {@link Op#FAIL}. */
+  Object constant;
+
+  /** The operator, global name or error location, if any. */
+  final Token token;
+
+  /** The block the instruction belongs to. */
+  BasicBlock block;
+
+  /**
+   * Constructs an instruction.
+   *
+   * @param id the number identifying the instruction within its graph
+   * @param op the kind of instruction
+   * @param token the operator, global name or error location, or null
+   */
+  Instruction(int id, Op op, Token token) {
+    this.id = id;
+    this.op = op;
+    this.token = token;
+  }
+
+  /**
+   * Returns the number identifying the instruction within its graph.
+   *
+   * <p>Numbers are dense, so execution engines can use them to index register files.
+   *
+   * @return the instruction id
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Returns the kind of instruction.
+   *
+   * @return the operation
+   */
+  public Op getOp() {
+    return op;
+  }
+
+  /**
+   * Returns the values the instruction uses.
+   *
+   * @return the operands, in order
+   */
+  public List<Instruction> getOperands() {
+    return operands;
+  }
+
+  /**
+   * Returns the constant value of a {@link Op#CONST}, or the message of a {@link Op#FAIL}.
+   *
+   * @return the constant
+   */
+  public Object getConstant() {
+    return constant;
+  }
+
+  /**
+   * Returns the operator, global name or error location of the instruction.
+   *
+   * @return the token, or null for constants, copies and phis
+   */
+  public Token getToken() {
+    return token;
+  }
+
+  /**
+   * Returns the block the instruction belongs to.
+   *
+   * @return the block
+   */
+  public BasicBlock getBlock() {
+    return block;
+  }
+
+  /**
+   * Turns the instruction into a constant, keeping its identity so users see the new value.
+   *
+   * @param value the constant value
+   */
+  void becomeConstant(Object value) {
+    op = Op.CONST;
+    operands.clear();
+    constant = value;
+  }
+
+  /**
+   * Returns whether the instruction can be removed when nothing uses its value.
+   *
+   * <p>Arithmetic and comparisons raise errors on operands of the wrong type, so they only count
+   * when their operands are known to be numbers.
+   *
+   * @return true if running the instruction has no effect besides defining its value
+   */
+  boolean isPure() {
+    switch (op) {
+      case CONST, COPY, PHI -> {
+        return true;
+      }
+      case UNARY -> {
+        return token.getType() == TokenType.BANG || operands.get(0).isNumber();
+      }
+      case BINARY -> {
+        TokenType type = token.getType();
+        if (type == TokenType.EQUAL_EQUAL || type == TokenType.BANG_EQUAL) return true;
+        return operands.get(0).isNumber() && operands.get(1).isNumber();
+      }
+      default -> {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Returns whether the instruction always produces a number, if it produces anything.
+   *
+   * <p>Arithmetic that does not fail always yields a number, except {@code +}, which yields a
+   * string unless both operands are numbers. Phis are not followed, since they may be cyclic.
+   *
+   * @return true if the value is known to be a number
+   */
+  boolean isNumber() {
+    switch (op) {
+      case CONST -> {
+        return constant instanceof Double || constant instanceof Long;
+      }
+      case COPY -> {
+        return operands.get(0).isNumber();
+      }
+      case UNARY -> {
+        return token.getType() == TokenType.MINUS;
+      }
+      case BINARY -> {
+        switch (token.getType()) {
+          case MINUS, STAR, SLASH -> {
+            return true;
+          }
+          case PLUS -> {
+            return operands.get(0).isNumber() && operands.get(1).isNumber();
+          }
+          default -> {
+            return false;
+          }
+        }
+      }
+      default -> {
+        return false;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder("v").append(id).append(" = ");
+    text.append(op.name().toLowerCase());
+    if (op == Op.CONST || op == Op.FAIL) {
+      text.append(' ').append(constant instanceof String ? "'" + constant + "'" : constant);
+    }
+    if (token != null && op != Op.FAIL) {
+      text.append(' ').append(token.getLexeme());
+    }
+    for (Instruction operand : operands) {
+      text.append(" v").append(operand.id);
+    }
+    return text.toString();
+  }
+}
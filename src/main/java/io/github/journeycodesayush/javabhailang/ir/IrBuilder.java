@@ -0,0 +1,613 @@
+package io.github.journeycodesayush.javabhailang.ir;
+
+import static io.github.journeycodesayush.javabhailang.lexer.TokenType.*;
+
+import io.github.journeycodesayush.javabhailang.ir.Instruction.Op;
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Symbol;
+import io.github.journeycodesayush.javabhailang.resolver.SymbolTable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lowers resolved statements into a {@link Graph} in SSA form.
+ *
+ * <p>Uses the construction of Braun et al., "Simple and Efficient Construction of Static Single
+ * Assignment Form": each block remembers the value it last assigned to every local variable, reads
+ * look backwards through predecessors, and phis are only created where control flow merges
+ * different values. A block is sealed once all its predecessors are known; reads in a block that is
+ * not sealed yet, such as a loop header, get placeholder phis that are completed when it is.
+ *
+ * <p>Loops (including {@code ginti bhai} loops whose counter the body never assigns), {@code bas
+ * kar bhai} and {@code agla dekh bhai}, {@code nahi to bhai} chains and short-circuiting {@code
+ * &&}/{@code ||} all become explicit edges. Lazy blocks cannot be lowered because they are only
+ * parsed when they run, and the graph has no instructions for functions, calls, records, lists or
+ * maps, so programs using any of them are not lowered either.
+ */
+public class IrBuilder implements Expr.Visitor<Instruction>, Stmt.Visitor<Void> {
+
+  /** The graph being built. */
+  private final Graph graph = new Graph();
+
+  /** The symbols of the statements being lowered. */
+  private final SymbolTable symbols;
+
+  /** The value each block last assigned to each local variable. */
+  private final Map<BasicBlock, Map<Symbol, Instruction>> definitions = new HashMap<>();
+
+  /** Placeholder phis of blocks that are not sealed yet. */
+  private final Map<BasicBlock, Map<Symbol, Instruction>> incomplete = new HashMap<>();
+
+  /** The loops enclosing the statement being lowered, innermost last. */
+  private final List<Loop> loops = new ArrayList<>();
+
+  /** The block instructions are currently appended to. */
+  private BasicBlock current = graph.entry;
+
+  /** Where {@code agla dekh bhai} and {@code bas kar bhai} go inside a loop. */
+  private record Loop(BasicBlock header, BasicBlock exit) {}
+
+  /** Thrown when the statements contain something that cannot be lowered. */
+  private static class Unsupported extends RuntimeException {
+    Unsupported() {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * Constructs a builder for resolved statements.
+   *
+   * @param symbols the symbols found by resolving the statements
+   */
+  private IrBuilder(SymbolTable symbols) {
+    this.symbols = symbols;
+    incomplete.put(graph.entry, new HashMap<>());
+    seal(graph.entry);
+  }
+
+  /**
+   * Lowers a resolved program.
+   *
+   * @param statements the resolved statements
+   * @param symbols the symbols found by resolving exactly these statements
+   * @return the graph, or null if the program contains lazy blocks, functions, calls, records,
+   *     lists, maps or a {@code ginti bhai} loop whose body assigns its counter
+   */
+  public static Graph build(List<Stmt> statements, SymbolTable symbols) {
+    IrBuilder builder = new IrBuilder(symbols);
+    try {
+      builder.lower(statements);
+    } catch (Unsupported unsupported) {
+      return null;
+    }
+    return builder.graph;
+  }
+
+  @Override
+  public Void visitBlockStmt(Stmt.Block stmt) {
+    lower(stmt.statements);
+    return null;
+  }
+
+  @Override
+  public Void visitExpressionStmt(Stmt.Expression stmt) {
+    lower(stmt.expression);
+    return null;
+  }
+
+  @Override
+  public Void visitIfStmt(Stmt.If stmt) {
+    BasicBlock merge = newBlock();
+
+    branch(stmt.condition, stmt.thenBranch, merge);
+    for (int i = 0; i < stmt.elseIfConditions.size(); i++) {
+      branch(stmt.elseIfConditions.get(i), stmt.elseIfBranches.get(i), merge);
+    }
+    if (stmt.elseBranch != null) {
+      lower(stmt.elseBranch);
+    }
+    jump(merge);
+
+    seal(merge);
+    current = merge;
+    return null;
+  }
+
+  /**
+   * Lowers one condition of an if-else-if chain and the branch it guards.
+   *
+   * <p>Afterwards, the current block is the one reached when the condition is falsy.
+   *
+   * @param condition the condition
+   * @param body the branch taken when the condition is truthy
+   * @param merge the block every branch continues with
+   */
+  private void branch(Expr condition, Stmt body, BasicBlock merge) {
+    Instruction value = lower(condition);
+    BasicBlock then = newBlock();
+    BasicBlock otherwise = newBlock();
+    exit(BasicBlock.Exit.BRANCH, value, then, otherwise);
+    seal(then);
+    seal(otherwise);
+
+    current = then;
+    lower(body);
+    jump(merge);
+    current = otherwise;
+  }
+
+  @Override
+  public Void visitPrintStmt(Stmt.Print stmt) {
+    Instruction print = graph.newInstruction(Op.PRINT, null);
+    for (Expr expr : stmt.expressions) {
+      print.operands.add(lower(expr));
+    }
+    current.append(print);
+    return null;
+  }
+
+  @Override
+  public Void visitVarStmt(Stmt.Var stmt) {
+    Instruction value = stmt.initializer == null ? constant(null) : lower(stmt.initializer);
+
+    Symbol symbol = symbols.symbolOf(stmt);
+    if (symbol == null || symbol.isGlobal()) {
+      current.append(graph.newInstruction(Op.DEFINE_GLOBAL, stmt.name, value));
+    } else {
+      write(symbol, current, current.append(graph.newInstruction(Op.COPY, null, value)));
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitWhileStmt(Stmt.While stmt) {
+    BasicBlock header = newBlock();
+    jump(header);
+    current = header;
+
+    Instruction condition = lower(stmt.condition);
+    BasicBlock body = newBlock();
+    BasicBlock exit = newBlock();
+    exit(BasicBlock.Exit.BRANCH, condition, body, exit);
+    seal(body);
+
+    loops.add(new Loop(header, exit));
+    current = body;
+    lower(stmt.body);
+    jump(header);
+    loops.removeLast();
+
+    seal(header);
+    seal(exit);
+    current = exit;
+    return null;
+  }
+
+  /**
+   * Lowers a counted loop to a loop on the counter variable.
+   *
+   * <p>The header compares the counter with the end using {@code <}, or {@code >} for a negative
+   * step, and a latch block that {@code agla dekh bhai} also jumps to adds the step, so type errors
+   * are raised like in the AST engine. The counter is the loop variable itself, which only works
+   * when the body never assigns it; other loops are not lowered.
+   *
+   * @param stmt the loop
+   * @return null
+   */
+  @Override
+  public Void visitRangeStmt(Stmt.Range stmt) {
+    Symbol symbol = symbols.symbolOf(stmt.counter);
+    if (symbol.getWrites() != 1) throw new Unsupported();
+
+    Instruction start = lower(stmt.counter.initializer);
+    Instruction end = lower(stmt.end);
+    write(symbol, current, current.append(graph.newInstruction(Op.COPY, null, start)));
+
+    int line = stmt.keyword.getLine();
+    boolean up = ((Number) stmt.step).doubleValue() > 0;
+    Token comparison = up ? new Token(LESS, "<", null, line) : new Token(GREATER, ">", null, line);
+
+    BasicBlock header = newBlock();
+    jump(header);
+    current = header;
+
+    Instruction condition =
+        current.append(graph.newInstruction(Op.BINARY, comparison, read(symbol, header), end));
+    BasicBlock body = newBlock();
+    BasicBlock exit = newBlock();
+    BasicBlock latch = newBlock();
+    exit(BasicBlock.Exit.BRANCH, condition, body, exit);
+    seal(body);
+
+    loops.add(new Loop(latch, exit));
+    current = body;
+    lower(stmt.body);
+    jump(latch);
+    loops.removeLast();
+
+    seal(latch);
+    current = latch;
+    Instruction step = constant(stmt.step);
+    Token plus = new Token(PLUS, "+", null, line);
+    Instruction next =
+        current.append(graph.newInstruction(Op.BINARY, plus, read(symbol, latch), step));
+    write(symbol, current, current.append(graph.newInstruction(Op.COPY, null, next)));
+    jump(header);
+
+    seal(header);
+    seal(exit);
+    current = exit;
+    return null;
+  }
+
+  @Override
+  public Void visitBreakStmt(Stmt.Break stmt) {
+    if (loops.isEmpty()) {
+      fail(stmt.keyword, "Cannot use 'bas kar bhai' outside loop");
+    } else {
+      jump(loops.getLast().exit);
+    }
+    unreachable();
+    return null;
+  }
+
+  @Override
+  public Void visitContinueStmt(Stmt.Continue stmt) {
+    if (loops.isEmpty()) {
+      fail(stmt.keyword, "Cannot use 'agla dekh bhai' outside loop");
+    } else {
+      jump(loops.getLast().header);
+    }
+    unreachable();
+    return null;
+  }
+
+  @Override
+  public Void visitLazyBlockStmt(Stmt.LazyBlock stmt) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Void visitFunctionStmt(Stmt.Function stmt) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Void visitReturnStmt(Stmt.Return stmt) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Void visitSwitchStmt(Stmt.Switch stmt) {
+    Instruction subject = lower(stmt.subject);
+    BasicBlock switchBlock = current;
+    BasicBlock merge = newBlock();
+
+    List<BasicBlock> targets = new ArrayList<>();
+    for (int i = 0; i <= stmt.branches.size(); i++) {
+      targets.add(newBlock());
+    }
+    exit(BasicBlock.Exit.SWITCH, subject, targets.toArray(BasicBlock[]::new));
+    switchBlock.keys = new ArrayList<>(stmt.keys);
+
+    for (int i = 0; i < targets.size(); i++) {
+      Stmt branch = i < stmt.branches.size() ? stmt.branches.get(i) : stmt.elseBranch;
+      seal(targets.get(i));
+      current = targets.get(i);
+      if (branch != null) lower(branch);
+      jump(merge);
+    }
+
+    seal(merge);
+    current = merge;
+    return null;
+  }
+
+  @Override
+  public Instruction visitAssignExpr(Expr.Assign expr) {
+    Instruction value = lower(expr.value);
+
+    Symbol symbol = symbols.symbolOf(expr);
+    if (symbol == null || symbol.isGlobal()) {
+      current.append(graph.newInstruction(Op.STORE_GLOBAL, expr.name, value));
+      return value;
+    }
+    Instruction copy = current.append(graph.newInstruction(Op.COPY, null, value));
+    write(symbol, current, copy);
+    return copy;
+  }
+
+  @Override
+  public Instruction visitBinaryExpr(Expr.Binary expr) {
+    Instruction left = lower(expr.left);
+    Instruction right = lower(expr.right);
+    return current.append(graph.newInstruction(Op.BINARY, expr.operator, left, right));
+  }
+
+  /**
+   * Lowers a cached expression to the expression itself.
+   *
+   * <p>Value numbering finds repeated computations on its own, so the cache is not needed.
+   *
+   * @param expr the cached expression
+   * @return the value of the expression
+   */
+  @Override
+  public Instruction visitCachedExpr(Expr.Cached expr) {
+    return lower(expr.expression);
+  }
+
+  @Override
+  public Instruction visitCallExpr(Expr.Call expr) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Instruction visitGetExpr(Expr.Get expr) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Instruction visitSetExpr(Expr.Set expr) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Instruction visitRecordLiteralExpr(Expr.RecordLiteral expr) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Instruction visitGroupingExpr(Expr.Grouping expr) {
+    return lower(expr.expression);
+  }
+
+  @Override
+  public Instruction visitIndexExpr(Expr.Index expr) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Instruction visitIndexAssignExpr(Expr.IndexAssign expr) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Instruction visitListLiteralExpr(Expr.ListLiteral expr) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Instruction visitMapLiteralExpr(Expr.MapLiteral expr) {
+    throw new Unsupported();
+  }
+
+  @Override
+  public Instruction visitLiteralExpr(Expr.Literal expr) {
+    return constant(expr.value);
+  }
+
+  @Override
+  public Instruction visitLogicalExpr(Expr.Logical expr) {
+    Instruction left = lower(expr.left);
+    BasicBlock rightBlock = newBlock();
+    BasicBlock merge = newBlock();
+    if (expr.operator.getType() == LOGICAL_OR) {
+      exit(BasicBlock.Exit.BRANCH, left, merge, rightBlock);
+    } else {
+      exit(BasicBlock.Exit.BRANCH, left, rightBlock, merge);
+    }
+    seal(rightBlock);
+
+    current = rightBlock;
+    Instruction right = lower(expr.right);
+    jump(merge);
+    seal(merge);
+    current = merge;
+
+    // The short-circuit edge was added first, so the operands line up with the predecessors.
+    return phi(merge, left, right);
+  }
+
+  @Override
+  public Instruction visitUnaryExpr(Expr.Unary expr) {
+    Instruction right = lower(expr.right);
+    return current.append(graph.newInstruction(Op.UNARY, expr.operator, right));
+  }
+
+  @Override
+  public Instruction visitVariableExpr(Expr.Variable expr) {
+    Symbol symbol = symbols.symbolOf(expr);
+    if (symbol == null || symbol.isGlobal()) {
+      return current.append(graph.newInstruction(Op.LOAD_GLOBAL, expr.name));
+    }
+    return read(symbol, current);
+  }
+
+  /**
+   * Lowers a list of statements in order.
+   *
+   * @param statements the statements
+   */
+  private void lower(List<Stmt> statements) {
+    for (Stmt statement : statements) {
+      statement.accept(this);
+    }
+  }
+
+  /**
+   * Lowers a single statement.
+   *
+   * @param stmt the statement
+   */
+  private void lower(Stmt stmt) {
+    stmt.accept(this);
+  }
+
+  /**
+   * Lowers an expression.
+   *
+   * @param expr the expression
+   * @return the instruction holding its value
+   */
+  private Instruction lower(Expr expr) {
+    return expr.accept(this);
+  }
+
+  /**
+   * Appends a constant to the current block.
+   *
+   * @param value the constant value
+   * @return the constant instruction
+   */
+  private Instruction constant(Object value) {
+    Instruction constant = graph.newInstruction(Op.CONST, null);
+    constant.constant = value;
+    return current.append(constant);
+  }
+
+  /**
+   * Appends a runtime error to the current block.
+   *
+   * @param token where the error is reported
+   * @param message the error message
+   */
+  private void fail(Token token, String message) {
+    Instruction fail = graph.newInstruction(Op.FAIL, token);
+    fail.constant = message;
+    current.append(fail);
+  }
+
+  /**
+   * Creates a block whose predecessors are not known yet.
+   *
+   * @return the new block
+   */
+  private BasicBlock newBlock() {
+    BasicBlock block = graph.newBlock();
+    incomplete.put(block, new HashMap<>());
+    return block;
+  }
+
+  /**
+   * Continues lowering in a fresh block control never reaches, after a jump or an error.
+   *
+   * <p>The block is removed by the optimizer, or simply never runs.
+   */
+  private void unreachable() {
+    current = newBlock();
+    seal(current);
+  }
+
+  /**
+   * Ends the current block with a jump.
+   *
+   * @param target the block to jump to
+   */
+  private void jump(BasicBlock target) {
+    exit(BasicBlock.Exit.JUMP, null, target);
+  }
+
+  /**
+   * Ends the current block and connects it to its successors.
+   *
+   * @param kind how control leaves the block
+   * @param condition the branch condition or switch subject, or null
+   * @param targets the successors
+   */
+  private void exit(BasicBlock.Exit kind, Instruction condition, BasicBlock... targets) {
+    current.exit = kind;
+    current.condition = condition;
+    for (BasicBlock target : targets) {
+      current.successors.add(target);
+      target.predecessors.add(current);
+    }
+  }
+
+  /**
+   * Records the value a block assigns to a local variable.
+   *
+   * @param symbol the variable
+   * @param block the block
+   * @param value the new value
+   */
+  private void write(Symbol symbol, BasicBlock block, Instruction value) {
+    definitions.computeIfAbsent(block, key -> new HashMap<>()).put(symbol, value);
+  }
+
+  /**
+   * Returns the value a local variable has at the end of a block.
+   *
+   * @param symbol the variable
+   * @param block the block
+   * @return the instruction holding the value
+   */
+  private Instruction read(Symbol symbol, BasicBlock block) {
+    Map<Symbol, Instruction> defined = definitions.get(block);
+    if (defined != null && defined.containsKey(symbol)) {
+      return defined.get(symbol);
+    }
+
+    Instruction value;
+    Map<Symbol, Instruction> placeholders = incomplete.get(block);
+    if (placeholders != null) {
+      value = phi(block);
+      placeholders.put(symbol, value);
+    } else if (block.predecessors.size() == 1) {
+      value = read(symbol, block.predecessors.getFirst());
+    } else if (block.predecessors.isEmpty()) {
+      // Only unreachable code reads a variable no path has assigned.
+      value = graph.newInstruction(Op.CONST, null);
+      value.block = block;
+      block.instructions.addFirst(value);
+    } else {
+      value = phi(block);
+      write(symbol, block, value);
+      addOperands(symbol, value);
+    }
+    write(symbol, block, value);
+    return value;
+  }
+
+  /**
+   * Fills in a phi with the value of its variable at the end of each predecessor.
+   *
+   * @param symbol the variable
+   * @param phi the phi
+   */
+  private void addOperands(Symbol symbol, Instruction phi) {
+    for (BasicBlock predecessor : phi.block.predecessors) {
+      phi.operands.add(read(symbol, predecessor));
+    }
+  }
+
+  /**
+   * Marks a block as having all its predecessors, completing its placeholder phis.
+   *
+   * @param block the block
+   */
+  private void seal(BasicBlock block) {
+    Map<Symbol, Instruction> placeholders = incomplete.remove(block);
+    for (Map.Entry<Symbol, Instruction> placeholder : placeholders.entrySet()) {
+      addOperands(placeholder.getKey(), placeholder.getValue());
+    }
+  }
+
+  /**
+   * Adds a phi to the start of a block.
+   *
+   * @param block the block
+   * @param operands the incoming values, one per predecessor, or none to fill in later
+   * @return the phi
+   */
+  private Instruction phi(BasicBlock block, Instruction... operands) {
+    Instruction phi = graph.newInstruction(Op.PHI, null, operands);
+    phi.block = block;
+    block.phis.add(phi);
+    return phi;
+  }
+}
@@ -0,0 +1,33 @@
+package io.github.journeycodesayush.javabhailang.ir;
+
+/**
+ * Simplifies a {@link Graph} before it runs.
+ *
+ * <p>Runs constant propagation, copy propagation, value numbering and dead code elimination in
+ * turn. Each pass can expose work for the others (a folded branch removes a phi operand, which
+ * makes the phi a copy, which may make two operators equal), so the sequence repeats until nothing
+ * changes or a fixed number of rounds has run. Passes keep every print, global access and runtime
+ * error, in order.
+ */
+public class IrOptimizer {
+
+  /** Upper bound on rounds of the pass sequence. */
+  private static final int MAX_ROUNDS = 4;
+
+  /**
+   * Optimizes a graph in place.
+   *
+   * @param graph the graph to optimize
+   * @return the same graph
+   */
+  public Graph optimize(Graph graph) {
+    for (int round = 0; round < MAX_ROUNDS; round++) {
+      boolean changed = ConstantPropagation.run(graph);
+      changed |= CopyPropagation.run(graph);
+      changed |= ValueNumbering.run(graph);
+      changed |= DeadCodeElimination.run(graph);
+      if (!changed) break;
+    }
+    return graph;
+  }
+}
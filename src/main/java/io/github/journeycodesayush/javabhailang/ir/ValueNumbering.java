@@ -0,0 +1,151 @@
+package io.github.journeycodesayush.javabhailang.ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces instructions that recompute a value already computed on every path to them.
+ *
+ * <p>Dominator-based value numbering: the dominator tree is walked from the entry with a scoped
+ * table from instruction structure (operation, operator and operand values) to the first
+ * instruction computing it. An instruction whose structure is already in the table is dominated by
+ * that instruction, which has therefore run, so its uses can take the earlier value. If the earlier
+ * instruction raised an error, the later one is never reached, so errors are unchanged.
+ *
+ * <p>Only constants and operators are numbered. Global loads may see stores in between, and SSA
+ * values never change, so operators over the same operands always agree.
+ */
+class ValueNumbering {
+
+  /** Marks where the scope of a block ends during the dominator tree walk. */
+  private static final BasicBlock END_OF_SCOPE = new BasicBlock(-1);
+
+  /**
+   * Runs the pass once.
+   *
+   * @param graph the graph to simplify
+   * @return true if the graph changed
+   */
+  static boolean run(Graph graph) {
+    Map<BasicBlock, List<BasicBlock>> children = dominatorTree(graph);
+    Map<String, Instruction> available = new HashMap<>();
+    Map<Instruction, Instruction> replacements = new HashMap<>();
+
+    Deque<BasicBlock> pending = new ArrayDeque<>();
+    Deque<List<String>> scopes = new ArrayDeque<>();
+    pending.push(graph.entry);
+    while (!pending.isEmpty()) {
+      BasicBlock block = pending.pop();
+      if (block == END_OF_SCOPE) {
+        scopes.pop().forEach(available::remove);
+        continue;
+      }
+
+      List<String> scope = new ArrayList<>();
+      for (Instruction instruction : block.instructions) {
+        String key = key(instruction, replacements);
+        if (key == null) continue;
+
+        Instruction earlier = available.putIfAbsent(key, instruction);
+        if (earlier == null) {
+          scope.add(key);
+        } else {
+          replacements.put(instruction, earlier);
+        }
+      }
+      scopes.push(scope);
+      pending.push(END_OF_SCOPE);
+      children.getOrDefault(block, List.of()).forEach(pending::push);
+    }
+
+    graph.replace(replacements);
+    return !replacements.isEmpty();
+  }
+
+  /**
+   * Returns the structural key of an instruction.
+   *
+   * @param instruction the instruction
+   * @param replacements replacements found so far, applied to the operands
+   * @return the key, or null if the instruction is not numbered
+   */
+  private static String key(Instruction instruction, Map<Instruction, Instruction> replacements) {
+    StringBuilder key = new StringBuilder();
+    switch (instruction.op) {
+      case CONST -> {
+        Object value = instruction.constant;
+        if (value == null) return "n";
+        return value.getClass().getSimpleName() + ":" + value;
+      }
+      case UNARY, BINARY -> key.append(instruction.op).append(instruction.token.getType());
+      default -> {
+        return null;
+      }
+    }
+    for (Instruction operand : instruction.operands) {
+      key.append(' ').append(Graph.resolve(replacements, operand).id);
+    }
+    return key.toString();
+  }
+
+  /**
+   * Computes the dominator tree with the algorithm of Cooper, Harvey and Kennedy.
+   *
+   * @param graph the graph, without unreachable blocks
+   * @return the children of each block in the dominator tree
+   */
+  private static Map<BasicBlock, List<BasicBlock>> dominatorTree(Graph graph) {
+    List<BasicBlock> order = graph.reversePostorder();
+    Map<BasicBlock, Integer> index = new HashMap<>();
+    for (int i = 0; i < order.size(); i++) {
+      index.put(order.get(i), i);
+    }
+
+    int[] idom = new int[order.size()];
+    Arrays.fill(idom, -1);
+    idom[0] = 0;
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int i = 1; i < order.size(); i++) {
+        int dominator = -1;
+        for (BasicBlock predecessor : order.get(i).predecessors) {
+          Integer p = index.get(predecessor);
+          if (p == null || idom[p] < 0) continue;
+          dominator = dominator < 0 ? p : intersect(idom, p, dominator);
+        }
+        if (dominator != idom[i]) {
+          idom[i] = dominator;
+          changed = true;
+        }
+      }
+    }
+
+    Map<BasicBlock, List<BasicBlock>> children = new HashMap<>();
+    for (int i = 1; i < order.size(); i++) {
+      children.computeIfAbsent(order.get(idom[i]), key -> new ArrayList<>()).add(order.get(i));
+    }
+    return children;
+  }
+
+  /**
+   * Finds the nearest common dominator of two blocks.
+   *
+   * @param idom the immediate dominator of each block, by reverse postorder index
+   * @param a the first block's index
+   * @param b the second block's index
+   * @return the index of the common dominator
+   */
+  private static int intersect(int[] idom, int a, int b) {
+    while (a != b) {
+      while (a > b) a = idom[a];
+      while (b > a) b = idom[b];
+    }
+    return a;
+  }
+}
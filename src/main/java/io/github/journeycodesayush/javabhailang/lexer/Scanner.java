@@ -56,8 +56,11 @@ public class Scanner {
     multiKeywords.put(List.of("warna", "bhai"), WARNA_BHAI);
     multiKeywords.put(List.of("nahi", "to", "bhai"), NAHI_TO_BHAI);
     multiKeywords.put(List.of("jab", "tak", "bhai"), JAB_TAK_BHAI);
+    multiKeywords.put(List.of("ginti", "bhai"), GINTI_BHAI);
     multiKeywords.put(List.of("bas", "kar", "bhai"), BAS_KAR_BHAI);
     multiKeywords.put(List.of("agla", "dekh", "bhai"), AGLA_DEKH_BHAI);
+    multiKeywords.put(List.of("kaam", "bhai"), KAAM_BHAI);
+    multiKeywords.put(List.of("wapas", "kar", "bhai"), WAPAS_KAR_BHAI);
   }
 
   /**
@@ -180,11 +183,14 @@ public class Scanner {
     switch (c) {
       case '(' -> addToken(LEFT_PAREN);
       case ')' -> addToken(RIGHT_PAREN);
+      case '[' -> addToken(LEFT_BRACKET);
+      case ']' -> addToken(RIGHT_BRACKET);
       case '{' -> addToken(LEFT_CURLY_BRACE);
       case '}' -> addToken(RIGHT_CURLY_BRACE);
       case ',' -> addToken(COMMA);
       case '.' -> addToken(DOT);
       case ';' -> addToken(SEMICOLON);
+      case ':' -> addToken(COLON);
       case '+' -> {
         addToken(match('=') ? PLUS_EQUAL : PLUS);
       }
@@ -379,14 +385,26 @@ public class Scanner {
     return c >= '0' && c <= '9';
   }
 
-  /** Scans a number literal (integer or floating-point) and adds it as a token. */
+  /**
+   * Scans a number literal and adds it as a token.
+   *
+   * <p>A literal without a fractional part is a {@link Long}, everything else a {@link Double}.
+   */
   private void number() {
     while (isDigit(peek())) advance();
     if (peek() == '.' && isDigit(peekNext())) {
       advance();
       while (isDigit(peek())) advance();
+      addToken(NUMBER, Double.parseDouble(source.substring(start, current)));
+      return;
+    }
+    String digits = source.substring(start, current);
+    try {
+      addToken(NUMBER, Long.parseLong(digits));
+    } catch (NumberFormatException e) {
+      // Too large for a long, so it is held as the nearest double.
+      addToken(NUMBER, Double.parseDouble(digits));
     }
-    addToken(NUMBER, Double.parseDouble(source.substring(start, current)));
   }
 
   /**
@@ -16,8 +16,14 @@ public enum TokenType {
   LEFT_PAREN,
   /** ) character */
   RIGHT_PAREN,
+  /** [ character */
+  LEFT_BRACKET,
+  /** ] character */
+  RIGHT_BRACKET,
   /** ; character */
   SEMICOLON,
+  /** : character */
+  COLON,
   /** + character */
   PLUS,
   /** - character */
@@ -88,10 +94,16 @@ public enum TokenType {
   NAHI_TO_BHAI,
   /** jab tak bhai keyword for loops */
   JAB_TAK_BHAI,
+  /** ginti bhai keyword for counted loops */
+  GINTI_BHAI,
   /** bas kar bhai keyword for break */
   BAS_KAR_BHAI,
   /** agla dekh bhai keyword for continue */
   AGLA_DEKH_BHAI,
+  /** kaam bhai keyword for function declarations */
+  KAAM_BHAI,
+  /** wapas kar bhai keyword for return */
+  WAPAS_KAR_BHAI,
   /** sahi literal */
   SAHI,
   /** galat literal */
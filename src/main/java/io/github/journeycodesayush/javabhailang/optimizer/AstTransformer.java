@@ -0,0 +1,334 @@
+package io.github.journeycodesayush.javabhailang.optimizer;
+
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class for optimizer passes that rewrite the AST.
+ *
+ * <p>Every visit method rebuilds its node from the transformed children, and returns the original
+ * node when no child changed so untouched subtrees keep their identity. A statement visit may
+ * return null to remove the statement. Passes override only the nodes they rewrite.
+ */
+abstract class AstTransformer implements Expr.Visitor<Expr>, Stmt.Visitor<Stmt> {
+
+  /**
+   * Transforms a list of statements, dropping removed ones.
+   *
+   * @param statements the statements to transform
+   * @return the transformed statements, or the same list if nothing changed
+   */
+  List<Stmt> transform(List<Stmt> statements) {
+    List<Stmt> result = new ArrayList<>(statements.size());
+    boolean changed = false;
+    for (Stmt statement : statements) {
+      Stmt transformed = transform(statement);
+      if (transformed != statement) changed = true;
+      if (transformed != null) result.add(transformed);
+    }
+    return changed ? result : statements;
+  }
+
+  /**
+   * Transforms a single statement.
+   *
+   * @param stmt the statement to transform
+   * @return the transformed statement, or null if it was removed
+   */
+  Stmt transform(Stmt stmt) {
+    return stmt == null ? null : stmt.accept(this);
+  }
+
+  /**
+   * Transforms a statement that must stay present, such as a loop body or an if branch.
+   *
+   * @param stmt the statement to transform
+   * @return the transformed statement, or an empty block if it was removed
+   */
+  Stmt transformBranch(Stmt stmt) {
+    Stmt transformed = transform(stmt);
+    return transformed == null ? new Stmt.Block(new ArrayList<>()) : transformed;
+  }
+
+  /**
+   * Transforms a single expression.
+   *
+   * @param expr the expression to transform
+   * @return the transformed expression
+   */
+  Expr transform(Expr expr) {
+    return expr == null ? null : expr.accept(this);
+  }
+
+  /**
+   * Transforms a list of expressions.
+   *
+   * @param exprs the expressions to transform
+   * @return the transformed expressions, or the same list if nothing changed
+   */
+  List<Expr> transformAll(List<Expr> exprs) {
+    List<Expr> result = new ArrayList<>(exprs.size());
+    boolean changed = false;
+    for (Expr expr : exprs) {
+      Expr transformed = transform(expr);
+      if (transformed != expr) changed = true;
+      result.add(transformed);
+    }
+    return changed ? result : exprs;
+  }
+
+  @Override
+  public Stmt visitBlockStmt(Stmt.Block stmt) {
+    List<Stmt> statements = transform(stmt.statements);
+    return statements == stmt.statements ? stmt : new Stmt.Block(statements);
+  }
+
+  @Override
+  public Stmt visitExpressionStmt(Stmt.Expression stmt) {
+    Expr expression = transform(stmt.expression);
+    return expression == stmt.expression ? stmt : new Stmt.Expression(expression);
+  }
+
+  @Override
+  public Stmt visitIfStmt(Stmt.If stmt) {
+    Expr condition = transform(stmt.condition);
+    Stmt thenBranch = transformBranch(stmt.thenBranch);
+    List<Expr> elseIfConditions = new ArrayList<>(stmt.elseIfConditions.size());
+    List<Stmt> elseIfBranches = new ArrayList<>(stmt.elseIfBranches.size());
+    boolean changed = condition != stmt.condition || thenBranch != stmt.thenBranch;
+
+    for (int i = 0; i < stmt.elseIfConditions.size(); i++) {
+      Expr elseIfCondition = transform(stmt.elseIfConditions.get(i));
+      Stmt elseIfBranch = transformBranch(stmt.elseIfBranches.get(i));
+      changed |= elseIfCondition != stmt.elseIfConditions.get(i);
+      changed |= elseIfBranch != stmt.elseIfBranches.get(i);
+      elseIfConditions.add(elseIfCondition);
+      elseIfBranches.add(elseIfBranch);
+    }
+
+    Stmt elseBranch = stmt.elseBranch == null ? null : transformBranch(stmt.elseBranch);
+    changed |= elseBranch != stmt.elseBranch;
+
+    if (!changed) return stmt;
+    return new Stmt.If(condition, thenBranch, elseIfConditions, elseIfBranches, elseBranch);
+  }
+
+  @Override
+  public Stmt visitPrintStmt(Stmt.Print stmt) {
+    List<Expr> expressions = transformAll(stmt.expressions);
+    return expressions == stmt.expressions ? stmt : new Stmt.Print(expressions);
+  }
+
+  @Override
+  public Stmt visitVarStmt(Stmt.Var stmt) {
+    Expr initializer = transform(stmt.initializer);
+    return initializer == stmt.initializer ? stmt : new Stmt.Var(stmt.name, initializer);
+  }
+
+  @Override
+  public Stmt visitWhileStmt(Stmt.While stmt) {
+    Expr condition = transform(stmt.condition);
+    Stmt body = transformBranch(stmt.body);
+    if (condition == stmt.condition && body == stmt.body) return stmt;
+    return new Stmt.While(condition, body);
+  }
+
+  @Override
+  public Stmt visitRangeStmt(Stmt.Range stmt) {
+    Expr start = transform(stmt.counter.initializer);
+    Expr end = transform(stmt.end);
+    Stmt body = transformBranch(stmt.body);
+    return range(stmt, start, end, body);
+  }
+
+  /**
+   * Rebuilds a counted loop from transformed parts.
+   *
+   * <p>The counter declaration is rebuilt rather than transformed as a statement, since a counted
+   * loop always has one.
+   *
+   * @param stmt the original loop
+   * @param start the transformed start
+   * @param end the transformed end
+   * @param body the transformed body
+   * @return the original loop if nothing changed, otherwise a new one
+   */
+  Stmt.Range range(Stmt.Range stmt, Expr start, Expr end, Stmt body) {
+    if (start == stmt.counter.initializer && end == stmt.end && body == stmt.body) return stmt;
+    Stmt.Var counter = new Stmt.Var(stmt.counter.name, start);
+    return new Stmt.Range(stmt.keyword, counter, end, stmt.step, body);
+  }
+
+  @Override
+  public Stmt visitBreakStmt(Stmt.Break stmt) {
+    return stmt;
+  }
+
+  @Override
+  public Stmt visitContinueStmt(Stmt.Continue stmt) {
+    return stmt;
+  }
+
+  @Override
+  public Stmt visitLazyBlockStmt(Stmt.LazyBlock stmt) {
+    return stmt;
+  }
+
+  /**
+   * Transforms the body of a function declaration.
+   *
+   * <p>The body's statements are transformed as a list rather than as a block, since the body is
+   * always a block and must stay one.
+   *
+   * @param stmt the declaration
+   * @return the original declaration if its body did not change, otherwise a new one
+   */
+  @Override
+  public Stmt visitFunctionStmt(Stmt.Function stmt) {
+    List<Stmt> body = transform(stmt.body.statements);
+    if (body == stmt.body.statements) return stmt;
+    return new Stmt.Function(stmt.name, stmt.params, new Stmt.Block(body));
+  }
+
+  @Override
+  public Stmt visitReturnStmt(Stmt.Return stmt) {
+    Expr value = transform(stmt.value);
+    return value == stmt.value ? stmt : new Stmt.Return(stmt.keyword, value);
+  }
+
+  @Override
+  public Stmt visitSwitchStmt(Stmt.Switch stmt) {
+    Expr subject = transform(stmt.subject);
+    List<Stmt> branches = new ArrayList<>(stmt.branches.size());
+    boolean changed = subject != stmt.subject;
+    for (Stmt branch : stmt.branches) {
+      Stmt transformed = transformBranch(branch);
+      changed |= transformed != branch;
+      branches.add(transformed);
+    }
+    Stmt elseBranch = stmt.elseBranch == null ? null : transformBranch(stmt.elseBranch);
+    changed |= elseBranch != stmt.elseBranch;
+
+    if (!changed) return stmt;
+    return new Stmt.Switch(subject, stmt.keys, branches, elseBranch);
+  }
+
+  @Override
+  public Expr visitAssignExpr(Expr.Assign expr) {
+    Expr value = transform(expr.value);
+    return value == expr.value ? expr : new Expr.Assign(expr.name, value);
+  }
+
+  @Override
+  public Expr visitBinaryExpr(Expr.Binary expr) {
+    Expr left = transform(expr.left);
+    Expr right = transform(expr.right);
+    if (left == expr.left && right == expr.right) return expr;
+    return new Expr.Binary(left, expr.operator, right);
+  }
+
+  @Override
+  public Expr visitCachedExpr(Expr.Cached expr) {
+    Expr expression = transform(expr.expression);
+    return expression == expr.expression ? expr : new Expr.Cached(expr.name, expression);
+  }
+
+  @Override
+  public Expr visitCallExpr(Expr.Call expr) {
+    Expr callee = transform(expr.callee);
+    List<Expr> arguments = transformAll(expr.arguments);
+    if (callee == expr.callee && arguments == expr.arguments) return expr;
+    return new Expr.Call(callee, expr.paren, arguments);
+  }
+
+  @Override
+  public Expr visitGetExpr(Expr.Get expr) {
+    Expr object = transform(expr.object);
+    return object == expr.object ? expr : new Expr.Get(object, expr.name);
+  }
+
+  @Override
+  public Expr visitSetExpr(Expr.Set expr) {
+    Expr object = transform(expr.object);
+    Expr value = transform(expr.value);
+    if (object == expr.object && value == expr.value) return expr;
+    return new Expr.Set(object, expr.name, expr.operator, value);
+  }
+
+  @Override
+  public Expr visitRecordLiteralExpr(Expr.RecordLiteral expr) {
+    List<Expr> values = transformAll(expr.values);
+    return values == expr.values ? expr : new Expr.RecordLiteral(expr.paren, expr.names, values);
+  }
+
+  @Override
+  public Expr visitGroupingExpr(Expr.Grouping expr) {
+    Expr expression = transform(expr.expression);
+    return expression == expr.expression ? expr : new Expr.Grouping(expression);
+  }
+
+  @Override
+  public Expr visitIndexExpr(Expr.Index expr) {
+    Expr object = transform(expr.object);
+    Expr index = transform(expr.index);
+    if (object == expr.object && index == expr.index) return expr;
+    return new Expr.Index(object, expr.bracket, index);
+  }
+
+  @Override
+  public Expr visitIndexAssignExpr(Expr.IndexAssign expr) {
+    Expr object = transform(expr.object);
+    Expr index = transform(expr.index);
+    Expr value = transform(expr.value);
+    if (object == expr.object && index == expr.index && value == expr.value) return expr;
+    return new Expr.IndexAssign(object, expr.bracket, index, expr.operator, value);
+  }
+
+  @Override
+  public Expr visitListLiteralExpr(Expr.ListLiteral expr) {
+    List<Expr> elements = transformAll(expr.elements);
+    return elements == expr.elements ? expr : new Expr.ListLiteral(expr.bracket, elements);
+  }
+
+  @Override
+  public Expr visitMapLiteralExpr(Expr.MapLiteral expr) {
+    List<Expr> keys = new ArrayList<>(expr.keys.size());
+    List<Expr> values = new ArrayList<>(expr.values.size());
+    boolean changed = false;
+    // Keys and values are evaluated alternately, so they are transformed in that order too.
+    for (int i = 0; i < expr.keys.size(); i++) {
+      Expr key = transform(expr.keys.get(i));
+      Expr value = transform(expr.values.get(i));
+      changed |= key != expr.keys.get(i) || value != expr.values.get(i);
+      keys.add(key);
+      values.add(value);
+    }
+    return changed ? new Expr.MapLiteral(expr.brace, keys, values) : expr;
+  }
+
+  @Override
+  public Expr visitLiteralExpr(Expr.Literal expr) {
+    return expr;
+  }
+
+  @Override
+  public Expr visitLogicalExpr(Expr.Logical expr) {
+    Expr left = transform(expr.left);
+    Expr right = transform(expr.right);
+    if (left == expr.left && right == expr.right) return expr;
+    return new Expr.Logical(left, expr.operator, right);
+  }
+
+  @Override
+  public Expr visitUnaryExpr(Expr.Unary expr) {
+    Expr right = transform(expr.right);
+    return right == expr.right ? expr : new Expr.Unary(expr.operator, right);
+  }
+
+  @Override
+  public Expr visitVariableExpr(Expr.Variable expr) {
+    return expr;
+  }
+}
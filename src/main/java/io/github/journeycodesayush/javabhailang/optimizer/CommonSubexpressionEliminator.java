@@ -0,0 +1,422 @@
+package io.github.journeycodesayush.javabhailang.optimizer;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Symbol;
+import io.github.journeycodesayush.javabhailang.resolver.SymbolTable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates repeated expressions in straight-line code only once.
+ *
+ * <p>Each statement list (the program, or the body of a block) is a region. Every arithmetic,
+ * comparison and negation expression evaluated directly in the region gets a value number by hash
+ * consing: structurally identical expressions over the same variable values get the same number. A
+ * variable's value changes at every assignment to it, including compound assignments, and after any
+ * nested statement that may assign it, so reads on either side of a change never share a number.
+ *
+ * <p>Expressions whose number occurs more than once are wrapped in {@link Expr.Cached} nodes that
+ * share a hidden variable declared at the start of the region. Whichever occurrence runs first
+ * evaluates the expression, at the same point and with the same errors as before, and the others
+ * reuse its value. Nested blocks, branches, loop bodies and function bodies are regions of their
+ * own. A call may change any variable, and a store into an element or field may change what any
+ * variable holds, so neither shares a value across it.
+ */
+class CommonSubexpressionEliminator extends AstTransformer {
+
+  /** The symbols of the tree being rewritten. */
+  private final SymbolTable symbols;
+
+  /** Value numbers by expression structure, shared by all regions. */
+  private final Map<String, Integer> numbers = new HashMap<>();
+
+  /** Stable ids for symbols, used in value number keys. */
+  private final Map<Symbol, Integer> symbolIds = new HashMap<>();
+
+  /** Number of hidden variables created so far, used to name the next one. */
+  private int temps = 0;
+
+  /** The region being rewritten. */
+  private Region region = null;
+
+  /** A statement list being rewritten. */
+  private static class Region {
+
+    /** The value number of each expression evaluated directly in the region. */
+    final Map<Expr, Integer> numberOf = new IdentityHashMap<>();
+
+    /** The expressions evaluated directly by the region's statements, in evaluation order. */
+    final List<Expr> roots = new ArrayList<>();
+
+    /** How often each value number is evaluated in the region. */
+    final Map<Integer, Integer> occurrences = new HashMap<>();
+
+    /** How often each variable has changed so far in the region. */
+    final Map<Symbol, Integer> versions = new HashMap<>();
+
+    /** Number of times any variable may have changed so far in the region. */
+    int epoch = 0;
+
+    /** The hidden variable holding each shared value number. */
+    final Map<Integer, Token> cached = new HashMap<>();
+
+    /** Declarations of the hidden variables. */
+    final List<Stmt> declarations = new ArrayList<>();
+  }
+
+  /**
+   * Constructs an eliminator for a resolved tree.
+   *
+   * @param symbols the symbols of the tree to rewrite
+   */
+  CommonSubexpressionEliminator(SymbolTable symbols) {
+    this.symbols = symbols;
+  }
+
+  @Override
+  List<Stmt> transform(List<Stmt> statements) {
+    Region enclosing = region;
+    region = new Region();
+
+    for (Stmt statement : statements) {
+      number(statement);
+    }
+    for (Expr root : region.roots) {
+      count(root);
+    }
+    List<Stmt> result = super.transform(statements);
+
+    if (!region.declarations.isEmpty()) {
+      List<Stmt> declared = new ArrayList<>(region.declarations);
+      declared.addAll(result);
+      result = declared;
+    }
+
+    region = enclosing;
+    return result;
+  }
+
+  @Override
+  public Expr visitBinaryExpr(Expr.Binary expr) {
+    Token name = shared(expr, expr.operator);
+    Expr transformed = super.visitBinaryExpr(expr);
+    return name == null ? transformed : new Expr.Cached(name, transformed);
+  }
+
+  @Override
+  public Expr visitUnaryExpr(Expr.Unary expr) {
+    Token name = shared(expr, expr.operator);
+    Expr transformed = super.visitUnaryExpr(expr);
+    return name == null ? transformed : new Expr.Cached(name, transformed);
+  }
+
+  /**
+   * Returns the hidden variable for an expression whose value number occurs more than once.
+   *
+   * @param expr a binary or unary expression
+   * @param operator the operator of the expression, used for the hidden variable's line
+   * @return the hidden variable, or null if the expression is not shared
+   */
+  private Token shared(Expr expr, Token operator) {
+    if (region == null) return null;
+    Integer number = region.numberOf.get(expr);
+    if (number == null) return null;
+
+    // Reading the hidden variable costs about as much as one operation, so a single operation
+    // is only worth sharing when it is evaluated at least three times.
+    int reuses = region.occurrences.getOrDefault(number, 0) - 1;
+    if (reuses < 1 || reuses * operations(expr) < 2) return null;
+
+    Token name = region.cached.get(number);
+    if (name == null) {
+      name = new Token(TokenType.IDENTIFIER, "$cse" + temps++, null, operator.getLine());
+      region.cached.put(number, name);
+      region.declarations.add(new Stmt.Var(name, null));
+    }
+    return name;
+  }
+
+  /**
+   * Numbers the expressions a statement evaluates directly, in evaluation order.
+   *
+   * <p>Nested statements are their own regions; afterwards, every variable they may assign is
+   * treated as changed.
+   *
+   * @param stmt the statement to number
+   */
+  private void number(Stmt stmt) {
+    if (stmt instanceof Stmt.Expression expression) {
+      root(expression.expression);
+    } else if (stmt instanceof Stmt.Print print) {
+      for (Expr expr : print.expressions) {
+        root(expr);
+      }
+    } else if (stmt instanceof Stmt.Var var) {
+      if (var.initializer != null) root(var.initializer);
+    } else if (stmt instanceof Stmt.Return ret) {
+      if (ret.value != null) root(ret.value);
+    } else if (stmt instanceof Stmt.If ifStmt) {
+      root(ifStmt.condition);
+      invalidate(ifStmt);
+    } else if (stmt instanceof Stmt.Function) {
+      // Declaring a function does not run its body, which is a region of its own.
+    } else {
+      // Loops re-evaluate their condition after the body ran, so they are not numbered at all.
+      invalidate(stmt);
+    }
+  }
+
+  /**
+   * Numbers an expression evaluated directly by a statement of the region.
+   *
+   * @param expr the expression to number
+   */
+  private void root(Expr expr) {
+    region.roots.add(expr);
+    number(expr);
+  }
+
+  /**
+   * Counts how often each numbered expression is evaluated.
+   *
+   * <p>Once a value is shared, later occurrences read it without evaluating their operands, so
+   * operands are only counted under the first occurrence.
+   *
+   * @param expr the expression to count
+   */
+  private void count(Expr expr) {
+    Integer number = region.numberOf.get(expr);
+    if (number != null && region.occurrences.merge(number, 1, Integer::sum) > 1) return;
+
+    if (expr instanceof Expr.Grouping grouping) {
+      count(grouping.expression);
+    } else if (expr instanceof Expr.Unary unary) {
+      count(unary.right);
+    } else if (expr instanceof Expr.Binary binary) {
+      count(binary.left);
+      count(binary.right);
+    } else if (expr instanceof Expr.Logical logical) {
+      count(logical.left);
+      count(logical.right);
+    } else if (expr instanceof Expr.Assign assign) {
+      count(assign.value);
+    } else if (expr instanceof Expr.Index index) {
+      count(index.object);
+      count(index.index);
+    } else if (expr instanceof Expr.IndexAssign assign) {
+      count(assign.object);
+      count(assign.index);
+      count(assign.value);
+    } else if (expr instanceof Expr.ListLiteral list) {
+      for (Expr element : list.elements) {
+        count(element);
+      }
+    } else if (expr instanceof Expr.MapLiteral map) {
+      for (int i = 0; i < map.keys.size(); i++) {
+        count(map.keys.get(i));
+        count(map.values.get(i));
+      }
+    } else if (expr instanceof Expr.Get get) {
+      count(get.object);
+    } else if (expr instanceof Expr.Set set) {
+      count(set.object);
+      count(set.value);
+    } else if (expr instanceof Expr.RecordLiteral record) {
+      for (Expr value : record.values) {
+        count(value);
+      }
+    } else if (expr instanceof Expr.Call call) {
+      count(call.callee);
+      for (Expr argument : call.arguments) {
+        count(argument);
+      }
+    }
+  }
+
+  /**
+   * Returns how many arithmetic, comparison and negation operations an expression performs.
+   *
+   * @param expr the expression
+   * @return the number of operations
+   */
+  private static int operations(Expr expr) {
+    if (expr instanceof Expr.Grouping grouping) return operations(grouping.expression);
+    if (expr instanceof Expr.Unary unary) return 1 + operations(unary.right);
+    if (expr instanceof Expr.Binary binary) {
+      return 1 + operations(binary.left) + operations(binary.right);
+    }
+    if (expr instanceof Expr.Logical logical) {
+      return operations(logical.left) + operations(logical.right);
+    }
+    return 0;
+  }
+
+  /**
+   * Numbers an expression and its operands, in evaluation order.
+   *
+   * @param expr the expression to number
+   * @return the value number, or null if the expression has side effects
+   */
+  private Integer number(Expr expr) {
+    if (expr instanceof Expr.Literal literal) {
+      return intern(literalKey(literal.value));
+    }
+    if (expr instanceof Expr.Grouping grouping) {
+      return number(grouping.expression);
+    }
+    if (expr instanceof Expr.Variable) {
+      Symbol symbol = symbols.symbolOf(expr);
+      if (symbol == null) return null;
+      return intern(
+          "v"
+              + symbolIds.computeIfAbsent(symbol, key -> symbolIds.size())
+              + "."
+              + region.versions.getOrDefault(symbol, 0)
+              + "@"
+              + region.epoch);
+    }
+    if (expr instanceof Expr.Assign assign) {
+      number(assign.value);
+      changed(symbols.symbolOf(assign));
+      return null;
+    }
+    if (expr instanceof Expr.Unary unary) {
+      Integer right = number(unary.right);
+      return right == null ? null : occur(expr, "u" + unary.operator.getType() + " " + right);
+    }
+    if (expr instanceof Expr.Binary binary) {
+      Integer left = number(binary.left);
+      Integer right = number(binary.right);
+      if (left == null || right == null) return null;
+      return occur(expr, "b" + binary.operator.getType() + " " + left + " " + right);
+    }
+    if (expr instanceof Expr.Logical logical) {
+      Integer left = number(logical.left);
+      Integer right = number(logical.right);
+      if (left == null || right == null) return null;
+      return intern("l" + logical.operator.getType() + " " + left + " " + right);
+    }
+    // Lists and maps are mutable, so their elements never share a number, but the operands are
+    // still numbered to see the assignments in them.
+    if (expr instanceof Expr.Index index) {
+      number(index.object);
+      number(index.index);
+      return null;
+    }
+    if (expr instanceof Expr.IndexAssign assign) {
+      number(assign.object);
+      number(assign.index);
+      number(assign.value);
+      region.epoch++;
+      return null;
+    }
+    if (expr instanceof Expr.ListLiteral list) {
+      for (Expr element : list.elements) {
+        number(element);
+      }
+      return null;
+    }
+    if (expr instanceof Expr.MapLiteral map) {
+      for (int i = 0; i < map.keys.size(); i++) {
+        number(map.keys.get(i));
+        number(map.values.get(i));
+      }
+      return null;
+    }
+    // Records are mutable like lists.
+    if (expr instanceof Expr.Get get) {
+      number(get.object);
+      return null;
+    }
+    if (expr instanceof Expr.Set set) {
+      number(set.object);
+      number(set.value);
+      region.epoch++;
+      return null;
+    }
+    if (expr instanceof Expr.RecordLiteral record) {
+      for (Expr value : record.values) {
+        number(value);
+      }
+      return null;
+    }
+    // A call may return something different every time, such as the clock, and may run a
+    // function that assigns any variable it can see.
+    if (expr instanceof Expr.Call call) {
+      number(call.callee);
+      for (Expr argument : call.arguments) {
+        number(argument);
+      }
+      region.epoch++;
+      return null;
+    }
+    // Anything else, including values cached by earlier passes, is left alone.
+    return null;
+  }
+
+  /**
+   * Records an occurrence of a shareable expression.
+   *
+   * @param expr the binary or unary expression
+   * @param key the structural key of the expression
+   * @return the value number of the expression
+   */
+  private Integer occur(Expr expr, String key) {
+    Integer number = intern(key);
+    region.numberOf.put(expr, number);
+    return number;
+  }
+
+  /**
+   * Returns the value number for a structural key, creating one if needed.
+   *
+   * @param key the structural key
+   * @return the value number
+   */
+  private Integer intern(String key) {
+    return numbers.computeIfAbsent(key, k -> numbers.size());
+  }
+
+  /**
+   * Returns the structural key of a literal value.
+   *
+   * @param value the literal value
+   * @return a key distinguishing the value and its type
+   */
+  private static String literalKey(Object value) {
+    if (value == null) return "n";
+    if (value instanceof String string) return "s" + string.length() + ":" + string;
+    return value.getClass().getSimpleName() + ":" + value;
+  }
+
+  /**
+   * Treats every variable a nested statement may assign as changed.
+   *
+   * @param stmt the nested statement
+   */
+  private void invalidate(Stmt stmt) {
+    EffectCollector effects = new EffectCollector(symbols);
+    effects.transform(stmt);
+    if (effects.opaque || effects.mutates) {
+      region.epoch++;
+    }
+    for (Symbol symbol : effects.assigned) {
+      changed(symbol);
+    }
+  }
+
+  /**
+   * Records that a variable changed in the current region.
+   *
+   * @param symbol the variable
+   */
+  private void changed(Symbol symbol) {
+    region.versions.merge(symbol, 1, Integer::sum);
+  }
+}
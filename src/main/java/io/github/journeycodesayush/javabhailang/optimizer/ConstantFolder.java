@@ -0,0 +1,138 @@
+package io.github.journeycodesayush.javabhailang.optimizer;
+
+import static io.github.journeycodesayush.javabhailang.lexer.TokenType.*;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Values;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Symbol;
+import io.github.journeycodesayush.javabhailang.resolver.SymbolTable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Folds constant subexpressions and propagates single-assignment constants.
+ *
+ * <p>Binary, unary, logical and grouping expressions whose operands are literals are evaluated once
+ * through {@link Values}, the same code the interpreter runs. An operation that would raise a
+ * runtime error (such as arithmetic on {@code nalla}) is left in place, so the error still happens
+ * at run time on the same token. A variable declared with a constant and never assigned afterwards
+ * is replaced by that constant at every read.
+ *
+ * <p>Function bodies run whenever they are called, possibly after a global was declared again or
+ * assigned by code resolved later, such as the next line of the REPL, so reads of globals in them
+ * are left alone. For the same reason a global is only propagated in code without calls or lazy
+ * blocks: a function may assign it even though the resolver counted no writes, because the function
+ * was resolved before the declaration or on an earlier line.
+ */
+class ConstantFolder extends AstTransformer {
+
+  /** The symbols of the tree being folded. */
+  private final SymbolTable symbols;
+
+  /** The constant value of each single-assignment variable declared so far. */
+  private final Map<Symbol, Expr.Literal> constants = new HashMap<>();
+
+  /** Whether globals declared with a constant may be replaced by it. */
+  private final boolean foldGlobals;
+
+  /** Number of function bodies enclosing the node being folded. */
+  private int functionDepth = 0;
+
+  /**
+   * Constructs a folder for a resolved tree.
+   *
+   * @param symbols the symbols of the tree to fold
+   * @param foldGlobals whether the tree is free of calls and lazy blocks, so that only the writes
+   *     the resolver counted can change a global
+   */
+  ConstantFolder(SymbolTable symbols, boolean foldGlobals) {
+    this.symbols = symbols;
+    this.foldGlobals = foldGlobals;
+  }
+
+  @Override
+  public Stmt visitVarStmt(Stmt.Var stmt) {
+    Stmt.Var folded = (Stmt.Var) super.visitVarStmt(stmt);
+    Symbol symbol = symbols.symbolOf(stmt);
+
+    if (symbol != null && symbol.getWrites() == 0 && (foldGlobals || !symbol.isGlobal())) {
+      if (folded.initializer == null) {
+        constants.put(symbol, new Expr.Literal(null));
+      } else if (folded.initializer instanceof Expr.Literal literal) {
+        constants.put(symbol, literal);
+      }
+    }
+    return folded;
+  }
+
+  @Override
+  public Stmt visitFunctionStmt(Stmt.Function stmt) {
+    functionDepth++;
+    Stmt folded = super.visitFunctionStmt(stmt);
+    functionDepth--;
+    return folded;
+  }
+
+  @Override
+  public Expr visitVariableExpr(Expr.Variable expr) {
+    Symbol symbol = symbols.symbolOf(expr);
+    if (functionDepth > 0 && symbol != null && symbol.isGlobal()) return expr;
+    Expr.Literal constant = constants.get(symbol);
+    return constant == null ? expr : new Expr.Literal(constant.value);
+  }
+
+  @Override
+  public Expr visitBinaryExpr(Expr.Binary expr) {
+    Expr left = transform(expr.left);
+    Expr right = transform(expr.right);
+
+    if (left instanceof Expr.Literal l && right instanceof Expr.Literal r) {
+      try {
+        return new Expr.Literal(Values.flatten(Values.binary(expr.operator, l.value, r.value)));
+      } catch (RuntimeException error) {
+        // Leave the operation for the interpreter so the error is raised at run time.
+      }
+    }
+
+    if (left == expr.left && right == expr.right) return expr;
+    return new Expr.Binary(left, expr.operator, right);
+  }
+
+  @Override
+  public Expr visitUnaryExpr(Expr.Unary expr) {
+    Expr right = transform(expr.right);
+
+    if (right instanceof Expr.Literal r) {
+      try {
+        return new Expr.Literal(Values.unary(expr.operator, r.value));
+      } catch (RuntimeException error) {
+        // Leave the operation for the interpreter so the error is raised at run time.
+      }
+    }
+
+    return right == expr.right ? expr : new Expr.Unary(expr.operator, right);
+  }
+
+  @Override
+  public Expr visitLogicalExpr(Expr.Logical expr) {
+    Expr left = transform(expr.left);
+    Expr right = transform(expr.right);
+
+    if (left instanceof Expr.Literal l) {
+      boolean truthy = Values.isTruthy(l.value);
+      boolean shortCircuits = expr.operator.getType() == LOGICAL_OR ? truthy : !truthy;
+      return shortCircuits ? left : right;
+    }
+
+    if (left == expr.left && right == expr.right) return expr;
+    return new Expr.Logical(left, expr.operator, right);
+  }
+
+  @Override
+  public Expr visitGroupingExpr(Expr.Grouping expr) {
+    Expr expression = transform(expr.expression);
+    if (expression instanceof Expr.Literal) return expression;
+    return expression == expr.expression ? expr : new Expr.Grouping(expression);
+  }
+}
@@ -0,0 +1,155 @@
+package io.github.journeycodesayush.javabhailang.optimizer;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Values;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Symbol;
+import io.github.journeycodesayush.javabhailang.resolver.SymbolTable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes code that can never run or whose result is never observed.
+ *
+ * <p>Drops statements after {@code bas kar bhai}, {@code agla dekh bhai} or {@code wapas kar bhai}
+ * in the same block, if branches with constant conditions, {@code jab tak bhai} loops whose
+ * condition is constantly falsey, expression statements without side effects, and local variables
+ * that are never read. Runs after {@link ConstantFolder}, so feature flags held in constants are
+ * already literals.
+ */
+class DeadCodeEliminator extends AstTransformer {
+
+  /** The symbols of the tree being cleaned up. */
+  private final SymbolTable symbols;
+
+  /**
+   * Constructs an eliminator for a resolved tree.
+   *
+   * @param symbols the symbols of the tree to clean up
+   */
+  DeadCodeEliminator(SymbolTable symbols) {
+    this.symbols = symbols;
+  }
+
+  @Override
+  List<Stmt> transform(List<Stmt> statements) {
+    List<Stmt> result = new ArrayList<>(statements.size());
+    boolean changed = false;
+    for (Stmt statement : statements) {
+      Stmt transformed = transform(statement);
+      if (transformed != statement) changed = true;
+      if (transformed != null) result.add(transformed);
+
+      if (transformed instanceof Stmt.Break
+          || transformed instanceof Stmt.Continue
+          || transformed instanceof Stmt.Return) {
+        // Control never reaches the rest of the block.
+        changed |= result.size() < statements.size();
+        break;
+      }
+    }
+    return changed ? result : statements;
+  }
+
+  @Override
+  public Stmt visitIfStmt(Stmt.If stmt) {
+    Stmt.If transformed = (Stmt.If) super.visitIfStmt(stmt);
+
+    List<Expr> conditions = new ArrayList<>();
+    List<Stmt> branches = new ArrayList<>();
+    Stmt elseBranch = transformed.elseBranch;
+    boolean changed = false;
+
+    for (int i = 0; i <= transformed.elseIfConditions.size(); i++) {
+      Expr condition = i == 0 ? transformed.condition : transformed.elseIfConditions.get(i - 1);
+      Stmt branch = i == 0 ? transformed.thenBranch : transformed.elseIfBranches.get(i - 1);
+
+      if (condition instanceof Expr.Literal literal) {
+        changed = true;
+        if (Values.isTruthy(literal.value)) {
+          // Every later branch is unreachable, and this one is taken whenever control gets here.
+          elseBranch = branch;
+          break;
+        }
+        continue;
+      }
+
+      conditions.add(condition);
+      branches.add(branch);
+    }
+
+    if (!changed) return transformed;
+    if (conditions.isEmpty()) return elseBranch;
+    return new Stmt.If(
+        conditions.get(0),
+        branches.get(0),
+        conditions.subList(1, conditions.size()),
+        branches.subList(1, branches.size()),
+        elseBranch);
+  }
+
+  @Override
+  public Stmt visitWhileStmt(Stmt.While stmt) {
+    Stmt.While transformed = (Stmt.While) super.visitWhileStmt(stmt);
+    if (transformed.condition instanceof Expr.Literal literal && !Values.isTruthy(literal.value)) {
+      return null;
+    }
+    return transformed;
+  }
+
+  @Override
+  public Stmt visitExpressionStmt(Stmt.Expression stmt) {
+    Stmt.Expression transformed = (Stmt.Expression) super.visitExpressionStmt(stmt);
+    return isPure(transformed.expression) ? null : transformed;
+  }
+
+  @Override
+  public Stmt visitVarStmt(Stmt.Var stmt) {
+    Stmt.Var transformed = (Stmt.Var) super.visitVarStmt(stmt);
+    if (!isUnused(symbols.symbolOf(stmt))) return transformed;
+
+    if (transformed.initializer == null || isPure(transformed.initializer)) return null;
+    return new Stmt.Expression(transformed.initializer);
+  }
+
+  @Override
+  public Expr visitAssignExpr(Expr.Assign expr) {
+    // Assigning an unused local only matters for the value it evaluates to.
+    if (isUnused(symbols.symbolOf(expr))) return transform(expr.value);
+    return super.visitAssignExpr(expr);
+  }
+
+  /**
+   * Returns whether a symbol is a local variable that is never read.
+   *
+   * @param symbol the symbol to check, possibly null
+   * @return true if the declaration and all assignments of the symbol can be removed
+   */
+  private boolean isUnused(Symbol symbol) {
+    return symbol != null
+        && !symbol.isGlobal()
+        && symbol.getDeclaration() != null
+        && symbol.getReads() == 0;
+  }
+
+  /**
+   * Returns whether evaluating an expression can neither fail nor change any state.
+   *
+   * <p>Arithmetic and comparisons can raise runtime errors, so only literals, reads of declared
+   * variables and logical or grouping expressions over those count as pure.
+   *
+   * @param expr the expression to check
+   * @return true if the expression can be removed when its value is unused
+   */
+  private boolean isPure(Expr expr) {
+    if (expr instanceof Expr.Literal) return true;
+    if (expr instanceof Expr.Grouping grouping) return isPure(grouping.expression);
+    if (expr instanceof Expr.Logical logical) return isPure(logical.left) && isPure(logical.right);
+    if (expr instanceof Expr.Variable) {
+      // A name without a declaration in the resolved code may be undefined at run time.
+      Symbol symbol = symbols.symbolOf(expr);
+      return symbol != null && symbol.getDeclaration() != null;
+    }
+    return false;
+  }
+}
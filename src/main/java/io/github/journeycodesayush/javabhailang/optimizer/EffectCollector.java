@@ -0,0 +1,93 @@
+package io.github.journeycodesayush.javabhailang.optimizer;
+
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Symbol;
+import io.github.journeycodesayush.javabhailang.resolver.SymbolTable;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Records which variables a piece of code declares or assigns, without rewriting it.
+ *
+ * <p>Lazy blocks have not been parsed yet, and a call may run a function that assigns variables
+ * declared anywhere around it, so code containing either is marked opaque: it may change any
+ * variable. Code that stores into a list, map, buffer or record element is marked as mutating: the
+ * variables keep their values, but what any of them holds may change.
+ */
+class EffectCollector extends AstTransformer {
+
+  /** The symbols of the tree being analyzed. */
+  private final SymbolTable symbols;
+
+  /** Symbols declared in the analyzed code. */
+  final Set<Symbol> declared = new HashSet<>();
+
+  /** Symbols assigned in the analyzed code. */
+  final Set<Symbol> assigned = new HashSet<>();
+
+  /** Whether the analyzed code contains a lazy block or a call. */
+  boolean opaque = false;
+
+  /** Whether the analyzed code stores into an element or a field. */
+  boolean mutates = false;
+
+  /**
+   * Constructs a collector for a resolved tree.
+   *
+   * @param symbols the symbols of the tree to analyze
+   */
+  EffectCollector(SymbolTable symbols) {
+    this.symbols = symbols;
+  }
+
+  @Override
+  public Stmt visitVarStmt(Stmt.Var stmt) {
+    declared.add(symbols.symbolOf(stmt));
+    return super.visitVarStmt(stmt);
+  }
+
+  @Override
+  public Stmt visitRangeStmt(Stmt.Range stmt) {
+    Symbol counter = symbols.symbolOf(stmt.counter);
+    declared.add(counter);
+    assigned.add(counter);
+    return super.visitRangeStmt(stmt);
+  }
+
+  @Override
+  public Stmt visitFunctionStmt(Stmt.Function stmt) {
+    declared.add(symbols.symbolOf(stmt));
+    return super.visitFunctionStmt(stmt);
+  }
+
+  @Override
+  public Stmt visitLazyBlockStmt(Stmt.LazyBlock stmt) {
+    opaque = true;
+    return stmt;
+  }
+
+  @Override
+  public Expr visitCallExpr(Expr.Call expr) {
+    opaque = true;
+    return super.visitCallExpr(expr);
+  }
+
+  @Override
+  public Expr visitIndexAssignExpr(Expr.IndexAssign expr) {
+    mutates = true;
+    return super.visitIndexAssignExpr(expr);
+  }
+
+  @Override
+  public Expr visitSetExpr(Expr.Set expr) {
+    mutates = true;
+    return super.visitSetExpr(expr);
+  }
+
+  @Override
+  public Expr visitAssignExpr(Expr.Assign expr) {
+    assigned.add(symbols.symbolOf(expr));
+    return super.visitAssignExpr(expr);
+  }
+}
@@ -0,0 +1,162 @@
+package io.github.journeycodesayush.javabhailang.optimizer;
+
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Symbol;
+import io.github.journeycodesayush.javabhailang.resolver.SymbolTable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns long if-else-if chains that compare one variable with constants into jump tables.
+ *
+ * <p>A run of at least {@link #MIN_CASES} consecutive conditions of the form {@code x == literal}
+ * (or {@code literal == x}) on the same variable becomes a {@link Stmt.Switch}, which the
+ * interpreter dispatches with a single hash lookup. Such conditions cannot fail or change anything,
+ * so evaluating the variable once gives the same result as testing them one by one. Conditions
+ * before and after the run stay an ordinary chain around it.
+ */
+class JumpTableBuilder extends AstTransformer {
+
+  /** The shortest run of constant comparisons worth a jump table. */
+  static final int MIN_CASES = 4;
+
+  /** The symbols of the tree being rewritten. */
+  private final SymbolTable symbols;
+
+  /**
+   * Constructs a builder for a resolved tree.
+   *
+   * @param symbols the symbols of the tree to rewrite
+   */
+  JumpTableBuilder(SymbolTable symbols) {
+    this.symbols = symbols;
+  }
+
+  @Override
+  public Stmt visitIfStmt(Stmt.If stmt) {
+    Stmt.If transformed = (Stmt.If) super.visitIfStmt(stmt);
+
+    List<Expr> conditions = new ArrayList<>();
+    List<Stmt> branches = new ArrayList<>();
+    conditions.add(transformed.condition);
+    branches.add(transformed.thenBranch);
+    conditions.addAll(transformed.elseIfConditions);
+    branches.addAll(transformed.elseIfBranches);
+    if (conditions.size() < MIN_CASES) return transformed;
+
+    Stmt chain = chain(conditions, branches, 0, transformed.elseBranch);
+    return chain == null ? transformed : chain;
+  }
+
+  /**
+   * Rebuilds part of a chain, replacing the first long enough run of constant comparisons.
+   *
+   * @param conditions all conditions of the chain, in order
+   * @param branches the branch of each condition
+   * @param from the first condition to rebuild
+   * @param elseBranch the branch taken when no condition holds, possibly null
+   * @return the rebuilt chain, or null if it has no run to replace
+   */
+  private Stmt chain(List<Expr> conditions, List<Stmt> branches, int from, Stmt elseBranch) {
+    int start = from;
+    while (start < conditions.size()) {
+      Expr.Variable subject = subject(conditions.get(start));
+      int end = start;
+      while (end < conditions.size() && sameSubject(subject, conditions.get(end))) end++;
+
+      if (end - start < MIN_CASES) {
+        start = Math.max(start + 1, end);
+        continue;
+      }
+
+      List<Object> keys = new ArrayList<>(end - start);
+      for (int i = start; i < end; i++) {
+        keys.add(constant(conditions.get(i)).value);
+      }
+      Stmt rest = chain(conditions, branches, end, elseBranch);
+      if (rest == null) rest = linear(conditions, branches, end, elseBranch);
+      Stmt table = new Stmt.Switch(subject, keys, branches.subList(start, end), rest);
+
+      return start == from ? table : linear(conditions.subList(0, start), branches, from, table);
+    }
+    return null;
+  }
+
+  /**
+   * Builds an ordinary chain from the conditions starting at an index.
+   *
+   * @param conditions the conditions, ending where the chain should end
+   * @param branches the branch of each condition
+   * @param from the first condition of the chain
+   * @param elseBranch the branch taken when no condition holds, possibly null
+   * @return the chain, or the else branch if there are no conditions left
+   */
+  private static Stmt linear(
+      List<Expr> conditions, List<Stmt> branches, int from, Stmt elseBranch) {
+    if (from >= conditions.size()) return elseBranch;
+    return new Stmt.If(
+        conditions.get(from),
+        branches.get(from),
+        conditions.subList(from + 1, conditions.size()),
+        branches.subList(from + 1, conditions.size()),
+        elseBranch);
+  }
+
+  /**
+   * Returns the variable a condition compares with a constant.
+   *
+   * @param condition the condition
+   * @return the variable, or null if the condition is not such a comparison
+   */
+  private static Expr.Variable subject(Expr condition) {
+    if (!(unwrap(condition) instanceof Expr.Binary binary)) return null;
+    if (binary.operator.getType() != TokenType.EQUAL_EQUAL) return null;
+
+    Expr left = unwrap(binary.left);
+    Expr right = unwrap(binary.right);
+    if (left instanceof Expr.Variable variable && right instanceof Expr.Literal) return variable;
+    if (right instanceof Expr.Variable variable && left instanceof Expr.Literal) return variable;
+    return null;
+  }
+
+  /**
+   * Returns the constant a comparison condition compares with.
+   *
+   * @param condition a condition for which {@link #subject} is not null
+   * @return the literal
+   */
+  private static Expr.Literal constant(Expr condition) {
+    Expr.Binary binary = (Expr.Binary) unwrap(condition);
+    Expr left = unwrap(binary.left);
+    return left instanceof Expr.Literal literal ? literal : (Expr.Literal) unwrap(binary.right);
+  }
+
+  /**
+   * Returns whether a condition compares the same variable as a subject with a constant.
+   *
+   * @param subject the subject of the run, possibly null
+   * @param condition the condition to check
+   * @return true if the condition extends the run
+   */
+  private boolean sameSubject(Expr.Variable subject, Expr condition) {
+    if (subject == null) return false;
+    Expr.Variable variable = subject(condition);
+    if (variable == null) return false;
+
+    Symbol symbol = symbols.symbolOf(subject);
+    return symbol != null && symbol == symbols.symbolOf(variable);
+  }
+
+  /**
+   * Strips any grouping parentheses around an expression.
+   *
+   * @param expr the expression
+   * @return the expression inside the parentheses
+   */
+  private static Expr unwrap(Expr expr) {
+    while (expr instanceof Expr.Grouping grouping) expr = grouping.expression;
+    return expr;
+  }
+}
@@ -0,0 +1,223 @@
+package io.github.journeycodesayush.javabhailang.optimizer;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Symbol;
+import io.github.journeycodesayush.javabhailang.resolver.SymbolTable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves loop-invariant expressions out of {@code jab tak bhai} and {@code ginti bhai} loops.
+ *
+ * <p>An arithmetic, comparison or negation expression is invariant in a loop when every variable it
+ * reads is neither declared nor assigned anywhere in the loop. Each such expression is wrapped in
+ * an {@link Expr.Cached} node backed by a hidden variable declared just before the loop, so it is
+ * evaluated once per run of the loop instead of once per iteration.
+ *
+ * <p>The first evaluation still happens where the expression appears, so evaluation order and
+ * runtime errors are unchanged. Expressions are hoisted to the outermost loop they are invariant
+ * in. Loops containing a lazy block or a call are left alone, since the assignments they make are
+ * unknown, and so are loops storing into an element or field, since any variable may hold the list,
+ * map, buffer or record that changes. Functions declared in a loop run whenever they are called, so
+ * nothing in their bodies is hoisted out of the loop.
+ */
+class LoopInvariantHoister extends AstTransformer {
+
+  /** Variant depth of expressions that must never be hoisted. */
+  private static final int NEVER = Integer.MAX_VALUE;
+
+  /** The symbols of the tree being rewritten. */
+  private final SymbolTable symbols;
+
+  /** The loops enclosing the node being transformed, outermost first. */
+  private List<Loop> loops = new ArrayList<>();
+
+  /** Number of hidden variables created so far, used to name the next one. */
+  private int temps = 0;
+
+  /** A loop being rewritten, with the variables it changes and the temporaries it needs. */
+  private static class Loop {
+
+    /** What the loop declares and assigns. */
+    final EffectCollector effects;
+
+    /** Declarations of the hidden variables for expressions hoisted out of this loop. */
+    final List<Stmt> declarations = new ArrayList<>();
+
+    /**
+     * Constructs a loop record.
+     *
+     * @param effects what the loop declares and assigns
+     */
+    Loop(EffectCollector effects) {
+      this.effects = effects;
+    }
+
+    /**
+     * Returns whether the loop may change a variable.
+     *
+     * @param symbol the variable
+     * @return true if the loop declares or assigns the variable, or might, or changes what a
+     *     variable holds
+     */
+    boolean changes(Symbol symbol) {
+      return effects.opaque
+          || effects.mutates
+          || effects.declared.contains(symbol)
+          || effects.assigned.contains(symbol);
+    }
+  }
+
+  /**
+   * Constructs a hoister for a resolved tree.
+   *
+   * @param symbols the symbols of the tree to rewrite
+   */
+  LoopInvariantHoister(SymbolTable symbols) {
+    this.symbols = symbols;
+  }
+
+  @Override
+  public Stmt visitWhileStmt(Stmt.While stmt) {
+    EffectCollector effects = new EffectCollector(symbols);
+    effects.transform(stmt);
+    Loop loop = new Loop(effects);
+
+    loops.add(loop);
+    Expr condition = transform(stmt.condition);
+    Stmt body = transformBranch(stmt.body);
+    loops.remove(loops.size() - 1);
+
+    Stmt.While transformed =
+        condition == stmt.condition && body == stmt.body ? stmt : new Stmt.While(condition, body);
+    return declareBefore(loop, transformed);
+  }
+
+  /**
+   * Hoists out of the body of a counted loop.
+   *
+   * <p>The start and end run once, before the loop, so they are rewritten outside it.
+   *
+   * @param stmt the loop
+   * @return the rewritten loop, preceded by the hidden variables it needs
+   */
+  @Override
+  public Stmt visitRangeStmt(Stmt.Range stmt) {
+    Expr start = transform(stmt.counter.initializer);
+    Expr end = transform(stmt.end);
+
+    EffectCollector effects = new EffectCollector(symbols);
+    effects.transform(stmt);
+    Loop loop = new Loop(effects);
+
+    loops.add(loop);
+    Stmt body = transformBranch(stmt.body);
+    loops.remove(loops.size() - 1);
+
+    return declareBefore(loop, range(stmt, start, end, body));
+  }
+
+  /**
+   * Hoists out of loops in a function body, but never out of the body itself.
+   *
+   * @param stmt the function declaration
+   * @return the rewritten declaration
+   */
+  @Override
+  public Stmt visitFunctionStmt(Stmt.Function stmt) {
+    List<Loop> enclosing = loops;
+    loops = new ArrayList<>();
+    Stmt transformed = super.visitFunctionStmt(stmt);
+    loops = enclosing;
+    return transformed;
+  }
+
+  /**
+   * Declares the hidden variables of the expressions hoisted out of a loop just before it.
+   *
+   * @param loop the loop record
+   * @param transformed the rewritten loop
+   * @return the loop, or a block declaring the hidden variables and then running the loop
+   */
+  private Stmt declareBefore(Loop loop, Stmt transformed) {
+    if (loop.declarations.isEmpty()) return transformed;
+
+    List<Stmt> statements = new ArrayList<>(loop.declarations);
+    statements.add(transformed);
+    return new Stmt.Block(statements);
+  }
+
+  @Override
+  public Expr visitBinaryExpr(Expr.Binary expr) {
+    int depth = variantDepth(expr);
+    if (depth >= loops.size()) return super.visitBinaryExpr(expr);
+
+    List<Loop> enclosing = loops;
+    loops = new ArrayList<>(enclosing.subList(0, depth));
+    Expr hoisted = super.visitBinaryExpr(expr);
+    loops = enclosing;
+    return cache(loops.get(depth), expr.operator, hoisted);
+  }
+
+  @Override
+  public Expr visitUnaryExpr(Expr.Unary expr) {
+    int depth = variantDepth(expr);
+    if (depth >= loops.size()) return super.visitUnaryExpr(expr);
+
+    List<Loop> enclosing = loops;
+    loops = new ArrayList<>(enclosing.subList(0, depth));
+    Expr hoisted = super.visitUnaryExpr(expr);
+    loops = enclosing;
+    return cache(loops.get(depth), expr.operator, hoisted);
+  }
+
+  /**
+   * Wraps an expression in a cache whose hidden variable is declared before a loop.
+   *
+   * @param loop the loop the expression is invariant in
+   * @param operator the operator of the expression, used for the hidden variable's line
+   * @param expr the expression to cache
+   * @return the cached expression
+   */
+  private Expr cache(Loop loop, Token operator, Expr expr) {
+    Token name = new Token(TokenType.IDENTIFIER, "$inv" + temps++, null, operator.getLine());
+    loop.declarations.add(new Stmt.Var(name, null));
+    return new Expr.Cached(name, expr);
+  }
+
+  /**
+   * Returns how many of the enclosing loops an expression varies in.
+   *
+   * <p>Loops are numbered from the outermost, so an expression with depth {@code d} is invariant in
+   * the loop at index {@code d} and every loop nested in it.
+   *
+   * @param expr the expression to check
+   * @return the number of enclosing loops the expression varies in, or {@link #NEVER} if it has
+   *     side effects
+   */
+  private int variantDepth(Expr expr) {
+    if (expr instanceof Expr.Literal) return 0;
+    if (expr instanceof Expr.Grouping grouping) return variantDepth(grouping.expression);
+    if (expr instanceof Expr.Unary unary) return variantDepth(unary.right);
+    if (expr instanceof Expr.Binary binary) {
+      return Math.max(variantDepth(binary.left), variantDepth(binary.right));
+    }
+    if (expr instanceof Expr.Logical logical) {
+      return Math.max(variantDepth(logical.left), variantDepth(logical.right));
+    }
+    if (expr instanceof Expr.Variable) {
+      Symbol symbol = symbols.symbolOf(expr);
+      if (symbol == null) return NEVER;
+
+      int depth = 0;
+      for (int i = 0; i < loops.size(); i++) {
+        if (loops.get(i).changes(symbol)) depth = i + 1;
+      }
+      return depth;
+    }
+    return NEVER;
+  }
+}
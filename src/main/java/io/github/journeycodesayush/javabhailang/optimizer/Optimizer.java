@@ -0,0 +1,79 @@
+package io.github.journeycodesayush.javabhailang.optimizer;
+
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import io.github.journeycodesayush.javabhailang.resolver.Symbol;
+import io.github.journeycodesayush.javabhailang.resolver.SymbolTable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simplifies resolved BhaiLang programs before they are interpreted.
+ *
+ * <p>Runs the AST optimization passes in order. Passes only rewrite code when the result is
+ * observably the same, including which runtime errors are raised and on which line. Rewritten nodes
+ * are new objects, so the result must be resolved again before it is interpreted.
+ */
+public class Optimizer {
+
+  /** Upper bound on dead code elimination rounds, each of which may expose more dead code. */
+  private static final int MAX_ROUNDS = 4;
+
+  /** The scopes enclosing the optimized statements, outermost first. */
+  private final List<Map<String, Symbol>> enclosing;
+
+  /** Constructs an optimizer for top-level statements. */
+  public Optimizer() {
+    this(List.of());
+  }
+
+  /**
+   * Constructs an optimizer for statements nested in previously resolved scopes.
+   *
+   * @param enclosing the scopes enclosing the statements, outermost first
+   */
+  public Optimizer(List<Map<String, Symbol>> enclosing) {
+    this.enclosing = enclosing;
+  }
+
+  /**
+   * Optimizes a list of resolved statements.
+   *
+   * @param statements the statements to optimize
+   * @param symbols the symbols found by resolving exactly these statements
+   * @return the optimized statements, or the same list if nothing changed
+   */
+  public List<Stmt> optimize(List<Stmt> statements, SymbolTable symbols) {
+    EffectCollector effects = new EffectCollector(symbols);
+    effects.transform(statements);
+    List<Stmt> result = new ConstantFolder(symbols, !effects.opaque).transform(statements);
+    if (result != statements) symbols = analyze(result);
+
+    for (int round = 0; round < MAX_ROUNDS; round++) {
+      List<Stmt> cleaned = new DeadCodeEliminator(symbols).transform(result);
+      if (cleaned == result) break;
+      result = cleaned;
+      symbols = analyze(result);
+    }
+
+    List<Stmt> dispatched = new JumpTableBuilder(symbols).transform(result);
+    if (dispatched != result) symbols = analyze(dispatched);
+
+    List<Stmt> hoisted = new LoopInvariantHoister(symbols).transform(dispatched);
+    if (hoisted != dispatched) symbols = analyze(hoisted);
+
+    return new CommonSubexpressionEliminator(symbols).transform(hoisted);
+  }
+
+  /**
+   * Resolves rewritten statements again to get symbols for their new nodes.
+   *
+   * @param statements the statements to analyze
+   * @return the symbols of the statements
+   */
+  private SymbolTable analyze(List<Stmt> statements) {
+    Resolver resolver = new Resolver(null, enclosing);
+    resolver.resolve(statements);
+    return resolver.getSymbols();
+  }
+}
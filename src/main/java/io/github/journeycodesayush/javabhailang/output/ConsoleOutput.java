@@ -6,6 +6,11 @@ public class ConsoleOutput implements Output {
     System.out.print(s);
   }
 
+  @Override
+  public void print(CharSequence text, int start, int end) {
+    System.out.append(text, start, end);
+  }
+
   @Override
   public void println(String s) {
     System.out.println(s);
@@ -4,6 +4,20 @@ public interface Output {
 
   void print(String s);
 
+  /**
+   * Prints part of a text, such as a line the interpreter formatted into a reused buffer.
+   *
+   * <p>Implementations that can write the characters directly should override this; by default the
+   * part is copied into a string first.
+   *
+   * @param text the text
+   * @param start index of the first character to print
+   * @param end index after the last character to print
+   */
+  default void print(CharSequence text, int start, int end) {
+    print(text.subSequence(start, end).toString());
+  }
+
   void println(String s);
 
   default void println() {
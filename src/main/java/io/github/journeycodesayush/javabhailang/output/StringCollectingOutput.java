@@ -9,6 +9,11 @@ public class StringCollectingOutput implements Output {
     stringBuilder.append(s);
   }
 
+  @Override
+  public void print(CharSequence text, int start, int end) {
+    stringBuilder.append(text, start, end);
+  }
+
   @Override
   public void println(String s) {
     stringBuilder.append(s).append("\n");
@@ -2,6 +2,7 @@ package io.github.journeycodesayush.javabhailang.parser;
 
 import io.github.journeycodesayush.javabhailang.lexer.Token;
 import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -130,6 +131,125 @@ public class AstPrinter implements Expr.Visitor<String>, Stmt.Visitor<String> {
     return sb.toString();
   }
 
+  @Override
+  public String visitIndexExpr(Expr.Index expr) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("Index"), true));
+    sb.append(format("object", expr.object.accept(this), true));
+    sb.append(format("index", expr.index.accept(this), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public String visitIndexAssignExpr(Expr.IndexAssign expr) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("IndexAssign"), true));
+    sb.append(
+        format(
+            "operator",
+            quote(expr.operator == null ? "=" : expr.operator.getLexeme() + "="),
+            true));
+    sb.append(format("object", expr.object.accept(this), true));
+    sb.append(format("index", expr.index.accept(this), true));
+    sb.append(format("value", expr.value.accept(this), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public String visitListLiteralExpr(Expr.ListLiteral expr) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("List"), true));
+    sb.append(format("elements", listToJson(expr.elements), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public String visitMapLiteralExpr(Expr.MapLiteral expr) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("Map"), true));
+    sb.append(format("keys", listToJson(expr.keys), true));
+    sb.append(format("values", listToJson(expr.values), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public String visitCallExpr(Expr.Call expr) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("Call"), true));
+    sb.append(format("callee", expr.callee.accept(this), true));
+    sb.append(format("arguments", listToJson(expr.arguments), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public String visitGetExpr(Expr.Get expr) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("Get"), true));
+    sb.append(format("object", expr.object.accept(this), true));
+    sb.append(format("name", quote(expr.name.getLexeme()), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public String visitSetExpr(Expr.Set expr) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("Set"), true));
+    sb.append(
+        format(
+            "operator",
+            quote(expr.operator == null ? "=" : expr.operator.getLexeme() + "="),
+            true));
+    sb.append(format("object", expr.object.accept(this), true));
+    sb.append(format("name", quote(expr.name.getLexeme()), true));
+    sb.append(format("value", expr.value.accept(this), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public String visitRecordLiteralExpr(Expr.RecordLiteral expr) {
+    List<String> names = new ArrayList<>();
+    for (Token name : expr.names) {
+      names.add(quote(name.getLexeme()));
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("Record"), true));
+    sb.append(format("names", "[" + String.join(", ", names) + "]", true));
+    sb.append(format("values", listToJson(expr.values), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
   @Override
   public String visitLiteralExpr(Expr.Literal expr) {
     return "{\n"
@@ -167,6 +287,22 @@ public class AstPrinter implements Expr.Visitor<String>, Stmt.Visitor<String> {
         + "}";
   }
 
+  @Override
+  public String visitCachedExpr(Expr.Cached expr) {
+    return "{\n"
+        + INDENT
+        + "\"type\": \"Cached\",\n"
+        + INDENT
+        + "\"name\": "
+        + quote(expr.name.getLexeme())
+        + ",\n"
+        + INDENT
+        + "\"expression\": "
+        + expr.expression.accept(this)
+        + "\n"
+        + "}";
+  }
+
   @Override
   public String visitAssignExpr(Expr.Assign expr) {
     return "{\n"
@@ -298,6 +434,96 @@ public class AstPrinter implements Expr.Visitor<String>, Stmt.Visitor<String> {
     return "{\n" + INDENT + "\"type\": \"Continue\"" + "}";
   }
 
+  @Override
+  public String visitLazyBlockStmt(Stmt.LazyBlock stmt) {
+    return "{\n"
+        + INDENT
+        + "\"type\": \"LazyBlock\",\n"
+        + INDENT
+        + "\"tokens\": "
+        + (stmt.end - stmt.start)
+        + "\n"
+        + "}";
+  }
+
+  @Override
+  public String visitSwitchStmt(Stmt.Switch stmt) {
+    return "{\n"
+        + INDENT
+        + "\"type\": \"Switch\",\n"
+        + INDENT
+        + "\"subject\": "
+        + stmt.subject.accept(this)
+        + ",\n"
+        + INDENT
+        + "\"cases\": "
+        + stmt.keys.size()
+        + ",\n"
+        + INDENT
+        + "\"elseBranch\": "
+        + (stmt.elseBranch == null ? "null" : stmt.elseBranch.accept(this))
+        + "\n"
+        + "}";
+  }
+
+  @Override
+  public String visitRangeStmt(Stmt.Range stmt) {
+    return "{\n"
+        + INDENT
+        + "\"type\": \"Range\",\n"
+        + INDENT
+        + "\"counter\": \""
+        + stmt.counter.name.getLexeme()
+        + "\",\n"
+        + INDENT
+        + "\"start\": "
+        + stmt.counter.initializer.accept(this)
+        + ",\n"
+        + INDENT
+        + "\"end\": "
+        + stmt.end.accept(this)
+        + ",\n"
+        + INDENT
+        + "\"step\": "
+        + stmt.step
+        + ",\n"
+        + INDENT
+        + "\"body\": "
+        + stmt.body.accept(this)
+        + "\n"
+        + "}";
+  }
+
+  @Override
+  public String visitFunctionStmt(Stmt.Function stmt) {
+    List<String> params = new ArrayList<>();
+    for (Token param : stmt.params) {
+      params.add(quote(param.getLexeme()));
+    }
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("Function"), true));
+    sb.append(format("name", quote(stmt.name.getLexeme()), true));
+    sb.append(format("params", "[" + String.join(", ", params) + "]", true));
+    sb.append(format("body", stmt.body.accept(this), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public String visitReturnStmt(Stmt.Return stmt) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n");
+    indentLevel++;
+    sb.append(format("type", quote("Return"), true));
+    sb.append(format("value", stmt.value == null ? "null" : stmt.value.accept(this), false));
+    indentLevel--;
+    sb.append(indent()).append("}");
+    return sb.toString();
+  }
+
   /**
    * Standalone main method for testing the AST printer. Generates a sample expression and prints
    * its JSON representation.
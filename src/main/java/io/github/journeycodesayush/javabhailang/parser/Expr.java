@@ -7,7 +7,7 @@
 package io.github.journeycodesayush.javabhailang.parser;
 
 import io.github.journeycodesayush.javabhailang.lexer.Token;
-// import java.util.List;
+import java.util.List;
 
 public abstract class Expr {
   /**
@@ -19,17 +19,38 @@ public abstract class Expr {
 
     public R visitBinaryExpr(Binary expr);
 
+    public R visitCachedExpr(Cached expr);
+
+    public R visitCallExpr(Call expr);
+
+    public R visitGetExpr(Get expr);
+
     public R visitGroupingExpr(Grouping expr);
 
+    public R visitIndexExpr(Index expr);
+
+    public R visitIndexAssignExpr(IndexAssign expr);
+
+    public R visitListLiteralExpr(ListLiteral expr);
+
+    public R visitMapLiteralExpr(MapLiteral expr);
+
     public R visitLiteralExpr(Literal expr);
 
     public R visitLogicalExpr(Logical expr);
 
+    public R visitRecordLiteralExpr(RecordLiteral expr);
+
+    public R visitSetExpr(Set expr);
+
     public R visitUnaryExpr(Unary expr);
 
     public R visitVariableExpr(Variable expr);
   }
 
+  /** Data an interpreter caches on the node while running it, if any. */
+  public Object cache;
+
   public static class Assign extends Expr {
     public Assign(Token name, Expr value) {
       this.name = name;
@@ -62,6 +83,53 @@ public abstract class Expr {
     }
   }
 
+  public static class Cached extends Expr {
+    public Cached(Token name, Expr expression) {
+      this.name = name;
+      this.expression = expression;
+    }
+
+    public final Token name;
+    public final Expr expression;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitCachedExpr(this);
+    }
+  }
+
+  public static class Call extends Expr {
+    public Call(Expr callee, Token paren, List<Expr> arguments) {
+      this.callee = callee;
+      this.paren = paren;
+      this.arguments = arguments;
+    }
+
+    public final Expr callee;
+    public final Token paren;
+    public final List<Expr> arguments;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitCallExpr(this);
+    }
+  }
+
+  public static class Get extends Expr {
+    public Get(Expr object, Token name) {
+      this.object = object;
+      this.name = name;
+    }
+
+    public final Expr object;
+    public final Token name;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitGetExpr(this);
+    }
+  }
+
   public static class Grouping extends Expr {
     public Grouping(Expr expression) {
       this.expression = expression;
@@ -75,6 +143,76 @@ public abstract class Expr {
     }
   }
 
+  public static class Index extends Expr {
+    public Index(Expr object, Token bracket, Expr index) {
+      this.object = object;
+      this.bracket = bracket;
+      this.index = index;
+    }
+
+    public final Expr object;
+    public final Token bracket;
+    public final Expr index;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitIndexExpr(this);
+    }
+  }
+
+  public static class IndexAssign extends Expr {
+    public IndexAssign(Expr object, Token bracket, Expr index, Token operator, Expr value) {
+      this.object = object;
+      this.bracket = bracket;
+      this.index = index;
+      this.operator = operator;
+      this.value = value;
+    }
+
+    public final Expr object;
+    public final Token bracket;
+    public final Expr index;
+    public final Token operator;
+    public final Expr value;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitIndexAssignExpr(this);
+    }
+  }
+
+  public static class ListLiteral extends Expr {
+    public ListLiteral(Token bracket, List<Expr> elements) {
+      this.bracket = bracket;
+      this.elements = elements;
+    }
+
+    public final Token bracket;
+    public final List<Expr> elements;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitListLiteralExpr(this);
+    }
+  }
+
+  public static class MapLiteral extends Expr {
+    public MapLiteral(Token brace, List<Expr> keys, List<Expr> values) {
+      this.brace = brace;
+      this.keys = keys;
+      this.values = values;
+    }
+
+    public final Token brace;
+    public final List<Expr> keys;
+    public final List<Expr> values;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitMapLiteralExpr(this);
+    }
+  }
+
   public static class Literal extends Expr {
     public Literal(Object value) {
       this.value = value;
@@ -105,6 +243,42 @@ public abstract class Expr {
     }
   }
 
+  public static class RecordLiteral extends Expr {
+    public RecordLiteral(Token paren, List<Token> names, List<Expr> values) {
+      this.paren = paren;
+      this.names = names;
+      this.values = values;
+    }
+
+    public final Token paren;
+    public final List<Token> names;
+    public final List<Expr> values;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitRecordLiteralExpr(this);
+    }
+  }
+
+  public static class Set extends Expr {
+    public Set(Expr object, Token name, Token operator, Expr value) {
+      this.object = object;
+      this.name = name;
+      this.operator = operator;
+      this.value = value;
+    }
+
+    public final Expr object;
+    public final Token name;
+    public final Token operator;
+    public final Expr value;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitSetExpr(this);
+    }
+  }
+
   public static class Unary extends Expr {
     public Unary(Token operator, Expr right) {
       this.operator = operator;
@@ -20,7 +20,12 @@ import java.util.List;
  *   <li>Control flow statements (if, while)
  *   <li>Print statements
  *   <li>Blocks
+ *   <li>Function declarations and returns
  * </ul>
+ *
+ * <p>In lazy mode, nested blocks are not parsed up front. The parser only brace-matches them and
+ * records the token range as a {@link Stmt.LazyBlock}; the interpreter parses the range the first
+ * time the block runs (see {@link #Parser(Stmt.LazyBlock)}).
  */
 public class Parser {
 
@@ -33,13 +38,48 @@ public class Parser {
   /** Current position in the token list. */
   private int current = 0;
 
+  /** Index of the token where parsing stops; the EOF token unless parsing a lazy block body. */
+  private final int limit;
+
+  /** Whether nested blocks are recorded as token ranges instead of being parsed. */
+  private final boolean lazyBlocks;
+
+  /** Indicates if this parser reported a syntax error. */
+  private boolean hadError = false;
+
   /**
    * Constructs a parser for the given list of tokens.
    *
    * @param tokens the list of tokens to parse
    */
   public Parser(List<Token> tokens) {
+    this(tokens, false);
+  }
+
+  /**
+   * Constructs a parser for the given list of tokens, optionally deferring nested blocks.
+   *
+   * @param tokens the list of tokens to parse
+   * @param lazyBlocks true to record nested blocks as {@link Stmt.LazyBlock} token ranges
+   */
+  public Parser(List<Token> tokens, boolean lazyBlocks) {
     this.tokens = tokens;
+    this.limit = tokens.size() - 1;
+    this.lazyBlocks = lazyBlocks;
+  }
+
+  /**
+   * Constructs a parser for the body of a block that was skipped in lazy mode.
+   *
+   * <p>Blocks nested inside the body stay lazy.
+   *
+   * @param block the {@link Stmt.LazyBlock} whose token range should be parsed
+   */
+  public Parser(Stmt.LazyBlock block) {
+    this.tokens = block.tokens;
+    this.current = block.start;
+    this.limit = block.end;
+    this.lazyBlocks = true;
   }
 
   /**
@@ -72,6 +112,28 @@ public class Parser {
     return statements;
   }
 
+  /**
+   * Parses the statements of a lazy block body, up to (not including) its closing brace.
+   *
+   * @return list of {@link Stmt} objects inside the block
+   */
+  public List<Stmt> parseBlockBody() {
+    List<Stmt> statements = new ArrayList<>();
+    while (!isAtEnd()) {
+      statements.add(declaration());
+    }
+    return statements;
+  }
+
+  /**
+   * Returns whether a syntax error was reported while parsing.
+   *
+   * @return true if this parser reported an error, false otherwise
+   */
+  public boolean hadError() {
+    return hadError;
+  }
+
   /**
    * Parses a declaration (variable declaration or statement).
    *
@@ -80,6 +142,7 @@ public class Parser {
   private Stmt declaration() {
     try {
       if (match(BHAI_YE_HAI)) return varDeclaration();
+      if (match(KAAM_BHAI)) return function();
 
       return statement();
     } catch (ParseError error) {
@@ -104,6 +167,28 @@ public class Parser {
     return new Stmt.Var(name, initializer);
   }
 
+  /**
+   * Parses a function declaration: {@code kaam bhai name(a, b) { ... }}.
+   *
+   * <p>The body is always parsed up front, also in lazy mode, since the resolver lays out the
+   * function's frame from the declarations directly in it. Blocks nested in the body stay lazy.
+   *
+   * @return a {@link Stmt.Function} representing the declaration
+   */
+  private Stmt function() {
+    Token name = consume(IDENTIFIER, "Expect function name.");
+    consume(LEFT_PAREN, "Expect '(' after function name.");
+    List<Token> params = new ArrayList<>();
+    if (!check(RIGHT_PAREN)) {
+      do {
+        params.add(consume(IDENTIFIER, "Expect parameter name."));
+      } while (match(COMMA));
+    }
+    consume(RIGHT_PAREN, "Expect ')' after parameters.");
+    consume(LEFT_CURLY_BRACE, "Expect '{' before function body.");
+    return new Stmt.Function(name, params, new Stmt.Block(block()));
+  }
+
   /**
    * Parses a statement (if, while, print, block, or expression).
    *
@@ -119,6 +204,9 @@ public class Parser {
     if (match(JAB_TAK_BHAI)) {
       return whileStatement();
     }
+    if (match(GINTI_BHAI)) {
+      return rangeStatement();
+    }
     if (match(BAS_KAR_BHAI)) {
       Token keyword = previous();
       consume(SEMICOLON, "Expect ';' after 'bas kar bhai'.");
@@ -129,7 +217,13 @@ public class Parser {
       consume(SEMICOLON, "Expect ';' after 'agla dekh bhai'.");
       return new Stmt.Continue(keyword);
     }
-    if (match(LEFT_CURLY_BRACE)) return new Stmt.Block(block());
+    if (match(WAPAS_KAR_BHAI)) {
+      Token keyword = previous();
+      Expr value = check(SEMICOLON) ? null : expression();
+      consume(SEMICOLON, "Expect ';' after return value.");
+      return new Stmt.Return(keyword, value);
+    }
+    if (match(LEFT_CURLY_BRACE)) return lazyBlocks ? lazyBlock() : new Stmt.Block(block());
     return expressionStatement();
   }
 
@@ -147,6 +241,47 @@ public class Parser {
     return new Stmt.While(condition, body);
   }
 
+  /**
+   * Parses a counted loop: {@code ginti bhai (i = start se end, step) body}.
+   *
+   * <p>{@code se} is only a keyword here, so it stays usable as a variable name. The step is
+   * optional and defaults to 1; it must be a non-zero number literal, so whether the loop counts up
+   * or down is known before it runs.
+   *
+   * @return a {@link Stmt.Range} object representing the loop
+   */
+  private Stmt rangeStatement() {
+    Token keyword = previous();
+    consume(LEFT_PAREN, "Expect a '(' after 'ginti bhai'.");
+    Token name = consume(IDENTIFIER, "Expect counter name.");
+    consume(EQUAL, "Expect '=' after counter name.");
+    Expr start = expression();
+    if (!check(IDENTIFIER) || !peek().getLexeme().equals("se")) {
+      throw error(peek(), "Expect 'se' after start of range.");
+    }
+    advance();
+    Expr end = expression();
+
+    Object step = 1L;
+    if (match(COMMA)) {
+      boolean negative = match(MINUS);
+      Token number = consume(NUMBER, "Expect a number as step.");
+      step = number.getLiteral();
+      if (step instanceof Long integer) {
+        if (integer == 0) throw error(number, "Step cannot be 0.");
+        if (negative) step = -integer;
+      } else {
+        double decimal = (Double) step;
+        if (decimal == 0) throw error(number, "Step cannot be 0.");
+        if (negative) step = -decimal;
+      }
+    }
+    consume(RIGHT_PAREN, "Expect a ')' after range.");
+    Stmt body = statement();
+
+    return new Stmt.Range(keyword, new Stmt.Var(name, start), end, step, body);
+  }
+
   /**
    * Parses an if statement, including optional else branch.
    *
@@ -222,6 +357,33 @@ public class Parser {
     return statements;
   }
 
+  /**
+   * Skips over a block enclosed in curly braces without parsing its statements.
+   *
+   * <p>Only matches braces to find where the block ends, so the cost is a single token scan.
+   *
+   * @return a {@link Stmt.LazyBlock} recording the token range of the block body
+   */
+  private Stmt lazyBlock() {
+    Token brace = previous();
+    int start = current;
+    int depth = 1;
+
+    while (!isAtEnd()) {
+      TokenType type = peek().getType();
+      if (type == LEFT_CURLY_BRACE) {
+        depth++;
+      } else if (type == RIGHT_CURLY_BRACE && --depth == 0) {
+        break;
+      }
+      advance();
+    }
+
+    int end = current;
+    consume(RIGHT_CURLY_BRACE, "Expect '}' after block.");
+    return new Stmt.LazyBlock(brace, tokens, start, end);
+  }
+
   /**
    * Returns the current token without consuming it.
    *
@@ -237,7 +399,7 @@ public class Parser {
    * @return true if at the end, false otherwise
    */
   private boolean isAtEnd() {
-    return peek().getType() == EOF;
+    return current >= limit || peek().getType() == EOF;
   }
 
   /**
@@ -290,6 +452,18 @@ public class Parser {
     return peek().getType() == type;
   }
 
+  /**
+   * Checks the type of a token after the current one without consuming anything.
+   *
+   * @param distance how many tokens past the current one to look
+   * @param type the {@link TokenType} to check
+   * @return true if that token exists and matches, false otherwise
+   */
+  private boolean checkAhead(int distance, TokenType type) {
+    int index = current + distance;
+    return index < limit && tokens.get(index).getType() == type;
+  }
+
   /**
    * Parses an expression starting point.
    *
@@ -315,39 +489,73 @@ public class Parser {
         Token name = ((Expr.Variable) expr).name;
         return new Expr.Assign(name, value);
       }
+      if (expr instanceof Expr.Index index) {
+        return new Expr.IndexAssign(index.object, index.bracket, index.index, null, value);
+      }
+      if (expr instanceof Expr.Get get) {
+        return new Expr.Set(get.object, get.name, null, value);
+      }
       error(equals, "Invalid assignment target.");
     } else if (match(PLUS_EQUAL)) {
       Expr value = assignment();
-      Expr binaryExpr =
+      Expr.Binary binaryExpr =
           new Expr.Binary(expr, new Token(PLUS, "+", null, previous().getLine()), value);
       if (expr instanceof Expr.Variable) {
         Token name = ((Expr.Variable) expr).name;
         return new Expr.Assign(name, binaryExpr);
       }
+      if (expr instanceof Expr.Index index) {
+        return new Expr.IndexAssign(
+            index.object, index.bracket, index.index, binaryExpr.operator, value);
+      }
+      if (expr instanceof Expr.Get get) {
+        return new Expr.Set(get.object, get.name, binaryExpr.operator, value);
+      }
     } else if (match(MINUS_EQUAL)) {
       Expr value = assignment();
-      Expr binaryExpr =
+      Expr.Binary binaryExpr =
           new Expr.Binary(expr, new Token(MINUS, "-", null, previous().getLine()), value);
       if (expr instanceof Expr.Variable) {
         Token name = ((Expr.Variable) expr).name;
         return new Expr.Assign(name, binaryExpr);
       }
+      if (expr instanceof Expr.Index index) {
+        return new Expr.IndexAssign(
+            index.object, index.bracket, index.index, binaryExpr.operator, value);
+      }
+      if (expr instanceof Expr.Get get) {
+        return new Expr.Set(get.object, get.name, binaryExpr.operator, value);
+      }
     } else if (match(STAR_EQUAL)) {
       Expr value = assignment();
-      Expr binaryExpr =
+      Expr.Binary binaryExpr =
           new Expr.Binary(expr, new Token(STAR, "*", null, previous().getLine()), value);
       if (expr instanceof Expr.Variable) {
         Token name = ((Expr.Variable) expr).name;
         return new Expr.Assign(name, binaryExpr);
       }
+      if (expr instanceof Expr.Index index) {
+        return new Expr.IndexAssign(
+            index.object, index.bracket, index.index, binaryExpr.operator, value);
+      }
+      if (expr instanceof Expr.Get get) {
+        return new Expr.Set(get.object, get.name, binaryExpr.operator, value);
+      }
     } else if (match(SLASH_EQUAL)) {
       Expr value = assignment();
-      Expr binaryExpr =
+      Expr.Binary binaryExpr =
           new Expr.Binary(expr, new Token(SLASH, "/", null, previous().getLine()), value);
       if (expr instanceof Expr.Variable) {
         Token name = ((Expr.Variable) expr).name;
         return new Expr.Assign(name, binaryExpr);
       }
+      if (expr instanceof Expr.Index index) {
+        return new Expr.IndexAssign(
+            index.object, index.bracket, index.index, binaryExpr.operator, value);
+      }
+      if (expr instanceof Expr.Get get) {
+        return new Expr.Set(get.object, get.name, binaryExpr.operator, value);
+      }
     }
 
     return expr;
@@ -458,11 +666,54 @@ public class Parser {
       Expr right = unary();
       return new Expr.Unary(operator, right);
     }
-    return primary();
+    return postfix();
   }
 
   /**
-   * Parses primary expressions: literals, variables, or grouped expressions.
+   * Parses a primary expression followed by any number of indexes, calls and field accesses, such
+   * as {@code xs[i][j]}, {@code len(xs)} or {@code p.x}.
+   *
+   * @return an {@link Expr.Index}, {@link Expr.Call}, {@link Expr.Get} or nested expression
+   */
+  private Expr postfix() {
+    Expr expr = primary();
+    while (true) {
+      if (match(LEFT_BRACKET)) {
+        Token bracket = previous();
+        Expr index = expression();
+        consume(RIGHT_BRACKET, "Expect ']' after index.");
+        expr = new Expr.Index(expr, bracket, index);
+      } else if (match(LEFT_PAREN)) {
+        expr = finishCall(expr);
+      } else if (match(DOT)) {
+        Token name = consume(IDENTIFIER, "Expect field name after '.'.");
+        expr = new Expr.Get(expr, name);
+      } else {
+        return expr;
+      }
+    }
+  }
+
+  /**
+   * Parses the arguments of a call, after its opening parenthesis.
+   *
+   * @param callee the expression being called
+   * @return an {@link Expr.Call}
+   */
+  private Expr finishCall(Expr callee) {
+    List<Expr> arguments = new ArrayList<>();
+    if (!check(RIGHT_PAREN)) {
+      do {
+        arguments.add(expression());
+      } while (match(COMMA));
+    }
+    Token paren = consume(RIGHT_PAREN, "Expect ')' after arguments.");
+    return new Expr.Call(callee, paren, arguments);
+  }
+
+  /**
+   * Parses primary expressions: literals, variables, list, map and record literals, or grouped
+   * expressions.
    *
    * @return an {@link Expr} representing the primary expression
    */
@@ -475,15 +726,70 @@ public class Parser {
 
     if (match(IDENTIFIER)) return new Expr.Variable(previous());
 
+    if (check(LEFT_PAREN) && checkAhead(1, IDENTIFIER) && checkAhead(2, COLON)) {
+      return record();
+    }
+
     if (match(LEFT_PAREN)) {
       Expr expr = expression();
       consume(RIGHT_PAREN, "Expect a ')' after expression.");
       return new Expr.Grouping(expr);
     }
 
+    if (match(LEFT_BRACKET)) {
+      Token bracket = previous();
+      List<Expr> elements = new ArrayList<>();
+      if (!check(RIGHT_BRACKET)) {
+        do {
+          elements.add(expression());
+        } while (match(COMMA));
+      }
+      consume(RIGHT_BRACKET, "Expect ']' after list elements.");
+      return new Expr.ListLiteral(bracket, elements);
+    }
+
+    if (match(LEFT_CURLY_BRACE)) {
+      Token brace = previous();
+      List<Expr> keys = new ArrayList<>();
+      List<Expr> values = new ArrayList<>();
+      if (!check(RIGHT_CURLY_BRACE)) {
+        do {
+          keys.add(expression());
+          consume(COLON, "Expect ':' after map key.");
+          values.add(expression());
+        } while (match(COMMA));
+      }
+      consume(RIGHT_CURLY_BRACE, "Expect '}' after map entries.");
+      return new Expr.MapLiteral(brace, keys, values);
+    }
+
     throw error(peek(), "Expect expression.");
   }
 
+  /**
+   * Parses a record literal such as {@code (x: 1, y: 2)}, starting at its opening parenthesis.
+   *
+   * @return an {@link Expr.RecordLiteral}
+   */
+  private Expr record() {
+    Token paren = advance();
+    List<Token> names = new ArrayList<>();
+    List<Expr> values = new ArrayList<>();
+    do {
+      Token name = consume(IDENTIFIER, "Expect field name.");
+      for (Token other : names) {
+        if (other.getLexeme().equals(name.getLexeme())) {
+          error(name, "Duplicate field '" + name.getLexeme() + "' in record.");
+        }
+      }
+      consume(COLON, "Expect ':' after field name.");
+      names.add(name);
+      values.add(expression());
+    } while (match(COMMA));
+    consume(RIGHT_PAREN, "Expect ')' after record fields.");
+    return new Expr.RecordLiteral(paren, names, values);
+  }
+
   /**
    * Consumes a token of the expected type or throws an error.
    *
@@ -504,6 +810,7 @@ public class Parser {
    * @return a {@link ParseError} object
    */
   private ParseError error(Token token, String message) {
+    hadError = true;
     BhaiLang.error(token, message);
     return new ParseError();
   }
@@ -535,12 +842,21 @@ public class Parser {
         case JAB_TAK_BHAI -> {
           return;
         }
+        case GINTI_BHAI -> {
+          return;
+        }
         case BAS_KAR_BHAI -> {
           return;
         }
         case AGLA_DEKH_BHAI -> {
           return;
         }
+        case KAAM_BHAI -> {
+          return;
+        }
+        case WAPAS_KAR_BHAI -> {
+          return;
+        }
 
         default -> {}
       }
@@ -30,6 +30,16 @@ public abstract class Stmt {
     public R visitBreakStmt(Break stmt);
 
     public R visitContinueStmt(Continue stmt);
+
+    public R visitLazyBlockStmt(LazyBlock stmt);
+
+    public R visitSwitchStmt(Switch stmt);
+
+    public R visitRangeStmt(Range stmt);
+
+    public R visitFunctionStmt(Function stmt);
+
+    public R visitReturnStmt(Return stmt);
   }
 
   public static class Block extends Stmt {
@@ -149,5 +159,96 @@ public abstract class Stmt {
     }
   }
 
+  public static class LazyBlock extends Stmt {
+    public LazyBlock(Token brace, List<Token> tokens, int start, int end) {
+      this.brace = brace;
+      this.tokens = tokens;
+      this.start = start;
+      this.end = end;
+    }
+
+    public final Token brace;
+    public final List<Token> tokens;
+    public final int start;
+    public final int end;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitLazyBlockStmt(this);
+    }
+  }
+
+  public static class Switch extends Stmt {
+    public Switch(Expr subject, List<Object> keys, List<Stmt> branches, Stmt elseBranch) {
+      this.subject = subject;
+      this.keys = keys;
+      this.branches = branches;
+      this.elseBranch = elseBranch;
+    }
+
+    public final Expr subject;
+    public final List<Object> keys;
+    public final List<Stmt> branches;
+    public final Stmt elseBranch;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitSwitchStmt(this);
+    }
+  }
+
+  public static class Range extends Stmt {
+    public Range(Token keyword, Var counter, Expr end, Object step, Stmt body) {
+      this.keyword = keyword;
+      this.counter = counter;
+      this.end = end;
+      this.step = step;
+      this.body = body;
+    }
+
+    public final Token keyword;
+    public final Var counter;
+    public final Expr end;
+    public final Object step;
+    public final Stmt body;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitRangeStmt(this);
+    }
+  }
+
+  public static class Function extends Stmt {
+    public Function(Token name, List<Token> params, Block body) {
+      this.name = name;
+      this.params = params;
+      this.body = body;
+    }
+
+    public final Token name;
+    public final List<Token> params;
+    public final Block body;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitFunctionStmt(this);
+    }
+  }
+
+  public static class Return extends Stmt {
+    public Return(Token keyword, Expr value) {
+      this.keyword = keyword;
+      this.value = value;
+    }
+
+    public final Token keyword;
+    public final Expr value;
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visitReturnStmt(this);
+    }
+  }
+
   public abstract <R> R accept(Visitor<R> visitor);
 }
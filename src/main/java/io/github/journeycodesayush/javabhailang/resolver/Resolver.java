@@ -3,8 +3,10 @@ package io.github.journeycodesayush.javabhailang.resolver;
 import io.github.journeycodesayush.javabhailang.BhaiLang;
 import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
 import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
 import io.github.journeycodesayush.javabhailang.parser.Expr;
 import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,16 +19,40 @@ import java.util.Stack;
  * <p>The Resolver traverses the AST (statements and expressions) before interpretation, keeping
  * track of variable scopes and informing the interpreter how many environments to hop to resolve a
  * variable.
+ *
+ * <p>Along the way it builds a {@link SymbolTable} linking every variable use to the declaration it
+ * refers to, with read and write counts that the optimizer relies on.
+ *
+ * <p>A function's parameters and the variables declared directly in its body live in one frame,
+ * laid out here: each gets a slot, in order of declaration, and the interpreter is told the slot of
+ * every use and how many slots each function's frame needs. Blocks nested in the body get
+ * environments of their own.
  */
 public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
 
-  /** The interpreter instance that will be informed of resolved variables. */
+  /** The interpreter instance that will be informed of resolved variables, if any. */
   private final Interpreter interpreter;
 
-  /**
-   * Stack of scopes, where each scope maps variable names to a boolean indicating if it's defined.
-   */
-  private final Stack<Map<String, Boolean>> scopes = new Stack<>();
+  /** Stack of scopes, where each scope maps variable names to their symbols. */
+  private final Stack<Map<String, Symbol>> scopes = new Stack<>();
+
+  /** The global symbols seen so far, by name. */
+  private final Map<String, Symbol> globals = new HashMap<>();
+
+  /** The symbols found while resolving. */
+  private final SymbolTable symbols = new SymbolTable();
+
+  /** Indicates if this resolver reported an error. */
+  private boolean hadError = false;
+
+  /** The scope of the function whose body is being resolved, or null outside functions. */
+  private Map<String, Symbol> frame = null;
+
+  /** Number of slots given out in the frame of the function being resolved. */
+  private int frameSize = 0;
+
+  /** The block bodies of the loops enclosing the node being resolved, outermost first. */
+  private final List<Stmt.Block> loopBodies = new ArrayList<>();
 
   /**
    * Constructs a Resolver with the given interpreter.
@@ -37,8 +63,58 @@ public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
     this.interpreter = interpreter;
   }
 
+  /**
+   * Constructs a Resolver that only collects symbols, without informing an interpreter.
+   *
+   * <p>Used by optimizer passes to analyze a tree before rewriting it.
+   */
+  public Resolver() {
+    this(null);
+  }
+
+  /**
+   * Constructs a Resolver that continues from previously captured scopes.
+   *
+   * <p>Used to resolve a lazy block body with the scopes that were visible where the block appeared
+   * in the source.
+   *
+   * @param interpreter the interpreter that will be informed of resolved variables
+   * @param enclosing the scopes enclosing the block, outermost first
+   */
+  public Resolver(Interpreter interpreter, List<Map<String, Symbol>> enclosing) {
+    this.interpreter = interpreter;
+    scopes.addAll(enclosing);
+  }
+
+  /**
+   * Returns whether an error was reported while resolving.
+   *
+   * @return true if this resolver reported an error, false otherwise
+   */
+  public boolean hadError() {
+    return hadError;
+  }
+
+  /**
+   * Returns the symbols found while resolving.
+   *
+   * @return the {@link SymbolTable} for the resolved statements
+   */
+  public SymbolTable getSymbols() {
+    return symbols;
+  }
+
   @Override
   public Void visitBlockStmt(Stmt.Block stmt) {
+    if (!declaresVariables(stmt)) {
+      // Nothing would live in the block's scope, so it runs in the enclosing environment instead.
+      if (interpreter != null) {
+        interpreter.elide(stmt);
+      }
+      resolve(stmt.statements);
+      return null;
+    }
+
     beginScope();
     resolve(stmt.statements);
     endScope();
@@ -47,11 +123,55 @@ public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
 
   @Override
   public Void visitVarStmt(Stmt.Var stmt) {
-    declare(stmt.name);
+    Symbol symbol = declare(stmt.name, stmt);
     if (stmt.initializer != null) {
       resolve(stmt.initializer);
     }
-    define(stmt.name);
+    define(symbol);
+    return null;
+  }
+
+  /**
+   * Resolves a function declaration.
+   *
+   * <p>The name is defined before the body is resolved, so the function can call itself. The
+   * parameters and the body's own declarations share the function's scope, whose symbols get the
+   * slots of its frame.
+   *
+   * @param stmt the declaration
+   * @return null
+   */
+  @Override
+  public Void visitFunctionStmt(Stmt.Function stmt) {
+    define(declare(stmt.name, stmt));
+
+    // Closures keep the environment they were declared in, so loops around one cannot reuse
+    // their body's environment for the next iteration.
+    captureLoopBodies();
+
+    Map<String, Symbol> enclosingFrame = frame;
+    int enclosingSize = frameSize;
+    beginScope();
+    frame = scopes.peek();
+    frameSize = 0;
+    for (Token param : stmt.params) {
+      define(declare(param, null));
+    }
+    resolve(stmt.body.statements);
+    if (interpreter != null) {
+      interpreter.frame(stmt, frameSize);
+    }
+    endScope();
+    frame = enclosingFrame;
+    frameSize = enclosingSize;
+    return null;
+  }
+
+  @Override
+  public Void visitReturnStmt(Stmt.Return stmt) {
+    if (stmt.value != null) {
+      resolve(stmt.value);
+    }
     return null;
   }
 
@@ -88,10 +208,57 @@ public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
   @Override
   public Void visitWhileStmt(Stmt.While stmt) {
     resolve(stmt.condition);
-    resolve(stmt.body);
+    resolveLoopBody(stmt.body);
+    return null;
+  }
+
+  /**
+   * Resolves a counted loop.
+   *
+   * <p>The start and end are evaluated before the loop, outside its scope. The counter lives in a
+   * scope of its own around the body, and counts as written once by the loop, so the optimizer
+   * never takes it for a constant.
+   *
+   * @param stmt the loop
+   * @return null
+   */
+  @Override
+  public Void visitRangeStmt(Stmt.Range stmt) {
+    resolve(stmt.counter.initializer);
+    resolve(stmt.end);
+
+    beginScope();
+    Symbol symbol = declare(stmt.counter.name, stmt.counter);
+    define(symbol);
+    symbol.writes++;
+    resolveLoopBody(stmt.body);
+    endScope();
     return null;
   }
 
+  /**
+   * Resolves the body of a loop, remembering it while functions in it may be declared.
+   *
+   * @param body the loop body
+   */
+  private void resolveLoopBody(Stmt body) {
+    if (!(body instanceof Stmt.Block block)) {
+      resolve(body);
+      return;
+    }
+    loopBodies.add(block);
+    resolve(block);
+    loopBodies.remove(loopBodies.size() - 1);
+  }
+
+  /** Tells the interpreter that closures may capture the environments of the enclosing loops. */
+  private void captureLoopBodies() {
+    if (interpreter == null) return;
+    for (Stmt.Block body : loopBodies) {
+      interpreter.capture(body);
+    }
+  }
+
   @Override
   public Void visitBreakStmt(Stmt.Break stmt) {
     return null;
@@ -102,10 +269,86 @@ public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
     return null;
   }
 
+  @Override
+  public Void visitLazyBlockStmt(Stmt.LazyBlock stmt) {
+    List<Map<String, Symbol>> enclosing = new ArrayList<>(scopes.size());
+    for (Map<String, Symbol> scope : scopes) {
+      enclosing.add(new HashMap<>(scope));
+    }
+    if (interpreter != null) {
+      interpreter.defer(stmt, enclosing);
+    }
+
+    // The body is not parsed yet, so assume every name in it is read, and written when followed
+    // by an assignment operator, and that functions declared in it capture the enclosing loops.
+    for (int i = stmt.start; i < stmt.end; i++) {
+      Token token = stmt.tokens.get(i);
+      if (token.getType() == TokenType.KAAM_BHAI) captureLoopBodies();
+      if (token.getType() != TokenType.IDENTIFIER) continue;
+
+      Symbol symbol = lookup(token);
+      symbol.reads++;
+      switch (stmt.tokens.get(i + 1).getType()) {
+        case EQUAL, PLUS_EQUAL, MINUS_EQUAL, STAR_EQUAL, SLASH_EQUAL -> symbol.writes++;
+        default -> {}
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitSwitchStmt(Stmt.Switch stmt) {
+    resolve(stmt.subject);
+    for (Stmt branch : stmt.branches) {
+      resolve(branch);
+    }
+    if (stmt.elseBranch != null) resolve(stmt.elseBranch);
+    return null;
+  }
+
   @Override
   public Void visitAssignExpr(Expr.Assign expr) {
     resolve(expr.value);
-    resolveLocal(expr, expr.name);
+    resolveLocal(expr, expr.name).writes++;
+    return null;
+  }
+
+  @Override
+  public Void visitCachedExpr(Expr.Cached expr) {
+    resolve(expr.expression);
+    Symbol symbol = resolveLocal(expr, expr.name);
+    symbol.reads++;
+    symbol.writes++;
+    return null;
+  }
+
+  @Override
+  public Void visitCallExpr(Expr.Call expr) {
+    resolve(expr.callee);
+    for (Expr argument : expr.arguments) {
+      resolve(argument);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitGetExpr(Expr.Get expr) {
+    resolve(expr.object);
+    return null;
+  }
+
+  @Override
+  public Void visitSetExpr(Expr.Set expr) {
+    resolve(expr.object);
+    resolve(expr.value);
+    return null;
+  }
+
+  @Override
+  public Void visitRecordLiteralExpr(Expr.RecordLiteral expr) {
+    for (Expr value : expr.values) {
+      resolve(value);
+    }
     return null;
   }
 
@@ -138,6 +381,38 @@ public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
     return null;
   }
 
+  @Override
+  public Void visitIndexExpr(Expr.Index expr) {
+    resolve(expr.object);
+    resolve(expr.index);
+    return null;
+  }
+
+  @Override
+  public Void visitIndexAssignExpr(Expr.IndexAssign expr) {
+    resolve(expr.object);
+    resolve(expr.index);
+    resolve(expr.value);
+    return null;
+  }
+
+  @Override
+  public Void visitListLiteralExpr(Expr.ListLiteral expr) {
+    for (Expr element : expr.elements) {
+      resolve(element);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitMapLiteralExpr(Expr.MapLiteral expr) {
+    for (int i = 0; i < expr.keys.size(); i++) {
+      resolve(expr.keys.get(i));
+      resolve(expr.values.get(i));
+    }
+    return null;
+  }
+
   @Override
   public Void visitLiteralExpr(Expr.Literal expr) {
     return null;
@@ -145,14 +420,33 @@ public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
 
   @Override
   public Void visitVariableExpr(Expr.Variable expr) {
-    if (!scopes.isEmpty() && scopes.peek().get(expr.name.getLexeme()) == Boolean.FALSE) {
-      BhaiLang.error(expr.name, "Can't read local variable in its own initializer.");
+    if (!scopes.isEmpty()) {
+      Symbol symbol = scopes.peek().get(expr.name.getLexeme());
+      if (symbol != null && !symbol.defined) {
+        error(expr.name, "Can't read local variable in its own initializer.");
+      }
     }
 
-    resolveLocal(expr, expr.name);
+    resolveLocal(expr, expr.name).reads++;
     return null;
   }
 
+  /**
+   * Returns whether a block declares variables of its own.
+   *
+   * <p>Declarations, of variables and of functions, can only appear directly in a block, never
+   * nested in another statement.
+   *
+   * @param block the block
+   * @return true if one of the block's statements is a declaration
+   */
+  private static boolean declaresVariables(Stmt.Block block) {
+    for (Stmt statement : block.statements) {
+      if (statement instanceof Stmt.Var || statement instanceof Stmt.Function) return true;
+    }
+    return false;
+  }
+
   /**
    * Begins a new local scope.
    *
@@ -160,7 +454,7 @@ public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
    * belong to this scope until {@link #endScope()} is called.
    */
   private void beginScope() {
-    scopes.push(new HashMap<String, Boolean>());
+    scopes.push(new HashMap<String, Symbol>());
   }
 
   /**
@@ -177,20 +471,40 @@ public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
    * Declares a new variable in the current scope.
    *
    * <p>Marks the variable as not yet ready for use. If a variable with the same name already exists
-   * in the current scope, reports an error.
+   * in the current scope, reports an error. Global declarations replace the global symbol of the
+   * same name, so later uses refer to the new declaration. Variables declared in a function's own
+   * scope get the next slot of its frame.
    *
-   * @param name the token representing the variable name
+   * @param name the name of the variable
+   * @param stmt the declaring {@link Stmt.Var} or {@link Stmt.Function}, or null for a parameter
+   * @return the new symbol
    */
-  private void declare(Token name) {
-    if (scopes.isEmpty()) return;
+  private Symbol declare(Token name, Stmt stmt) {
+    Stmt.Var var = stmt instanceof Stmt.Var declaration ? declaration : null;
+    Symbol symbol = new Symbol(name, var, scopes.isEmpty());
+    if (stmt != null) {
+      symbols.declare(stmt, symbol);
+    }
+
+    if (scopes.isEmpty()) {
+      globals.put(name.getLexeme(), symbol);
+      return symbol;
+    }
 
-    Map<String, Boolean> scope = scopes.peek();
+    Map<String, Symbol> scope = scopes.peek();
 
     if (scope.containsKey(name.getLexeme())) {
-      BhaiLang.error(name, "Already a variable with this name in the scope.");
+      error(name, "Already a variable with this name in the scope.");
     }
 
-    scope.put(name.getLexeme(), false);
+    scope.put(name.getLexeme(), symbol);
+    if (scope == frame) {
+      symbol.slot = frameSize++;
+      if (interpreter != null && stmt != null) {
+        interpreter.slot(stmt, symbol.slot);
+      }
+    }
+    return symbol;
   }
 
   /**
@@ -199,29 +513,83 @@ public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
    * <p>Marks the variable as ready for use. Must be called after any initializer expression has
    * been resolved.
    *
-   * @param name the token representing the variable name
+   * @param symbol the symbol of the variable
    */
-  private void define(Token name) {
-    if (scopes.isEmpty()) return;
-    scopes.peek().put(name.getLexeme(), true);
+  private void define(Symbol symbol) {
+    symbol.defined = true;
   }
 
   /**
    * Resolves a variable reference to a specific scope.
    *
    * <p>Searches the scope stack from innermost to outermost to find the variable and tells the
-   * interpreter how many environments to traverse to access it.
+   * interpreter how many environments to traverse to access it, and its slot there if it lives in a
+   * function's frame. Names not found in any scope refer to globals.
    *
    * @param expr the variable expression
    * @param name the token representing the variable name
+   * @return the symbol the reference resolves to
    */
-  private void resolveLocal(Expr expr, Token name) {
+  private Symbol resolveLocal(Expr expr, Token name) {
+    Symbol symbol = null;
     for (int i = scopes.size() - 1; i >= 0; i--) {
-      if (scopes.get(i).containsKey(name.getLexeme())) {
-        interpreter.resolve(expr, scopes.size() - 1 - i);
-        return;
+      symbol = scopes.get(i).get(name.getLexeme());
+      if (symbol != null) {
+        if (interpreter != null) {
+          interpreter.resolve(expr, scopes.size() - 1 - i, symbol.slot);
+        }
+        break;
       }
     }
+
+    if (symbol == null) {
+      symbol = global(name);
+    }
+    symbols.bind(expr, symbol);
+    return symbol;
+  }
+
+  /**
+   * Finds the symbol a name refers to from the current scope.
+   *
+   * @param name the token representing the variable name
+   * @return the innermost local symbol with that name, or the global one
+   */
+  private Symbol lookup(Token name) {
+    for (int i = scopes.size() - 1; i >= 0; i--) {
+      Symbol symbol = scopes.get(i).get(name.getLexeme());
+      if (symbol != null) return symbol;
+    }
+    return global(name);
+  }
+
+  /**
+   * Returns the current global symbol for a name.
+   *
+   * <p>Creates a symbol without a declaration if the name has not been declared in the resolved
+   * code yet.
+   *
+   * @param name the token representing the variable name
+   * @return the global symbol
+   */
+  private Symbol global(Token name) {
+    Symbol symbol = globals.get(name.getLexeme());
+    if (symbol == null) {
+      symbol = new Symbol(name, null, true);
+      globals.put(name.getLexeme(), symbol);
+    }
+    return symbol;
+  }
+
+  /**
+   * Reports a resolution error at a token.
+   *
+   * @param token the token where the error occurred
+   * @param message the error message
+   */
+  private void error(Token token, String message) {
+    hadError = true;
+    BhaiLang.error(token, message);
   }
 
   /**
@@ -0,0 +1,99 @@
+package io.github.journeycodesayush.javabhailang.resolver;
+
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+
+/**
+ * A variable known to the {@link Resolver}.
+ *
+ * <p>Every local declaration gets its own symbol. A global gets one symbol per declaration in the
+ * resolved code, and one more for uses of the name before (or without) a declaration, since those
+ * refer to a variable defined elsewhere. Function names and parameters get symbols too. The
+ * resolver counts reads and writes of each symbol so that optimizer passes can tell which variables
+ * are constant or unused.
+ */
+public class Symbol {
+
+  /** The name of the variable. */
+  final Token name;
+
+  /**
+   * The declaration of the variable, or null if it is declared outside the resolved code or is a
+   * function or parameter.
+   */
+  final Stmt.Var declaration;
+
+  /** Whether the variable lives in the global environment. */
+  final boolean global;
+
+  /** Whether the declaration's initializer has been resolved. */
+  boolean defined = false;
+
+  /** Number of expressions that read the variable. */
+  int reads = 0;
+
+  /** Number of assignments to the variable after its declaration. */
+  int writes = 0;
+
+  /** The variable's slot in the frame of the function it is local to, or -1 if it has none. */
+  int slot = -1;
+
+  /**
+   * Constructs a symbol.
+   *
+   * @param name the name of the variable (Token)
+   * @param declaration the declaring statement, or null if there is none (Stmt.Var)
+   * @param global whether the variable is global (boolean)
+   */
+  Symbol(Token name, Stmt.Var declaration, boolean global) {
+    this.name = name;
+    this.declaration = declaration;
+    this.global = global;
+  }
+
+  /**
+   * Returns the name of the variable.
+   *
+   * @return the variable name (Token)
+   */
+  public Token getName() {
+    return name;
+  }
+
+  /**
+   * Returns the declaration of the variable.
+   *
+   * @return the declaring statement, or null if the variable is declared outside the resolved code
+   *     or is a function or parameter
+   */
+  public Stmt.Var getDeclaration() {
+    return declaration;
+  }
+
+  /**
+   * Returns whether the variable lives in the global environment.
+   *
+   * @return true for globals, false for locals
+   */
+  public boolean isGlobal() {
+    return global;
+  }
+
+  /**
+   * Returns how many expressions read the variable.
+   *
+   * @return the read count (int)
+   */
+  public int getReads() {
+    return reads;
+  }
+
+  /**
+   * Returns how many assignments target the variable after its declaration.
+   *
+   * @return the write count (int)
+   */
+  public int getWrites() {
+    return writes;
+  }
+}
@@ -0,0 +1,72 @@
+package io.github.journeycodesayush.javabhailang.resolver;
+
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The symbols found by a {@link Resolver} run.
+ *
+ * <p>Maps every variable read, assignment and declaration in the resolved statements to its {@link
+ * Symbol}. Lookups are by node identity, so a table only describes the exact tree it was built
+ * from.
+ */
+public class SymbolTable {
+
+  /** The symbol each variable read or assignment refers to. */
+  private final Map<Expr, Symbol> references = new HashMap<>();
+
+  /** The symbol each variable or function declaration introduces. */
+  private final Map<Stmt, Symbol> declarations = new HashMap<>();
+
+  /**
+   * Records the symbol a variable read or assignment refers to.
+   *
+   * @param expr the {@link Expr.Variable} or {@link Expr.Assign} node
+   * @param symbol the symbol it refers to
+   */
+  void bind(Expr expr, Symbol symbol) {
+    references.put(expr, symbol);
+  }
+
+  /**
+   * Records the symbol a declaration introduces.
+   *
+   * @param stmt the declaring {@link Stmt.Var} or {@link Stmt.Function}
+   * @param symbol the new symbol
+   */
+  void declare(Stmt stmt, Symbol symbol) {
+    declarations.put(stmt, symbol);
+  }
+
+  /**
+   * Returns the symbol a variable read or assignment refers to.
+   *
+   * @param expr the {@link Expr.Variable} or {@link Expr.Assign} node
+   * @return the symbol, or null if the node was not resolved
+   */
+  public Symbol symbolOf(Expr expr) {
+    return references.get(expr);
+  }
+
+  /**
+   * Returns the symbol a declaration introduces.
+   *
+   * @param stmt the declaring statement
+   * @return the symbol, or null if the statement was not resolved
+   */
+  public Symbol symbolOf(Stmt.Var stmt) {
+    return declarations.get(stmt);
+  }
+
+  /**
+   * Returns the symbol a function declaration introduces.
+   *
+   * @param stmt the function declaration
+   * @return the symbol, or null if the statement was not resolved
+   */
+  public Symbol symbolOf(Stmt.Function stmt) {
+    return declarations.get(stmt);
+  }
+}
@@ -0,0 +1,685 @@
+package io.github.journeycodesayush.javabhailang.resolver;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Proves which local variables only ever hold doubles or only ever hold integers, so the
+ * interpreter can store them unboxed.
+ *
+ * <p>Double variables live in slots that hold a {@code double}, which holds integers exactly only
+ * up to 2<sup>53</sup>, so a variable is only unboxed as a double when every value it can hold is a
+ * double. An expression is a double when it always evaluates to one without raising an error and
+ * {@code double} arithmetic gives exactly its value: a double literal, a double variable, negation
+ * of a double, division of exact operands, or {@code + - *} over exact operands of which at least
+ * one is a double. An exact operand is a double or an integer literal that a {@code double} holds
+ * exactly.
+ *
+ * <p>Integer variables live in slots that hold a {@code long}. An expression is an integer when it
+ * is an integer literal, an integer variable, or {@code + - *} over integers; such expressions have
+ * no side effects and cannot fail, and the interpreter computes them on {@code long}s, checking for
+ * the overflow that turns the result into a double and storing that double boxed beside the slot.
+ *
+ * <p>A local variable is a double or an integer when its initializer and every value assigned to it
+ * are. Since assignments like {@code x = x + 1} depend on the variable itself, every local starts
+ * out as both and is ruled out of each when one of its values is not, until nothing changes.
+ *
+ * <p>Variables that a lazy block may read or assign are ruled out, since the block's code is not
+ * known yet. {@code jab tak bhai} loops that count a double or integer variable towards a bound
+ * that does not change, and that make no calls, are reported too, so the interpreter can run them
+ * on a primitive counter. The counter of a {@code ginti bhai} loop is a double or an integer when
+ * its start is one, its step keeps it one, and its body assigns it nothing else. The interpreter is
+ * told which slot of its block's number frame each unboxed variable lives in, how many slots each
+ * block needs, which binary operations have exact operands and a result {@code double} arithmetic
+ * computes exactly, and which comparisons have integer operands.
+ */
+public class TypeInference implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
+
+  /** The symbols of the statements being analyzed. */
+  private final SymbolTable symbols;
+
+  /** The interpreter that will be informed of unboxed variables. */
+  private final Interpreter interpreter;
+
+  /** The local declarations of each block, in order. */
+  private final Map<Stmt.Block, List<Stmt.Var>> declarations = new LinkedHashMap<>();
+
+  /** The counters of counted loops, which always start out as numbers. */
+  private final List<Stmt.Var> counters = new ArrayList<>();
+
+  /** Every value stored in each local variable, including its initializer. */
+  private final Map<Symbol, List<Expr>> values = new HashMap<>();
+
+  /** Variable reads and assignments found, each bound to a symbol. */
+  private final List<Expr> references = new ArrayList<>();
+
+  /** Binary operations found. */
+  private final List<Expr.Binary> operations = new ArrayList<>();
+
+  /** Number of reads and writes of each symbol found in the statements. */
+  private final Map<Symbol, int[]> uses = new HashMap<>();
+
+  /** Loops shaped like counting loops, to report if their counter turns out numeric. */
+  private final List<Counting> countingLoops = new ArrayList<>();
+
+  /**
+   * A {@code jab tak bhai} loop whose condition compares a counter and whose body ends by adding a
+   * step to it.
+   *
+   * @param loop the loop
+   * @param counter the counter's symbol
+   * @param bound the bound's symbol, or null for a literal bound
+   * @param step the step, a {@link Long} or a {@link Double} like the literal it comes from
+   */
+  private record Counting(Stmt.While loop, Symbol counter, Symbol bound, Number step) {}
+
+  /** The local variables that are still believed to only hold doubles. */
+  private final Set<Symbol> numeric = new HashSet<>();
+
+  /** The local variables that are still believed to only hold integers. */
+  private final Set<Symbol> integral = new HashSet<>();
+
+  /** The block whose statements are being walked, or null at the top level. */
+  private Stmt.Block block = null;
+
+  /** Number of calls found so far. */
+  private int calls = 0;
+
+  /**
+   * Constructs an inference pass for resolved statements.
+   *
+   * @param symbols the symbols found by resolving exactly the statements to analyze
+   * @param interpreter the interpreter that will be informed of unboxed variables
+   */
+  public TypeInference(SymbolTable symbols, Interpreter interpreter) {
+    this.symbols = symbols;
+    this.interpreter = interpreter;
+  }
+
+  /**
+   * Analyzes resolved statements and tells the interpreter how to store their numeric variables.
+   *
+   * @param statements the resolved statements
+   */
+  public void infer(List<Stmt> statements) {
+    walk(statements);
+
+    for (List<Stmt.Var> declared : declarations.values()) {
+      for (Stmt.Var stmt : declared) {
+        Symbol symbol = symbols.symbolOf(stmt);
+        int[] found = uses.getOrDefault(symbol, new int[2]);
+        if (symbol.reads == found[0] && symbol.writes == found[1]) {
+          numeric.add(symbol);
+          integral.add(symbol);
+        }
+      }
+    }
+
+    for (Stmt.Var stmt : counters) {
+      Symbol symbol = symbols.symbolOf(stmt);
+      int[] found = uses.getOrDefault(symbol, new int[2]);
+      if (symbol.reads == found[0] && symbol.writes == found[1]) {
+        numeric.add(symbol);
+        integral.add(symbol);
+      }
+    }
+
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (Symbol symbol : List.copyOf(numeric)) {
+        for (Expr value : values.get(symbol)) {
+          if (!isDouble(value)) {
+            numeric.remove(symbol);
+            changed = true;
+            break;
+          }
+        }
+      }
+    }
+
+    // Doubles never depend on integers, so they are settled first. Only variables holding nothing
+    // but each other can pass both, and those stay doubles.
+    integral.removeAll(numeric);
+    changed = true;
+    while (changed) {
+      changed = false;
+      for (Symbol symbol : List.copyOf(integral)) {
+        for (Expr value : values.get(symbol)) {
+          if (!isInteger(value)) {
+            integral.remove(symbol);
+            changed = true;
+            break;
+          }
+        }
+      }
+    }
+
+    report();
+  }
+
+  /** Tells the interpreter where numeric variables live and which operations can run unboxed. */
+  private void report() {
+    // Double and integer variables share the slots of their block's number frame.
+    Map<Symbol, Integer> slots = new HashMap<>();
+    for (Map.Entry<Stmt.Block, List<Stmt.Var>> entry : declarations.entrySet()) {
+      int slot = 0;
+      for (Stmt.Var stmt : entry.getValue()) {
+        Symbol symbol = symbols.symbolOf(stmt);
+        if (numeric.contains(symbol)) {
+          slots.put(symbol, slot);
+          interpreter.unbox(stmt, slot++);
+        } else if (integral.contains(symbol)) {
+          slots.put(symbol, slot);
+          interpreter.unboxInteger(stmt, slot++);
+        }
+      }
+      if (slot > 0) {
+        interpreter.reserve(entry.getKey(), slot);
+      }
+    }
+
+    for (Stmt.Var stmt : counters) {
+      Symbol symbol = symbols.symbolOf(stmt);
+      // A counter's frame holds nothing else.
+      if (numeric.contains(symbol)) {
+        slots.put(symbol, 0);
+        interpreter.unbox(stmt, 0);
+      } else if (integral.contains(symbol)) {
+        slots.put(symbol, 0);
+        interpreter.unboxInteger(stmt, 0);
+      }
+    }
+
+    for (Counting counting : countingLoops) {
+      // Writes the walk cannot see, such as in lazy blocks, could change the bound.
+      Symbol bound = counting.bound;
+      if (!slots.containsKey(counting.counter)
+          || (bound != null && writes(bound) != bound.writes)) {
+        continue;
+      }
+      // An integer counter stays one only if its step is an integer, which its values show.
+      Number step = counting.step;
+      interpreter.count(
+          counting.loop, numeric.contains(counting.counter) ? step.doubleValue() : step);
+    }
+
+    for (Expr reference : references) {
+      Symbol symbol = symbols.symbolOf(reference);
+      Integer slot = slots.get(symbol);
+      if (slot == null) continue;
+      if (numeric.contains(symbol)) {
+        interpreter.unbox(reference, slot);
+      } else {
+        interpreter.unboxInteger(reference, slot);
+      }
+    }
+    for (Expr.Binary operation : operations) {
+      if (isInteger(operation.left) && isInteger(operation.right)) {
+        switch (operation.operator.getType()) {
+          case GREATER, GREATER_EQUAL, LESS, LESS_EQUAL, EQUAL_EQUAL, BANG_EQUAL ->
+              interpreter.compareIntegers(operation);
+          default -> {}
+        }
+        continue;
+      }
+      if (!isExact(operation.left) || !isExact(operation.right)) continue;
+      switch (operation.operator.getType()) {
+        case PLUS, MINUS, STAR, SLASH -> {
+          if (isDouble(operation)) interpreter.unboxOperands(operation);
+        }
+        default -> interpreter.unboxOperands(operation);
+      }
+    }
+  }
+
+  /**
+   * Returns whether an expression always evaluates to a double without raising an error, with the
+   * value {@code double} arithmetic on its operands gives.
+   *
+   * @param expr the expression
+   * @return true if the expression is a double
+   */
+  private boolean isDouble(Expr expr) {
+    if (expr instanceof Expr.Literal literal) return literal.value instanceof Double;
+    if (expr instanceof Expr.Grouping grouping) return isDouble(grouping.expression);
+    if (expr instanceof Expr.Cached cached) return isDouble(cached.expression);
+    if (expr instanceof Expr.Variable) return numeric.contains(symbols.symbolOf(expr));
+    if (expr instanceof Expr.Assign assign) {
+      return numeric.contains(symbols.symbolOf(expr)) && isDouble(assign.value);
+    }
+    if (expr instanceof Expr.Unary unary) {
+      return unary.operator.getType() == TokenType.MINUS && isDouble(unary.right);
+    }
+    if (expr instanceof Expr.Binary binary) {
+      if (!isExact(binary.left) || !isExact(binary.right)) return false;
+      switch (binary.operator.getType()) {
+        case SLASH -> {
+          return true;
+        }
+        case PLUS, MINUS, STAR -> {
+          // Integer operands would give an integer, or a double that is not their exact result.
+          return isDouble(binary.left) || isDouble(binary.right);
+        }
+        default -> {
+          return false;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether an expression always evaluates to an integer, or the double its integer
+   * arithmetic overflows into, without raising an error or changing anything.
+   *
+   * @param expr the expression
+   * @return true for integer literals, integer variables and {@code + - *} over integers
+   */
+  private boolean isInteger(Expr expr) {
+    if (expr instanceof Expr.Literal literal) return literal.value instanceof Long;
+    if (expr instanceof Expr.Grouping grouping) return isInteger(grouping.expression);
+    if (expr instanceof Expr.Variable) return integral.contains(symbols.symbolOf(expr));
+    if (expr instanceof Expr.Binary binary) {
+      switch (binary.operator.getType()) {
+        case PLUS, MINUS, STAR -> {
+          return isInteger(binary.left) && isInteger(binary.right);
+        }
+        default -> {
+          return false;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether an expression always evaluates to a number a {@code double} holds exactly,
+   * which the interpreter can compute unboxed.
+   *
+   * @param expr the expression
+   * @return true for doubles, integer literals a {@code double} holds exactly, and their negation
+   */
+  private boolean isExact(Expr expr) {
+    if (isDouble(expr)) return true;
+    if (expr instanceof Expr.Literal literal) {
+      return literal.value instanceof Long integer && (long) (double) integer == integer;
+    }
+    if (expr instanceof Expr.Grouping grouping) return isExact(grouping.expression);
+    if (expr instanceof Expr.Unary unary) {
+      // Negating integer 0 gives the double -0, which double arithmetic gives too.
+      return unary.operator.getType() == TokenType.MINUS && isExact(unary.right);
+    }
+    return false;
+  }
+
+  @Override
+  public Void visitBlockStmt(Stmt.Block stmt) {
+    Stmt.Block enclosing = block;
+    block = stmt;
+    declarations.put(stmt, new ArrayList<>());
+    walk(stmt.statements);
+    block = enclosing;
+    return null;
+  }
+
+  @Override
+  public Void visitExpressionStmt(Stmt.Expression stmt) {
+    walk(stmt.expression);
+    return null;
+  }
+
+  @Override
+  public Void visitIfStmt(Stmt.If stmt) {
+    walk(stmt.condition);
+    walk(stmt.thenBranch);
+    for (int i = 0; i < stmt.elseIfConditions.size(); i++) {
+      walk(stmt.elseIfConditions.get(i));
+      walk(stmt.elseIfBranches.get(i));
+    }
+    if (stmt.elseBranch != null) walk(stmt.elseBranch);
+    return null;
+  }
+
+  @Override
+  public Void visitPrintStmt(Stmt.Print stmt) {
+    for (Expr expr : stmt.expressions) {
+      walk(expr);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitVarStmt(Stmt.Var stmt) {
+    if (stmt.initializer != null) walk(stmt.initializer);
+
+    Symbol symbol = symbols.symbolOf(stmt);
+    if (block != null && symbol != null && !symbol.global && stmt.initializer != null) {
+      declarations.get(block).add(stmt);
+      values.computeIfAbsent(symbol, key -> new ArrayList<>()).add(stmt.initializer);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitWhileStmt(Stmt.While stmt) {
+    walk(stmt.condition);
+    Counting counting = counting(stmt);
+    Symbol bound = null;
+    if (counting != null
+        && ((Expr.Binary) stmt.condition).right instanceof Expr.Variable variable) {
+      bound = symbols.symbolOf(variable);
+    }
+    int counterWrites = counting == null ? 0 : writes(counting.counter);
+    int boundWrites = writes(bound);
+    int callsBefore = calls;
+
+    walk(stmt.body);
+
+    // The increment must be the body's only write to the counter, and the bound must not change,
+    // also through a function the body calls.
+    if (counting != null
+        && writes(counting.counter) == counterWrites + 1
+        && writes(bound) == boundWrites
+        && calls == callsBefore) {
+      countingLoops.add(counting);
+    }
+    return null;
+  }
+
+  /**
+   * Matches a loop of the form {@code jab tak bhai (i < bound) { ...; i += step; }}.
+   *
+   * <p>The comparison may be any of {@code < <= > >=}, the bound a literal or a local variable
+   * other than the counter, and the increment {@code i += k}, {@code i -= k} or {@code i = i + k}
+   * with a number literal {@code k}. Whether the counter is numeric and the only write is the
+   * increment is checked separately.
+   *
+   * @param stmt the loop
+   * @return the match, or null if the loop has another shape
+   */
+  private Counting counting(Stmt.While stmt) {
+    if (!(stmt.condition instanceof Expr.Binary condition)) return null;
+    switch (condition.operator.getType()) {
+      case LESS, LESS_EQUAL, GREATER, GREATER_EQUAL -> {}
+      default -> {
+        return null;
+      }
+    }
+    if (!(condition.left instanceof Expr.Variable counter)) return null;
+    Symbol symbol = symbols.symbolOf(counter);
+    if (symbol == null || symbol.global) return null;
+    Symbol bound = null;
+    if (condition.right instanceof Expr.Variable variable) {
+      bound = symbols.symbolOf(variable);
+      if (bound == null || bound.global || bound == symbol) return null;
+    } else if (!(condition.right instanceof Expr.Literal)) {
+      return null;
+    }
+
+    Stmt last = stmt.body;
+    if (stmt.body instanceof Stmt.Block block) {
+      if (block.statements.isEmpty()) return null;
+      last = block.statements.get(block.statements.size() - 1);
+    }
+    if (!(last instanceof Stmt.Expression expression)
+        || !(expression.expression instanceof Expr.Assign assign)
+        || symbols.symbolOf(assign) != symbol
+        || !(assign.value instanceof Expr.Binary increment)
+        || !(increment.left instanceof Expr.Variable read)
+        || symbols.symbolOf(read) != symbol
+        || !(increment.right instanceof Expr.Literal literal)
+        || !(literal.value instanceof Number step)) {
+      return null;
+    }
+    switch (increment.operator.getType()) {
+      case PLUS -> {
+        return new Counting(stmt, symbol, bound, step);
+      }
+      case MINUS -> {
+        // Literals are never negative, so negating an integer step cannot overflow.
+        Number negated = step instanceof Long integer ? (Number) (-integer) : -step.doubleValue();
+        return new Counting(stmt, symbol, bound, negated);
+      }
+      default -> {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Returns how many assignments to a symbol the walk has found so far.
+   *
+   * @param symbol the symbol, possibly null
+   * @return the number of assignments found
+   */
+  private int writes(Symbol symbol) {
+    int[] found = symbol == null ? null : uses.get(symbol);
+    return found == null ? 0 : found[1];
+  }
+
+  @Override
+  public Void visitRangeStmt(Stmt.Range stmt) {
+    walk(stmt.counter.initializer);
+    walk(stmt.end);
+
+    // The loop adds its step to the start, which keeps a double start a double and keeps an
+    // integer start an integer only when the step is one too.
+    Symbol symbol = symbols.symbolOf(stmt.counter);
+    counters.add(stmt.counter);
+    uses.computeIfAbsent(symbol, key -> new int[2])[1]++;
+    List<Expr> stored = values.computeIfAbsent(symbol, key -> new ArrayList<>());
+    stored.add(stmt.counter.initializer);
+    if (stmt.step instanceof Double) stored.add(new Expr.Literal(stmt.step));
+
+    walk(stmt.body);
+    return null;
+  }
+
+  @Override
+  public Void visitFunctionStmt(Stmt.Function stmt) {
+    // The body is a block of its own, whose declarations live in the function's frame.
+    walk(stmt.body);
+    return null;
+  }
+
+  @Override
+  public Void visitReturnStmt(Stmt.Return stmt) {
+    if (stmt.value != null) walk(stmt.value);
+    return null;
+  }
+
+  @Override
+  public Void visitBreakStmt(Stmt.Break stmt) {
+    return null;
+  }
+
+  @Override
+  public Void visitContinueStmt(Stmt.Continue stmt) {
+    return null;
+  }
+
+  @Override
+  public Void visitLazyBlockStmt(Stmt.LazyBlock stmt) {
+    // The resolver counted the block's uses, which the walk cannot see, so its variables never
+    // pass the use count check.
+    return null;
+  }
+
+  @Override
+  public Void visitSwitchStmt(Stmt.Switch stmt) {
+    walk(stmt.subject);
+    for (Stmt branch : stmt.branches) {
+      walk(branch);
+    }
+    if (stmt.elseBranch != null) walk(stmt.elseBranch);
+    return null;
+  }
+
+  @Override
+  public Void visitAssignExpr(Expr.Assign expr) {
+    walk(expr.value);
+    Symbol symbol = symbols.symbolOf(expr);
+    if (symbol != null) {
+      uses.computeIfAbsent(symbol, key -> new int[2])[1]++;
+      values.computeIfAbsent(symbol, key -> new ArrayList<>()).add(expr.value);
+      references.add(expr);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitBinaryExpr(Expr.Binary expr) {
+    walk(expr.left);
+    walk(expr.right);
+    operations.add(expr);
+    return null;
+  }
+
+  @Override
+  public Void visitCachedExpr(Expr.Cached expr) {
+    walk(expr.expression);
+    Symbol symbol = symbols.symbolOf(expr);
+    if (symbol != null) {
+      int[] found = uses.computeIfAbsent(symbol, key -> new int[2]);
+      found[0]++;
+      found[1]++;
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitCallExpr(Expr.Call expr) {
+    calls++;
+    walk(expr.callee);
+    for (Expr argument : expr.arguments) {
+      walk(argument);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitGetExpr(Expr.Get expr) {
+    walk(expr.object);
+    return null;
+  }
+
+  @Override
+  public Void visitSetExpr(Expr.Set expr) {
+    walk(expr.object);
+    walk(expr.value);
+    return null;
+  }
+
+  @Override
+  public Void visitRecordLiteralExpr(Expr.RecordLiteral expr) {
+    for (Expr value : expr.values) {
+      walk(value);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitGroupingExpr(Expr.Grouping expr) {
+    walk(expr.expression);
+    return null;
+  }
+
+  @Override
+  public Void visitIndexExpr(Expr.Index expr) {
+    walk(expr.object);
+    walk(expr.index);
+    return null;
+  }
+
+  @Override
+  public Void visitIndexAssignExpr(Expr.IndexAssign expr) {
+    walk(expr.object);
+    walk(expr.index);
+    walk(expr.value);
+    return null;
+  }
+
+  @Override
+  public Void visitListLiteralExpr(Expr.ListLiteral expr) {
+    for (Expr element : expr.elements) {
+      walk(element);
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitMapLiteralExpr(Expr.MapLiteral expr) {
+    for (int i = 0; i < expr.keys.size(); i++) {
+      walk(expr.keys.get(i));
+      walk(expr.values.get(i));
+    }
+    return null;
+  }
+
+  @Override
+  public Void visitLiteralExpr(Expr.Literal expr) {
+    return null;
+  }
+
+  @Override
+  public Void visitLogicalExpr(Expr.Logical expr) {
+    walk(expr.left);
+    walk(expr.right);
+    return null;
+  }
+
+  @Override
+  public Void visitUnaryExpr(Expr.Unary expr) {
+    walk(expr.right);
+    return null;
+  }
+
+  @Override
+  public Void visitVariableExpr(Expr.Variable expr) {
+    Symbol symbol = symbols.symbolOf(expr);
+    if (symbol != null) {
+      uses.computeIfAbsent(symbol, key -> new int[2])[0]++;
+      references.add(expr);
+    }
+    return null;
+  }
+
+  /**
+   * Walks a list of statements.
+   *
+   * @param statements the statements
+   */
+  private void walk(List<Stmt> statements) {
+    for (Stmt statement : statements) {
+      walk(statement);
+    }
+  }
+
+  /**
+   * Walks a statement.
+   *
+   * @param stmt the statement
+   */
+  private void walk(Stmt stmt) {
+    stmt.accept(this);
+  }
+
+  /**
+   * Walks an expression.
+   *
+   * @param expr the expression
+   */
+  private void walk(Expr expr) {
+    expr.accept(this);
+  }
+}
@@ -38,9 +38,18 @@ public class GenerateAst {
         Arrays.asList(
             "Assign : Token name, Expr value",
             "Binary : Expr left, Token operator, Expr right",
+            "Cached      : Token name, Expr expression",
+            "Call        : Expr callee, Token paren, List<Expr> arguments",
+            "Get         : Expr object, Token name",
             "Grouping    : Expr expression",
+            "Index       : Expr object, Token bracket, Expr index",
+            "IndexAssign : Expr object, Token bracket, Expr index, Token operator, Expr value",
+            "ListLiteral : Token bracket, List<Expr> elements",
+            "MapLiteral  : Token brace, List<Expr> keys, List<Expr> values",
             "Literal     : Object value",
             "Logical     : Expr left, Token operator, Expr right",
+            "RecordLiteral : Token paren, List<Token> names, List<Expr> values",
+            "Set         : Expr object, Token name, Token operator, Expr value",
             "Unary       : Token operator, Expr right",
             "Variable    : Token name"));
     defineAst(
@@ -54,7 +63,12 @@ public class GenerateAst {
             "Var         : Token name, Expr initializer",
             "While       : Expr condition, Stmt body",
             "Break       : Token keyword",
-            "Continue    : Token keyword"));
+            "Continue    : Token keyword",
+            "LazyBlock   : Token brace, List<Token> tokens, int start, int end",
+            "Switch      : Expr subject, List<Object> keys, List<Stmt> branches, Stmt elseBranch",
+            "Range       : Token keyword, Var counter, Expr end, Object step, Stmt body",
+            "Function    : Token name, List<Token> params, Block body",
+            "Return      : Token keyword, Expr value"));
   }
 
   /**
@@ -89,6 +103,12 @@ public class GenerateAst {
 
     defineVisitor(writer, baseName, types);
 
+    if (baseName.equals("Expr")) {
+      writer.println();
+      writer.println("  /** Data an interpreter caches on the node while running it, if any. */");
+      writer.println("  public Object cache;");
+    }
+
     // The AST classes
     for (String type : types) {
       String className = type.split(":")[0].trim();
@@ -0,0 +1,181 @@
+package io.github.journeycodesayush.javabhailang.tool;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.lexer.Scanner;
+import io.github.journeycodesayush.javabhailang.optimizer.Optimizer;
+import io.github.journeycodesayush.javabhailang.output.Output;
+import io.github.journeycodesayush.javabhailang.parser.Parser;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import io.github.journeycodesayush.javabhailang.resolver.TypeInference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks the optimizer on a generated corpus of BhaiLang scripts.
+ *
+ * <p>Each generated script runs a loop whose body evaluates random arithmetic expressions built
+ * from a small pool of subexpressions, so the same subtrees repeat within statements and across
+ * straight-line code, with occasional compound assignments in between. Every script is run with and
+ * without the optimizer; printed output goes nowhere and is compared to make sure both agree.
+ *
+ * <p>Usage: {@code OptimizerBenchmark [scripts] [iterations] [seed]}
+ */
+public class OptimizerBenchmark {
+
+  /** Variables available to generated expressions. */
+  private static final String[] VARIABLES = {"a", "b", "c", "d"};
+
+  /** Operators used by generated expressions. */
+  private static final String[] OPERATORS = {"+", "-", "*"};
+
+  /** Output that only counts characters, so printing does not dominate the timings. */
+  private static class CountingOutput implements Output {
+
+    /** A checksum of everything printed. */
+    long checksum = 0;
+
+    @Override
+    public void print(String s) {
+      checksum = checksum * 31 + s.hashCode();
+    }
+
+    @Override
+    public void println(String s) {
+      print(s);
+    }
+  }
+
+  /**
+   * Entry point for the benchmark.
+   *
+   * @param args optional number of scripts, loop iterations per script and random seed
+   */
+  public static void main(String[] args) {
+    int scripts = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+    long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+    Random random = new Random(seed);
+    List<String> corpus = new ArrayList<>();
+    for (int i = 0; i < scripts; i++) {
+      corpus.add(generate(random, iterations));
+    }
+
+    // Warm up both paths before measuring.
+    for (int round = 0; round < 3; round++) {
+      runCorpus(corpus, false);
+      runCorpus(corpus, true);
+    }
+
+    long plainStart = System.nanoTime();
+    long plain = runCorpus(corpus, false);
+    long plainTime = System.nanoTime() - plainStart;
+
+    long optimizedStart = System.nanoTime();
+    long optimized = runCorpus(corpus, true);
+    long optimizedTime = System.nanoTime() - optimizedStart;
+
+    if (plain != optimized) {
+      System.err.println("Optimized output differs from unoptimized output.");
+      System.exit(70);
+    }
+
+    System.out.printf("scripts: %d, iterations: %d%n", scripts, iterations);
+    System.out.printf("unoptimized: %d ms%n", plainTime / 1_000_000);
+    System.out.printf("optimized:   %d ms%n", optimizedTime / 1_000_000);
+    System.out.printf("speedup:     %.2fx%n", (double) plainTime / optimizedTime);
+  }
+
+  /**
+   * Runs every script in the corpus.
+   *
+   * @param corpus the scripts to run
+   * @param optimize whether to run the optimizer before interpreting
+   * @return a checksum of everything the scripts printed
+   */
+  private static long runCorpus(List<String> corpus, boolean optimize) {
+    long checksum = 0;
+    for (String source : corpus) {
+      CountingOutput output = new CountingOutput();
+      Interpreter interpreter = new Interpreter(output);
+
+      List<Stmt> statements = new Parser(new Scanner(source).scanTokens()).parse();
+      Resolver resolver = new Resolver(interpreter);
+      resolver.resolve(statements);
+
+      if (optimize) {
+        statements = new Optimizer().optimize(statements, resolver.getSymbols());
+        resolver = new Resolver(interpreter);
+        resolver.resolve(statements);
+        new TypeInference(resolver.getSymbols(), interpreter).infer(statements);
+      }
+
+      interpreter.interpret(statements);
+      checksum = checksum * 31 + output.checksum;
+    }
+    return checksum;
+  }
+
+  /**
+   * Generates one script.
+   *
+   * @param random the source of randomness
+   * @param iterations how many times the script's loop runs
+   * @return the script source
+   */
+  private static String generate(Random random, int iterations) {
+    List<String> pool = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      pool.add(expression(random, 2));
+    }
+
+    StringBuilder source = new StringBuilder("hi bhai\n");
+    source.append("bhai ye hai i = 0;\n");
+    source.append("jab tak bhai (i < ").append(iterations).append(") {\n");
+    for (String variable : VARIABLES) {
+      source.append("  bhai ye hai ").append(variable).append(" = i + ");
+      source.append(random.nextInt(10)).append(";\n");
+    }
+    source.append("  bhai ye hai total = 0;\n");
+
+    for (int statement = 0; statement < 8; statement++) {
+      String first = pool.get(random.nextInt(pool.size()));
+      String second = pool.get(random.nextInt(pool.size()));
+      switch (random.nextInt(3)) {
+        case 0 -> source.append("  total += ").append(first).append(" * ").append(second);
+        case 1 -> source.append("  total -= (").append(first).append(") - (").append(first + ")");
+        default ->
+            source.append("  ").append(VARIABLES[random.nextInt(VARIABLES.length)]).append(" += 1");
+      }
+      source.append(";\n");
+    }
+
+    source.append("  agar bhai (i == ").append(iterations - 1).append(") { bol bhai total; }\n");
+    source.append("  i += 1;\n");
+    source.append("}\n");
+    source.append("bye bhai\n");
+    return source.toString();
+  }
+
+  /**
+   * Generates a random arithmetic expression over the benchmark variables.
+   *
+   * @param random the source of randomness
+   * @param depth the maximum nesting depth
+   * @return the expression source, parenthesized
+   */
+  private static String expression(Random random, int depth) {
+    if (depth == 0 || random.nextInt(4) == 0) {
+      return VARIABLES[random.nextInt(VARIABLES.length)];
+    }
+    return "("
+        + expression(random, depth - 1)
+        + " "
+        + OPERATORS[random.nextInt(OPERATORS.length)]
+        + " "
+        + expression(random, depth - 1)
+        + ")";
+  }
+}
@@ -0,0 +1,120 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.BhaiBuffer;
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import org.junit.jupiter.api.Test;
+
+public class BufferTest {
+
+  private static Object evaluate(Interpreter interpreter, String expression) {
+    Stmt.Expression stmt = (Stmt.Expression) TestHelper.parse("(" + expression + ");").get(0);
+    return stmt.expression.accept(interpreter);
+  }
+
+  @Test
+  public void testParsesCalls() {
+    Stmt.Expression stmt = (Stmt.Expression) TestHelper.parse("copy(a, 0, b[1], 1, 2)(3);").get(0);
+    Expr.Call outer = assertInstanceOf(Expr.Call.class, stmt.expression);
+    Expr.Call inner = assertInstanceOf(Expr.Call.class, outer.callee);
+
+    assertEquals(1, outer.arguments.size());
+    assertEquals(5, inner.arguments.size());
+    assertInstanceOf(Expr.Index.class, inner.arguments.get(2));
+  }
+
+  @Test
+  public void testReadsAndWritesDoubles() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai b = doubleBuffer(5);"
+                + "ginti bhai (i = 0 se 5) { b[i] = i * 1.5; }"
+                + "b[4] += 10; b[0] = 7;"
+                + "{ bhai ye hai total = 0; ginti bhai (i = 0 se len(b)) { total = total + b[i]; }"
+                + "bol bhai total, b[1], b[4], len(b); }"
+                + "bol bhai b;");
+
+    assertEquals("32 1.5 16 5\n<double buffer of size 5>\n", output);
+  }
+
+  @Test
+  public void testLongBuffersStayExact() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai b = longBuffer(2);"
+                + "b[0] = 9007199254740993; b[0] += 2; b[1] = 6 / 3;"
+                + "bol bhai b[0] - 9007199254740992, b[1];");
+
+    assertEquals("3 2\n", output);
+    assertEquals("", TestHelper.runAndCaptureOutput("longBuffer(1)[0] = 1.5; bol bhai 'x';"));
+  }
+
+  @Test
+  public void testFillsAndCopies() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai a = doubleBuffer(6); bhai ye hai c = doubleBuffer(4);"
+                + "ginti bhai (i = 0 se 6) { a[i] = i; }"
+                + "copy(a, 0, a, 2, 4);"
+                + "bol bhai a[0], a[1], a[2], a[3], a[4], a[5];"
+                + "copy(a, 2, a, 0, 4);"
+                + "bol bhai a[0], a[1], a[2], a[3], a[4], a[5];"
+                + "fill(c, 0.25); copy(a, 4, c, 1, 2);"
+                + "bol bhai c[0], c[1], c[2], c[3];"
+                + "bhai ye hai l = longBuffer(3); fill(l, 4); bol bhai l[2];");
+
+    assertEquals("0 1 0 1 2 3\n0 1 2 3 2 3\n0.25 2 3 0.25\n4\n", output);
+  }
+
+  @Test
+  public void testFreesBuffersWhenTheScriptEnds() {
+    Interpreter interpreter = new Interpreter();
+    BhaiBuffer kept = (BhaiBuffer) evaluate(interpreter, "doubleBuffer(1000)");
+    BhaiBuffer freed = (BhaiBuffer) evaluate(interpreter, "longBuffer(0)");
+    interpreter.free(freed);
+
+    assertFalse(kept.isFreed());
+    assertTrue(freed.isFreed());
+    interpreter.close();
+    assertTrue(kept.isFreed());
+    assertEquals(1000, kept.size());
+
+    String output =
+        TestHelper.runAndCaptureOutput(
+            "bhai ye hai b = doubleBuffer(2); free(b); free(b); bol bhai b; b[0] = 1;"
+                + " bol bhai 'chal gaya';");
+    assertEquals("<freed buffer>\n", output.replace("\r", ""));
+  }
+
+  @Test
+  public void testRejectsBadCallsAndElements() {
+    String[] programs = {
+      "bhai ye hai x = 1; x();",
+      "nalla();",
+      "len(1);",
+      "len('a', 'b');",
+      "doubleBuffer(-1);",
+      "doubleBuffer(1.5);",
+      "bhai ye hai b = doubleBuffer(3); b[3] = 1;",
+      "bhai ye hai b = doubleBuffer(3); b[0] = 'a';",
+      "bhai ye hai b = doubleBuffer(3); b[0] = nalla;",
+      "copy(doubleBuffer(3), 0, longBuffer(3), 0, 1);",
+      "copy(doubleBuffer(3), 1, doubleBuffer(3), 0, 3);",
+      "fill([1], 0);"
+    };
+    for (String program : programs) {
+      // Every program fails before it reaches the print.
+      String output = TestHelper.runAndCaptureOutput(program + " bol bhai 'chal gaya';");
+      assertEquals("", output, program);
+    }
+
+    TestHelper.runAndCaptureOutput("len(1;");
+    assertTrue(BhaiLang.hadError);
+  }
+}
@@ -0,0 +1,84 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CommonSubexpressionTest {
+
+  @Test
+  public void testSharesRepeatedExpressions() {
+    List<Stmt> statements =
+        TestHelper.optimize("{ bhai ye hai a = 2; a += 1; bol bhai a * a + 1, (a * a + 1) / 2; }");
+
+    Stmt.Block block = assertInstanceOf(Stmt.Block.class, statements.get(0));
+    Stmt.Print print =
+        assertInstanceOf(Stmt.Print.class, block.statements.get(block.statements.size() - 1));
+    Expr.Cached first = assertInstanceOf(Expr.Cached.class, print.expressions.get(0));
+    Expr.Binary half = assertInstanceOf(Expr.Binary.class, print.expressions.get(1));
+    Expr.Grouping grouping = assertInstanceOf(Expr.Grouping.class, half.left);
+    Expr.Cached second = assertInstanceOf(Expr.Cached.class, grouping.expression);
+    assertEquals(first.name, second.name);
+  }
+
+  @Test
+  public void testAssignmentInvalidatesSharedValue() {
+    List<Stmt> statements =
+        TestHelper.optimize(
+            "{"
+                + "    bhai ye hai a = 2;"
+                + "    a += 1;"
+                + "    bol bhai a * 2, a * 2, a * 2;"
+                + "    a *= 5;"
+                + "    bol bhai a * 2, a * 2, a * 2;"
+                + "}");
+
+    Stmt.Block block = assertInstanceOf(Stmt.Block.class, statements.get(0));
+    int size = block.statements.size();
+    Stmt.Print before = assertInstanceOf(Stmt.Print.class, block.statements.get(size - 3));
+    Stmt.Print after = assertInstanceOf(Stmt.Print.class, block.statements.get(size - 1));
+    Expr.Cached beforeValue = assertInstanceOf(Expr.Cached.class, before.expressions.get(0));
+    Expr.Cached afterValue = assertInstanceOf(Expr.Cached.class, after.expressions.get(0));
+    assertNotEquals(beforeValue.name.getLexeme(), afterValue.name.getLexeme());
+  }
+
+  @Test
+  public void testAssignmentsMatchUnoptimizedOutput() {
+    TestHelper.runEverywhere(
+        "bhai ye hai a = 2;"
+            + "bhai ye hai b = 3;"
+            + "a += 0;"
+            + "b += 0;"
+            + "bol bhai a * b + 1, (a = a * b + 1) + a * b + 1, a * b + 1;"
+            + "agar bhai (a > 5) { b -= 1; }"
+            + "bol bhai a * b + 1;"
+            + "b /= 2;"
+            + "bol bhai a * b + 1, -b, -b;");
+  }
+
+  @Test
+  public void testShortCircuitedFirstOccurrenceMatchesUnoptimizedOutput() {
+    TestHelper.runEverywhere(
+        "bhai ye hai flag = galat;"
+            + "bhai ye hai x = 4;"
+            + "flag = galat;"
+            + "x += 1;"
+            + "bol bhai flag && x * x > 10, x * x > 10;"
+            + "bol bhai 'count ' + x, 'count ' + x;");
+  }
+
+  @Test
+  public void testErrorsMatchUnoptimizedOutput() {
+    TestHelper.runEverywhere(
+        "bhai ye hai n = nalla;"
+            + "n = nalla;"
+            + "bol bhai 'before';"
+            + "bol bhai n + 1, n + 1;"
+            + "bol bhai 'after';");
+  }
+}
@@ -0,0 +1,79 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ConstantFoldingTest {
+
+  private static Object printedValue(Stmt stmt) {
+    Stmt.Print print = assertInstanceOf(Stmt.Print.class, stmt);
+    return assertInstanceOf(Expr.Literal.class, print.expressions.get(0)).value;
+  }
+
+  @Test
+  public void testFoldsArithmetic() {
+    List<Stmt> statements = TestHelper.optimize("bol bhai 60 * 60 * (24 - 1);");
+
+    assertEquals(82800L, printedValue(statements.get(0)));
+  }
+
+  @Test
+  public void testFoldsStringConcatenation() {
+    List<Stmt> statements = TestHelper.optimize("bol bhai 'bhai' + ' ' + 'log';");
+
+    assertEquals("bhai log", printedValue(statements.get(0)));
+  }
+
+  @Test
+  public void testPropagatesSingleAssignmentLocals() {
+    List<Stmt> statements =
+        TestHelper.optimize("{ bhai ye hai a = 2; bhai ye hai b = a * 3; bol bhai b + 1; }");
+
+    Stmt.Block block = assertInstanceOf(Stmt.Block.class, statements.get(0));
+    assertEquals(7L, printedValue(block.statements.get(block.statements.size() - 1)));
+  }
+
+  @Test
+  public void testDoesNotPropagateReassignedVariables() {
+    List<Stmt> statements = TestHelper.optimize("bhai ye hai a = 2; a += 1; bol bhai a;");
+
+    Stmt.Print print = assertInstanceOf(Stmt.Print.class, statements.get(2));
+    assertInstanceOf(Expr.Variable.class, print.expressions.get(0));
+  }
+
+  @Test
+  public void testNallaArithmeticIsLeftForRuntime() {
+    List<Stmt> statements = TestHelper.optimize("bhai ye hai a = nalla;\nbol bhai a + 1;");
+
+    Stmt.Print print = assertInstanceOf(Stmt.Print.class, statements.get(1));
+    Expr.Binary binary = assertInstanceOf(Expr.Binary.class, print.expressions.get(0));
+    assertEquals(3, binary.operator.getLine());
+
+    String output =
+        TestHelper.runAndCaptureOutput("bhai ye hai a = nalla;\nbol bhai a + 1;\nbol bhai 2;");
+    assertEquals("", output);
+  }
+
+  @Test
+  public void testOptimizedOutputMatchesUnoptimized() {
+    String source =
+        "bhai ye hai limit = 2 + 3;"
+            + "bhai ye hai greeting = 'Namaste' + ' ' + 'bhai';"
+            + "bhai ye hai i = 0;"
+            + "jab tak bhai (i < limit) {"
+            + "    bhai ye hai step = 10 / 4;"
+            + "    agar bhai (sahi || galat) { bol bhai greeting, i * step; }"
+            + "    i += 1;"
+            + "}";
+
+    String optimized = TestHelper.runAndCaptureOutput(source);
+    String plain = TestHelper.runUnoptimized(source);
+
+    assertEquals(plain, optimized);
+  }
+}
@@ -0,0 +1,133 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.lexer.Scanner;
+import io.github.journeycodesayush.javabhailang.parser.Parser;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import io.github.journeycodesayush.javabhailang.resolver.TypeInference;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CountedWhileTest {
+
+  /** Returns the steps of the loops the analysis hands to the interpreter as counting loops. */
+  private static List<Number> countingSteps(String source) {
+    List<Stmt> statements =
+        new Parser(new Scanner("hi bhai\n" + source + "\nbye bhai").scanTokens()).parse();
+    Resolver resolver = new Resolver();
+    resolver.resolve(statements);
+    List<Number> steps = new ArrayList<>();
+    Interpreter interpreter =
+        new Interpreter() {
+          @Override
+          public void count(Stmt.While loop, Number step) {
+            steps.add(step);
+            super.count(loop, step);
+          }
+        };
+    new TypeInference(resolver.getSymbols(), interpreter).infer(statements);
+    return steps;
+  }
+
+  @Test
+  public void testRecognizesCountingLoops() {
+    assertEquals(
+        List.of(1L, -2L),
+        countingSteps(
+            "{ bhai ye hai n = 10; bhai ye hai i = 0; bhai ye hai s = 0;"
+                + "jab tak bhai (i < n) { s += i; i += 1; }"
+                + "jab tak bhai (i >= 0) i -= 2; }"));
+    assertEquals(
+        List.of(1.0, -2.0, 0.5),
+        countingSteps(
+            "{ bhai ye hai n = 10; bhai ye hai i = 0.0; bhai ye hai s = 0;"
+                + "jab tak bhai (i < n) { s += i; i += 1; }"
+                + "jab tak bhai (i >= 0) i -= 2;"
+                + "jab tak bhai (i <= 20) { i = i + 0.5; } }"));
+  }
+
+  @Test
+  public void testIgnoresOtherLoops() {
+    assertTrue(
+        countingSteps(
+                "{ bhai ye hai n = 10; bhai ye hai i = 0.0;"
+                    + "jab tak bhai (i < n) { i += 1; n -= 1; }"
+                    + "jab tak bhai (i < 30) { i += 1; i += 1; }"
+                    + "jab tak bhai (i != 40) { i += 1; }"
+                    + "jab tak bhai (i < 50) { i *= 2; }"
+                    + "jab tak bhai (i < 60) { i += 1; bol bhai i; }"
+                    + "jab tak bhai (i < i) { i += 1; } }")
+            .isEmpty());
+    assertTrue(countingSteps("bhai ye hai g = 0; jab tak bhai (g < 3) g += 1;").isEmpty());
+    assertTrue(
+        countingSteps("{ bhai ye hai i = 0; jab tak bhai (i < 3) { i += 0.5; } }").isEmpty());
+  }
+
+  @Test
+  public void testCounterIsVisibleInsideAndAfterTheLoop() {
+    String output =
+        TestHelper.runEverywhere(
+            "{ bhai ye hai i = 0.0; bhai ye hai s = 0; bhai ye hai n = 5;"
+                + "jab tak bhai (i < n) { bhai ye hai sq = i * i; s += sq; i += 1; }"
+                + "bol bhai i, s;"
+                + "jab tak bhai (i > 0) i -= 1.5;"
+                + "bol bhai i; }");
+
+    assertEquals("5 30\n-1\n", output);
+  }
+
+  @Test
+  public void testIntegerCounterIsVisibleInsideAndAfterTheLoop() {
+    String output =
+        TestHelper.runEverywhere(
+            "{ bhai ye hai i = 0; bhai ye hai s = 0; bhai ye hai n = 5;"
+                + "jab tak bhai (i < n) { bhai ye hai sq = i * i; s += sq; i += 1; }"
+                + "bol bhai i, s;"
+                + "jab tak bhai (i > 0) i -= 2;"
+                + "bol bhai i; }");
+
+    assertEquals("5 30\n-1\n", output);
+  }
+
+  @Test
+  public void testIntegerCounterThatOverflowsBecomesADouble() {
+    String source =
+        "{ bhai ye hai i = 9223372036854775806; bhai ye hai n = 9223372036854775807;"
+            + "bhai ye hai passes = 0;"
+            + "jab tak bhai (i < n) { passes += 1; i += 2; }"
+            + "bol bhai i, passes; }";
+
+    assertEquals(TestHelper.runUnoptimized(source), TestHelper.runEverywhere(source));
+    assertTrue(TestHelper.runEverywhere(source).endsWith(" 1\n"));
+  }
+
+  @Test
+  public void testContinueSkipsTheIncrementAndBreakLeaves() {
+    String output =
+        TestHelper.runEverywhere(
+            "{ bhai ye hai i = 0; bhai ye hai seen = 0; bhai ye hai t = 0;"
+                + "jab tak bhai (i < 100) {"
+                + "  t += 1;"
+                + "  agar bhai (t == 3) { agla dekh bhai; }"
+                + "  agar bhai (i == 6) { bas kar bhai; }"
+                + "  seen += i; i += 2;"
+                + "}"
+                + "bol bhai i, seen, t; }");
+
+    // The third pass continues at i = 4 without incrementing, so t counts five passes.
+    assertEquals("6 6 5\n", output);
+  }
+
+  @Test
+  public void testBoundThatIsNotANumberStillFails() {
+    TestHelper.runAndCaptureOutput(
+        "{ bhai ye hai i = 0; bhai ye hai n = 'x'; jab tak bhai (i < n) { i += 1; } }");
+
+    assertTrue(BhaiLang.hadRuntimeError);
+  }
+}
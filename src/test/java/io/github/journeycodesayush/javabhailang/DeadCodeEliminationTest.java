@@ -0,0 +1,112 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class DeadCodeEliminationTest {
+
+  @Test
+  public void testDropsStatementsAfterBreak() {
+    List<Stmt> statements =
+        TestHelper.optimize(
+            "jab tak bhai (sahi) { bol bhai 1; bas kar bhai; bol bhai 2; bol bhai 3; }");
+
+    Stmt.While loop = assertInstanceOf(Stmt.While.class, statements.get(0));
+    Stmt.Block body = assertInstanceOf(Stmt.Block.class, loop.body);
+    assertEquals(2, body.statements.size());
+    assertInstanceOf(Stmt.Break.class, body.statements.get(1));
+  }
+
+  @Test
+  public void testDropsBranchesWithConstantConditions() {
+    List<Stmt> statements =
+        TestHelper.optimize(
+            "bhai ye hai DEBUG = galat;"
+                + "bhai ye hai x = 2;"
+                + "x += 1;"
+                + "agar bhai (DEBUG) { bol bhai 'debug'; }"
+                + " nahi to bhai (x > 1) { bol bhai 'big'; }"
+                + " nahi to bhai (sahi) { bol bhai 'small'; }"
+                + " nahi to bhai (x == 0) { bol bhai 'zero'; }"
+                + " warna bhai { bol bhai 'never'; }");
+
+    Stmt.If chain = assertInstanceOf(Stmt.If.class, statements.get(3));
+    assertInstanceOf(Expr.Binary.class, chain.condition);
+    assertTrue(chain.elseIfConditions.isEmpty());
+    Stmt.Block elseBranch = assertInstanceOf(Stmt.Block.class, chain.elseBranch);
+    Stmt.Print print = assertInstanceOf(Stmt.Print.class, elseBranch.statements.get(0));
+    assertEquals("small", ((Expr.Literal) print.expressions.get(0)).value);
+  }
+
+  @Test
+  public void testRemovesFalseLoopsAndFlagDisabledCode() {
+    List<Stmt> statements =
+        TestHelper.optimize(
+            "bhai ye hai FEATURE = 0;"
+                + "jab tak bhai (galat) { bol bhai 'never'; }"
+                + "agar bhai (FEATURE) { bol bhai 'feature'; }"
+                + "bol bhai 'done';");
+
+    assertEquals(2, statements.size());
+    assertInstanceOf(Stmt.Var.class, statements.get(0));
+    assertInstanceOf(Stmt.Print.class, statements.get(1));
+  }
+
+  @Test
+  public void testRemovesUnusedLocalsAndPureExpressions() {
+    List<Stmt> statements =
+        TestHelper.optimize(
+            "{"
+                + "    bhai ye hai unused = 5;"
+                + "    unused = 6;"
+                + "    bhai ye hai checked = nalla + 1;"
+                + "    sahi;"
+                + "    bol bhai 'kept';"
+                + "}");
+
+    Stmt.Block block = assertInstanceOf(Stmt.Block.class, statements.get(0));
+    assertEquals(2, block.statements.size());
+    Stmt.Expression checked = assertInstanceOf(Stmt.Expression.class, block.statements.get(0));
+    assertInstanceOf(Expr.Binary.class, checked.expression);
+    assertInstanceOf(Stmt.Print.class, block.statements.get(1));
+  }
+
+  @Test
+  public void testLocalReadOnlyInDeadBranchIsRemoved() {
+    List<Stmt> statements =
+        TestHelper.optimize("{ bhai ye hai x = 'x'; x = 'y'; agar bhai (galat) { bol bhai x; } }");
+
+    Stmt.Block block = assertInstanceOf(Stmt.Block.class, statements.get(0));
+    assertTrue(block.statements.isEmpty());
+  }
+
+  @Test
+  public void testOptimizedOutputMatchesUnoptimized() {
+    String source =
+        "bhai ye hai VERBOSE = galat;"
+            + "bhai ye hai i = 0;"
+            + "jab tak bhai (i < 4) {"
+            + "    bhai ye hai scratch = i * 2;"
+            + "    i += 1;"
+            + "    agar bhai (VERBOSE) { bol bhai 'verbose', i; }"
+            + "    nahi to bhai (i == 2) { agla dekh bhai; bol bhai 'skipped'; }"
+            + "    nahi to bhai (i == 4) { bas kar bhai; }"
+            + "    warna bhai { bol bhai i; }"
+            + "    jab tak bhai (nalla) { bol bhai 'never'; }"
+            + "}"
+            + "bol bhai 'done', i;";
+
+    String optimized = TestHelper.runAndCaptureOutput(source);
+    String lazy = TestHelper.runLazily(source);
+    String plain = TestHelper.runUnoptimized(source);
+
+    assertEquals(plain, optimized);
+    assertEquals(plain, lazy);
+  }
+}
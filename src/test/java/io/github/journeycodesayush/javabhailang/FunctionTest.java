@@ -0,0 +1,129 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.output.StringCollectingOutput;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import org.junit.jupiter.api.Test;
+
+public class FunctionTest {
+
+  @Test
+  public void testParsesFunctionsAndReturns() {
+    Stmt.Function function =
+        assertInstanceOf(
+            Stmt.Function.class,
+            TestHelper.parse("kaam bhai jod(a, b) { wapas kar bhai a + b; }").get(0));
+    assertEquals("jod", function.name.getLexeme());
+    assertEquals(2, function.params.size());
+    Stmt.Return ret = assertInstanceOf(Stmt.Return.class, function.body.statements.get(0));
+    assertEquals("wapas kar bhai", ret.keyword.getLexeme());
+
+    Stmt.Function empty =
+        (Stmt.Function) TestHelper.parse("kaam bhai kuch() { wapas kar bhai; }").get(0);
+    assertTrue(empty.params.isEmpty());
+    assertNull(((Stmt.Return) empty.body.statements.get(0)).value);
+
+    TestHelper.runAndCaptureOutput("kaam bhai f(a, ) { }");
+    assertTrue(BhaiLang.hadError);
+  }
+
+  @Test
+  public void testCallsRecursiveFunctions() {
+    String output =
+        TestHelper.runEverywhere(
+            "kaam bhai fib(n) { agar bhai (n < 2) { wapas kar bhai n; }"
+                + " wapas kar bhai fib(n - 1) + fib(n - 2); }"
+                + "kaam bhai kuch() { bhai ye hai x = 1; }"
+                + "bol bhai fib(20), kuch(), fib;");
+
+    assertEquals("6765 nalla <kaam fib>\n", output);
+  }
+
+  @Test
+  public void testClosuresKeepTheirVariables() {
+    String output =
+        TestHelper.runEverywhere(
+            "kaam bhai counter() { bhai ye hai n = 0;"
+                + " kaam bhai next() { n += 1; wapas kar bhai n; } wapas kar bhai next; }"
+                + "bhai ye hai a = counter(); bhai ye hai b = counter();"
+                + "a(); a(); bol bhai a(), b();"
+                + "bhai ye hai fs = [];"
+                + "ginti bhai (i = 0 se 3) { bhai ye hai x = i * 10;"
+                + " kaam bhai f() { wapas kar bhai x + i; } fs[i] = f; }"
+                + "bol bhai fs[0](), fs[1](), fs[2]();");
+
+    assertEquals("3 1\n0 11 22\n", output);
+  }
+
+  @Test
+  public void testTailCallsDoNotGrowTheStack() {
+    String output =
+        TestHelper.runEverywhere(
+            "kaam bhai ginte(n, total) { agar bhai (n == 0) { wapas kar bhai total; }"
+                + " wapas kar bhai ginte(n - 1, total + 1); }"
+                + "kaam bhai even(n) { agar bhai (n == 0) { wapas kar bhai sahi; }"
+                + " wapas kar bhai odd(n - 1); }"
+                + "kaam bhai odd(n) { agar bhai (n == 0) { wapas kar bhai galat; }"
+                + " wapas kar bhai even(n - 1); }"
+                + "bol bhai ginte(1000000, 0), even(100001);");
+
+    assertEquals("1000000 galat\n", output);
+  }
+
+  @Test
+  public void testCallsInLoopsAreNotOptimizedAway() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai g = 1;"
+                + "kaam bhai badha() { g = g + 1; }"
+                + "bhai ye hai total = 0; bhai ye hai i = 0;"
+                + "jab tak bhai (i < 5) { total = total + g * 2; badha(); total = total + g * 2;"
+                + " i = i + 1; }"
+                + "bol bhai total, g;"
+                + "kaam bhai pehla(xs) { ginti bhai (i = 0 se len(xs)) {"
+                + " agar bhai (xs[i] > 2) { wapas kar bhai i; } } wapas kar bhai -1; }"
+                + "bol bhai pehla([1, 5, 3]), pehla([]);");
+
+    assertEquals("70 6\n1 -1\n", output);
+  }
+
+  @Test
+  public void testGlobalsAssignedByFunctionsAreNotFolded() {
+    String output =
+        TestHelper.runEverywhere(
+            "kaam bhai setz() { z = 7; } bhai ye hai z = 0; setz(); bol bhai z, z + 1;"
+                + " agar bhai (z == 0) { bol bhai \"z still zero\"; }");
+
+    assertEquals("7 8\n", output);
+
+    StringCollectingOutput lines = new StringCollectingOutput();
+    try (Interpreter interpreter = new Interpreter(lines)) {
+      BhaiLang.run("hi bhai\nkaam bhai setz() { z = 7; }\nbye bhai", interpreter);
+      BhaiLang.run("hi bhai\nbhai ye hai z = 0; setz(); bol bhai z, z + 1;\nbye bhai", interpreter);
+    }
+    assertEquals("7 8\n", lines.toString().replace("\r", ""));
+  }
+
+  @Test
+  public void testRejectsBadCallsAndReturns() {
+    String[] programs = {
+      "kaam bhai f(a) { } f();",
+      "kaam bhai f() { } f(1);",
+      "wapas kar bhai 1;",
+      "kaam bhai f() { bas kar bhai; } jab tak bhai (sahi) { f(); }",
+      "kaam bhai gehra(n) { wapas kar bhai 1 + gehra(n + 1); } gehra(0);",
+      "kaam bhai f(a, a) { }",
+      "kaam bhai f() { } f()();"
+    };
+    for (String program : programs) {
+      // Every program fails before it reaches the print.
+      String output = TestHelper.runAndCaptureOutput(program + " bol bhai 'chal gaya';");
+      assertEquals("", output, program);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.output.StringCollectingOutput;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class GlobalCacheTest {
+
+  private static void run(Interpreter interpreter, List<Stmt> statements) {
+    new Resolver(interpreter).resolve(statements);
+    interpreter.interpret(statements);
+  }
+
+  private static String lines(StringCollectingOutput output) {
+    return output.toString().trim().replace("\r", "");
+  }
+
+  @Test
+  public void testCachedGlobalsSeeRedefinitions() {
+    StringCollectingOutput output = new StringCollectingOutput();
+    Interpreter interpreter = new Interpreter(output);
+    List<Stmt> program = TestHelper.parse("count += 1; bol bhai name, count;");
+
+    run(interpreter, TestHelper.parse("bhai ye hai name = 'a'; bhai ye hai count = 0;"));
+    run(interpreter, program);
+    run(interpreter, program);
+    run(interpreter, TestHelper.parse("bhai ye hai name = 'b';"));
+    run(interpreter, program);
+
+    assertEquals("a 1\na 2\nb 3", lines(output));
+  }
+
+  @Test
+  public void testCachesAreNotSharedBetweenInterpreters() {
+    List<Stmt> program = TestHelper.parse("total = total + step; bol bhai total;");
+
+    StringCollectingOutput first = new StringCollectingOutput();
+    Interpreter one = new Interpreter(first);
+    run(one, TestHelper.parse("bhai ye hai total = 0; bhai ye hai step = 1;"));
+    run(one, program);
+
+    StringCollectingOutput second = new StringCollectingOutput();
+    Interpreter two = new Interpreter(second);
+    run(two, TestHelper.parse("bhai ye hai total = 100; bhai ye hai step = 10;"));
+    run(two, program);
+    run(one, program);
+    run(two, program);
+
+    assertEquals("1\n2", lines(first));
+    assertEquals("110\n120", lines(second));
+  }
+
+  @Test
+  public void testTopLevelLoopsMatchEveryEngine() {
+    String source =
+        "bhai ye hai i = 0; bhai ye hai text = '';"
+            + "jab tak bhai (i < 20) {"
+            + "  i += 1;"
+            + "  agar bhai (i == 4 || i == 9) { agla dekh bhai; }"
+            + "  text = text + i;"
+            + "}"
+            + "bol bhai i, text;";
+    TestHelper.runEverywhere(source);
+  }
+
+  @Test
+  public void testUndefinedGlobalsStillFail() {
+    String output =
+        TestHelper.runAndCaptureOutput("bol bhai 'before'; missing = 1; bol bhai 'after';");
+
+    assertEquals("before", output.trim());
+  }
+}
@@ -0,0 +1,138 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.output.StringCollectingOutput;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class HostFunctionTest {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private final StringCollectingOutput output = new StringCollectingOutput();
+
+  private final Interpreter interpreter = new Interpreter(output);
+
+  private final List<Object> seen = new ArrayList<>();
+
+  @AfterEach
+  public void closeInterpreter() {
+    interpreter.close();
+  }
+
+  private String run(String source) {
+    BhaiLang.run("hi bhai\n" + source + "\nbye bhai", interpreter);
+    return output.toString().replace("\r", "");
+  }
+
+  private static MethodHandle function(String name, Class<?> result, Class<?>... parameters)
+      throws ReflectiveOperationException {
+    return LOOKUP.findStatic(HostFunctionTest.class, name, methodType(result, parameters));
+  }
+
+  private static String label(String text, boolean loud, int times) {
+    String label = loud ? text.toUpperCase() : text;
+    return label.repeat(times);
+  }
+
+  private static long jodo(long a, long b, long c, long d, long e) {
+    return a + b + c + d + e;
+  }
+
+  private static int fail(Object value) {
+    throw new IllegalStateException("no " + value);
+  }
+
+  private void record(Object value) {
+    seen.add(value);
+  }
+
+  @Test
+  public void testCallsBoundFunctions() throws ReflectiveOperationException {
+    interpreter.bind(
+        "sqrt", LOOKUP.findStatic(Math.class, "sqrt", methodType(double.class, double.class)));
+    interpreter.bind(
+        "label", function("label", String.class, String.class, boolean.class, int.class));
+    interpreter.bind(
+        "jodo",
+        function("jodo", long.class, long.class, long.class, long.class, long.class, long.class));
+    interpreter.bind(
+        "record",
+        LOOKUP
+            .findVirtual(HostFunctionTest.class, "record", methodType(void.class, Object.class))
+            .bindTo(this));
+    interpreter.bind(
+        "lookup",
+        LOOKUP
+            .findVirtual(Map.class, "get", methodType(Object.class, Object.class))
+            .bindTo(Map.of("a", 1)));
+
+    String printed =
+        run(
+            "bhai ye hai s = 'ab'; s += 'c';"
+                + "bol bhai sqrt(16), sqrt(2.25), label(s, sahi, 2.0), label('x', galat, 3);"
+                + "bol bhai jodo(1, 2, 3, 4, 5), record(s), lookup('a'), lookup('b'), sqrt;");
+
+    assertEquals("4 1.5 ABCABC xxx\n15 nalla 1 nalla <kaam sqrt>\n", printed);
+    assertEquals(List.of("abc"), seen);
+  }
+
+  @Test
+  public void testCallSitesKeepWorkingWhenTheCalleeChanges() throws ReflectiveOperationException {
+    interpreter.bind(
+        "abs", LOOKUP.findStatic(Math.class, "abs", methodType(double.class, double.class)));
+    interpreter.bind(
+        "neg", LOOKUP.findStatic(Math.class, "negateExact", methodType(long.class, long.class)));
+
+    String printed =
+        run(
+            "bhai ye hai fs = [abs, neg]; bhai ye hai total = 0;"
+                + "ginti bhai (i = 0 se 500) { ginti bhai (j = 0 se 2) { total = total + fs[j](-3); } }"
+                + "kaam bhai teen(x) { wapas kar bhai 3; } fs[0] = teen;"
+                + "ginti bhai (j = 0 se 2) { total = total + fs[j](-3) + fs[j](-3); }"
+                + "bol bhai total;");
+
+    assertEquals("3012\n", printed);
+  }
+
+  @Test
+  public void testRejectsBadArgumentsAndReportsHostFailures() throws ReflectiveOperationException {
+    interpreter.bind(
+        "sqrt", LOOKUP.findStatic(Math.class, "sqrt", methodType(double.class, double.class)));
+    interpreter.bind(
+        "label", function("label", String.class, String.class, boolean.class, int.class));
+    interpreter.bind("fail", function("fail", int.class, Object.class));
+
+    String[] programs = {
+      "sqrt('4');",
+      "sqrt(nalla);",
+      "label(1, sahi, 1);",
+      "label('a', 1, 1);",
+      "label('a', sahi, 1.5);",
+      "label('a', sahi, 3000000000);",
+      "sqrt(1, 2);",
+      "fail(1);"
+    };
+    for (String program : programs) {
+      // Every program fails before it reaches the print.
+      assertEquals("", run(program + " bol bhai 'chal gaya';"), program);
+    }
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            interpreter.bind(
+                "list", LOOKUP.findVirtual(List.class, "size", methodType(int.class))));
+    assertFalse(output.toString().contains("chal gaya"));
+  }
+}
@@ -0,0 +1,108 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Values;
+import io.github.journeycodesayush.javabhailang.lexer.Scanner;
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class IntegerTest {
+
+  private static final Token PLUS = new Token(TokenType.PLUS, "+", null, 1);
+  private static final Token MINUS = new Token(TokenType.MINUS, "-", null, 1);
+  private static final Token STAR = new Token(TokenType.STAR, "*", null, 1);
+  private static final Token SLASH = new Token(TokenType.SLASH, "/", null, 1);
+  private static final Token LESS = new Token(TokenType.LESS, "<", null, 1);
+
+  @Test
+  public void testLiteralsWithoutFractionAreIntegers() {
+    List<Token> tokens = new Scanner("42 4.5 99999999999999999999").scanTokens();
+
+    assertEquals(42L, tokens.get(0).getLiteral());
+    assertEquals(4.5, tokens.get(1).getLiteral());
+    assertEquals(1e20, tokens.get(2).getLiteral());
+  }
+
+  @Test
+  public void testIntegerArithmeticIsExact() {
+    long big = (1L << 53) + 1;
+
+    assertEquals(big + 2, Values.binary(PLUS, big, 2L));
+    assertEquals(big - 1, Values.binary(MINUS, big, 1L));
+    assertEquals(big * 3, Values.binary(STAR, big, 3L));
+    assertEquals(true, Values.binary(LESS, big - 1, big));
+    assertFalse(Values.isEqual(big, (double) big));
+  }
+
+  @Test
+  public void testPromotesToDouble() {
+    assertEquals(2.0, Values.binary(SLASH, 4L, 2L));
+    assertEquals(3.5, Values.binary(PLUS, 1L, 2.5));
+    assertEquals(0x1p63, Values.binary(PLUS, Long.MAX_VALUE, 1L));
+    assertEquals(-0x1p64, Values.binary(STAR, Long.MIN_VALUE, 2L));
+    assertEquals(-0.0, Values.binary(STAR, 0L, -5L));
+    assertEquals(-0.0, Values.unary(MINUS, 0L));
+    assertEquals(0x1p63, Values.unary(MINUS, Long.MIN_VALUE));
+  }
+
+  @Test
+  public void testIntegersEqualDoublesWithTheSameValue() {
+    assertTrue(Values.isEqual(1L, 1.0));
+    assertTrue(Values.isEqual(-3.0, -3L));
+    assertFalse(Values.isEqual(0L, -0.0));
+    assertFalse(Values.isEqual(1L, 1.5));
+    assertFalse(Values.isEqual(Long.MAX_VALUE, 0x1p63));
+    assertEquals(2L, Values.key(2.0));
+    assertEquals(-0.0, Values.key(-0.0));
+  }
+
+  @Test
+  public void testPrintsLikeDoubles() {
+    String output =
+        TestHelper.runEverywhere(
+            "bol bhai 7, -12, 10000000, 123456789, 4 / 2, 0 * -1, -0, 2.0 * 3;"
+                + "bol bhai 9007199254740993 - 9007199254740992, 3 == 3.0, 'n' + 10;");
+
+    assertEquals("7 -12 1.0E7 1.23456789E8 2 -0 -0 6\n1 sahi n10\n", output);
+  }
+
+  @Test
+  public void testCountersAndLargeIntegersOnEveryEngine() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai total = 0; bhai ye hai i = 0;"
+                + "jab tak bhai (i < 1000) { total += i * i; i += 1; }"
+                + "bhai ye hai big = 140737488355327; big += 1;"
+                + "bhai ye hai product = 3037000499 * 3037000499;"
+                + "{ bhai ye hai j = 0; jab tak bhai (j < 10) { j += 1; } bol bhai j; }"
+                + "bol bhai total, big - 140737488355327, product - 9223372030926249000;"
+                + "bhai ye hai x = 6 / 3;"
+                + "agar bhai (x == 1) { bol bhai 'one'; }"
+                + "nahi to bhai (x == 2) { bol bhai 'two'; }"
+                + "nahi to bhai (x == 3) { bol bhai 'three'; }"
+                + "nahi to bhai (x == 4) { bol bhai 'four'; }"
+                + "nahi to bhai (x == 5) { bol bhai 'five'; }"
+                + "warna bhai { bol bhai 'none'; }");
+
+    assertEquals("10\n3.328335E8 1 1\ntwo\n", output);
+  }
+
+  @Test
+  public void testLocalsAndCountersBeyondDoublePrecision() {
+    String output =
+        TestHelper.runEverywhere(
+            "agar bhai (sahi) { bhai ye hai n = 9007199254740992; n = n + 1;"
+                + " bol bhai n - 9007199254740992; }"
+                + "ginti bhai (i = 9223372036854775805 se 9223372036854775807) {"
+                + " bol bhai i == 9223372036854775805; }"
+                + "{ bhai ye hai d = 0.5; bhai ye hai k = 9007199254740993;"
+                + " d = d + 1; bol bhai d == 9007199254740992, k == 9007199254740992; }");
+
+    assertEquals("1\nsahi\ngalat\ngalat galat\n", output);
+  }
+}
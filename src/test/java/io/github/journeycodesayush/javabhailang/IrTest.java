@@ -0,0 +1,163 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.ir.BasicBlock;
+import io.github.journeycodesayush.javabhailang.ir.Graph;
+import io.github.journeycodesayush.javabhailang.ir.Instruction;
+import io.github.journeycodesayush.javabhailang.ir.IrBuilder;
+import io.github.journeycodesayush.javabhailang.ir.IrOptimizer;
+import io.github.journeycodesayush.javabhailang.lexer.Scanner;
+import io.github.journeycodesayush.javabhailang.optimizer.Optimizer;
+import io.github.journeycodesayush.javabhailang.parser.Parser;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class IrTest {
+
+  private static Graph lower(String source, boolean optimize) {
+    List<Stmt> statements =
+        new Parser(new Scanner("hi bhai\n" + source + "\nbye bhai").scanTokens()).parse();
+    Resolver resolver = new Resolver();
+    resolver.resolve(statements);
+    Graph graph = IrBuilder.build(statements, resolver.getSymbols());
+    return optimize ? new IrOptimizer().optimize(graph) : graph;
+  }
+
+  private static List<Instruction> instructions(Graph graph, Instruction.Op op) {
+    List<Instruction> found = new ArrayList<>();
+    for (BasicBlock block : graph.getBlocks()) {
+      for (Instruction instruction : block.getInstructions()) {
+        if (instruction.getOp() == op) found.add(instruction);
+      }
+    }
+    return found;
+  }
+
+  @Test
+  public void testConstantsPropagateThroughLocals() {
+    Graph graph = lower("{ bhai ye hai x = 2; bhai ye hai y = x * 3; bol bhai y + 1; }", true);
+
+    assertTrue(instructions(graph, Instruction.Op.BINARY).isEmpty());
+    assertTrue(instructions(graph, Instruction.Op.COPY).isEmpty());
+    Instruction print = instructions(graph, Instruction.Op.PRINT).getFirst();
+    assertEquals(7L, print.getOperands().getFirst().getConstant());
+  }
+
+  @Test
+  public void testLoopCarriesValuesThroughPhis() {
+    Graph graph =
+        lower(
+            "{ bhai ye hai i = 0; bhai ye hai sum = 0;"
+                + " jab tak bhai (i < 5) { sum += i; i += 1; } bol bhai sum; }",
+            true);
+
+    int phis = 0;
+    for (BasicBlock block : graph.getBlocks()) {
+      phis += block.getPhis().size();
+    }
+    assertEquals(2, phis);
+  }
+
+  @Test
+  public void testValueNumberingSharesRepeatedOperators() {
+    Graph graph =
+        lower(
+            "bhai ye hai g = 2;"
+                + "{ bhai ye hai a = g; bhai ye hai b = g + 1; bol bhai a * b, a * b; }",
+            true);
+
+    assertEquals(2, instructions(graph, Instruction.Op.BINARY).size());
+  }
+
+  @Test
+  public void testDeadCodeAndConstantBranchesAreRemoved() {
+    Graph graph =
+        lower(
+            "{ bhai ye hai unused = 4 * 4;"
+                + " agar bhai (galat) { bol bhai 'never'; } warna bhai { bol bhai 'always'; } }",
+            true);
+
+    assertEquals(1, graph.getBlocks().size());
+    assertEquals(2, graph.getEntry().getInstructions().size());
+  }
+
+  @Test
+  public void testLazyBlocksAreNotLowered() {
+    List<Stmt> statements =
+        new Parser(new Scanner("hi bhai\n{ bol bhai 1; }\nbye bhai").scanTokens(), true).parse();
+    Resolver resolver = new Resolver();
+    resolver.resolve(statements);
+
+    assertNull(IrBuilder.build(statements, resolver.getSymbols()));
+    for (BhaiLang.Engine engine : BhaiLang.Engine.values()) {
+      String output = TestHelper.runLazily(engine, "{ bol bhai 'lazy'; }");
+      assertEquals("lazy\n", output.replace("\r", ""), engine.toString());
+    }
+  }
+
+  @Test
+  public void testSwitchStatementsLower() {
+    StringBuilder source = new StringBuilder("bhai ye hai x = 0; jab tak bhai (x < 7) {");
+    source.append(" agar bhai (x == 1) { bol bhai 'ek'; }");
+    source.append(" nahi to bhai (x == 2) { bol bhai 'do'; }");
+    source.append(" nahi to bhai (x == 3) { bol bhai 'teen'; }");
+    source.append(" nahi to bhai (x == 4) { bol bhai 'char'; }");
+    source.append(" nahi to bhai (x == nalla) { bol bhai 'nalla'; }");
+    source.append(" warna bhai { bol bhai x; } x += 1; }");
+
+    List<Stmt> statements =
+        new Parser(new Scanner("hi bhai\n" + source + "\nbye bhai").scanTokens()).parse();
+    Resolver resolver = new Resolver();
+    resolver.resolve(statements);
+    statements = new Optimizer().optimize(statements, resolver.getSymbols());
+    resolver = new Resolver();
+    resolver.resolve(statements);
+
+    Graph graph = IrBuilder.build(statements, resolver.getSymbols());
+    assertNotNull(graph);
+    boolean switched = false;
+    for (BasicBlock block : graph.getBlocks()) {
+      switched |= block.getExit() == BasicBlock.Exit.SWITCH;
+    }
+    assertTrue(switched);
+    TestHelper.runEverywhere(source.toString());
+  }
+
+  @Test
+  public void testControlFlowMatchesAstEngine() {
+    TestHelper.runEverywhere(
+        "bhai ye hai total = 0;"
+            + "{"
+            + "  bhai ye hai i = 0;"
+            + "  jab tak bhai (i < 10) {"
+            + "    i += 1;"
+            + "    agar bhai (i == 3) { agla dekh bhai; }"
+            + "    nahi to bhai (i > 7) { bas kar bhai; }"
+            + "    bhai ye hai j = 0;"
+            + "    jab tak bhai (sahi) {"
+            + "      j += 1;"
+            + "      agar bhai (j >= i) { bas kar bhai; }"
+            + "    }"
+            + "    total += j;"
+            + "    bol bhai i, j, i > 4 && j, nalla || 'default';"
+            + "  }"
+            + "}"
+            + "bol bhai total;");
+  }
+
+  @Test
+  public void testErrorsMatchAstEngine() {
+    TestHelper.runEverywhere(
+        "bhai ye hai n = nalla;"
+            + "{ bhai ye hai a = 1; bol bhai 'before'; bol bhai a + n; bol bhai 'after'; }");
+    TestHelper.runEverywhere("bol bhai 'start'; bas kar bhai; bol bhai 'end';");
+    TestHelper.runEverywhere("{ bhai ye hai s = 'x'; bol bhai -s; }");
+  }
+}
@@ -0,0 +1,90 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class JumpTableTest {
+
+  private static String dispatch(int cases) {
+    StringBuilder chain = new StringBuilder("agar bhai (x == 0) { bol bhai 'case', 0; }");
+    for (int i = 1; i < cases; i++) {
+      chain.append(" nahi to bhai (").append(i).append(" == x) { bol bhai 'case', ");
+      chain.append(i).append("; }");
+    }
+    return chain.append(" warna bhai { bol bhai 'default', x; }").toString();
+  }
+
+  @Test
+  public void testLongChainBecomesSwitch() {
+    List<Stmt> statements = TestHelper.optimize("bhai ye hai x = 3; x += 1;" + dispatch(200));
+
+    Stmt.Switch table = assertInstanceOf(Stmt.Switch.class, statements.get(2));
+    assertEquals(200, table.keys.size());
+    assertInstanceOf(Stmt.Block.class, table.elseBranch);
+  }
+
+  @Test
+  public void testShortChainStaysLinear() {
+    List<Stmt> statements = TestHelper.optimize("bhai ye hai x = 3; x += 1;" + dispatch(3));
+
+    assertInstanceOf(Stmt.If.class, statements.get(2));
+  }
+
+  @Test
+  public void testMixedChainKeepsOtherConditionsInOrder() {
+    List<Stmt> statements =
+        TestHelper.optimize(
+            "bhai ye hai x = 3; bhai ye hai y = 1; x += 1; y += 1;"
+                + "agar bhai (y > 5) { bol bhai 'big'; }"
+                + " nahi to bhai (x == 1) { bol bhai 1; }"
+                + " nahi to bhai (x == 2) { bol bhai 2; }"
+                + " nahi to bhai ((x) == 'teen') { bol bhai 3; }"
+                + " nahi to bhai (x == nalla) { bol bhai 4; }"
+                + " nahi to bhai (y == 2) { bol bhai 'y'; }"
+                + " warna bhai { bol bhai 'none'; }");
+
+    Stmt.If chain = assertInstanceOf(Stmt.If.class, statements.get(4));
+    Stmt.Switch table = assertInstanceOf(Stmt.Switch.class, chain.elseBranch);
+    assertEquals(4, table.keys.size());
+    Stmt.If rest = assertInstanceOf(Stmt.If.class, table.elseBranch);
+    assertInstanceOf(Stmt.Block.class, rest.elseBranch);
+  }
+
+  @Test
+  public void testDispatchMatchesUnoptimizedOutput() {
+    TestHelper.runEverywhere(
+        "bhai ye hai x = -2;"
+            + "jab tak bhai (x < 12) {"
+            + "    x += 1;"
+            + "    "
+            + dispatch(10)
+            + "}");
+  }
+
+  @Test
+  public void testEqualitySemanticsMatchUnoptimizedOutput() {
+    TestHelper.runEverywhere(
+        "bhai ye hai values = 0;"
+            + "bhai ye hai x = nalla;"
+            + "jab tak bhai (values < 7) {"
+            + "    agar bhai (values == 1) { x = 'ek'; }"
+            + "    nahi to bhai (values == 2) { x = -0; }"
+            + "    nahi to bhai (values == 3) { x = sahi; }"
+            + "    nahi to bhai (values == 4) { x = 1; }"
+            + "    nahi to bhai (values == 5) { x = '1'; }"
+            + "    nahi to bhai (values == 6) { x = 0; }"
+            + "    agar bhai (x == 0) { bol bhai 'zero'; }"
+            + "    nahi to bhai (x == 1) { bol bhai 'one'; }"
+            + "    nahi to bhai (x == 'ek') { bol bhai 'ek'; }"
+            + "    nahi to bhai (x == sahi) { bol bhai 'sahi'; }"
+            + "    nahi to bhai (x == nalla) { bol bhai 'nalla'; }"
+            + "    nahi to bhai (x == 1) { bol bhai 'duplicate'; }"
+            + "    warna bhai { bol bhai 'other', x; }"
+            + "    values += 1;"
+            + "}");
+  }
+}
@@ -0,0 +1,80 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LazyParsingTest {
+
+  @BeforeEach
+  public void enableLazyBlocks() {
+    BhaiLang.lazyBlocks = true;
+  }
+
+  @AfterEach
+  public void disableLazyBlocks() {
+    BhaiLang.lazyBlocks = false;
+  }
+
+  @Test
+  public void testLazyBlocksMatchEagerOutput() {
+    String source =
+        "bhai ye hai i = 1;"
+            + "jab tak bhai (i <= 3) {"
+            + "    bhai ye hai j = 0;"
+            + "    jab tak bhai (sahi) {"
+            + "        j = j + 1;"
+            + "        agar bhai (j > 3) { bas kar bhai; }"
+            + "        agar bhai (i == j) {"
+            + "            bol bhai \"Match\", i;"
+            + "        } nahi to bhai (j == 2) {"
+            + "            agla dekh bhai;"
+            + "        } warna bhai {"
+            + "            bol bhai \"No Match\", i, j;"
+            + "        }"
+            + "    }"
+            + "    i = i + 1;"
+            + "}";
+
+    String lazy = TestHelper.runAndCaptureOutput(source);
+    BhaiLang.lazyBlocks = false;
+    String eager = TestHelper.runAndCaptureOutput(source);
+
+    assertEquals(eager, lazy);
+  }
+
+  @Test
+  public void testColdBlockIsNotParsed() {
+    String output =
+        TestHelper.runAndCaptureOutput(
+            "agar bhai (galat) {" + "    bol bhai ;" + "}" + "bol bhai 'done';");
+
+    assertEquals("done" + System.lineSeparator(), output);
+  }
+
+  @Test
+  public void testLazyBlockSeesEnclosingLocals() {
+    String output =
+        TestHelper.runAndCaptureOutput(
+            "bhai ye hai a = 'global';"
+                + "{"
+                + "    bhai ye hai a = 'local';"
+                + "    { bol bhai a; }"
+                + "    bhai ye hai b = 'later';"
+                + "}"
+                + "{ bol bhai a; }");
+
+    assertEquals("local" + System.lineSeparator() + "global" + System.lineSeparator(), output);
+  }
+
+  @Test
+  public void testSyntaxErrorStopsWhenBlockRuns() {
+    String output =
+        TestHelper.runAndCaptureOutput(
+            "bol bhai 1;" + "agar bhai (sahi) {" + "    bol bhai ;" + "}" + "bol bhai 2;");
+
+    assertEquals("1" + System.lineSeparator(), output);
+  }
+}
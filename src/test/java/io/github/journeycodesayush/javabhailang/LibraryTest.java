@@ -0,0 +1,142 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.output.StringCollectingOutput;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import org.junit.jupiter.api.Test;
+
+public class LibraryTest {
+
+  @Test
+  public void testMathKeepsIntegersExact() {
+    String output =
+        TestHelper.runEverywhere(
+            "bol bhai floor(2.5), ceil(2.1), round(-2.5), round(2.5), abs(-3), abs(-2.5);"
+                + "bol bhai mod(-1, 3), mod(7, -3), mod(5.5, 2), mod(1, 0);"
+                + "bol bhai pow(2, 10), pow(2, 0.5), pow(2, -1), pow(3, 39) - pow(3, 39);"
+                + "bol bhai min(3, 2.5), max(3, 2.5), min(1, 2), sqrt(16), exp(0), log(1);"
+                + "bhai ye hai xs = [10, 20, 30]; bol bhai xs[floor(5 / 2)], xs[mod(-1, 3)];");
+
+    assertEquals(
+        "2 3 -2 3 3 2.5\n2 -2 1.5 NaN\n1024 1.4142135623730951 0.5 0\n2.5 3 1 4 1 0\n30 30\n",
+        output);
+  }
+
+  @Test
+  public void testRoundsHalvesUpExactly() {
+    String output =
+        TestHelper.runEverywhere(
+            "bol bhai round(0.49999999999999994), round(0.5), round(-0.5), round(-1.5);"
+                + "bol bhai round(4503599627370497.0) == 4503599627370497, round(-4503599627370497.0);");
+
+    assertEquals("0 1 0 -1\nsahi -4.503599627370497E15\n", output);
+  }
+
+  @Test
+  public void testStringFunctions() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai s = 'Hello'; s += ', Duniya ';"
+                + "bol bhai upper(s), lower('ABC'), '[' + trim(s) + ']';"
+                + "bol bhai contains(s, 'Dun'), indexOf(s, 'l'), indexOf(s, 'z');"
+                + "bol bhai replace('a-b-c', '-', '+'), repeat('ab', 3), repeat('x', 0) == '';"
+                + "bol bhai split('a,b,,c', ','), split('xyz', ''), len(split('abc', ','));"
+                + "bol bhai join([1, 2.5, 'x', sahi], ' | '), str(12) + str(nalla);"
+                + "bol bhai num('42') + 1, num(' -1.5 '), num('abc'), num('1e5');");
+
+    assertEquals(
+        "HELLO, DUNIYA  abc [Hello, Duniya]\n"
+            + "sahi 2 -1\n"
+            + "a+b+c ababab sahi\n"
+            + "[a, b, , c] [x, y, z] 1\n"
+            + "1 | 2.5 | x | sahi 12nalla\n"
+            + "43 -1.5 nalla nalla\n",
+        output);
+  }
+
+  @Test
+  public void testSubstringAndSplit() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai line = 'naam=bhai;umar=30'; bhai ye hai fields = split(line, ';');"
+                + "bhai ye hai kv = split(fields[1], '=');"
+                + "bol bhai kv[0], num(kv[1]) + 1, kv[1] == '30', len(fields[0]);"
+                + "bol bhai substring(line, 5, 9), substring(line, 3, 3) == '', substring(line, 0, 17);"
+                + "bhai ye hai m = {}; m[substring('xbhaix', 1, 5)] = 1; bol bhai m['bhai'];"
+                + "bol bhai split(substring(line, 0, 9), '='), upper(substring(fields[0], 5, 9));");
+
+    assertEquals("umar 31 sahi 9\nbhai sahi naam=bhai;umar=30\n1\n[naam, bhai] BHAI\n", output);
+  }
+
+  private static String kind(Object value) {
+    return value.getClass().getSimpleName();
+  }
+
+  @Test
+  public void testSubstringAndSplitReturnSlices() throws ReflectiveOperationException {
+    StringCollectingOutput output = new StringCollectingOutput();
+    try (Interpreter interpreter = new Interpreter(output)) {
+      interpreter.bind(
+          "kind",
+          MethodHandles.lookup()
+              .findStatic(
+                  LibraryTest.class, "kind", MethodType.methodType(String.class, Object.class)));
+      BhaiLang.run(
+          "hi bhai\n"
+              + "bhai ye hai part = split('a,bb,c', ',')[1];"
+              + "bol bhai kind(part), kind(substring(substring('hello bhai', 2, 10), 4, 8));"
+              + "bol bhai kind(substring('abc', 0, 3)), kind(split(part, '')[0]);"
+              + "\nbye bhai",
+          interpreter);
+    }
+
+    assertEquals("Slice Slice\nString Slice\n", output.toString().replace("\r", ""));
+  }
+
+  @Test
+  public void testClocksMove() {
+    String output =
+        TestHelper.runAndCaptureOutput(
+            "bhai ye hai t = millis(); bhai ye hai i = 0;"
+                + "jab tak bhai (i < 1000) { i = i + 1; }"
+                + "bol bhai clock() > 1700000000, millis() >= t, millis() - t < 60000;");
+
+    assertEquals("sahi sahi sahi\n", output.replace("\r", ""));
+  }
+
+  @Test
+  public void testScriptsCanReplaceLibraryFunctions() {
+    String output =
+        TestHelper.runEverywhere(
+            "kaam bhai upper(s) { wapas kar bhai s + '!'; }"
+                + "bhai ye hai max = 3;"
+                + "bol bhai upper('a'), max;");
+
+    assertEquals("a! 3\n", output);
+  }
+
+  @Test
+  public void testRejectsBadArguments() {
+    String[] programs = {
+      "floor('1');",
+      "mod(1, nalla);",
+      "upper(1);",
+      "repeat('a', -1);",
+      "repeat('a', 1.5);",
+      "join('abc', ',');",
+      "split(nalla, ',');",
+      "substring('abc', 2, 1);",
+      "substring('abc', 0, 4);",
+      "substring(1, 0, 0);",
+      "min(1);"
+    };
+    for (String program : programs) {
+      // Every program fails before it reaches the print.
+      String output = TestHelper.runAndCaptureOutput(program + " bol bhai 'chal gaya';");
+      assertEquals("", output, program);
+    }
+  }
+}
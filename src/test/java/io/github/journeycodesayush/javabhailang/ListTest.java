@@ -0,0 +1,169 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.BhaiList;
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.ir.IrBuilder;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import org.junit.jupiter.api.Test;
+
+public class ListTest {
+
+  private static Object evaluate(String expression) {
+    Stmt.Expression stmt = (Stmt.Expression) TestHelper.parse(expression + ";").get(0);
+    return stmt.expression.accept(new Interpreter());
+  }
+
+  @Test
+  public void testParsesListsAndIndexes() {
+    Stmt.Expression stmt = (Stmt.Expression) TestHelper.parse("xs[i][0] += [1, 2][1];").get(0);
+    Expr.IndexAssign assign = assertInstanceOf(Expr.IndexAssign.class, stmt.expression);
+
+    assertEquals("+", assign.operator.getLexeme());
+    assertInstanceOf(Expr.Index.class, assign.object);
+    Expr.Index value = assertInstanceOf(Expr.Index.class, assign.value);
+    assertEquals(2, assertInstanceOf(Expr.ListLiteral.class, value.object).elements.size());
+    assertNull(IrBuilder.build(TestHelper.parse("bol bhai [];"), new Resolver().getSymbols()));
+  }
+
+  @Test
+  public void testNumericListsStayUnboxedUntilANonNumber() {
+    BhaiList numbers = (BhaiList) evaluate("[1.5, 2.5, -3.0]");
+    BhaiList integers = (BhaiList) evaluate("[1, 2, -3]");
+    BhaiList mixed = (BhaiList) evaluate("[1, 'do', nalla]");
+    BhaiList both = (BhaiList) evaluate("[1, 2.5]");
+    BhaiList huge = (BhaiList) evaluate("[9007199254740993]");
+
+    assertTrue(numbers.isNumeric());
+    assertEquals(3, numbers.size());
+    assertTrue(integers.isIntegral());
+    assertFalse(mixed.isNumeric() || mixed.isIntegral());
+    assertFalse(both.isNumeric() || both.isIntegral());
+    assertTrue(huge.isIntegral());
+    assertEquals("[1.5, 2.5, -3]", numbers.toString());
+    assertEquals("[1, 2, -3]", integers.toString());
+    assertEquals(9007199254740993L, evaluate("[9007199254740993][0]"));
+    assertEquals(2L, evaluate("[1, 2][1]"));
+    assertEquals(2.0, evaluate("[1.5, 2.0][1]"));
+    assertEquals(1L, evaluate("[1, 2.5][0]"));
+  }
+
+  @Test
+  public void testIntegerElementsStayExact() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai xs = [4611686018427387904]; bhai ye hai y = 4611686018427387904;"
+                + "bol bhai xs[0] + 1 - xs[0], y + 1 - y;"
+                + "bhai ye hai m = [0, 0.5]; m[2] = 9007199254740993;"
+                + "bol bhai m[0] + 9007199254740993 - 9007199254740993, m[2] - 9007199254740992;"
+                + "bhai ye hai zs = []; zs[0] = 0.5; zs[1] = 1; zs[0] = 3;"
+                + "bol bhai zs[1] + 9007199254740992 - 9007199254740991, zs;");
+
+    assertEquals("1 1\n0 1\n2 [3, 1]\n", output);
+  }
+
+  @Test
+  public void testReadsWritesAndAppends() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai xs = [10, 20, 30];"
+                + "xs[1] = 5; xs[2] += 1; xs[3] = 'char'; xs[0] *= 2;"
+                + "bol bhai xs, xs[3], xs[0] == 20;"
+                + "bhai ye hai grid = [[1, 2], [3, 4]]; grid[1][0] -= 10;"
+                + "bol bhai grid, grid[1][0] / 2, [];");
+
+    assertEquals("[20, 5, 31, char] char sahi\n[[1, 2], [-7, 4]] -3.5 []\n", output);
+  }
+
+  @Test
+  public void testBulkNumericWork() {
+    String output =
+        TestHelper.runEverywhere(
+            "{ bhai ye hai xs = []; bhai ye hai i = 0;"
+                + "jab tak bhai (i < 1000) { xs[i] = i * 0.5; i += 1; }"
+                + "bhai ye hai total = 0; bhai ye hai j = 0;"
+                + "jab tak bhai (j < 1000) { xs[j] += 1; total = total + xs[j]; j += 1; }"
+                + "bol bhai total, xs[999]; }");
+
+    assertEquals("250750 500.5\n", output);
+  }
+
+  @Test
+  public void testListsAreSharedAndComparedByIdentity() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai a = [1]; bhai ye hai b = a; b[0] = 2;"
+                + "bol bhai a, a == b, a == [2];"
+                + "a[1] = a; bol bhai a;");
+
+    assertEquals("[2] sahi galat\n[2, [...]]\n", output);
+  }
+
+  @Test
+  public void testOptimizersSeeElementsChange() {
+    String output =
+        TestHelper.runEverywhere(
+            "{ bhai ye hai xs = [1, 2]; bhai ye hai i = 0; bhai ye hai s = 0;"
+                + "jab tak bhai (i < 3) { s = s + xs[0] * 2; xs[0] = xs[0] + 1; i += 1; }"
+                + "bhai ye hai k = xs[1] * 3; xs[1] = 7; bol bhai s, k, xs[1] * 3; }");
+
+    assertEquals("12 6 21\n", output);
+  }
+
+  @Test
+  public void testConcatenatesWithStringsAfterEveryChange() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai xs = [1]; bol bhai 'xs = ' + xs + '!'; xs[0] = 2;"
+                + "bol bhai 'xs = ' + xs + '!', 'xs = ' + xs + '!';"
+                + "bhai ye hai m = {'a': 1}; bhai ye hai p = (x: 1); bhai ye hai i = 0;"
+                + "jab tak bhai (i < 2) { bol bhai 'm = ' + m + ';', 'p = ' + p + ';';"
+                + " m['a'] += 1; p.x += 1; i += 1; }"
+                + "bhai ye hai b = doubleBuffer(1); b[0] = 2.5; bol bhai 'b = ' + b;");
+
+    assertEquals(
+        "xs = [1]!\nxs = [2]! xs = [2]!\nm = {a: 1}; p = (x: 1);\nm = {a: 2}; p = (x: 2);\n"
+            + "b = <double buffer of size 1>\n",
+        output);
+  }
+
+  @Test
+  public void testAddingListsIsAScriptError() {
+    for (BhaiLang.Engine engine : BhaiLang.Engine.values()) {
+      String errors =
+          TestHelper.runAndCaptureErrors(
+              engine, "bhai ye hai xs = [1];\nbol bhai 'pehle';\nbol bhai xs + [2];");
+
+      assertEquals(
+          "Operands must be two numbers or strings.\n[line 3]\n", errors, engine.toString());
+      assertTrue(BhaiLang.hadRuntimeError, engine.toString());
+    }
+  }
+
+  @Test
+  public void testRejectsBadIndexes() {
+    String[] programs = {
+      "bhai ye hai xs = [1]; bol bhai xs[1];",
+      "bhai ye hai xs = [1]; xs[2] = 0;",
+      "bhai ye hai xs = [1]; bol bhai xs[-1];",
+      "bhai ye hai xs = [1]; bol bhai xs[0.5];",
+      "bhai ye hai xs = [1]; bol bhai xs['0'];",
+      "bhai ye hai n = 5; bol bhai n[0];",
+      "bhai ye hai xs = [1]; xs[1] += 1;"
+    };
+    for (String program : programs) {
+      TestHelper.runAndCaptureOutput(program);
+      assertTrue(BhaiLang.hadRuntimeError, program);
+    }
+
+    TestHelper.runAndCaptureOutput("bhai ye hai xs = [1; bol bhai xs;");
+    assertTrue(BhaiLang.hadError);
+  }
+}
@@ -0,0 +1,94 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class LoopInvariantHoistingTest {
+
+  @Test
+  public void testHoistsInvariantExpressions() {
+    List<Stmt> statements =
+        TestHelper.optimize(
+            "bhai ye hai n = 3;"
+                + "n += 1;"
+                + "bhai ye hai i = 0;"
+                + "jab tak bhai (i < n * 2) { bol bhai i + n * n; i += 1; }");
+
+    Stmt.Block block = assertInstanceOf(Stmt.Block.class, statements.get(3));
+    assertEquals(3, block.statements.size());
+    Stmt.While loop = assertInstanceOf(Stmt.While.class, block.statements.get(2));
+    Expr.Binary condition = assertInstanceOf(Expr.Binary.class, loop.condition);
+    assertInstanceOf(Expr.Variable.class, condition.left);
+    assertInstanceOf(Expr.Cached.class, condition.right);
+  }
+
+  @Test
+  public void testDoesNotHoistVariablesAssignedInLoop() {
+    List<Stmt> statements =
+        TestHelper.optimize("bhai ye hai i = 0;" + "jab tak bhai (i * 2 < 10) { i += 1; }");
+
+    assertInstanceOf(Stmt.While.class, statements.get(1));
+  }
+
+  @Test
+  public void testHoistsToOutermostInvariantLoop() {
+    List<Stmt> statements =
+        TestHelper.optimize(
+            "bhai ye hai limit = 2;"
+                + "limit += 1;"
+                + "bhai ye hai i = 0;"
+                + "jab tak bhai (i < 3) {"
+                + "    bhai ye hai j = 0;"
+                + "    jab tak bhai (j < limit * 2) { j += 1; }"
+                + "    i += 1;"
+                + "}");
+
+    Stmt.Block outer = assertInstanceOf(Stmt.Block.class, statements.get(3));
+    assertEquals(2, outer.statements.size());
+    Stmt.While loop = assertInstanceOf(Stmt.While.class, outer.statements.get(1));
+    Stmt.Block body = assertInstanceOf(Stmt.Block.class, loop.body);
+    assertInstanceOf(Stmt.While.class, body.statements.get(1));
+  }
+
+  @Test
+  public void testNestedLoopsMatchUnoptimizedOutput() {
+    TestHelper.runEverywhere(
+        "bhai ye hai threshold = 4;"
+            + "threshold -= 1;"
+            + "bhai ye hai label = 'row';"
+            + "label += ':';"
+            + "bhai ye hai i = 0;"
+            + "jab tak bhai (i < threshold + 1) {"
+            + "    bhai ye hai j = 0;"
+            + "    jab tak bhai (j < threshold * 2) {"
+            + "        agar bhai (j + i > threshold - 1) { bas kar bhai; }"
+            + "        j += 1;"
+            + "    }"
+            + "    bol bhai label + ' ', i, j, -threshold;"
+            + "    i += 1;"
+            + "}");
+  }
+
+  @Test
+  public void testErrorIsRaisedOnFirstUseNotBeforeLoop() {
+    String source =
+        "bhai ye hai missing = nalla;"
+            + "missing = nalla;"
+            + "bhai ye hai i = 0;"
+            + "jab tak bhai (i < 5) {"
+            + "    bol bhai i;"
+            + "    agar bhai (i == 2) { bol bhai missing + 1; }"
+            + "    i += 1;"
+            + "}";
+
+    assertEquals(
+        "0" + System.lineSeparator() + "1" + System.lineSeparator() + "2" + System.lineSeparator(),
+        TestHelper.runAndCaptureOutput(source));
+    TestHelper.runEverywhere(source);
+  }
+}
@@ -0,0 +1,118 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.BhaiMap;
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import org.junit.jupiter.api.Test;
+
+public class MapTest {
+
+  private static Object evaluate(String expression) {
+    Stmt.Expression stmt = (Stmt.Expression) TestHelper.parse("(" + expression + ");").get(0);
+    return stmt.expression.accept(new Interpreter());
+  }
+
+  @Test
+  public void testParsesMapLiterals() {
+    Stmt.Var stmt = (Stmt.Var) TestHelper.parse("bhai ye hai m = {'a': 1, 2: [3]};").get(0);
+    Expr.MapLiteral map = assertInstanceOf(Expr.MapLiteral.class, stmt.initializer);
+
+    assertEquals(2, map.keys.size());
+    assertInstanceOf(Expr.ListLiteral.class, map.values.get(1));
+    assertEquals(0, ((BhaiMap) evaluate("{}")).size());
+  }
+
+  @Test
+  public void testLooksUpAddsAndUpdates() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai m = {'ek': 1, 'do': 2};"
+                + "m['teen'] = 3; m['ek'] += 10; m['do'] = 'two';"
+                + "bol bhai m, m['ek'], m['chaar'];"
+                + "bhai ye hai k = 'te' + 'en'; bol bhai m[k];");
+
+    assertEquals("{ek: 11, do: two, teen: 3} 11 nalla\n3\n", output);
+  }
+
+  @Test
+  public void testKeysFollowValueEquality() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai m = {1: 'int', 0.5: 'half', sahi: 'bool'};"
+                + "m[1.0] = 'same'; m[-0] = 'minus zero'; m[0] = 'zero';"
+                + "bhai ye hai xs = [1]; m[xs] = 'list';"
+                + "bol bhai m[1], m[2 / 4], m[sahi], m[0], m[-0], m[xs], m[[1]];");
+
+    assertEquals("same half bool zero minus zero list nalla\n", output);
+  }
+
+  @Test
+  public void testManyKeys() {
+    String output =
+        TestHelper.runEverywhere(
+            "{ bhai ye hai m = {}; bhai ye hai i = 0;"
+                + "jab tak bhai (i < 5000) { m[i] = i * 2; m['k' + i] = i; i += 1; }"
+                + "bhai ye hai total = 0; bhai ye hai j = 0;"
+                + "jab tak bhai (j < 5000) { total = total + m[j] + m['k' + j]; j += 1; }"
+                + "bol bhai total, m[4999], m['k4999'], m[5000]; }");
+
+    assertEquals("3.74925E7 9998 4999 nalla\n", output);
+  }
+
+  @Test
+  public void testCountsWords() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai counts = {}; bhai ye hai words = ['a', 'b', 'a', 'c', 'a', 'b'];"
+                + "ginti bhai (i = 0 se 6) {"
+                + "  agar bhai (counts[words[i]] == nalla) { counts[words[i]] = 0; }"
+                + "  counts[words[i]] += 1;"
+                + "}"
+                + "bol bhai counts;");
+
+    assertEquals("{a: 3, b: 2, c: 1}\n", output);
+  }
+
+  @Test
+  public void testAddingToMapsIsAScriptError() {
+    String[] programs = {
+      "bhai ye hai m = {};\nbol bhai 'pehle';\nbol bhai m + 1;",
+      "bhai ye hai p = (x: 1);\nbol bhai 'pehle';\nbol bhai p + 1;",
+      "kaam bhai f() { wapas kar bhai 1; }\nbol bhai 'pehle';\nbol bhai f + 1;",
+      "bhai ye hai b = sahi;\nbol bhai 'pehle';\nbol bhai b + 1;"
+    };
+    for (String program : programs) {
+      for (BhaiLang.Engine engine : BhaiLang.Engine.values()) {
+        String errors = TestHelper.runAndCaptureErrors(engine, program);
+
+        assertEquals(
+            "Operands must be two numbers or strings.\n[line 3]\n", errors, engine + program);
+      }
+    }
+  }
+
+  @Test
+  public void testRejectsBadKeysAndTargets() {
+    String[] programs = {
+      "bhai ye hai m = {}; m[nalla] = 1;",
+      "bhai ye hai m = {nalla: 1};",
+      "bhai ye hai m = {}; m['x'] += 1;",
+      "bhai ye hai s = 'abc'; bol bhai s[0];"
+    };
+    for (String program : programs) {
+      // Every program fails before it reaches the print.
+      String output = TestHelper.runAndCaptureOutput(program + " bol bhai 'chal gaya';");
+      assertEquals("", output, program);
+    }
+
+    TestHelper.runAndCaptureOutput("bhai ye hai m = {'a' 1};");
+    assertTrue(BhaiLang.hadError);
+    assertNull(evaluate("{'a': 1}['b']"));
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.interpreter.MemoCache;
+import io.github.journeycodesayush.javabhailang.output.StringCollectingOutput;
+import org.junit.jupiter.api.Test;
+
+public class MemoTest {
+
+  @Test
+  public void testRunsEachCallOnce() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai calls = 0;"
+                + "kaam bhai fib(n) { calls += 1; agar bhai (n < 2) { wapas kar bhai n; }"
+                + " wapas kar bhai fib(n - 1) + fib(n - 2); }"
+                + "fib = memo(fib);"
+                + "bol bhai fib(30), calls, memoStats();"
+                + "bol bhai fib(30), calls, memoStats().hits;");
+
+    assertEquals(
+        "832040 31 (hits: 28, misses: 31, size: 31, capacity: 10000)\n832040 31 29\n", output);
+  }
+
+  @Test
+  public void testKeysAreBhaiLangValues() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai calls = 0;"
+                + "kaam bhai f(x) { calls += 1; agar bhai (x == 'nalla') { wapas kar bhai nalla; }"
+                + " wapas kar bhai [x]; }"
+                + "bhai ye hai g = memo(f); bhai ye hai s = 'na'; s += 'lla';"
+                + "bol bhai g(2), g(2.0), g(s), g('nalla'), calls;"
+                + "bhai ye hai a = [1]; bhai ye hai b = [1];"
+                + "bol bhai g(a), g(b), g(a), g(2) == g(2), calls;"
+                + "bhai ye hai r = memo(sqrt); bol bhai r(16), r(16.0), memo(g)(2), g;");
+
+    assertEquals(
+        "[2] [2] nalla nalla 2\n[[1]] [[1]] [[1]] sahi 4\n4 4 [2] <memo <kaam f>>\n", output);
+  }
+
+  @Test
+  public void testEvictsTheLeastRecentlyUsedResult() {
+    StringCollectingOutput output = new StringCollectingOutput();
+    try (Interpreter interpreter = new Interpreter(output)) {
+      MemoCache cache = interpreter.memoCache();
+      cache.setCapacity(2);
+      BhaiLang.run(
+          "hi bhai\n"
+              + "bhai ye hai calls = 0;"
+              + "kaam bhai f(x) { calls += 1; wapas kar bhai x * 10; } f = memo(f);"
+              + "f(1); f(2); f(1); f(3); bol bhai calls;"
+              + "f(1); bol bhai calls; f(2); bol bhai calls, memoStats();"
+              + "\nbye bhai",
+          interpreter);
+
+      assertEquals(
+          "3\n3\n4 (hits: 2, misses: 4, size: 2, capacity: 2)\n",
+          output.toString().replace("\r", ""));
+      assertEquals(2, cache.hits());
+
+      cache.setCapacity(1);
+      assertEquals(1, cache.size());
+      cache.setCapacity(0);
+      int printed = output.toString().length();
+      BhaiLang.run("hi bhai\nf(5); f(5); bol bhai calls, memoStats().size;\nbye bhai", interpreter);
+      assertEquals("6 0\n", output.toString().substring(printed).replace("\r", ""));
+
+      cache.clear();
+      assertEquals(0, cache.misses());
+      assertThrows(IllegalArgumentException.class, () -> cache.setCapacity(-1));
+    }
+  }
+
+  @Test
+  public void testRejectsNonFunctions() {
+    String[] programs = {
+      "memo(5);",
+      "memo(nalla);",
+      "kaam bhai f(x) { wapas kar bhai x; } memo(f)();",
+      "kaam bhai f(x) { wapas kar bhai x + nalla; } memo(f)(1);"
+    };
+    for (String program : programs) {
+      // Every program fails before it reaches the print.
+      String output = TestHelper.runAndCaptureOutput(program + " bol bhai 'chal gaya';");
+      assertEquals("", output, program);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.ir.IrBuilder;
+import io.github.journeycodesayush.javabhailang.output.StringCollectingOutput;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class NanBoxTest {
+
+  private static void run(Interpreter interpreter, BhaiLang.Engine engine, String source) {
+    List<Stmt> statements = TestHelper.parse(source);
+    Resolver resolver = new Resolver(interpreter);
+    resolver.resolve(statements);
+    if (engine == BhaiLang.Engine.AST) {
+      interpreter.interpret(statements);
+      return;
+    }
+    BhaiLang.Engine saved = BhaiLang.engine;
+    try {
+      BhaiLang.engine = engine;
+      interpreter.interpret(IrBuilder.build(statements, resolver.getSymbols()));
+    } finally {
+      BhaiLang.engine = saved;
+    }
+  }
+
+  @Test
+  public void testNumbersMatchBoxedValues() {
+    TestHelper.runEverywhere(
+        "bhai ye hai zero = 0; bhai ye hai negative = -zero;"
+            + "bol bhai zero == negative, zero / zero == zero / zero, 1 / zero, -1 / zero;"
+            + "bol bhai zero / zero, -(zero / zero), 0.1 + 0.2, 1e0 == 1, 3 / 2;"
+            + "bol bhai !zero, !negative, !(zero / zero), !'', !nalla, !sahi;");
+  }
+
+  @Test
+  public void testTagsMatchBoxedValues() {
+    TestHelper.runEverywhere(
+        "bhai ye hai a = sahi; bhai ye hai b = galat; bhai ye hai c = nalla; bhai ye hai s = 'sahi';"
+            + "bol bhai a, b, c, s, a == s, a == sahi, c == nalla, c == galat, b == 0, s == 'sahi';"
+            + "bol bhai a && 'yes', c || b || 'last', 'n: ' + c, s + 1, 1 + s;");
+  }
+
+  @Test
+  public void testLoopsCollectStaleStrings() {
+    TestHelper.runEverywhere(
+        "bhai ye hai report = ''; bhai ye hai i = 0;"
+            + "jab tak bhai (i < 300) {"
+            + "  bhai ye hai line = 'line ' + i;"
+            + "  agar bhai (i == 150) { report = line; }"
+            + "  nahi to bhai (i > 290) { report = report + ', ' + line; }"
+            + "  i += 1;"
+            + "}"
+            + "bol bhai report, report == 'line 150, line 291, line 292, line 293, line 294, "
+            + "line 295, line 296, line 297, line 298, line 299';");
+  }
+
+  @Test
+  public void testErrorsMatchBoxedValues() {
+    TestHelper.runEverywhere(
+        "bhai ye hai n = nalla; bol bhai 'before'; bol bhai 1 + n; bol bhai 'after';");
+    TestHelper.runEverywhere("bol bhai 'start'; bol bhai 'x' > 1;");
+    TestHelper.runEverywhere("bol bhai 'start'; missing = 2;");
+    TestHelper.runEverywhere("{ bhai ye hai s = 'x'; bol bhai -s; }");
+  }
+
+  @Test
+  public void testGlobalsAreSharedWithTheInterpreter() {
+    StringCollectingOutput output = new StringCollectingOutput();
+    Interpreter interpreter = new Interpreter(output);
+
+    run(interpreter, BhaiLang.Engine.NANBOX, "bhai ye hai name = 'bhai'; bhai ye hai count = 1;");
+    run(interpreter, BhaiLang.Engine.NANBOX, "count += 1; bhai ye hai flag = count > 1 && nalla;");
+    run(interpreter, BhaiLang.Engine.AST, "bol bhai name, count, flag;");
+
+    assertEquals("bhai 2 nalla", output.toString().trim());
+  }
+}
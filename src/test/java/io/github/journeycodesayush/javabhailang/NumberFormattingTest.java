@@ -0,0 +1,86 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Values;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class NumberFormattingTest {
+
+  /** The formatting numbers had before printing wrote them straight into the line buffer. */
+  private static String reference(double number) {
+    String text = Double.toString(number);
+    if (text.endsWith(".0")) text = text.substring(0, text.length() - 2);
+    return text;
+  }
+
+  private static void assertFormatsLikeBefore(double number) {
+    assertEquals(
+        reference(number), Values.stringify(number), "bits " + Double.doubleToRawLongBits(number));
+  }
+
+  @Test
+  public void testSpecialNumbers() {
+    double[] numbers = {
+      0,
+      -0.0,
+      1,
+      -1,
+      0.5,
+      -0.5,
+      0.1 + 0.2,
+      1e-3,
+      9.99e-4,
+      1e-4,
+      123456.0,
+      9_999_999.0,
+      1e7,
+      -1e7,
+      1e7 + 1,
+      12_345_678.0,
+      1e16,
+      1e21,
+      1e22,
+      9.007199254740993e15,
+      4.35,
+      100.25,
+      Long.MAX_VALUE,
+      Long.MIN_VALUE,
+      Double.MAX_VALUE,
+      Double.MIN_VALUE,
+      Double.MIN_NORMAL,
+      Double.NaN,
+      Double.POSITIVE_INFINITY,
+      Double.NEGATIVE_INFINITY
+    };
+    for (double number : numbers) {
+      assertFormatsLikeBefore(number);
+    }
+  }
+
+  @Test
+  public void testRandomNumbers() {
+    Random random = new Random(39);
+    for (int i = 0; i < 20_000; i++) {
+      assertFormatsLikeBefore(Double.longBitsToDouble(random.nextLong()));
+      assertFormatsLikeBefore(random.nextInt(20_000_000) - 10_000_000);
+      assertFormatsLikeBefore(random.nextInt(100_000) / 100.0);
+    }
+  }
+
+  @Test
+  public void testPrintedLinesMatch() {
+    String output =
+        TestHelper.runAndCaptureOutput(
+            "bol bhai 7, -0, 2.5, 1 / 0, 10000000, 0.0001;"
+                + "bol bhai '  padded  ';"
+                + "bol bhai '  first', 'last  ';"
+                + "bol bhai '', 'x', '';"
+                + "bol bhai nalla, sahi, galat, 'n' + 1.50;");
+
+    assertEquals(
+        "7 -0 2.5 Infinity 1.0E7 1.0E-4\n  padded  \nfirst last\nx\nnalla sahi galat n1.5\n",
+        output.replace("\r", ""));
+  }
+}
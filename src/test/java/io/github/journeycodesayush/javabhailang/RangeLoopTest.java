@@ -0,0 +1,149 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.ir.IrBuilder;
+import io.github.journeycodesayush.javabhailang.output.StringCollectingOutput;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import io.github.journeycodesayush.javabhailang.resolver.TypeInference;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+public class RangeLoopTest {
+
+  @Test
+  public void testParsesCountedLoops() {
+    Stmt.Range up =
+        assertInstanceOf(Stmt.Range.class, TestHelper.parse("ginti bhai (i = 0 se 10) {}").get(0));
+    Stmt.Range down =
+        assertInstanceOf(
+            Stmt.Range.class, TestHelper.parse("ginti bhai (i = 10 se 0, -2.5) {}").get(0));
+
+    assertEquals("i", up.counter.name.getLexeme());
+    assertEquals(1L, up.step);
+    assertEquals(-2.5, down.step);
+  }
+
+  @Test
+  public void testCountsUpAndDown() {
+    String output =
+        TestHelper.runEverywhere(
+            "ginti bhai (i = 0 se 4) { bol bhai i; }"
+                + "ginti bhai (i = 10 se 0, -4) bol bhai 'down', i;"
+                + "ginti bhai (x = 0.5 se 2) { bol bhai x; }"
+                + "ginti bhai (q = 1 se 2.5) { bol bhai q; }"
+                + "ginti bhai (e = 5 se 5) { bol bhai 'never'; }");
+
+    assertEquals("0\n1\n2\n3\ndown 10\ndown 6\ndown 2\n0.5\n1.5\n1\n2\n", output);
+  }
+
+  @Test
+  public void testEndIsEvaluatedOnce() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai n = 3; bhai ye hai reads = 0;"
+                + "ginti bhai (i = 0 se (reads += 1) + n) { n = 100; bol bhai i; }"
+                + "bol bhai reads, n;");
+
+    assertEquals("0\n1\n2\n3\n1 100\n", output);
+  }
+
+  @Test
+  public void testBreakContinueAndNesting() {
+    String output =
+        TestHelper.runEverywhere(
+            "{ bhai ye hai total = 0;"
+                + "ginti bhai (i = 0 se 10, 2) {"
+                + "  agar bhai (i == 4) { agla dekh bhai; }"
+                + "  agar bhai (i == 8) { bas kar bhai; }"
+                + "  ginti bhai (j = 0 se i) { total += j; }"
+                + "}"
+                + "bol bhai total; }");
+
+    // i = 0, 2 and 6 run: 0 + (0 + 1) + (0 + 1 + 2 + 3 + 4 + 5).
+    assertEquals("16\n", output);
+  }
+
+  @Test
+  public void testAssigningTheCounterDoesNotChangeIterations() {
+    String output = TestHelper.runEverywhere("ginti bhai (m = 0 se 3) { m = m * 10; bol bhai m; }");
+
+    assertEquals("0\n10\n20\n", output);
+  }
+
+  @Test
+  public void testSeStaysAName() {
+    String output =
+        TestHelper.runEverywhere("bhai ye hai se = 2; ginti bhai (z = se se se + 2) bol bhai z;");
+
+    assertEquals("2\n3\n", output);
+  }
+
+  @Test
+  public void testLowersToIrUnlessTheCounterIsAssigned() {
+    List<Stmt> counted = TestHelper.parse("ginti bhai (i = 0 se 3) { bol bhai i; }");
+    Resolver resolver = new Resolver();
+    resolver.resolve(counted);
+    assertNotNull(IrBuilder.build(counted, resolver.getSymbols()));
+
+    List<Stmt> assigned = TestHelper.parse("ginti bhai (i = 0 se 3) { i = 5; }");
+    resolver = new Resolver();
+    resolver.resolve(assigned);
+    assertNull(IrBuilder.build(assigned, resolver.getSymbols()));
+  }
+
+  @Test
+  public void testIntegerCountersGetIntegerSlots() {
+    List<Stmt> statements =
+        TestHelper.parse(
+            "{ ginti bhai (i = 0 se 3) { bol bhai i; }"
+                + "ginti bhai (j = 0 se 3, 0.5) { bol bhai j; }"
+                + "ginti bhai (k = 0 se 3) { k = 'x'; } }");
+    Set<String> names = new TreeSet<>();
+    Interpreter interpreter =
+        new Interpreter(new StringCollectingOutput()) {
+          @Override
+          public void unboxInteger(Stmt.Var stmt, int slot) {
+            names.add(stmt.name.getLexeme());
+          }
+        };
+    Resolver resolver = new Resolver(interpreter);
+    resolver.resolve(statements);
+    new TypeInference(resolver.getSymbols(), interpreter).infer(statements);
+
+    assertEquals(Set.of("i"), names);
+  }
+
+  @Test
+  public void testIntegerCountersStayExactUpToTheirLastValue() {
+    String source =
+        "{ ginti bhai (i = 9223372036854775804 se 9223372036854775807, 2) {"
+            + "  bhai ye hai j = i + 1; bol bhai i - 9223372036854775800, j - 9223372036854775800;"
+            + "}"
+            + "ginti bhai (i = 0 se 3) {"
+            + "  bhai ye hai k = 9223372036854775806 + i; bol bhai k == 9223372036854775807, k * 0;"
+            + "} }";
+
+    assertEquals(TestHelper.runUnoptimized(source), TestHelper.runEverywhere(source));
+    assertEquals("4 5\n6 7\ngalat 0\nsahi 0\ngalat 0\n", TestHelper.runEverywhere(source));
+  }
+
+  @Test
+  public void testRejectsBadRanges() {
+    TestHelper.runAndCaptureOutput("ginti bhai (i = 0 se 3, 0) { bol bhai i; }");
+    assertTrue(BhaiLang.hadError);
+
+    for (BhaiLang.Engine engine : BhaiLang.Engine.values()) {
+      TestHelper.runWith(engine, true, "ginti bhai (i = 'a' se 3) { bol bhai i; }");
+      assertTrue(BhaiLang.hadRuntimeError, engine.toString());
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.BhaiRecord;
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.parser.Expr;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import org.junit.jupiter.api.Test;
+
+public class RecordTest {
+
+  private static Object evaluate(String expression) {
+    Stmt.Expression stmt = (Stmt.Expression) TestHelper.parse("(" + expression + ");").get(0);
+    return stmt.expression.accept(new Interpreter());
+  }
+
+  @Test
+  public void testParsesRecordsAndFields() {
+    Stmt.Var stmt = (Stmt.Var) TestHelper.parse("bhai ye hai p = (x: 1, y: (a: 2));").get(0);
+    Expr.RecordLiteral record = assertInstanceOf(Expr.RecordLiteral.class, stmt.initializer);
+    assertEquals("y", record.names.get(1).getLexeme());
+    assertInstanceOf(Expr.RecordLiteral.class, record.values.get(1));
+
+    Stmt.Expression grouping = (Stmt.Expression) TestHelper.parse("(x);").get(0);
+    assertInstanceOf(Expr.Grouping.class, grouping.expression);
+
+    Stmt.Expression set = (Stmt.Expression) TestHelper.parse("p.y.a += 3;").get(0);
+    Expr.Set assign = assertInstanceOf(Expr.Set.class, set.expression);
+    assertEquals("a", assign.name.getLexeme());
+    assertInstanceOf(Expr.Get.class, assign.object);
+
+    TestHelper.runAndCaptureOutput("bhai ye hai p = (x: 1, x: 2);");
+    assertTrue(BhaiLang.hadError);
+  }
+
+  @Test
+  public void testReadsAndAssignsFields() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai p = (x: 1, y: 2, label: 'a');"
+                + "p.x = 10; p.y *= 3; p.label += 'b';"
+                + "bhai ye hai line = (from: p, to: (x: 0, y: 0));"
+                + "line.to.x = p.x + p.y;"
+                + "bol bhai p.x, p.y, p.label, line.to.x;"
+                + "bol bhai line;");
+
+    assertEquals("10 6 ab 16\n(from: (x: 10, y: 6, label: ab), to: (x: 16, y: 0))\n", output);
+  }
+
+  @Test
+  public void testRecordsWithTheSameFieldsShareAShape() {
+    BhaiRecord first = (BhaiRecord) evaluate("(x: 1, y: 2)");
+    BhaiRecord second = (BhaiRecord) evaluate("(x: 'a', y: nalla)");
+    BhaiRecord swapped = (BhaiRecord) evaluate("(y: 1, x: 2)");
+
+    assertTrue(first.hasSameShape(second));
+    assertFalse(first.hasSameShape(swapped));
+    assertEquals(2L, swapped.get("x"));
+  }
+
+  @Test
+  public void testFieldAccessFollowsChangingShapes() {
+    String output =
+        TestHelper.runEverywhere(
+            "bhai ye hai rs = [(x: 1, y: 2), (y: 3, x: 4), (x: 5, y: 6), (z: 0, x: 7)];"
+                + "bhai ye hai total = 0;"
+                + "ginti bhai (i = 0 se 4) { rs[i].x += 100; total = total + rs[i].x; }"
+                + "bol bhai total, rs[1];");
+
+    assertEquals("417 (y: 3, x: 104)\n", output);
+  }
+
+  @Test
+  public void testRejectsMissingFieldsAndNonRecords() {
+    String[] programs = {
+      "bhai ye hai p = (x: 1); bol bhai p.y;",
+      "bhai ye hai p = (x: 1); p.y = 2;",
+      "bhai ye hai n = 5; bol bhai n.x;",
+      "bhai ye hai n = nalla; bol bhai n.x;",
+      "bhai ye hai p = (x: 1); p.x += nalla;"
+    };
+    for (String program : programs) {
+      // Every program fails before it reaches the print.
+      String output = TestHelper.runAndCaptureOutput(program + " bol bhai 'chal gaya';");
+      assertEquals("", output, program);
+    }
+  }
+}
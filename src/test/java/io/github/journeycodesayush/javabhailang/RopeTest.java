@@ -0,0 +1,92 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Rope;
+import io.github.journeycodesayush.javabhailang.interpreter.Values;
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import org.junit.jupiter.api.Test;
+
+public class RopeTest {
+
+  private static final Token PLUS = new Token(TokenType.PLUS, "+", null, 1);
+
+  private static Object plus(Object left, Object right) {
+    return Values.binary(PLUS, left, right);
+  }
+
+  @Test
+  public void testLongConcatenationsBecomeRopes() {
+    String base = "x".repeat(60);
+
+    assertInstanceOf(String.class, plus("ab", "cd"));
+    Object rope = plus(base, "12345");
+    assertInstanceOf(Rope.class, rope);
+    assertEquals(base + "12345", Values.stringify(rope));
+    assertEquals(base + "12345sahi", Values.stringify(plus(rope, true)));
+    assertEquals(base + "123451.5", Values.stringify(plus(rope, 1.5)));
+    assertEquals("nalla? " + base + "12345", Values.stringify(plus("nalla? ", rope)));
+  }
+
+  @Test
+  public void testAppendingToAnOlderRopeLeavesOthersIntact() {
+    Object base = plus("y".repeat(70), "!");
+    Object first = plus(base, "first");
+    Object second = plus(base, "second");
+    Object third = plus(first, "third");
+
+    assertEquals("y".repeat(70) + "!", Values.stringify(base));
+    assertEquals("y".repeat(70) + "!first", Values.stringify(first));
+    assertEquals("y".repeat(70) + "!second", Values.stringify(second));
+    assertEquals("y".repeat(70) + "!firstthird", Values.stringify(third));
+  }
+
+  @Test
+  public void testPrependingCopiesOnlyTheRopesOwnCharacters() {
+    Object base = plus("w".repeat(70), "!");
+    Object longer = plus(base, "tail");
+    Object prepended = plus("<", base);
+
+    assertInstanceOf(Rope.class, prepended);
+    assertEquals("<" + "w".repeat(70) + "!", Values.stringify(prepended));
+    assertEquals("<<" + "w".repeat(70) + "!tail", Values.stringify(plus("<", plus("<", longer))));
+  }
+
+  @Test
+  public void testRopesEqualTheirStrings() {
+    String text = "z".repeat(80);
+    Object rope = plus("z".repeat(40), "z".repeat(40));
+
+    assertTrue(Values.isEqual(rope, text));
+    assertTrue(Values.isEqual(text, rope));
+    assertTrue(Values.isEqual(rope, plus("z".repeat(79), "z")));
+    assertEquals(false, Values.isEqual(rope, plus("z".repeat(79), "y")));
+    assertEquals(text.hashCode(), rope.hashCode());
+    assertEquals(text, Values.flatten(rope));
+  }
+
+  @Test
+  public void testLoopsBuildTheSameStringOnEveryEngine() {
+    String source =
+        "bhai ye hai report = ''; bhai ye hai i = 0;"
+            + "jab tak bhai (i < 2000) { report = report + i + ','; i += 1; }"
+            + "bhai ye hai tail = report + 'end';"
+            + "bol bhai tail == report + 'end', report == tail, report + '' == report;"
+            + "agar bhai (report == 'a') { bol bhai 'a'; }"
+            + "nahi to bhai (report == 'b') { bol bhai 'b'; }"
+            + "nahi to bhai (report == 'c') { bol bhai 'c'; }"
+            + "nahi to bhai (report == tail) { bol bhai 'tail'; }"
+            + "warna bhai { bol bhai 'none'; }"
+            + "bol bhai tail;";
+
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      expected.append(i).append(',');
+    }
+    String output = TestHelper.runEverywhere(source);
+    assertEquals("sahi galat sahi\nnone\n" + expected + "end", output.trim());
+  }
+}
@@ -0,0 +1,96 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.lexer.Scanner;
+import io.github.journeycodesayush.javabhailang.output.StringCollectingOutput;
+import io.github.journeycodesayush.javabhailang.parser.Parser;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ScopeElisionTest {
+
+  private static List<Integer> elidedSizes(String source) {
+    List<Integer> sizes = new ArrayList<>();
+    Interpreter interpreter =
+        new Interpreter(new StringCollectingOutput()) {
+          @Override
+          public void elide(Stmt.Block block) {
+            sizes.add(block.statements.size());
+          }
+        };
+
+    List<Stmt> statements =
+        new Parser(new Scanner("hi bhai\n" + source + "\nbye bhai").scanTokens()).parse();
+    new Resolver(interpreter).resolve(statements);
+    return sizes;
+  }
+
+  @Test
+  public void testOnlyBlocksWithoutDeclarationsAreElided() {
+    List<Integer> sizes =
+        elidedSizes(
+            "bhai ye hai i = 0;"
+                + "jab tak bhai (i < 3) { i += 1; bol bhai i; }"
+                + "{ bhai ye hai x = 1; agar bhai (x) { bol bhai x; } }"
+                + "{ { bhai ye hai y = 2; } }");
+
+    assertEquals(List.of(2, 1, 1), sizes);
+  }
+
+  @Test
+  public void testVariablesResolveThroughElidedBlocks() {
+    String source =
+        "{"
+            + "  bhai ye hai a = 1;"
+            + "  { { a = a + 1; { bhai ye hai a = 10; { bol bhai a; } } bol bhai a; } }"
+            + "  bhai ye hai i = 0;"
+            + "  jab tak bhai (i < 3) { { i += 1; } agar bhai (i == 2) { agla dekh bhai; } bol bhai i; }"
+            + "}";
+
+    assertEquals("10\n2\n1\n3", TestHelper.runAndCaptureOutput(source).trim().replace("\r", ""));
+  }
+
+  @Test
+  public void testLoopBodiesStartWithAFreshFrame() {
+    String source =
+        "bhai ye hai i = 0;"
+            + "jab tak bhai (i < 4) {"
+            + "  i += 1;"
+            + "  agar bhai (i == 2) { agla dekh bhai; }"
+            + "  bhai ye hai label = 'run ' + i;"
+            + "  bhai ye hai n = i * 2;"
+            + "  agar bhai (i == 4) { bas kar bhai; }"
+            + "  bol bhai label, n;"
+            + "}"
+            + "bol bhai i;";
+
+    String expected = "run 1 2\nrun 3 6\n4";
+    assertEquals(expected, TestHelper.runAndCaptureOutput(source).trim().replace("\r", ""));
+    assertEquals(expected, TestHelper.runUnoptimized(source).trim().replace("\r", ""));
+    assertEquals(expected, TestHelper.runLazily(source).trim().replace("\r", ""));
+  }
+
+  @Test
+  public void testNestedLoopsKeepTheirOwnFrames() {
+    String source =
+        "{"
+            + "  bhai ye hai i = 0;"
+            + "  jab tak bhai (i < 2) {"
+            + "    bhai ye hai outer = 'o' + i;"
+            + "    bhai ye hai j = 0;"
+            + "    jab tak bhai (j < 2) { bhai ye hai inner = outer + j; bol bhai inner; j += 1; }"
+            + "    bol bhai outer;"
+            + "    i += 1;"
+            + "  }"
+            + "}";
+
+    assertEquals(
+        "o00\no01\no0\no10\no11\no1",
+        TestHelper.runAndCaptureOutput(source).trim().replace("\r", ""));
+  }
+}
@@ -0,0 +1,75 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Slice;
+import io.github.journeycodesayush.javabhailang.interpreter.Values;
+import io.github.journeycodesayush.javabhailang.lexer.Token;
+import io.github.journeycodesayush.javabhailang.lexer.TokenType;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class SliceTest {
+
+  private static final Token PLUS = new Token(TokenType.PLUS, "+", null, 1);
+
+  @Test
+  public void testSlicesOfSlicesShareTheirSource() {
+    String text = "hello bhai log";
+    CharSequence middle = Slice.of(text, 6, 14);
+    CharSequence inner = Slice.of(middle, 0, 4);
+
+    assertInstanceOf(Slice.class, inner);
+    assertEquals("bhai", Values.stringify(inner));
+    assertEquals("log", Values.stringify(middle.subSequence(5, 8)));
+    assertSame(text, Slice.of(text, 0, text.length()));
+    assertThrows(IndexOutOfBoundsException.class, () -> Slice.of(middle, 2, 9));
+  }
+
+  @Test
+  public void testSplitReturnsSlices() {
+    List<CharSequence> parts = Slice.split("a,bb,,ccc", ",");
+    List<CharSequence> nested = Slice.split(parts.get(3), "");
+    List<CharSequence> bounded = Slice.split(Slice.of("x-y-z", 0, 3), "-");
+
+    assertEquals(List.of("a", "bb", "", "ccc"), parts.stream().map(Object::toString).toList());
+    assertEquals(List.of("c", "c", "c"), nested.stream().map(Object::toString).toList());
+    assertEquals(List.of("x", "y"), bounded.stream().map(Object::toString).toList());
+  }
+
+  @Test
+  public void testSlicesBehaveLikeStrings() {
+    CharSequence slice = Slice.of("[bhai]", 1, 5);
+
+    assertTrue(Values.isEqual(slice, "bhai"));
+    assertTrue(Values.isEqual("bhai", slice));
+    assertFalse(Values.isEqual(slice, "bhau"));
+    assertTrue(Values.isTruthy(Slice.of("x", 0, 0)));
+    assertEquals("bhai".hashCode(), slice.hashCode());
+    assertEquals("bhai", Values.flatten(slice));
+
+    Map<Object, String> table = new HashMap<>();
+    table.put("bhai", "found");
+    assertEquals("found", table.get(slice));
+  }
+
+  @Test
+  public void testConcatenationReadsSlicesInPlace() {
+    CharSequence slice = Slice.of("--bhai--", 2, 6);
+    String long1 = "y".repeat(70);
+
+    assertEquals("bhai log", Values.binary(PLUS, slice, " log"));
+    assertEquals("2bhai", Values.binary(PLUS, 2.0, slice));
+    Object rope = Values.binary(PLUS, long1, slice);
+    assertEquals(long1 + "bhai", Values.stringify(rope));
+    assertEquals(long1 + "bhaibhai", Values.stringify(Values.binary(PLUS, rope, slice)));
+    assertTrue(Values.isEqual(Slice.of(Values.stringify(rope), 70, 74), slice));
+  }
+}
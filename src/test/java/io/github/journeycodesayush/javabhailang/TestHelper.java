@@ -1,7 +1,17 @@
 package io.github.journeycodesayush.javabhailang;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.journeycodesayush.javabhailang.lexer.Scanner;
+import io.github.journeycodesayush.javabhailang.optimizer.Optimizer;
 import io.github.journeycodesayush.javabhailang.output.*;
+import io.github.journeycodesayush.javabhailang.parser.Parser;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.lang.reflect.Method;
+import java.util.List;
 
 /** Utility class for running BhaiLang code in tests and capturing output. */
 public class TestHelper {
@@ -35,4 +45,121 @@ public class TestHelper {
 
     return output.toString().replace("\r\n", "\n").replace("\n", System.lineSeparator());
   }
+
+  /**
+   * Parses the given statements as a program.
+   *
+   * @param source the statements, without {@code hi bhai} and {@code bye bhai}
+   * @return the parsed statements
+   */
+  public static List<Stmt> parse(String source) {
+    return new Parser(new Scanner("hi bhai\n" + source + "\nbye bhai").scanTokens()).parse();
+  }
+
+  /**
+   * Parses, resolves and optimizes the given statements.
+   *
+   * @param source the statements, without {@code hi bhai} and {@code bye bhai}
+   * @return the optimized statements
+   */
+  public static List<Stmt> optimize(String source) {
+    List<Stmt> statements = parse(source);
+    Resolver resolver = new Resolver();
+    resolver.resolve(statements);
+    return new Optimizer().optimize(statements, resolver.getSymbols());
+  }
+
+  /**
+   * Executes the given source on one engine, with the optimizer on or off, and returns its output.
+   * The engine and optimizer settings are restored afterwards.
+   *
+   * @param engine the engine to run on
+   * @param optimize whether to run the optimizer
+   * @param source the BhaiLang code to execute
+   * @return the text printed by the interpreter during execution
+   */
+  public static String runWith(BhaiLang.Engine engine, boolean optimize, String source) {
+    BhaiLang.Engine originalEngine = BhaiLang.engine;
+    boolean originalOptimize = BhaiLang.optimize;
+    BhaiLang.engine = engine;
+    BhaiLang.optimize = optimize;
+    try {
+      return runAndCaptureOutput(source);
+    } finally {
+      BhaiLang.engine = originalEngine;
+      BhaiLang.optimize = originalOptimize;
+    }
+  }
+
+  /**
+   * Executes the given source with the optimizer off and returns its output.
+   *
+   * @param source the BhaiLang code to execute
+   * @return the text printed by the interpreter during execution
+   */
+  public static String runUnoptimized(String source) {
+    return runWith(BhaiLang.engine, false, source);
+  }
+
+  /**
+   * Executes the given source with lazily parsed blocks and returns its output.
+   *
+   * @param source the BhaiLang code to execute
+   * @return the text printed by the interpreter during execution
+   */
+  public static String runLazily(String source) {
+    return runLazily(BhaiLang.engine, source);
+  }
+
+  /**
+   * Executes the given source on one engine with lazily parsed blocks and returns its output.
+   *
+   * @param engine the engine to run on
+   * @param source the BhaiLang code to execute
+   * @return the text printed by the interpreter during execution
+   */
+  public static String runLazily(BhaiLang.Engine engine, String source) {
+    boolean originalLazyBlocks = BhaiLang.lazyBlocks;
+    BhaiLang.lazyBlocks = true;
+    try {
+      return runWith(engine, true, source);
+    } finally {
+      BhaiLang.lazyBlocks = originalLazyBlocks;
+    }
+  }
+
+  /**
+   * Executes the given source on one engine and returns the errors it reports.
+   *
+   * @param engine the engine to run on
+   * @param source the BhaiLang code to execute
+   * @return the reported errors without colors, with line separators normalized to {@code \n}
+   */
+  public static String runAndCaptureErrors(BhaiLang.Engine engine, String source) {
+    PrintStream originalOut = System.out;
+    ByteArrayOutputStream errors = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(errors, true));
+    try {
+      runWith(engine, true, source);
+    } finally {
+      System.setOut(originalOut);
+    }
+    return errors.toString().replaceAll("\u001B\\[[0-9;]*m", "").replace("\r", "");
+  }
+
+  /**
+   * Executes the given source on every engine, with the optimizer on and off, and checks that every
+   * run prints what the optimized tree-walking interpreter prints.
+   *
+   * @param source the BhaiLang code to execute
+   * @return the text printed, with line separators normalized to {@code \n}
+   */
+  public static String runEverywhere(String source) {
+    String expected = runWith(BhaiLang.Engine.AST, true, source);
+    for (BhaiLang.Engine engine : BhaiLang.Engine.values()) {
+      assertEquals(expected, runWith(engine, true, source), engine + " optimized");
+      assertEquals(expected, runWith(engine, false, source), engine + " plain");
+    }
+    return expected.replace("\r", "");
+  }
 }
@@ -0,0 +1,152 @@
+package io.github.journeycodesayush.javabhailang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.journeycodesayush.javabhailang.interpreter.Interpreter;
+import io.github.journeycodesayush.javabhailang.lexer.Scanner;
+import io.github.journeycodesayush.javabhailang.output.StringCollectingOutput;
+import io.github.journeycodesayush.javabhailang.parser.Parser;
+import io.github.journeycodesayush.javabhailang.parser.Stmt;
+import io.github.journeycodesayush.javabhailang.resolver.Resolver;
+import io.github.journeycodesayush.javabhailang.resolver.TypeInference;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+public class TypeInferenceTest {
+
+  private static Set<String> unboxed(String source, boolean lazy) {
+    Set<String> names = new TreeSet<>();
+    analyze(
+        source,
+        lazy,
+        new Interpreter(new StringCollectingOutput()) {
+          @Override
+          public void unbox(Stmt.Var stmt, int slot) {
+            names.add(stmt.name.getLexeme());
+          }
+        });
+    return names;
+  }
+
+  private static Set<String> integers(String source) {
+    Set<String> names = new TreeSet<>();
+    analyze(
+        source,
+        false,
+        new Interpreter(new StringCollectingOutput()) {
+          @Override
+          public void unboxInteger(Stmt.Var stmt, int slot) {
+            names.add(stmt.name.getLexeme());
+          }
+        });
+    return names;
+  }
+
+  private static void analyze(String source, boolean lazy, Interpreter interpreter) {
+    List<Stmt> statements =
+        new Parser(new Scanner("hi bhai\n" + source + "\nbye bhai").scanTokens(), lazy).parse();
+    Resolver resolver = new Resolver(interpreter);
+    resolver.resolve(statements);
+    if (lazy) {
+      // Lazy blocks are analyzed when the interpreter materializes them.
+      interpreter.interpret(statements);
+    } else {
+      new TypeInference(resolver.getSymbols(), interpreter).infer(statements);
+    }
+  }
+
+  @Test
+  public void testCountersAndAccumulatorsAreUnboxed() {
+    Set<String> names =
+        unboxed(
+            "{ bhai ye hai i = 0.0; bhai ye hai sum = 0.5;"
+                + " jab tak bhai (i < 10) { sum += i * 2; i += 1; } bol bhai sum; }",
+            false);
+
+    assertEquals(Set.of("i", "sum"), names);
+  }
+
+  @Test
+  public void testVariablesHoldingOtherValuesStayBoxed() {
+    Set<String> names =
+        unboxed(
+            "bhai ye hai g = 1;"
+                + "{ bhai ye hai a = 1.5; bhai ye hai b = 2.5; bhai ye hai c = g; bhai ye hai d;"
+                + "  bhai ye hai e = 1.5; bhai ye hai f = 1 > 0;"
+                + "  a = 'text'; e = e + b; }",
+            false);
+
+    assertEquals(Set.of("b", "e"), names);
+  }
+
+  @Test
+  public void testIntegersGetIntegerSlots() {
+    String source =
+        "{ bhai ye hai n = 1; n = n + 1; bhai ye hai half = 1 / 2; bhai ye hai m = -0;"
+            + "  bhai ye hai x = 0.5 + n; bhai ye hai y = 0.5 * 2; bhai ye hai z = -y;"
+            + "  bhai ye hai big = 0.5 + 9007199254740993; bhai ye hai k = n * 3 - (2 + n); }";
+
+    assertEquals(Set.of("half", "y", "z"), unboxed(source, false));
+    assertEquals(Set.of("k", "n"), integers(source));
+  }
+
+  @Test
+  public void testIntegerArithmeticThatOverflowsMatchesBoxedOutput() {
+    String source =
+        "{ bhai ye hai s = 9223372036854775807; bhai ye hai i = 0;"
+            + "  jab tak bhai (i < 3) { s += i; i += 1; }"
+            + "  bhai ye hai p = 3037000500; p = p * p;"
+            + "  bhai ye hai a = 0; bhai ye hai b = 0 - 1; bhai ye hai c = a * b;"
+            + "  bol bhai s, p, c, s > i, p == s, c == a;"
+            + "  s = 1; c = c + 1;"
+            + "  bol bhai s, c, s + c, s == c; }";
+
+    assertEquals(Set.of("a", "b", "c", "i", "p", "s"), integers(source));
+    assertEquals(TestHelper.runUnoptimized(source), TestHelper.runEverywhere(source));
+  }
+
+  @Test
+  public void testDependenciesAreRuledOutTransitively() {
+    Set<String> names =
+        unboxed(
+            "{ bhai ye hai a = 1; bhai ye hai b = 2; bhai ye hai c = 3;"
+                + "  a = b + 1; b = c * 2; c = nalla; }",
+            false);
+
+    assertEquals(Set.of(), names);
+    assertEquals(
+        Set.of(),
+        integers(
+            "{ bhai ye hai a = 1; bhai ye hai b = 2; bhai ye hai c = 3;"
+                + "  a = b + 1; b = c * 2; c = nalla; }"));
+  }
+
+  @Test
+  public void testVariablesUsedByLazyBlocksStayBoxed() {
+    Set<String> names =
+        unboxed("{ bhai ye hai a = 1.5; bhai ye hai b = 2.5; b += 1; { a = 'x'; } }", true);
+
+    assertEquals(Set.of("b"), names);
+  }
+
+  @Test
+  public void testUnboxedArithmeticMatchesBoxedOutput() {
+    TestHelper.runEverywhere(
+        "{"
+            + "  bhai ye hai i = 0.0;"
+            + "  bhai ye hai zero = 0.0;"
+            + "  bhai ye hai negative = -0.0;"
+            + "  bhai ye hai total = 0;"
+            + "  jab tak bhai (i < 5) {"
+            + "    bhai ye hai step = i / 2;"
+            + "    { total = total + step * (i - 1); }"
+            + "    i += 1;"
+            + "  }"
+            + "  bol bhai i, total, total / zero, -total / zero, zero / zero;"
+            + "  bol bhai zero == negative, zero != negative, i >= 5, i <= 4, zero / zero == zero / zero;"
+            + "  bol bhai 'total: ' + total, total == 'x';"
+            + "}");
+  }
+}